@@ -60,6 +60,20 @@ public interface DataAnalysisStore
         Collection<CategoryOptionCombo> categoryOptionCombos,
         Collection<String> parentPaths, Date from );
 
+    /**
+     * Returns the average and standard deviation measures of all DataValues
+     * registered for a given data element, set of category option combos, and
+     * organisation unit parents, based on the maintained data value statistics
+     * rather than on the data values themselves.
+     *
+     * @param dataElement the DataElement.
+     * @param categoryOptionCombos the CategoryOptionCombos.
+     * @param parentPaths the parent OrganisationUnits' paths.
+     * @return a list of {@link DataAnalysisMeasures}.
+     */
+    List<DataAnalysisMeasures> getDataAnalysisMeasures( DataElement dataElement,
+        Collection<CategoryOptionCombo> categoryOptionCombos, Collection<String> parentPaths );
+
     /**
      * Generates a collection of data value violations of min-max predefined
      * values.
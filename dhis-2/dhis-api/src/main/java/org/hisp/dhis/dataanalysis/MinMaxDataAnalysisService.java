@@ -31,6 +31,7 @@ import java.util.Collection;
 
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.scheduling.JobProgress;
 
 public interface MinMaxDataAnalysisService
     extends DataAnalysisService
@@ -44,4 +45,20 @@ public interface MinMaxDataAnalysisService
      */
     void generateMinMaxValues( OrganisationUnit parent,
         Collection<DataElement> dataElements, Double stdDevFactor );
+
+    /**
+     * Generate min-max values with the data elements spread over the given
+     * number of concurrent workers, each writing through its own batch
+     * handler. Progress is reported as stages of the given job progress, and
+     * no further data elements are processed once cancellation is requested.
+     *
+     * @param parent the parent organisation unit.
+     * @param dataElements the data elements.
+     * @param stdDevFactor the std dev factor.
+     * @param parallelism the max number of concurrent workers.
+     * @param progress the job progress to report to.
+     * @return true if min-max values were generated for all data elements.
+     */
+    boolean generateMinMaxValues( OrganisationUnit parent,
+        Collection<DataElement> dataElements, Double stdDevFactor, int parallelism, JobProgress progress );
 }
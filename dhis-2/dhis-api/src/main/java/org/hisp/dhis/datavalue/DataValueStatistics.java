@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datavalue;
+
+import lombok.Getter;
+
+/**
+ * Running statistics of the numeric data values for a given combination of data
+ * element, organisation unit, category option combo and attribute option combo.
+ * The mean and the sum of squared deviations from the mean (M2) are maintained
+ * with Welford's algorithm, so that values can be added one at a time without
+ * revisiting the values seen before.
+ * <p>
+ * A statistics object may also represent a change to be merged into stored
+ * statistics, in which case a negative count denotes removed values.
+ */
+@Getter
+public class DataValueStatistics
+{
+    private final long dataElementId;
+
+    private final long orgUnitId;
+
+    private final long categoryOptionComboId;
+
+    private final long attributeOptionComboId;
+
+    private long count;
+
+    private double mean;
+
+    private double m2;
+
+    // -------------------------------------------------------------------------
+    // Constructors
+    // -------------------------------------------------------------------------
+
+    public DataValueStatistics( long dataElementId, long orgUnitId, long categoryOptionComboId,
+        long attributeOptionComboId )
+    {
+        this.dataElementId = dataElementId;
+        this.orgUnitId = orgUnitId;
+        this.categoryOptionComboId = categoryOptionComboId;
+        this.attributeOptionComboId = attributeOptionComboId;
+    }
+
+    public DataValueStatistics( long dataElementId, long orgUnitId, long categoryOptionComboId,
+        long attributeOptionComboId, long count, double mean, double m2 )
+    {
+        this( dataElementId, orgUnitId, categoryOptionComboId, attributeOptionComboId );
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+    }
+
+    // -------------------------------------------------------------------------
+    // Logic
+    // -------------------------------------------------------------------------
+
+    /**
+     * Adds a value to the statistics.
+     *
+     * @param value the value.
+     */
+    public void add( double value )
+    {
+        count++;
+
+        double delta = value - mean;
+
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    /**
+     * Merges the given statistics into these statistics. The given statistics
+     * may have a negative count, in which case its values are removed.
+     *
+     * @param other the statistics to merge.
+     */
+    public void merge( DataValueStatistics other )
+    {
+        merge( other.count, other.mean, other.m2 );
+    }
+
+    /**
+     * Merges the given count, mean and M2 into these statistics using the
+     * pairwise update of Chan et al. A negative count removes values.
+     *
+     * @param otherCount the count, negative for removed values.
+     * @param otherMean the mean of the values.
+     * @param otherM2 the M2 of the values, negative for removed values.
+     */
+    public void merge( long otherCount, double otherMean, double otherM2 )
+    {
+        long total = count + otherCount;
+
+        if ( total <= 0 )
+        {
+            count = 0;
+            mean = 0d;
+            m2 = 0d;
+            return;
+        }
+
+        double delta = otherMean - mean;
+
+        m2 = Math.max( 0d, m2 + otherM2 + delta * delta * count * otherCount / total );
+        mean += delta * otherCount / total;
+        count = total;
+    }
+
+    /**
+     * Returns these statistics with a negated count and M2, which represents
+     * the removal of the values when merged into other statistics.
+     */
+    public DataValueStatistics negate()
+    {
+        return new DataValueStatistics( dataElementId, orgUnitId, categoryOptionComboId, attributeOptionComboId,
+            -count, mean, -m2 );
+    }
+
+    /**
+     * Returns the population variance, or 0 if there are no values.
+     */
+    public double getVariance()
+    {
+        return count > 0 ? m2 / count : 0d;
+    }
+
+    /**
+     * Returns the population standard deviation, or 0 if there are no values.
+     */
+    public double getStandardDeviation()
+    {
+        return Math.sqrt( getVariance() );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "[de: " + dataElementId + ", ou: " + orgUnitId + ", coc: " + categoryOptionComboId +
+            ", aoc: " + attributeOptionComboId + ", count: " + count + ", mean: " + mean + ", m2: " + m2 + "]";
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datavalue;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects the numeric data values added and removed by a write operation, so
+ * that the maintained {@link DataValueStatistics} can be updated in one batch
+ * through {@link DataValueStatisticsStore#updateStatistics}.
+ * <p>
+ * Non-numeric data elements and values which cannot be parsed as numbers are
+ * ignored. This class is not thread-safe.
+ */
+public class DataValueStatisticsChanges
+{
+    private final Map<String, DataValueStatistics> additions = new HashMap<>();
+
+    private final Map<String, DataValueStatistics> removals = new HashMap<>();
+
+    /**
+     * Records the value of the given data value as added.
+     *
+     * @param dataValue the data value.
+     */
+    public void add( DataValue dataValue )
+    {
+        record( additions, dataValue, dataValue.getValue() );
+    }
+
+    /**
+     * Records the given previous value of the given data value as removed.
+     *
+     * @param dataValue the data value.
+     * @param value the value which was previously stored.
+     */
+    public void remove( DataValue dataValue, String value )
+    {
+        record( removals, dataValue, value );
+    }
+
+    /**
+     * Records the previous value of the given data value as removed and its
+     * current value as added.
+     *
+     * @param dataValue the data value.
+     * @param previousValue the value which was previously stored.
+     */
+    public void replace( DataValue dataValue, String previousValue )
+    {
+        remove( dataValue, previousValue );
+        add( dataValue );
+    }
+
+    public Collection<DataValueStatistics> getAdditions()
+    {
+        return additions.values();
+    }
+
+    public Collection<DataValueStatistics> getRemovals()
+    {
+        return removals.values();
+    }
+
+    public boolean isEmpty()
+    {
+        return additions.isEmpty() && removals.isEmpty();
+    }
+
+    public void clear()
+    {
+        additions.clear();
+        removals.clear();
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void record( Map<String, DataValueStatistics> statistics, DataValue dataValue, String value )
+    {
+        Double number = getNumber( dataValue, value );
+
+        if ( number == null )
+        {
+            return;
+        }
+
+        long de = dataValue.getDataElement().getId();
+        long ou = dataValue.getSource().getId();
+        long coc = dataValue.getCategoryOptionCombo().getId();
+        long aoc = dataValue.getAttributeOptionCombo().getId();
+
+        statistics.computeIfAbsent( de + "-" + ou + "-" + coc + "-" + aoc,
+            key -> new DataValueStatistics( de, ou, coc, aoc ) ).add( number );
+    }
+
+    private static Double getNumber( DataValue dataValue, String value )
+    {
+        if ( value == null || dataValue.getDataElement() == null
+            || dataValue.getDataElement().getValueType() == null
+            || !dataValue.getDataElement().getValueType().isNumeric()
+            || dataValue.getSource() == null || dataValue.getCategoryOptionCombo() == null
+            || dataValue.getAttributeOptionCombo() == null )
+        {
+            return null;
+        }
+
+        try
+        {
+            double number = Double.parseDouble( value.trim() );
+
+            return Double.isFinite( number ) ? number : null;
+        }
+        catch ( NumberFormatException ex )
+        {
+            return null;
+        }
+    }
+}
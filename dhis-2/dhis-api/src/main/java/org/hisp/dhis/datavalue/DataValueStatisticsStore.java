@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datavalue;
+
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+
+/**
+ * Store for the incrementally maintained statistics of numeric data values,
+ * which lets outlier detection and min-max generation read the mean and
+ * standard deviation without aggregating the full data value history.
+ */
+public interface DataValueStatisticsStore
+{
+    /**
+     * Indicates whether statistics are maintained. When not, updates are
+     * ignored and readers must aggregate the data values instead.
+     *
+     * @return true if statistics are maintained.
+     */
+    boolean isEnabled();
+
+    /**
+     * Merges the given additions and removals into the stored statistics.
+     *
+     * @param changes the {@link DataValueStatisticsChanges}.
+     */
+    void updateStatistics( DataValueStatisticsChanges changes );
+
+    /**
+     * Deletes the statistics for the given data element.
+     *
+     * @param dataElement the data element.
+     */
+    void deleteStatistics( DataElement dataElement );
+
+    /**
+     * Deletes the statistics for the given organisation unit.
+     *
+     * @param organisationUnit the organisation unit.
+     */
+    void deleteStatistics( OrganisationUnit organisationUnit );
+}
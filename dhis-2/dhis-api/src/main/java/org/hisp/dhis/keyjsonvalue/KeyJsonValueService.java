@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.keyjsonvalue;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.function.Function;
@@ -111,6 +112,75 @@ public interface KeyJsonValueService
      */
     KeyJsonValue getKeyJsonValue( String namespace, String key );
 
+    /**
+     * Retrieves a read-only, versioned snapshot of a KeyJsonValue based on a
+     * namespace and key. Snapshots are served from a read cache unless the
+     * entry is encrypted or the namespace is protected with sharing.
+     *
+     * @param namespace the namespace where the key is associated.
+     * @param key the key referencing the value.
+     * @return the snapshot of the KeyJsonValue or null if it does not exist.
+     * @throws AccessDeniedException when user lacks authority for namespace
+     */
+    VersionedKeyJsonValue getVersionedKeyJsonValue( String namespace, String key );
+
+    /**
+     * Retrieves the KeyJsonValues for the given keys in a namespace.
+     *
+     * @param namespace the namespace where the keys are associated.
+     * @param keys the keys referencing the values.
+     * @return the KeyJsonValues found, keys without a value or which the
+     *         current user can not read are skipped.
+     * @throws AccessDeniedException when user lacks authority for namespace
+     */
+    List<KeyJsonValue> getKeyJsonValues( String namespace, Collection<String> keys );
+
+    /**
+     * Adds or updates many entries of a namespace in one batch. Entries with
+     * a key that already exists in the namespace are updated, all others are
+     * added.
+     *
+     * @param namespace the namespace of all entries.
+     * @param entries the entries to add or update.
+     * @throws IllegalArgumentException when an entry value is not valid JSON
+     *         or an entry does not belong to the namespace
+     * @throws AccessDeniedException when user lacks authority for namespace or
+     *         any of the existing entries
+     */
+    void saveOrUpdateKeyJsonValues( String namespace, List<KeyJsonValue> entries );
+
+    /**
+     * Deletes many entries of a namespace in one batch.
+     *
+     * @param namespace the namespace of the keys.
+     * @param keys the keys to delete.
+     * @throws AccessDeniedException when user lacks authority for namespace or
+     *         any of the entries
+     */
+    void deleteKeyJsonValues( String namespace, Collection<String> keys );
+
+    /**
+     * Adds an index on a JSON path for the entries of a namespace so that
+     * queries extracting the path (see {@link KeyJsonValueQuery#getFields()})
+     * do not have to scan the namespace.
+     *
+     * @param namespace the namespace to index.
+     * @param path the dot separated JSON path.
+     * @throws org.hisp.dhis.common.IllegalQueryException when the path is not
+     *         valid
+     */
+    void addNamespaceIndex( String namespace, String path );
+
+    /**
+     * Removes the index on a JSON path for the entries of a namespace.
+     *
+     * @param namespace the indexed namespace.
+     * @param path the dot separated JSON path.
+     * @throws org.hisp.dhis.common.IllegalQueryException when the path is not
+     *         valid
+     */
+    void removeNamespaceIndex( String namespace, String path );
+
     /**
      * Adds a new entry.
      *
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.keyjsonvalue;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.function.Function;
@@ -99,6 +100,57 @@ public interface KeyJsonValueStore
      */
     KeyJsonValue getKeyJsonValue( String namespace, String key );
 
+    /**
+     * Retrieves the KeyJsonValues for the given keys in the given namespace
+     * with a single query.
+     *
+     * @param namespace the namespace where the keys are stored
+     * @param keys the keys referencing the values
+     * @return the KeyJsonValues found, keys without a value are skipped
+     */
+    List<KeyJsonValue> getKeyJsonValues( String namespace, Collection<String> keys );
+
+    /**
+     * Saves new and updates existing KeyJsonValues using JDBC batching, so
+     * that all inserts and all updates are each sent to the database as a
+     * single batched statement.
+     *
+     * @param entries the entries to save or update
+     */
+    void saveOrUpdateKeyJsonValues( Collection<KeyJsonValue> entries );
+
+    /**
+     * Deletes the values for the given keys in the provided namespace with a
+     * single statement.
+     *
+     * @param namespace the namespace where the keys are stored
+     * @param keys the keys to delete
+     * @return the number of deleted values
+     */
+    int deleteKeyJsonValues( String namespace, Collection<String> keys );
+
+    /**
+     * Creates an expression index on the given JSON path for the values in
+     * the given namespace, unless it already exists. The index is used by
+     * {@link #getEntries(KeyJsonValueQuery, Function)} when the path is one of
+     * the query fields.
+     *
+     * @param namespace the namespace to index
+     * @param path the dot separated JSON path, see
+     *        {@link KeyJsonValueQuery.Field}
+     */
+    void addNamespaceIndex( String namespace, String path );
+
+    /**
+     * Drops the expression index on the given JSON path for the values in the
+     * given namespace, if it exists.
+     *
+     * @param namespace the indexed namespace
+     * @param path the dot separated JSON path, see
+     *        {@link KeyJsonValueQuery.Field}
+     */
+    void removeNamespaceIndex( String namespace, String path );
+
     /**
      * Deletes all values in the provided namespace.
      *
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.keyjsonvalue;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Immutable snapshot of a {@link KeyJsonValue} as it is kept in the read cache.
+ *
+ * The version identifies the state of the value and is used as ETag for
+ * conditional requests. It changes whenever the value or the last updated
+ * timestamp of the entry changes.
+ */
+@Value
+@AllArgsConstructor( access = AccessLevel.PRIVATE )
+public class VersionedKeyJsonValue implements Serializable
+{
+    String namespace;
+
+    String key;
+
+    /**
+     * The JSON value
+     */
+    String value;
+
+    Date lastUpdated;
+
+    String version;
+
+    public static VersionedKeyJsonValue of( KeyJsonValue entry )
+    {
+        String value = entry.getValue();
+        Date lastUpdated = entry.getLastUpdated();
+        long timestamp = lastUpdated == null ? 0L : lastUpdated.getTime();
+        String version = Long.toHexString( timestamp ) + "-"
+            + Integer.toHexString( value == null ? 0 : value.hashCode() );
+        return new VersionedKeyJsonValue( entry.getNamespace(), entry.getKey(), value, lastUpdated, version );
+    }
+
+    /**
+     * @param namespace a namespace
+     * @param key a key
+     * @return true, if this is the value of the given key in the given
+     *         namespace
+     */
+    public boolean isEntryOf( String namespace, String key )
+    {
+        return this.namespace.equals( namespace ) && this.key.equals( key );
+    }
+}
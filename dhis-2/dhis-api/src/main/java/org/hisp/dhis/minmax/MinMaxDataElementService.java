@@ -62,5 +62,14 @@ public interface MinMaxDataElementService
 
     void removeMinMaxDataElements( CategoryOptionCombo optionCombo );
 
+    /**
+     * Removes the min-max values of the given data elements for the given
+     * parent and its descendants. The removal is committed in a transaction of
+     * its own, as the regenerated values are written through separate JDBC
+     * connections which would otherwise wait for the uncommitted removal.
+     *
+     * @param dataElements the data elements.
+     * @param parent the parent organisation unit.
+     */
     void removeMinMaxDataElements( Collection<DataElement> dataElements, OrganisationUnit parent );
 }
@@ -70,6 +70,12 @@ public class PreheatParams
      */
     private Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> objects = new HashMap<>();
 
+    /**
+     * Load the uniqueness values of independent classes concurrently, in
+     * separate read-only sessions.
+     */
+    private boolean parallel;
+
     public PreheatParams()
     {
     }
@@ -127,6 +133,17 @@ public class PreheatParams
         this.objects = objects;
     }
 
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+
+    public PreheatParams setParallel( boolean parallel )
+    {
+        this.parallel = parallel;
+        return this;
+    }
+
     @SuppressWarnings( "unchecked" )
     public PreheatParams addObject( IdentifiableObject object )
     {
@@ -149,6 +166,7 @@ public class PreheatParams
             .add( "preheatMode", preheatMode )
             .add( "preheatIdentifier", preheatIdentifier )
             .add( "classes", classes )
+            .add( "parallel", parallel )
             .add( "objects", objects )
             .toString();
     }
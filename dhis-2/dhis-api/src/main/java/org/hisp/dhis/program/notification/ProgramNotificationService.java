@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.program.notification;
 
+import java.util.Collection;
 import java.util.Date;
 
 import org.hisp.dhis.program.ProgramInstance;
@@ -112,4 +113,24 @@ public interface ProgramNotificationService
      * @param programInstance the ProgramInstance id.
      */
     void sendEnrollmentNotifications( long programInstance );
+
+    /**
+     * Send completion notifications for the given ProgramStageInstances as one
+     * batch. The instances are grouped by {@link ProgramNotificationTemplate}
+     * so that each template is resolved once, and all resulting messages are
+     * dispatched together.
+     *
+     * @param programStageInstances the ProgramStageInstance ids.
+     */
+    void sendEventCompletionNotifications( Collection<Long> programStageInstances );
+
+    /**
+     * Send enrollment notifications for the given ProgramInstances as one
+     * batch. The instances are grouped by {@link ProgramNotificationTemplate}
+     * so that each template is resolved once, and all resulting messages are
+     * dispatched together.
+     *
+     * @param programInstances the ProgramInstance ids.
+     */
+    void sendEnrollmentNotifications( Collection<Long> programInstances );
 }
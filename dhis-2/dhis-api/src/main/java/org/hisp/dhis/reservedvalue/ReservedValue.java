@@ -73,6 +73,12 @@ public class ReservedValue
 
     private Date expiryDate;
 
+    /**
+     * Whether the value is pre-generated and waiting in the pool of its owner
+     * and key, rather than handed out as a reservation.
+     */
+    private boolean pooled;
+
     private transient long trackedEntityAttributeId;
 
     public int getId()
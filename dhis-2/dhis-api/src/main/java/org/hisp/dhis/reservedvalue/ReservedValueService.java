@@ -53,4 +53,16 @@ public interface ReservedValueService
     void deleteReservedValueByUid( String uid );
 
     void removeUsedOrExpiredReservations();
+
+    /**
+     * Tops up the reserved value pools of the given generated attribute with
+     * pre-generated, uniqueness checked values. Only keys which currently hold
+     * reservations are replenished, and only once their pool has dropped to
+     * half of the given pool size.
+     *
+     * @param trackedEntityAttribute the generated attribute.
+     * @param poolSize the number of values to keep in each pool.
+     * @return the number of values added to the pools.
+     */
+    int replenishPools( TrackedEntityAttribute trackedEntityAttribute, int poolSize );
 }
@@ -28,6 +28,7 @@
 package org.hisp.dhis.reservedvalue;
 
 import java.util.List;
+import java.util.Map;
 
 import org.hisp.dhis.common.GenericStore;
 
@@ -55,4 +56,18 @@ public interface ReservedValueStore
     boolean isReserved( String ownerObject, String ownerUID, String value );
 
     void removeUsedOrExpiredReservations();
+
+    /**
+     * Counts the pooled values per key of the given owner, for the keys which
+     * currently hold at least one handed out reservation.
+     */
+    Map<String, Integer> getPooledValueCounts( String ownerObject, String ownerUid );
+
+    /**
+     * Hands out up to the given number of pooled values for the owner and key
+     * of the given reserved value with a single update, skipping values which
+     * are already in use. The values take the creation and expiry date of the
+     * given reserved value.
+     */
+    List<ReservedValue> takePooledValues( ReservedValue reservedValue, int numberOfValues );
 }
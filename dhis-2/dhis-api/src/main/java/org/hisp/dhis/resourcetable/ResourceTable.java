@@ -27,8 +27,10 @@
  */
 package org.hisp.dhis.resourcetable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.common.CodeGenerator;
 
@@ -102,6 +104,52 @@ public abstract class ResourceTable<T>
         return CodeGenerator.generateCode( 5 );
     }
 
+    /**
+     * Provides a SQL select statement returning the row count and the max last
+     * updated timestamp of the given metadata tables, and the given join table
+     * watermarks, as a single row.
+     *
+     * @param metadataTables the metadata tables with a lastupdated column.
+     * @param joinTableWatermarks the watermarks of join tables without a
+     *        lastupdated column, see
+     *        {@link #getJoinTableWatermark(String, String, String)}.
+     * @return a SQL select statement.
+     */
+    protected static String getWatermarkStatement( List<String> metadataTables, List<String> joinTableWatermarks )
+    {
+        List<String> columns = new ArrayList<>();
+
+        for ( String table : metadataTables )
+        {
+            columns.add( "(select count(*) from " + table + ")" );
+            columns.add( "(select max(lastupdated) from " + table + ")" );
+        }
+
+        columns.addAll( joinTableWatermarks );
+
+        return "select " + String.join( ", ", columns );
+    }
+
+    /**
+     * Provides a SQL sub-query returning a single value which reflects the
+     * rows of the given join table. Besides the row count it covers the min,
+     * max and sum of both identifier columns and the sum of their products,
+     * so that a change of members which keeps the row count, like swapping
+     * the members of two groups, changes the value as well.
+     *
+     * @param table the join table.
+     * @param ownerColumn the identifier column of the owner, like the group.
+     * @param memberColumn the identifier column of the member.
+     * @return a SQL sub-query.
+     */
+    protected static String getJoinTableWatermark( String table, String ownerColumn, String memberColumn )
+    {
+        return "(select concat(count(*), ':', " +
+            "min(" + ownerColumn + "), ':', max(" + ownerColumn + "), ':', sum(" + ownerColumn + "), ':', " +
+            "min(" + memberColumn + "), ':', max(" + memberColumn + "), ':', sum(" + memberColumn + "), ':', " +
+            "sum(cast(" + ownerColumn + " as bigint) * " + memberColumn + ")) from " + table + ")";
+    }
+
     // -------------------------------------------------------------------------
     // Abstract methods
     // -------------------------------------------------------------------------
@@ -136,6 +184,35 @@ public abstract class ResourceTable<T>
      */
     public abstract Optional<List<Object[]>> getPopulateTempTableContent();
 
+    /**
+     * Provides content for the temporary resource table as a stream of object
+     * arrays. Tables with large content should override this method to
+     * generate rows as they are consumed, rather than holding all rows in
+     * memory. Defaults to the content of
+     * {@link #getPopulateTempTableContent()}.
+     *
+     * @return content for the temporary resource table.
+     */
+    public Optional<Stream<Object[]>> getPopulateTempTableRows()
+    {
+        return getPopulateTempTableContent().map( List::stream );
+    }
+
+    /**
+     * Provides a SQL select statement returning a single row which reflects
+     * the state of the metadata the resource table is generated from,
+     * typically row counts and last updated timestamps of the source tables.
+     * The resource table is only regenerated when the result of this
+     * statement or the table definition changed since the previous generation.
+     * Defaults to empty, meaning the table is always regenerated.
+     *
+     * @return a SQL select statement.
+     */
+    public Optional<String> getSourceWatermarkStatement()
+    {
+        return Optional.empty();
+    }
+
     /**
      * Returns SQL create index statements for the temporary table. Note that
      * the indexes name must have a random component to avoid uniqueness
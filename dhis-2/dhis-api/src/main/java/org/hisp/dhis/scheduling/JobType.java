@@ -77,8 +77,11 @@ public enum JobType
         "attributes", "/api/trackedEntityAttributes/indexable" ) ),
     PREDICTOR( true, SchedulingType.CRON, PredictorJobParameters.class, ImmutableMap.of(
         "predictors", "/api/predictors", "predictorGroups", "/api/predictorGroups" ) ),
+    MIN_MAX_VALUE_GENERATION( true, SchedulingType.CRON, MinMaxValueGenerationJobParameters.class,
+        ImmutableMap.of( "dataSets", "/api/dataSets", "organisationUnits", "/api/organisationUnits" ) ),
     DATA_SET_NOTIFICATION( false ),
     REMOVE_USED_OR_EXPIRED_RESERVED_VALUES( false ),
+    REPLENISH_RESERVED_VALUE_POOLS( true ),
     TRACKER_IMPORT_JOB( false ),
     TRACKER_IMPORT_NOTIFICATION_JOB( false ),
     TRACKER_IMPORT_RULE_ENGINE_JOB( false ),
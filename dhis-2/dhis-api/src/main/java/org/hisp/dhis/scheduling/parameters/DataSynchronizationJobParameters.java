@@ -53,8 +53,20 @@ public class DataSynchronizationJobParameters implements JobParameters
 
     public static final int PAGE_SIZE_MAX = 30000;
 
+    static final int PAGES_IN_FLIGHT_MIN = 1;
+
+    static final int PAGES_IN_FLIGHT_MAX = 10;
+
     private int pageSize = 10000;
 
+    /**
+     * Whether to page by keyset, upload compressed pages concurrently and
+     * resume failed runs from the last uploaded page.
+     */
+    private boolean keysetPaging = false;
+
+    private int maxPagesInFlight = 2;
+
     @JsonProperty
     @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
     public int getPageSize()
@@ -67,6 +79,30 @@ public class DataSynchronizationJobParameters implements JobParameters
         this.pageSize = pageSize;
     }
 
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public boolean isKeysetPaging()
+    {
+        return keysetPaging;
+    }
+
+    public void setKeysetPaging( final boolean keysetPaging )
+    {
+        this.keysetPaging = keysetPaging;
+    }
+
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public int getMaxPagesInFlight()
+    {
+        return maxPagesInFlight;
+    }
+
+    public void setMaxPagesInFlight( final int maxPagesInFlight )
+    {
+        this.maxPagesInFlight = maxPagesInFlight;
+    }
+
     @Override
     public Optional<ErrorReport> validate()
     {
@@ -82,6 +118,18 @@ public class DataSynchronizationJobParameters implements JobParameters
                     pageSize ) );
         }
 
+        if ( maxPagesInFlight < PAGES_IN_FLIGHT_MIN || maxPagesInFlight > PAGES_IN_FLIGHT_MAX )
+        {
+            return Optional.of(
+                new ErrorReport(
+                    this.getClass(),
+                    ErrorCode.E4008,
+                    "maxPagesInFlight",
+                    PAGES_IN_FLIGHT_MIN,
+                    PAGES_IN_FLIGHT_MAX,
+                    maxPagesInFlight ) );
+        }
+
         return Optional.empty();
     }
 }
@@ -61,6 +61,18 @@ public class TrackerTrigramIndexJobParameters
 
     private boolean skipIndexDeletion = false;
 
+    /**
+     * Whether to create indexes for all indexable attributes, that is all
+     * searchable and unique attributes, rather than only the given attributes.
+     */
+    private boolean indexAllAttributes = false;
+
+    /**
+     * Whether to rebuild existing indexes, to reclaim space of index entries
+     * left behind by updated and deleted attribute values.
+     */
+    private boolean rebuildIndexes = false;
+
     @JsonProperty
     @JacksonXmlElementWrapper( localName = "attributes", namespace = DxfNamespaces.DXF_2_0 )
     @JacksonXmlProperty( localName = "attributes", namespace = DxfNamespaces.DXF_2_0 )
@@ -87,6 +99,30 @@ public class TrackerTrigramIndexJobParameters
         this.skipIndexDeletion = skipIndexDeletion;
     }
 
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public boolean isIndexAllAttributes()
+    {
+        return indexAllAttributes;
+    }
+
+    public void setIndexAllAttributes( boolean indexAllAttributes )
+    {
+        this.indexAllAttributes = indexAllAttributes;
+    }
+
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public boolean isRebuildIndexes()
+    {
+        return rebuildIndexes;
+    }
+
+    public void setRebuildIndexes( boolean rebuildIndexes )
+    {
+        this.rebuildIndexes = rebuildIndexes;
+    }
+
     @Override
     public Optional<ErrorReport> validate()
     {
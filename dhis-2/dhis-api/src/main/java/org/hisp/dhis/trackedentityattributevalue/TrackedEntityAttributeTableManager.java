@@ -43,5 +43,13 @@ public interface TrackedEntityAttributeTableManager
 
     void dropTrigramIndex( Long trackedEntityAttributeId );
 
+    /**
+     * Rebuilds the trigram index of the given attribute without blocking
+     * writes to the attribute value table.
+     *
+     * @param trackedEntityAttributeId the attribute id.
+     */
+    void rebuildTrigramIndex( Long trackedEntityAttributeId );
+
     List<Long> getAttributeIdsWithTrigramIndexCreated();
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import lombok.Value;
+
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+
+/**
+ * The part of a user which decides what the analytics behind a rendered chart,
+ * map or pivot table look like. Users with equal scopes see identical
+ * analytics, so rendered output can be shared between them. User groups are
+ * included as they decide data read sharing, and locales as they decide the
+ * language of labels.
+ */
+@Value
+public class UserAnalyticsScope
+{
+    /**
+     * The organisation unit used as user organisation unit for pivot tables.
+     */
+    String organisationUnit;
+
+    Set<String> organisationUnits;
+
+    Set<String> dataViewOrganisationUnits;
+
+    Set<String> userRoles;
+
+    Set<String> dimensionConstraints;
+
+    Set<String> userGroups;
+
+    String uiLocale;
+
+    String dbLocale;
+
+    /**
+     * Returns the scope of the given user without locales, for output which
+     * is rendered in the same language for all users.
+     *
+     * @param user the user.
+     * @return a {@link UserAnalyticsScope}.
+     */
+    public static UserAnalyticsScope of( User user )
+    {
+        return of( user, null, null );
+    }
+
+    /**
+     * Returns the scope of the given user, rendered with the given locales.
+     *
+     * @param user the user.
+     * @param uiLocale the UI locale, can be null.
+     * @param dbLocale the database locale, can be null.
+     * @return a {@link UserAnalyticsScope}.
+     */
+    public static UserAnalyticsScope of( User user, Locale uiLocale, Locale dbLocale )
+    {
+        OrganisationUnit organisationUnit = user.getOrganisationUnit();
+        UserCredentials credentials = user.getUserCredentials();
+
+        Set<String> dimensionConstraints = new HashSet<>();
+
+        if ( credentials != null )
+        {
+            dimensionConstraints.addAll( getUids( credentials.getCatDimensionConstraints() ) );
+            dimensionConstraints.addAll( getUids( credentials.getCogsDimensionConstraints() ) );
+        }
+
+        return new UserAnalyticsScope(
+            organisationUnit != null ? organisationUnit.getUid() : null,
+            getUids( user.getOrganisationUnits() ),
+            getUids( user.getDataViewOrganisationUnitsWithFallback() ),
+            credentials != null ? getUids( credentials.getUserAuthorityGroups() ) : Collections.emptySet(),
+            dimensionConstraints,
+            getUids( user.getGroups() ),
+            uiLocale != null ? uiLocale.toString() : null,
+            dbLocale != null ? dbLocale.toString() : null );
+    }
+
+    private static Set<String> getUids( Collection<? extends IdentifiableObject> objects )
+    {
+        Set<String> uids = new HashSet<>();
+
+        if ( objects != null )
+        {
+            objects.forEach( object -> uids.add( object.getUid() ) );
+        }
+
+        return uids;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datavalue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.junit.jupiter.api.Test;
+
+class DataValueStatisticsTest
+{
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void testAdd()
+    {
+        DataValueStatistics stats = new DataValueStatistics( 1, 2, 3, 4 );
+        stats.add( 2 );
+        stats.add( 4 );
+        stats.add( 4 );
+        stats.add( 4 );
+        stats.add( 5 );
+        stats.add( 5 );
+        stats.add( 7 );
+        stats.add( 9 );
+
+        assertEquals( 8, stats.getCount() );
+        assertEquals( 5d, stats.getMean(), DELTA );
+        assertEquals( 4d, stats.getVariance(), DELTA );
+        assertEquals( 2d, stats.getStandardDeviation(), DELTA );
+    }
+
+    @Test
+    void testMerge()
+    {
+        DataValueStatistics stats = new DataValueStatistics( 1, 2, 3, 4 );
+        stats.add( 2 );
+        stats.add( 4 );
+        stats.add( 4 );
+        stats.add( 4 );
+
+        DataValueStatistics other = new DataValueStatistics( 1, 2, 3, 4 );
+        other.add( 5 );
+        other.add( 5 );
+        other.add( 7 );
+        other.add( 9 );
+
+        stats.merge( other );
+
+        assertEquals( 8, stats.getCount() );
+        assertEquals( 5d, stats.getMean(), DELTA );
+        assertEquals( 4d, stats.getVariance(), DELTA );
+    }
+
+    @Test
+    void testMergeNegatedRemovesValues()
+    {
+        DataValueStatistics stats = new DataValueStatistics( 1, 2, 3, 4 );
+        stats.add( 2 );
+        stats.add( 4 );
+        stats.add( 4 );
+        stats.add( 4 );
+        stats.add( 5 );
+        stats.add( 5 );
+        stats.add( 7 );
+        stats.add( 9 );
+
+        DataValueStatistics removed = new DataValueStatistics( 1, 2, 3, 4 );
+        removed.add( 5 );
+        removed.add( 7 );
+        removed.add( 9 );
+
+        stats.merge( removed.negate() );
+
+        assertEquals( 5, stats.getCount() );
+        assertEquals( 3.8d, stats.getMean(), DELTA );
+        assertEquals( 0.96d, stats.getVariance(), DELTA );
+
+        stats.merge( new DataValueStatistics( 1, 2, 3, 4, -5, 3.8d, -4.8d ) );
+
+        assertEquals( 0, stats.getCount() );
+        assertEquals( 0d, stats.getMean(), DELTA );
+        assertEquals( 0d, stats.getVariance(), DELTA );
+    }
+
+    @Test
+    void testChangesIgnoreNonNumericValues()
+    {
+        DataElement deA = new DataElement( "A" );
+        deA.setId( 1 );
+        deA.setValueType( ValueType.INTEGER );
+        DataElement deB = new DataElement( "B" );
+        deB.setId( 2 );
+        deB.setValueType( ValueType.TEXT );
+        OrganisationUnit ou = new OrganisationUnit( "OU" );
+        ou.setId( 3 );
+        CategoryOptionCombo coc = new CategoryOptionCombo();
+        coc.setId( 4 );
+
+        DataValueStatisticsChanges changes = new DataValueStatisticsChanges();
+        changes.add( new DataValue( deA, null, ou, coc, coc, "10" ) );
+        changes.add( new DataValue( deA, null, ou, coc, coc, "x" ) );
+        changes.add( new DataValue( deB, null, ou, coc, coc, "20" ) );
+        changes.replace( new DataValue( deA, null, ou, coc, coc, "30" ), "10" );
+
+        assertEquals( 1, changes.getAdditions().size() );
+        assertEquals( 1, changes.getRemovals().size() );
+
+        DataValueStatistics additions = changes.getAdditions().iterator().next();
+        assertEquals( 2, additions.getCount() );
+        assertEquals( 20d, additions.getMean(), DELTA );
+        assertEquals( 1, additions.getDataElementId() );
+        assertEquals( 3, additions.getOrgUnitId() );
+
+        changes.clear();
+
+        assertTrue( changes.isEmpty() );
+    }
+}
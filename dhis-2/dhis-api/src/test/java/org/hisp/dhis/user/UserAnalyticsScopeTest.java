@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Locale;
+
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link UserAnalyticsScope}.
+ */
+class UserAnalyticsScopeTest
+{
+    @Test
+    void testEqualScopeForUsersWithSameOrganisationUnits()
+    {
+        OrganisationUnit ouA = createOrganisationUnit( "ouabcdefghA" );
+        User userA = createUser( "userabcdefA", ouA );
+        User userB = createUser( "userabcdefB", ouA );
+
+        assertEquals( UserAnalyticsScope.of( userA ), UserAnalyticsScope.of( userB ) );
+    }
+
+    @Test
+    void testDifferentScopeForUsersWithDifferentDataViewOrganisationUnits()
+    {
+        OrganisationUnit ouA = createOrganisationUnit( "ouabcdefghA" );
+        User userA = createUser( "userabcdefA", ouA );
+        User userB = createUser( "userabcdefB", ouA );
+        userB.getDataViewOrganisationUnits().add( createOrganisationUnit( "ouabcdefghB" ) );
+
+        assertNotEquals( UserAnalyticsScope.of( userA ), UserAnalyticsScope.of( userB ) );
+    }
+
+    @Test
+    void testDifferentScopeForUsersWithDifferentRoles()
+    {
+        OrganisationUnit ouA = createOrganisationUnit( "ouabcdefghA" );
+        User userA = createUser( "userabcdefA", ouA );
+        User userB = createUser( "userabcdefB", ouA );
+        UserAuthorityGroup role = new UserAuthorityGroup();
+        role.setUid( "roleabcdefA" );
+        userB.getUserCredentials().getUserAuthorityGroups().add( role );
+
+        assertNotEquals( UserAnalyticsScope.of( userA ), UserAnalyticsScope.of( userB ) );
+    }
+
+    @Test
+    void testDifferentScopeForUsersWithDifferentUserGroups()
+    {
+        OrganisationUnit ouA = createOrganisationUnit( "ouabcdefghA" );
+        User userA = createUser( "userabcdefA", ouA );
+        User userB = createUser( "userabcdefB", ouA );
+        UserGroup group = new UserGroup();
+        group.setUid( "groupabcdeA" );
+        userB.getGroups().add( group );
+
+        assertNotEquals( UserAnalyticsScope.of( userA ), UserAnalyticsScope.of( userB ) );
+    }
+
+    @Test
+    void testDifferentScopeForDifferentLocales()
+    {
+        OrganisationUnit ouA = createOrganisationUnit( "ouabcdefghA" );
+        User userA = createUser( "userabcdefA", ouA );
+        User userB = createUser( "userabcdefB", ouA );
+
+        assertEquals( UserAnalyticsScope.of( userA, Locale.FRENCH, null ),
+            UserAnalyticsScope.of( userB, Locale.FRENCH, null ) );
+        assertNotEquals( UserAnalyticsScope.of( userA, Locale.ENGLISH, null ),
+            UserAnalyticsScope.of( userB, Locale.FRENCH, null ) );
+        assertNotEquals( UserAnalyticsScope.of( userA, Locale.ENGLISH, Locale.ENGLISH ),
+            UserAnalyticsScope.of( userB, Locale.ENGLISH, Locale.FRENCH ) );
+    }
+
+    private static OrganisationUnit createOrganisationUnit( String uid )
+    {
+        OrganisationUnit organisationUnit = new OrganisationUnit();
+        organisationUnit.setUid( uid );
+        return organisationUnit;
+    }
+
+    private static User createUser( String uid, OrganisationUnit organisationUnit )
+    {
+        User user = new User();
+        user.setUid( uid );
+        user.setUserCredentials( new UserCredentials() );
+        user.getOrganisationUnits().add( organisationUnit );
+        return user;
+    }
+}
@@ -29,8 +29,16 @@ package org.hisp.dhis.resourcetable.jdbc;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,9 +50,16 @@ import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.resourcetable.ResourceTable;
 import org.hisp.dhis.resourcetable.ResourceTableStore;
 import org.hisp.dhis.system.util.Clock;
+import org.hisp.dhis.util.DateUtils;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Iterators;
+import com.google.common.hash.Hashing;
+
 /**
  * @author Lars Helge Overland
  */
@@ -53,6 +68,10 @@ import org.springframework.stereotype.Service;
 public class JdbcResourceTableStore
     implements ResourceTableStore
 {
+    private static final int BATCH_SIZE = 10000;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     // -------------------------------------------------------------------------
     // Dependencies
     // -------------------------------------------------------------------------
@@ -91,9 +110,25 @@ public class JdbcResourceTableStore
         final Clock clock = new Clock().startClock();
         final String createTableSql = resourceTable.getCreateTempTableStatement();
         final Optional<String> populateTableSql = resourceTable.getPopulateTempTableStatement();
-        final Optional<List<Object[]>> populateTableContent = resourceTable.getPopulateTempTableContent();
         final List<String> createIndexSql = resourceTable.getCreateIndexStatements();
         final String analyzeTableSql = statementBuilder.getAnalyze( resourceTable.getTableName() );
+        final List<AnalyticsTableHook> hooks = analyticsTableHookService
+            .getByPhaseAndResourceTableType( AnalyticsTablePhase.RESOURCE_TABLE_POPULATED,
+                resourceTable.getTableType() );
+
+        // ---------------------------------------------------------------------
+        // Skip generation if source metadata is unchanged since last time
+        // ---------------------------------------------------------------------
+
+        final Optional<String> fingerprint = getFingerprint( resourceTable, populateTableSql, hooks );
+
+        if ( fingerprint.isPresent() && fingerprint.get().equals( getTableComment( resourceTable.getTableName() ) ) )
+        {
+            log.info( String.format( "Resource table '%s' is up to date, skipping generation",
+                resourceTable.getTableName() ) );
+
+            return;
+        }
 
         // ---------------------------------------------------------------------
         // Drop temporary table if it exists
@@ -122,17 +157,18 @@ public class JdbcResourceTableStore
 
             jdbcTemplate.execute( populateTableSql.get() );
         }
-        else if ( populateTableContent.isPresent() )
+        else
         {
-            List<Object[]> content = populateTableContent.get();
+            final Optional<Stream<Object[]>> populateTableRows = resourceTable.getPopulateTempTableRows();
 
-            log.debug( String.format( "Populate table content rows: '%d'", content.size() ) );
-
-            if ( content.size() > 0 )
+            if ( populateTableRows.isPresent() )
             {
-                int columns = content.get( 0 ).length;
+                try ( Stream<Object[]> rows = populateTableRows.get() )
+                {
+                    long count = populateTable( resourceTable.getTempTableName(), rows );
 
-                batchUpdate( columns, resourceTable.getTempTableName(), content );
+                    log.debug( String.format( "Populate table content rows: '%d'", count ) );
+                }
             }
         }
 
@@ -140,10 +176,6 @@ public class JdbcResourceTableStore
         // Invoke hooks
         // ---------------------------------------------------------------------
 
-        List<AnalyticsTableHook> hooks = analyticsTableHookService
-            .getByPhaseAndResourceTableType( AnalyticsTablePhase.RESOURCE_TABLE_POPULATED,
-                resourceTable.getTableType() );
-
         if ( !hooks.isEmpty() )
         {
             analyticsTableHookService.executeAnalyticsTableSqlHooks( hooks );
@@ -175,6 +207,16 @@ public class JdbcResourceTableStore
 
         log.debug( String.format( "Swapped resource table: '%s'", resourceTable.getTableName() ) );
 
+        // ---------------------------------------------------------------------
+        // Store fingerprint of source metadata
+        // ---------------------------------------------------------------------
+
+        if ( fingerprint.isPresent() )
+        {
+            jdbcTemplate.execute( String.format( "comment on table %s is '%s'",
+                resourceTable.getTableName(), fingerprint.get() ) );
+        }
+
         // ---------------------------------------------------------------------
         // Analyze
         // ---------------------------------------------------------------------
@@ -211,4 +253,193 @@ public class JdbcResourceTableStore
 
         jdbcTemplate.batchUpdate( builder.toString(), batchArgs );
     }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns a fingerprint of the definition of the given resource table and
+     * the state of the metadata it is generated from. Returns empty if the
+     * resource table does not track changes of its source metadata.
+     *
+     * @param resourceTable the resource table.
+     * @param populateTableSql the populate table SQL statement.
+     * @param hooks the hooks invoked on the resource table.
+     * @return a fingerprint, or empty.
+     */
+    private Optional<String> getFingerprint( ResourceTable<?> resourceTable, Optional<String> populateTableSql,
+        List<AnalyticsTableHook> hooks )
+    {
+        Optional<String> watermarkSql = resourceTable.getSourceWatermarkStatement();
+
+        if ( !watermarkSql.isPresent() )
+        {
+            return Optional.empty();
+        }
+
+        List<String> parts = new ArrayList<>();
+        parts.add( resourceTable.getCreateTempTableStatement() );
+        parts.add( populateTableSql.orElse( "" ) );
+        hooks.forEach( hook -> parts.add( hook.getSql() ) );
+
+        jdbcTemplate.query( watermarkSql.get(), rs -> {
+            for ( int i = 1; i <= rs.getMetaData().getColumnCount(); i++ )
+            {
+                parts.add( String.valueOf( rs.getObject( i ) ) );
+            }
+        } );
+
+        return Optional.of( Hashing.sha256()
+            .hashString( String.join( "\n", parts ), StandardCharsets.UTF_8 ).toString() );
+    }
+
+    /**
+     * Returns the comment of the given table, or null if the table does not
+     * exist or has no comment.
+     *
+     * @param tableName the table name.
+     * @return the table comment, or null.
+     */
+    private String getTableComment( String tableName )
+    {
+        return jdbcTemplate.execute( (ConnectionCallback<String>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+
+            for ( String name : List.of( tableName, tableName.toUpperCase() ) )
+            {
+                try ( ResultSet rs = metaData.getTables( null, null, name, new String[] { "TABLE" } ) )
+                {
+                    while ( rs.next() )
+                    {
+                        if ( tableName.equalsIgnoreCase( rs.getString( "TABLE_NAME" ) ) )
+                        {
+                            return rs.getString( "REMARKS" );
+                        }
+                    }
+                }
+            }
+
+            return null;
+        } );
+    }
+
+    /**
+     * Populates the given table with the given rows. Rows are streamed through
+     * the PostgreSQL COPY protocol when available, and inserted in batches
+     * otherwise. Rows are consumed as they are written, so the content is
+     * never held in memory in full.
+     *
+     * @param tableName the table name.
+     * @param rows the rows to insert.
+     * @return the number of rows inserted.
+     */
+    private long populateTable( String tableName, Stream<Object[]> rows )
+    {
+        return jdbcTemplate.execute( (ConnectionCallback<Long>) connection -> {
+            if ( connection.isWrapperFor( PGConnection.class ) )
+            {
+                return copyIn( connection.unwrap( PGConnection.class ), tableName, rows );
+            }
+
+            Iterator<List<Object[]>> batches = Iterators.partition( rows.iterator(), BATCH_SIZE );
+            long count = 0;
+
+            while ( batches.hasNext() )
+            {
+                List<Object[]> batch = batches.next();
+
+                batchUpdate( batch.get( 0 ).length, tableName, batch );
+
+                count += batch.size();
+            }
+
+            return count;
+        } );
+    }
+
+    private long copyIn( PGConnection connection, String tableName, Stream<Object[]> rows )
+        throws SQLException
+    {
+        CopyIn copyIn = connection.getCopyAPI().copyIn( "copy " + tableName + " from stdin" );
+
+        try
+        {
+            StringBuilder buffer = new StringBuilder();
+            long count = 0;
+
+            for ( Iterator<Object[]> it = rows.iterator(); it.hasNext(); )
+            {
+                appendCopyRow( buffer, it.next() );
+                count++;
+
+                if ( buffer.length() >= COPY_BUFFER_SIZE || !it.hasNext() )
+                {
+                    byte[] bytes = buffer.toString().getBytes( StandardCharsets.UTF_8 );
+                    copyIn.writeToCopy( bytes, 0, bytes.length );
+                    buffer.setLength( 0 );
+                }
+            }
+
+            copyIn.endCopy();
+
+            return count;
+        }
+        finally
+        {
+            if ( copyIn.isActive() )
+            {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Appends the given row in the PostgreSQL COPY text format.
+     */
+    private static void appendCopyRow( StringBuilder buffer, Object[] row )
+    {
+        for ( int i = 0; i < row.length; i++ )
+        {
+            if ( i > 0 )
+            {
+                buffer.append( '\t' );
+            }
+
+            Object value = row[i];
+
+            if ( value == null )
+            {
+                buffer.append( "\\N" );
+                continue;
+            }
+
+            String text = value instanceof Date ? DateUtils.getLongDateString( (Date) value ) : value.toString();
+
+            for ( int j = 0; j < text.length(); j++ )
+            {
+                char c = text.charAt( j );
+
+                switch ( c )
+                {
+                case '\\':
+                    buffer.append( "\\\\" );
+                    break;
+                case '\t':
+                    buffer.append( "\\t" );
+                    break;
+                case '\n':
+                    buffer.append( "\\n" );
+                    break;
+                case '\r':
+                    buffer.append( "\\r" );
+                    break;
+                default:
+                    buffer.append( c );
+                }
+            }
+        }
+
+        buffer.append( '\n' );
+    }
 }
@@ -145,6 +145,21 @@ public class CategoryResourceTable
         return Optional.empty();
     }
 
+    @Override
+    public Optional<String> getSourceWatermarkStatement()
+    {
+        return Optional.of( getWatermarkStatement(
+            List.of( "dataelementcategory", "dataelementcategoryoption", "categoryoptioncombo",
+                "categoryoptiongroup", "categoryoptiongroupset" ),
+            List.of(
+                getJoinTableWatermark( "categories_categoryoptions", "categoryid", "categoryoptionid" ),
+                getJoinTableWatermark( "categoryoptioncombos_categoryoptions", "categoryoptioncomboid",
+                    "categoryoptionid" ),
+                getJoinTableWatermark( "categoryoptiongroupmembers", "categoryoptiongroupid", "categoryoptionid" ),
+                getJoinTableWatermark( "categoryoptiongroupsetmembers", "categoryoptiongroupsetid",
+                    "categoryoptiongroupid" ) ) ) );
+    }
+
     @Override
     public List<String> getCreateIndexStatements()
     {
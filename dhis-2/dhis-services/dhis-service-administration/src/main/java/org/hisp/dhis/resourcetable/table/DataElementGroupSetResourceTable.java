@@ -111,6 +111,17 @@ public class DataElementGroupSetResourceTable
         return Optional.empty();
     }
 
+    @Override
+    public Optional<String> getSourceWatermarkStatement()
+    {
+        return Optional.of( getWatermarkStatement(
+            List.of( "dataelement", "dataelementgroup", "dataelementgroupset" ),
+            List.of(
+                getJoinTableWatermark( "dataelementgroupmembers", "dataelementgroupid", "dataelementid" ),
+                getJoinTableWatermark( "dataelementgroupsetmembers", "dataelementgroupsetid",
+                    "dataelementgroupid" ) ) ) );
+    }
+
     @Override
     public List<String> getCreateIndexStatements()
     {
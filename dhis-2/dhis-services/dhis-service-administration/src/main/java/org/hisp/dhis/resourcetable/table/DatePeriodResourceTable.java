@@ -34,6 +34,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.calendar.Calendar;
 import org.hisp.dhis.commons.collection.UniqueArrayList;
@@ -86,9 +87,13 @@ public class DatePeriodResourceTable
     @Override
     public Optional<List<Object[]>> getPopulateTempTableContent()
     {
-        List<PeriodType> periodTypes = PeriodType.getAvailablePeriodTypes();
+        return getPopulateTempTableRows().map( rows -> rows.collect( Collectors.toList() ) );
+    }
 
-        List<Object[]> batchArgs = new ArrayList<>();
+    @Override
+    public Optional<Stream<Object[]>> getPopulateTempTableRows()
+    {
+        List<PeriodType> periodTypes = PeriodType.getAvailablePeriodTypes();
 
         // TODO Create a dynamic solution instead of having fixed dates
 
@@ -102,11 +107,10 @@ public class DatePeriodResourceTable
 
         Calendar calendar = PeriodType.getCalendar();
 
-        for ( Date day : days )
-        {
+        return Optional.of( days.stream().map( day -> {
             List<Object> values = new ArrayList<>();
 
-            final int year = PeriodType.getCalendar().fromIso( day ).getYear();
+            final int year = calendar.fromIso( day ).getYear();
 
             values.add( day );
             values.add( year );
@@ -116,10 +120,14 @@ public class DatePeriodResourceTable
                 values.add( periodType.createPeriod( day, calendar ).getIsoDate() );
             }
 
-            batchArgs.add( values.toArray() );
-        }
+            return values.toArray();
+        } ) );
+    }
 
-        return Optional.of( batchArgs );
+    @Override
+    public Optional<String> getSourceWatermarkStatement()
+    {
+        return Optional.of( "select '" + PeriodType.getCalendar().name() + "'" );
     }
 
     @Override
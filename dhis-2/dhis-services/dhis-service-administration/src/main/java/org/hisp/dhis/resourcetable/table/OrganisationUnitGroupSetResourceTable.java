@@ -164,6 +164,16 @@ public class OrganisationUnitGroupSetResourceTable
         return Optional.empty();
     }
 
+    @Override
+    public Optional<String> getSourceWatermarkStatement()
+    {
+        return Optional.of( getWatermarkStatement(
+            List.of( "organisationunit", "orgunitgroup", "orgunitgroupset" ),
+            List.of(
+                getJoinTableWatermark( "orgunitgroupmembers", "orgunitgroupid", "organisationunitid" ),
+                getJoinTableWatermark( "orgunitgroupsetmembers", "orgunitgroupsetid", "orgunitgroupid" ) ) ) );
+    }
+
     @Override
     public List<String> getCreateIndexStatements()
     {
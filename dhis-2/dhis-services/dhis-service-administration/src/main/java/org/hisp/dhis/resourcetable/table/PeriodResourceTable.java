@@ -134,6 +134,12 @@ public class PeriodResourceTable
         return Optional.of( batchArgs );
     }
 
+    @Override
+    public Optional<String> getSourceWatermarkStatement()
+    {
+        return Optional.of( "select count(*), max(periodid), '" + PeriodType.getCalendar().name() + "' from period" );
+    }
+
     @Override
     public List<String> getCreateIndexStatements()
     {
@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.resourcetable;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import org.hisp.dhis.DhisTest;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.dataelement.DataElement;
@@ -55,16 +57,26 @@ class ResourceTableServiceTest extends DhisTest
     @Autowired
     private DataSetService dataSetService;
 
+    private DataElement deA;
+
+    private DataElement deB;
+
+    private DataElementGroup degA;
+
+    private DataElementGroup degB;
+
+    private OrganisationUnit ouB;
+
     @Override
     public void setUpTest()
     {
         PeriodType pt = new MonthlyPeriodType();
-        DataElement deA = createDataElement( 'A' );
-        DataElement deB = createDataElement( 'B' );
+        deA = createDataElement( 'A' );
+        deB = createDataElement( 'B' );
         idObjectManager.save( deA );
         idObjectManager.save( deB );
-        DataElementGroup degA = createDataElementGroup( 'A' );
-        DataElementGroup degB = createDataElementGroup( 'B' );
+        degA = createDataElementGroup( 'A' );
+        degB = createDataElementGroup( 'B' );
         DataElementGroup degC = createDataElementGroup( 'C' );
         DataElementGroup degD = createDataElementGroup( 'D' );
         degA.addDataElement( deA );
@@ -83,7 +95,7 @@ class ResourceTableServiceTest extends DhisTest
         idObjectManager.save( degsA );
         idObjectManager.save( degsB );
         OrganisationUnit ouA = createOrganisationUnit( 'A' );
-        OrganisationUnit ouB = createOrganisationUnit( 'B' );
+        ouB = createOrganisationUnit( 'B' );
         OrganisationUnit ouC = createOrganisationUnit( 'C' );
         ouB.setParent( ouA );
         ouC.setParent( ouA );
@@ -117,4 +129,68 @@ class ResourceTableServiceTest extends DhisTest
         resourceTableService.generateDatePeriodTable();
         resourceTableService.generateCategoryOptionComboTable();
     }
+
+    @Test
+    void testGenerateUnchangedResourceTablesTwice()
+    {
+        resourceTableService.generateOrganisationUnitStructures();
+        resourceTableService.generateOrganisationUnitGroupSetTable();
+        resourceTableService.generateDataElementGroupSetTable();
+        resourceTableService.generateCategoryTable();
+        resourceTableService.generatePeriodTable();
+        resourceTableService.generateDatePeriodTable();
+
+        assertEquals( 3, countRows( "_orgunitstructure" ) );
+
+        // Rows removed behind the back of the generation mark the table, as
+        // the table is only recreated when the source metadata changed
+
+        jdbcTemplate.execute( "delete from _orgunitstructure" );
+
+        resourceTableService.generateOrganisationUnitStructures();
+        resourceTableService.generateOrganisationUnitGroupSetTable();
+        resourceTableService.generateDataElementGroupSetTable();
+        resourceTableService.generateCategoryTable();
+        resourceTableService.generatePeriodTable();
+        resourceTableService.generateDatePeriodTable();
+
+        assertEquals( 0, countRows( "_orgunitstructure" ) );
+
+        jdbcTemplate.update( "update organisationunit set lastupdated = ? where organisationunitid = ?",
+            getDate( 2030, 1, 1 ), ouB.getId() );
+
+        resourceTableService.generateOrganisationUnitStructures();
+
+        assertEquals( 3, countRows( "_orgunitstructure" ) );
+    }
+
+    @Test
+    void testRegenerateResourceTableOnMembershipSwap()
+    {
+        resourceTableService.generateDataElementGroupSetTable();
+
+        assertEquals( 2, countRows( "_dataelementgroupsetstructure" ) );
+
+        jdbcTemplate.execute( "delete from _dataelementgroupsetstructure" );
+
+        resourceTableService.generateDataElementGroupSetTable();
+
+        assertEquals( 0, countRows( "_dataelementgroupsetstructure" ) );
+
+        // Swap the members of two groups, which keeps the row count and the
+        // last updated timestamps
+
+        jdbcTemplate.update( "update dataelementgroupmembers set dataelementid = case dataelementid " +
+            "when ? then ? else ? end where dataelementgroupid in (?, ?)",
+            deA.getId(), deB.getId(), deA.getId(), degA.getId(), degB.getId() );
+
+        resourceTableService.generateDataElementGroupSetTable();
+
+        assertEquals( 2, countRows( "_dataelementgroupsetstructure" ) );
+    }
+
+    private int countRows( String table )
+    {
+        return jdbcTemplate.queryForObject( "select count(*) from " + table, Integer.class );
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.resourcetable.table;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hisp.dhis.period.PeriodType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link DatePeriodResourceTable}.
+ */
+class DatePeriodResourceTableTest
+{
+    private final DatePeriodResourceTable table = new DatePeriodResourceTable( List.of() );
+
+    @Test
+    void rowsMatchContent()
+    {
+        List<Object[]> content = table.getPopulateTempTableContent().orElseThrow();
+        List<Object[]> rows = table.getPopulateTempTableRows().orElseThrow().collect( Collectors.toList() );
+
+        assertEquals( content.size(), rows.size() );
+        assertArrayEquals( content.get( 0 ), rows.get( 0 ) );
+        assertArrayEquals( content.get( content.size() - 1 ), rows.get( rows.size() - 1 ) );
+    }
+
+    @Test
+    void rowsHaveOneColumnPerPeriodType()
+    {
+        int columns = 2 + PeriodType.getAvailablePeriodTypes().size();
+
+        assertTrue( table.getPopulateTempTableRows().orElseThrow().limit( 10 )
+            .allMatch( row -> row.length == columns ) );
+    }
+}
@@ -45,6 +45,7 @@ import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.commons.collection.CollectionUtils;
 import org.hisp.dhis.commons.util.DebugUtils;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.message.MessageService;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.scheduling.JobProgress;
@@ -174,6 +175,8 @@ public class DefaultAnalyticsTableGenerator
     {
         resourceTableService.dropAllSqlViews( progress );
 
+        // Resource tables without dependencies on other resource tables
+
         Map<String, Runnable> generators = new LinkedHashMap<>();
         generators.put( "generating OrganisationUnit structures",
             resourceTableService::generateOrganisationUnitStructures );
@@ -184,8 +187,6 @@ public class DefaultAnalyticsTableGenerator
         generators.put( "generating DataElementGroupSet table",
             resourceTableService::generateDataElementGroupSetTable );
         generators.put( "generating IndicatorGroupSet table", resourceTableService::generateIndicatorGroupSetTable );
-        generators.put( "generating OrganisationUnitGroupSet table",
-            resourceTableService::generateOrganisationUnitGroupSetTable );
         generators.put( "generating Category table", resourceTableService::generateCategoryTable );
         generators.put( "generating  DataElement table", resourceTableService::generateDataElementTable );
         generators.put( "generating Period table", resourceTableService::generatePeriodTable );
@@ -193,8 +194,30 @@ public class DefaultAnalyticsTableGenerator
         generators.put( "generating  CategoryOptionCombo table",
             resourceTableService::generateCategoryOptionComboTable );
         progress.startingStage( "Generating resource tables", generators.size() );
-        progress.runStage( generators );
+        progress.runStageInParallel( Math.min( getProcessNo(), generators.size() ), generators.entrySet(),
+            Map.Entry::getKey, generator -> generator.getValue().run() );
+
+        // Resource tables depending on the organisation unit structure table
+
+        Map<String, Runnable> dependents = new LinkedHashMap<>();
+        dependents.put( "generating OrganisationUnitGroupSet table",
+            resourceTableService::generateOrganisationUnitGroupSetTable );
+        progress.startingStage( "Generating dependent resource tables", dependents.size() );
+        progress.runStage( dependents );
 
         resourceTableService.createAllSqlViews( progress );
     }
+
+    /**
+     * Returns the number of resource tables to generate in parallel, based on
+     * the number of available database server CPUs.
+     */
+    private int getProcessNo()
+    {
+        Integer cores = systemSettingManager.getIntegerSetting( SettingKey.DATABASE_SERVER_CPUS );
+
+        cores = (cores == null || cores == 0) ? SystemUtils.getCpuCores() : cores;
+
+        return cores > 2 ? (cores - 1) : cores;
+    }
 }
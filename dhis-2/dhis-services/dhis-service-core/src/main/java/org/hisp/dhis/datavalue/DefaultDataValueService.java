@@ -80,20 +80,25 @@ public class DefaultDataValueService
 
     private final DhisConfigurationProvider config;
 
+    private final DataValueStatisticsStore dataValueStatisticsStore;
+
     public DefaultDataValueService( DataValueStore dataValueStore, DataValueAuditService dataValueAuditService,
-        CurrentUserService currentUserService, CategoryService categoryService, DhisConfigurationProvider config )
+        CurrentUserService currentUserService, CategoryService categoryService, DhisConfigurationProvider config,
+        DataValueStatisticsStore dataValueStatisticsStore )
     {
         checkNotNull( dataValueAuditService );
         checkNotNull( dataValueStore );
         checkNotNull( currentUserService );
         checkNotNull( categoryService );
         checkNotNull( config );
+        checkNotNull( dataValueStatisticsStore );
 
         this.dataValueStore = dataValueStore;
         this.dataValueAuditService = dataValueAuditService;
         this.currentUserService = currentUserService;
         this.categoryService = categoryService;
         this.config = config;
+        this.dataValueStatisticsStore = dataValueStatisticsStore;
     }
 
     // -------------------------------------------------------------------------
@@ -165,6 +170,10 @@ public class DefaultDataValueService
             dataValueStore.addDataValue( dataValue );
         }
 
+        DataValueStatisticsChanges changes = new DataValueStatisticsChanges();
+        changes.add( dataValue );
+        dataValueStatisticsStore.updateStatistics( changes );
+
         return true;
     }
 
@@ -190,6 +199,10 @@ public class DefaultDataValueService
             }
 
             dataValueStore.updateDataValue( dataValue );
+
+            DataValueStatisticsChanges changes = new DataValueStatisticsChanges();
+            changes.replace( dataValue, getPreviousValue( dataValue ) );
+            dataValueStatisticsStore.updateStatistics( changes );
         }
     }
 
@@ -218,10 +231,19 @@ public class DefaultDataValueService
             dataValueAuditService.addDataValueAudit( dataValueAudit );
         }
 
+        boolean wasDeleted = dataValue.isDeleted();
+
         dataValue.setLastUpdated( new Date() );
         dataValue.setDeleted( true );
 
         dataValueStore.updateDataValue( dataValue );
+
+        if ( !wasDeleted )
+        {
+            DataValueStatisticsChanges changes = new DataValueStatisticsChanges();
+            changes.remove( dataValue, getPreviousValue( dataValue ) );
+            dataValueStatisticsStore.updateStatistics( changes );
+        }
     }
 
     @Override
@@ -229,6 +251,7 @@ public class DefaultDataValueService
     public void deleteDataValues( OrganisationUnit organisationUnit )
     {
         dataValueStore.deleteDataValues( organisationUnit );
+        dataValueStatisticsStore.deleteStatistics( organisationUnit );
     }
 
     @Override
@@ -236,6 +259,7 @@ public class DefaultDataValueService
     public void deleteDataValues( DataElement dataElement )
     {
         dataValueStore.deleteDataValues( dataElement );
+        dataValueStatisticsStore.deleteStatistics( dataElement );
     }
 
     @Override
@@ -370,4 +394,17 @@ public class DefaultDataValueService
     {
         return dataValueStore.getDataValueCountLastUpdatedBetween( startDate, endDate, includeDeleted );
     }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns the value the given data value had when loaded, which is the
+     * value to remove from the data value statistics.
+     */
+    private String getPreviousValue( DataValue dataValue )
+    {
+        return dataValue.getAuditValue() != null ? dataValue.getAuditValue() : dataValue.getValue();
+    }
 }
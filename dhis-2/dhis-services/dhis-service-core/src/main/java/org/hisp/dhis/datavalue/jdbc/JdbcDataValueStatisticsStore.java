@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datavalue.jdbc;
+
+import static java.util.stream.Collectors.toList;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATA_VALUE_STATISTICS_ENABLED;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.datavalue.DataValueStatistics;
+import org.hisp.dhis.datavalue.DataValueStatisticsChanges;
+import org.hisp.dhis.datavalue.DataValueStatisticsStore;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC implementation of {@link DataValueStatisticsStore} backed by the
+ * {@code datavaluestatistics} table.
+ * <p>
+ * Changes are merged with an upsert which combines the stored and the changed
+ * statistics in the database, so that concurrent writers never overwrite each
+ * other's changes. Removals only update existing rows, since a removal for a
+ * key without statistics has nothing to subtract from and must not insert a
+ * negative count. Rows are written in key order to avoid deadlocks between
+ * concurrent batches.
+ */
+@Slf4j
+@Repository( "org.hisp.dhis.datavalue.DataValueStatisticsStore" )
+public class JdbcDataValueStatisticsStore
+    implements DataValueStatisticsStore
+{
+    private static final Comparator<DataValueStatistics> KEY_ORDER = Comparator
+        .comparingLong( DataValueStatistics::getDataElementId )
+        .thenComparingLong( DataValueStatistics::getOrgUnitId )
+        .thenComparingLong( DataValueStatistics::getCategoryOptionComboId )
+        .thenComparingLong( DataValueStatistics::getAttributeOptionComboId );
+
+    // @formatter:off
+    private static final String UPSERT_SQL =
+        "insert into datavaluestatistics as s (dataelementid, sourceid, categoryoptioncomboid, " +
+            "attributeoptioncomboid, valuecount, mean, m2, lastupdated) " +
+        "values (?, ?, ?, ?, ?, ?, ?, now()) " +
+        "on conflict (dataelementid, sourceid, categoryoptioncomboid, attributeoptioncomboid) do update set " +
+        "valuecount = greatest(0, s.valuecount + excluded.valuecount), " +
+        "mean = case when s.valuecount + excluded.valuecount <= 0 then 0 " +
+            "else s.mean + (excluded.mean - s.mean) * excluded.valuecount " +
+            "/ (s.valuecount + excluded.valuecount) end, " +
+        "m2 = case when s.valuecount + excluded.valuecount <= 0 then 0 " +
+            "else greatest(0, s.m2 + excluded.m2 + (excluded.mean - s.mean) * (excluded.mean - s.mean) " +
+            "* s.valuecount * excluded.valuecount / (s.valuecount + excluded.valuecount)) end, " +
+        "lastupdated = excluded.lastupdated";
+
+    private static final String REMOVE_SQL =
+        "update datavaluestatistics as s set " +
+        "valuecount = greatest(0, s.valuecount + d.valuecount), " +
+        "mean = case when s.valuecount + d.valuecount <= 0 then 0 " +
+            "else s.mean + (d.mean - s.mean) * d.valuecount / (s.valuecount + d.valuecount) end, " +
+        "m2 = case when s.valuecount + d.valuecount <= 0 then 0 " +
+            "else greatest(0, s.m2 + d.m2 + (d.mean - s.mean) * (d.mean - s.mean) " +
+            "* s.valuecount * d.valuecount / (s.valuecount + d.valuecount)) end, " +
+        "lastupdated = now() " +
+        "from (values (?::bigint, ?::double precision, ?::double precision)) as d (valuecount, mean, m2) " +
+        "where s.dataelementid = ? and s.sourceid = ? and s.categoryoptioncomboid = ? " +
+            "and s.attributeoptioncomboid = ?";
+    // @formatter:on
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DhisConfigurationProvider config;
+
+    public JdbcDataValueStatisticsStore( JdbcTemplate jdbcTemplate, DhisConfigurationProvider config )
+    {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return config.isEnabled( DATA_VALUE_STATISTICS_ENABLED );
+    }
+
+    @Override
+    public void updateStatistics( DataValueStatisticsChanges changes )
+    {
+        if ( !isEnabled() || changes.isEmpty() )
+        {
+            return;
+        }
+
+        upsert( changes.getAdditions() );
+        remove( changes.getRemovals() );
+
+        log.debug( "Updated data value statistics, additions: " + changes.getAdditions().size() +
+            ", removals: " + changes.getRemovals().size() );
+    }
+
+    @Override
+    public void deleteStatistics( DataElement dataElement )
+    {
+        if ( isEnabled() )
+        {
+            jdbcTemplate.update( "delete from datavaluestatistics where dataelementid = ?", dataElement.getId() );
+        }
+    }
+
+    @Override
+    public void deleteStatistics( OrganisationUnit organisationUnit )
+    {
+        if ( isEnabled() )
+        {
+            jdbcTemplate.update( "delete from datavaluestatistics where sourceid = ?", organisationUnit.getId() );
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void upsert( Collection<DataValueStatistics> statistics )
+    {
+        if ( statistics.isEmpty() )
+        {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>( statistics.size() );
+
+        statistics.stream().sorted( KEY_ORDER ).forEach( s -> args.add( new Object[] {
+            s.getDataElementId(), s.getOrgUnitId(), s.getCategoryOptionComboId(), s.getAttributeOptionComboId(),
+            s.getCount(), s.getMean(), s.getM2() } ) );
+
+        jdbcTemplate.batchUpdate( UPSERT_SQL, args );
+    }
+
+    private void remove( Collection<DataValueStatistics> statistics )
+    {
+        if ( statistics.isEmpty() )
+        {
+            return;
+        }
+
+        List<Object[]> args = statistics.stream().sorted( KEY_ORDER ).map( DataValueStatistics::negate )
+            .map( s -> new Object[] { s.getCount(), s.getMean(), s.getM2(), s.getDataElementId(),
+                s.getOrgUnitId(), s.getCategoryOptionComboId(), s.getAttributeOptionComboId() } )
+            .collect( toList() );
+
+        jdbcTemplate.batchUpdate( REMOVE_SQL, args );
+    }
+}
@@ -76,6 +76,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -118,6 +119,7 @@ import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroupService;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.parser.expression.CompiledExpression;
 import org.hisp.dhis.parser.expression.ExpressionItem;
 import org.hisp.dhis.parser.expression.ExpressionItemMethod;
 import org.hisp.dhis.parser.expression.function.PeriodOffset;
@@ -251,6 +253,11 @@ public class DefaultExpressionService
      */
     private final Cache<Map<String, Constant>> constantMapCache;
 
+    /**
+     * Cache for compiled expressions by parse type and expression.
+     */
+    private final Cache<Optional<CompiledExpression>> compiledExpressionCache;
+
     // -------------------------------------------------------------------------
     // Constructor
     // -------------------------------------------------------------------------
@@ -276,6 +283,7 @@ public class DefaultExpressionService
         this.dimensionService = dimensionService;
         this.idObjectManager = idObjectManager;
         this.constantMapCache = cacheProvider.createAllConstantsCache();
+        this.compiledExpressionCache = cacheProvider.createCompiledExpressionCache();
     }
 
     // -------------------------------------------------------------------------
@@ -629,6 +637,14 @@ public class DefaultExpressionService
             visitor.setDays( Double.valueOf( days ) );
         }
 
+        CompiledExpression compiled = getCompiledExpression( expression, parseType );
+
+        if ( compiled != null )
+        {
+            visitor.setCompiledExpression( compiled );
+            visitor.setSlotItems( compiled.resolveItems( itemMap ) );
+        }
+
         Object value = visit( expression, dataType, visitor, true );
 
         int itemsFound = visitor.getItemsFound();
@@ -687,6 +703,46 @@ public class DefaultExpressionService
         return constantMapCache.get( "x", key -> constantService.getConstantMap() );
     }
 
+    /**
+     * Gets the (possibly cached) compiled form of an expression, which is
+     * parsed once and has its dimensional items bound to slots. Expressions
+     * which cannot be compiled are cached as empty, so they are not compiled
+     * again on every evaluation.
+     *
+     * @param expression the expression to compile.
+     * @param parseType the type of expression to compile.
+     * @return the compiled expression, or null if it could not be compiled, in
+     *         which case the expression is evaluated by parsing it.
+     */
+    private CompiledExpression getCompiledExpression( String expression, ParseType parseType )
+    {
+        return compiledExpressionCache.get( parseType.name() + ":" + expression,
+            key -> compileExpression( expression, parseType ) ).orElse( null );
+    }
+
+    private Optional<CompiledExpression> compileExpression( String expression, ParseType parseType )
+    {
+        try
+        {
+            CompiledExpression compiled = CompiledExpression.parse( expression );
+
+            CommonExpressionVisitor visitor = newVisitor( parseType, ITEM_GET_IDS,
+                DEFAULT_SAMPLE_PERIODS, getConstantMap(), NEVER_SKIP );
+
+            visitor.setCompiledExpression( compiled );
+
+            compiled.evaluate( visitor );
+
+            return Optional.of( compiled );
+        }
+        catch ( RuntimeException ex )
+        {
+            log.debug( "Expression '" + expression + "' not compiled: " + ex.getMessage() );
+
+            return Optional.empty();
+        }
+    }
+
     /**
      * Creates a new ExpressionItemsVisitor object.
      */
@@ -746,7 +802,9 @@ public class DefaultExpressionService
     {
         try
         {
-            Object result = Parser.visit( expression, visitor );
+            Object result = visitor.getCompiledExpression() != null
+                ? visitor.getCompiledExpression().evaluate( visitor )
+                : Parser.visit( expression, visitor );
 
             switch ( dataType )
             {
@@ -68,7 +68,14 @@ public abstract class DimensionalItem
     @Override
     public final Object getItemId( ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        visitor.getItemIds().add( getDimensionalItemId( ctx, visitor ) );
+        DimensionalItemId itemId = getDimensionalItemId( ctx, visitor );
+
+        visitor.getItemIds().add( itemId );
+
+        if ( visitor.getCompiledExpression() != null )
+        {
+            visitor.getCompiledExpression().bindItem( ctx, itemId );
+        }
 
         return DOUBLE_VALUE_IF_NULL;
     }
@@ -82,9 +89,13 @@ public abstract class DimensionalItem
     @Override
     public final Object evaluate( ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        DimensionalItemId itemId = getDimensionalItemId( ctx, visitor );
+        int slot = visitor.getCompiledExpression() != null
+            ? visitor.getCompiledExpression().getSlot( ctx )
+            : -1;
 
-        DimensionalItemObject item = visitor.getDimItemMap().get( itemId );
+        DimensionalItemObject item = slot >= 0
+            ? visitor.getSlotItems()[slot]
+            : visitor.getDimItemMap().get( getDimensionalItemId( ctx, visitor ) );
 
         Object value = (item != null)
             ? visitor.getItemValueMap().get( item )
@@ -30,8 +30,10 @@ package org.hisp.dhis.keyjsonvalue;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -72,6 +74,8 @@ public class DefaultKeyJsonValueService
 
     private final RenderService renderService;
 
+    private final KeyJsonValueCache cache;
+
     @Override
     public void addProtection( KeyJsonNamespaceProtection protection )
     {
@@ -103,6 +107,11 @@ public class DefaultKeyJsonValueService
     @Transactional( readOnly = true )
     public List<String> getKeysInNamespace( String namespace, Date lastUpdated )
     {
+        if ( lastUpdated == null )
+        {
+            return readProtectedIn( namespace, emptyList(),
+                () -> cache.getKeysInNamespace( namespace, () -> store.getKeysInNamespace( namespace ) ) );
+        }
         return readProtectedIn( namespace, emptyList(),
             () -> store.getKeysInNamespace( namespace, lastUpdated ) );
     }
@@ -123,6 +132,112 @@ public class DefaultKeyJsonValueService
             () -> store.getKeyJsonValue( namespace, key ) );
     }
 
+    @Override
+    @Transactional( readOnly = true )
+    public VersionedKeyJsonValue getVersionedKeyJsonValue( String namespace, String key )
+    {
+        KeyJsonNamespaceProtection protection = protectionByNamespace.get( namespace );
+        if ( protection != null && protection.isSharingRespected() )
+        {
+            // sharing is checked per entry and user, such entries are not
+            // cached
+            KeyJsonValue entry = getKeyJsonValue( namespace, key );
+            return entry == null ? null : VersionedKeyJsonValue.of( entry );
+        }
+        return readProtectedIn( namespace, null,
+            () -> cache.getEntry( namespace, key, () -> store.getKeyJsonValue( namespace, key ) ) );
+    }
+
+    @Override
+    @Transactional( readOnly = true )
+    public List<KeyJsonValue> getKeyJsonValues( String namespace, Collection<String> keys )
+    {
+        List<KeyJsonValue> entries = readProtectedIn( namespace, emptyList(),
+            () -> store.getKeyJsonValues( namespace, keys ) );
+
+        KeyJsonNamespaceProtection protection = protectionByNamespace.get( namespace );
+        if ( protection != null && protection.isSharingRespected() )
+        {
+            User currentUser = currentUserService.getCurrentUser();
+            return entries.stream().filter( entry -> aclService.canRead( currentUser, entry ) ).collect( toList() );
+        }
+        return entries;
+    }
+
+    @Override
+    @Transactional
+    public void saveOrUpdateKeyJsonValues( String namespace, List<KeyJsonValue> entries )
+    {
+        for ( KeyJsonValue entry : entries )
+        {
+            if ( !namespace.equals( entry.getNamespace() ) )
+            {
+                throw new IllegalArgumentException( String.format(
+                    "Key '%s' does not belong to namespace '%s'", entry.getKey(), namespace ) );
+            }
+            validateJsonValue( entry );
+        }
+
+        List<KeyJsonValue> existing = store.getKeyJsonValues( namespace,
+            entries.stream().map( KeyJsonValue::getKey ).collect( toList() ) );
+
+        writeProtectedIn( namespace,
+            () -> existing,
+            () -> {
+                store.saveOrUpdateKeyJsonValues( mergeIntoExisting( entries, existing ) );
+                entries.forEach( entry -> cache.invalidateEntry( namespace, entry.getKey() ) );
+            } );
+    }
+
+    /**
+     * Copies the values of entries that already exist onto the existing
+     * (persisted) entries.
+     *
+     * @return list of entries to save or update, new entries are returned as
+     *         given, existing ones as their persisted counterpart
+     */
+    private static List<KeyJsonValue> mergeIntoExisting( List<KeyJsonValue> entries, List<KeyJsonValue> existing )
+    {
+        Map<String, KeyJsonValue> existingByKey = existing.stream()
+            .collect( toMap( KeyJsonValue::getKey, Function.identity() ) );
+
+        return entries.stream().map( entry -> {
+            KeyJsonValue current = existingByKey.get( entry.getKey() );
+            if ( current == null )
+            {
+                return entry;
+            }
+            current.setValue( entry.getValue() );
+            return current;
+        } ).collect( toList() );
+    }
+
+    @Override
+    @Transactional
+    public void deleteKeyJsonValues( String namespace, Collection<String> keys )
+    {
+        writeProtectedIn( namespace,
+            () -> store.getKeyJsonValues( namespace, keys ),
+            () -> {
+                store.deleteKeyJsonValues( namespace, keys );
+                keys.forEach( key -> cache.invalidateEntry( namespace, key ) );
+            } );
+    }
+
+    @Override
+    @Transactional
+    public void addNamespaceIndex( String namespace, String path )
+    {
+        store.addNamespaceIndex( namespace, new KeyJsonValueQuery.Field( path ).getPath() );
+    }
+
+    @Override
+    @Transactional
+    public void removeNamespaceIndex( String namespace, String path )
+    {
+        store.removeNamespaceIndex( namespace, new KeyJsonValueQuery.Field( path ).getPath() );
+    }
+
     @Override
     @Transactional
     public void addKeyJsonValue( KeyJsonValue entry )
@@ -135,7 +250,7 @@ public class DefaultKeyJsonValueService
         validateJsonValue( entry );
         writeProtectedIn( entry.getNamespace(),
             () -> singletonList( entry ),
-            () -> store.save( entry ) );
+            invalidating( entry, () -> store.save( entry ) ) );
     }
 
     @Override
@@ -145,7 +260,7 @@ public class DefaultKeyJsonValueService
         validateJsonValue( entry );
         writeProtectedIn( entry.getNamespace(),
             () -> singletonList( entry ),
-            () -> store.update( entry ) );
+            invalidating( entry, () -> store.update( entry ) ) );
     }
 
     @Override
@@ -159,13 +274,13 @@ public class DefaultKeyJsonValueService
             existing.setValue( entry.getValue() );
             writeProtectedIn( entry.getNamespace(),
                 () -> singletonList( existing ),
-                () -> store.update( existing ) );
+                invalidating( existing, () -> store.update( existing ) ) );
         }
         else
         {
             writeProtectedIn( entry.getNamespace(),
                 () -> singletonList( entry ),
-                () -> store.save( entry ) );
+                invalidating( entry, () -> store.save( entry ) ) );
         }
     }
 
@@ -175,7 +290,10 @@ public class DefaultKeyJsonValueService
     {
         writeProtectedIn( namespace,
             () -> store.getKeyJsonValueByNamespace( namespace ),
-            () -> store.deleteNamespace( namespace ) );
+            () -> {
+                store.deleteNamespace( namespace );
+                cache.invalidateNamespace( namespace );
+            } );
     }
 
     @Override
@@ -184,7 +302,15 @@ public class DefaultKeyJsonValueService
     {
         writeProtectedIn( entry.getNamespace(),
             () -> singletonList( entry ),
-            () -> store.delete( entry ) );
+            invalidating( entry, () -> store.delete( entry ) ) );
+    }
+
+    private Runnable invalidating( KeyJsonValue entry, Runnable write )
+    {
+        return () -> {
+            write.run();
+            cache.invalidateEntry( entry.getNamespace(), entry.getKey() );
+        };
     }
 
     private <T> T readProtectedIn( String namespace, T whenHidden, Supplier<T> read )
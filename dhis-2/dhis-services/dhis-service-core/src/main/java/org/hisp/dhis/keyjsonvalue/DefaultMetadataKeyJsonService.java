@@ -43,11 +43,16 @@ public class DefaultMetadataKeyJsonService implements MetadataKeyJsonService
 {
     private final KeyJsonValueStore store;
 
-    public DefaultMetadataKeyJsonService( KeyJsonValueStore store, KeyJsonValueService service )
+    private final KeyJsonValueCache cache;
+
+    public DefaultMetadataKeyJsonService( KeyJsonValueStore store, KeyJsonValueService service,
+        KeyJsonValueCache cache )
     {
         checkNotNull( store );
+        checkNotNull( cache );
 
         this.store = store;
+        this.cache = cache;
         if ( service != null )
         {
             service.addProtection( new KeyJsonNamespaceProtection( MetadataKeyJsonService.METADATA_STORE_NS,
@@ -68,6 +73,7 @@ public class DefaultMetadataKeyJsonService implements MetadataKeyJsonService
     {
         validateNamespace( entry );
         store.delete( entry );
+        cache.invalidateEntry( entry.getNamespace(), entry.getKey() );
     }
 
     @Override
@@ -76,6 +82,7 @@ public class DefaultMetadataKeyJsonService implements MetadataKeyJsonService
     {
         validateNamespace( entry );
         store.save( entry );
+        cache.invalidateEntry( entry.getNamespace(), entry.getKey() );
 
         return entry.getId();
     }
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.keyjsonvalue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read cache for {@link KeyJsonValue} entries and the list of keys in a
+ * namespace.
+ *
+ * Entries are cached as {@link VersionedKeyJsonValue} snapshots so that the
+ * version can be compared to a client's ETag without loading the JSON value.
+ * Encrypted entries are never cached.
+ *
+ * Entry cache keys are {@code namespace-key}. As both namespace and key can
+ * contain {@code -} a cached snapshot is only used if it actually belongs to
+ * the requested namespace and key. This key format allows evicting all entries
+ * of a namespace by prefix, which is what the cluster cache invalidation does
+ * when a row of the namespace changes on another node.
+ *
+ * Invalidation happens immediately and once more after the current transaction
+ * committed, so that values read concurrently before the commit do not remain
+ * in the cache.
+ */
+@Component
+public class KeyJsonValueCache
+{
+    private static final String SEPARATOR = "-";
+
+    private final Cache<VersionedKeyJsonValue> entryCache;
+
+    private final Cache<List<String>> namespaceKeysCache;
+
+    public KeyJsonValueCache( CacheProvider cacheProvider )
+    {
+        this.entryCache = cacheProvider.createKeyJsonValueCache();
+        this.namespaceKeysCache = cacheProvider.createKeyJsonNamespaceKeysCache();
+    }
+
+    /**
+     * @param namespace the namespace of the entry
+     * @param key the key of the entry
+     * @param loader loads the entry from the store on cache miss
+     * @return the cached or loaded snapshot or null if no such entry exists
+     */
+    public VersionedKeyJsonValue getEntry( String namespace, String key, Supplier<KeyJsonValue> loader )
+    {
+        String cacheKey = toCacheKey( namespace, key );
+        VersionedKeyJsonValue cached = entryCache.getIfPresent( cacheKey ).orElse( null );
+
+        if ( cached != null && cached.isEntryOf( namespace, key ) )
+        {
+            return cached;
+        }
+
+        KeyJsonValue entry = loader.get();
+
+        if ( entry == null )
+        {
+            return null;
+        }
+
+        VersionedKeyJsonValue loaded = VersionedKeyJsonValue.of( entry );
+
+        // Do not replace an entry of another namespace and key with the same
+        // cache key
+
+        if ( !entry.isEncrypted() && cached == null )
+        {
+            entryCache.put( cacheKey, loaded );
+        }
+
+        return loaded;
+    }
+
+    /**
+     * @param namespace the namespace
+     * @param loader loads the keys from the store on cache miss
+     * @return the cached or loaded list of keys in the namespace
+     */
+    public List<String> getKeysInNamespace( String namespace, Supplier<List<String>> loader )
+    {
+        return new ArrayList<>( namespaceKeysCache.get( namespace, ns -> List.copyOf( loader.get() ) ) );
+    }
+
+    /**
+     * Invalidates an entry and the list of keys in its namespace.
+     *
+     * @param namespace the namespace of the entry
+     * @param key the key of the entry
+     */
+    public void invalidateEntry( String namespace, String key )
+    {
+        String cacheKey = toCacheKey( namespace, key );
+
+        invalidateNowAndAfterCommit( () -> {
+            entryCache.invalidate( cacheKey );
+            namespaceKeysCache.invalidate( namespace );
+        } );
+    }
+
+    /**
+     * Invalidates all entries of a namespace and its list of keys.
+     *
+     * @param namespace the namespace
+     */
+    public void invalidateNamespace( String namespace )
+    {
+        String prefix = namespace + SEPARATOR;
+
+        invalidateNowAndAfterCommit( () -> {
+            List<String> keys = new ArrayList<>();
+            entryCache.keys().forEach( cacheKey -> {
+                if ( cacheKey.startsWith( prefix ) )
+                {
+                    keys.add( cacheKey );
+                }
+            } );
+            keys.forEach( entryCache::invalidate );
+            namespaceKeysCache.invalidate( namespace );
+        } );
+    }
+
+    private static String toCacheKey( String namespace, String key )
+    {
+        return namespace + SEPARATOR + key;
+    }
+
+    private static void invalidateNowAndAfterCommit( Runnable invalidation )
+    {
+        invalidation.run();
+
+        if ( TransactionSynchronizationManager.isSynchronizationActive() )
+        {
+            TransactionSynchronizationManager.registerSynchronization( new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    invalidation.run();
+                }
+            } );
+        }
+    }
+}
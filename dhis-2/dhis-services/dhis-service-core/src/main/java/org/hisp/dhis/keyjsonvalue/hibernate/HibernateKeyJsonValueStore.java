@@ -32,15 +32,20 @@ import static java.util.Arrays.copyOfRange;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import javax.persistence.criteria.CriteriaBuilder;
 
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.query.Query;
 import org.hisp.dhis.common.hibernate.HibernateIdentifiableObjectStore;
@@ -55,6 +60,8 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import com.google.common.collect.Lists;
+
 /**
  * @author Stian Sandvold
  */
@@ -63,6 +70,12 @@ public class HibernateKeyJsonValueStore
     extends HibernateIdentifiableObjectStore<KeyJsonValue>
     implements KeyJsonValueStore
 {
+    /**
+     * Max number of keys used in a single IN clause, and JDBC batch size used
+     * for bulk inserts and updates.
+     */
+    private static final int BATCH_SIZE = 1000;
+
     public HibernateKeyJsonValueStore( SessionFactory sessionFactory, JdbcTemplate jdbcTemplate,
         ApplicationEventPublisher publisher, CurrentUserService currentUserService, AclService aclService )
     {
@@ -151,6 +164,99 @@ public class HibernateKeyJsonValueStore
             .addPredicate( root -> builder.equal( root.get( "key" ), key ) ) );
     }
 
+    @Override
+    public List<KeyJsonValue> getKeyJsonValues( String namespace, Collection<String> keys )
+    {
+        String hql = "from KeyJsonValue v where v.namespace = :namespace and v.key in (:keys)";
+        List<KeyJsonValue> entries = new ArrayList<>();
+
+        for ( List<String> partition : Lists.partition( new ArrayList<>( keys ), BATCH_SIZE ) )
+        {
+            Query<KeyJsonValue> query = getQuery( hql );
+            entries.addAll( query.setParameter( "namespace", namespace )
+                .setParameterList( "keys", partition )
+                .list() );
+        }
+
+        return entries;
+    }
+
+    @Override
+    public void saveOrUpdateKeyJsonValues( Collection<KeyJsonValue> entries )
+    {
+        Session session = getSession();
+        Integer batchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize( BATCH_SIZE );
+
+        try
+        {
+            for ( KeyJsonValue entry : entries )
+            {
+                if ( entry.getId() == 0 )
+                {
+                    save( entry );
+                }
+                else
+                {
+                    update( entry );
+                }
+            }
+
+            // Inserts and updates are executed as batches on flush
+
+            session.flush();
+        }
+        finally
+        {
+            session.setJdbcBatchSize( batchSize );
+        }
+    }
+
+    @Override
+    public int deleteKeyJsonValues( String namespace, Collection<String> keys )
+    {
+        String hql = "delete from KeyJsonValue v where v.namespace = :namespace and v.key in (:keys)";
+        int deleted = 0;
+
+        for ( List<String> partition : Lists.partition( new ArrayList<>( keys ), BATCH_SIZE ) )
+        {
+            deleted += getSession().createQuery( hql )
+                .setParameter( "namespace", namespace )
+                .setParameterList( "keys", partition )
+                .executeUpdate();
+        }
+
+        return deleted;
+    }
+
+    @Override
+    public void addNamespaceIndex( String namespace, String path )
+    {
+        // Expression must match the field extraction in getEntries
+
+        String sql = String.format(
+            "create index if not exists %s on keyjsonvalue (jsonb_extract_path(jbvalue, %s)) where namespace = %s",
+            getNamespaceIndexName( namespace, path ), toPathSegments( path ), SqlUtils.singleQuote( namespace ) );
+
+        jdbcTemplate.execute( sql );
+    }
+
+    @Override
+    public void removeNamespaceIndex( String namespace, String path )
+    {
+        jdbcTemplate.execute( "drop index if exists " + getNamespaceIndexName( namespace, path ) );
+    }
+
+    /**
+     * Index names are derived from a name based UUID of namespace and path as
+     * namespaces can contain characters not allowed in identifiers.
+     */
+    private static String getNamespaceIndexName( String namespace, String path )
+    {
+        UUID uuid = UUID.nameUUIDFromBytes( (namespace + "/" + path).getBytes( StandardCharsets.UTF_8 ) );
+        return "in_keyjsonvalue_" + uuid.toString().replace( "-", "" );
+    }
+
     @Override
     public void deleteNamespace( String namespace )
     {
@@ -33,6 +33,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -240,16 +241,25 @@ public class DefaultPreheatService implements PreheatService
             }
         }
 
+        Map<Schema, Class<? extends IdentifiableObject>> schemas = new LinkedHashMap<>();
+
         for ( Class<? extends IdentifiableObject> klass : klasses )
         {
-            List<? extends IdentifiableObject> objects = schemaToDataFetcher
-                .fetch( schemaService.getDynamicSchema( klass ) );
-            if ( !objects.isEmpty() )
+            Schema schema = schemaService.getDynamicSchema( klass );
+
+            if ( schema != null )
             {
-                uniqueCollectionMap.put( klass, new ArrayList<>( objects ) );
+                schemas.put( schema, klass );
             }
         }
 
+        schemaToDataFetcher.fetch( schemas.keySet(), params.isParallel() ).forEach( ( schema, objects ) -> {
+            if ( !objects.isEmpty() )
+            {
+                uniqueCollectionMap.put( schemas.get( schema ), new ArrayList<>( objects ) );
+            }
+        } );
+
         if ( uniqueCollectionMap.containsKey( User.class ) )
         {
             List<IdentifiableObject> userCredentials = new ArrayList<>();
@@ -30,17 +30,26 @@ package org.hisp.dhis.preheat;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.schema.Property;
 import org.hisp.dhis.schema.Schema;
 import org.springframework.stereotype.Component;
@@ -80,11 +89,85 @@ public class SchemaToDataFetcher
             return Collections.emptyList();
         }
 
-        return mapUniqueFields( schema );
+        return mapUniqueFields( sessionFactory::getCurrentSession, schema );
+    }
+
+    /**
+     * Fetches the fields marked as "unique" for each of the given Schemas. If
+     * parallel, the Schemas are queried concurrently, each in a separate
+     * read-only session. This is safe as the returned objects are transient
+     * and hold only the unique fields.
+     *
+     * @param schemas the {@link Schema}s to fetch
+     * @param parallel whether to query the Schemas concurrently
+     * @return a Map of the fetched objects by their Schema
+     */
+    public Map<Schema, List<? extends IdentifiableObject>> fetch( Collection<Schema> schemas, boolean parallel )
+    {
+        Map<Schema, List<? extends IdentifiableObject>> objects = new LinkedHashMap<>();
+
+        int threads = Math.min( schemas.size(), getThreadPoolSize() );
+
+        if ( !parallel || threads < 2 )
+        {
+            schemas.forEach( schema -> objects.put( schema, fetch( schema ) ) );
+
+            return objects;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+
+        try
+        {
+            Map<Schema, Future<List<? extends IdentifiableObject>>> futures = new LinkedHashMap<>();
+
+            for ( Schema schema : schemas )
+            {
+                futures.put( schema, executor.submit( () -> fetchInReadOnlySession( schema ) ) );
+            }
+
+            for ( Map.Entry<Schema, Future<List<? extends IdentifiableObject>>> entry : futures.entrySet() )
+            {
+                objects.put( entry.getKey(), entry.getValue().get() );
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException( "Interrupted while fetching unique fields", ex );
+        }
+        catch ( ExecutionException ex )
+        {
+            throw new IllegalStateException( "Failed to fetch unique fields", ex.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return objects;
+    }
+
+    private List<? extends IdentifiableObject> fetchInReadOnlySession( Schema schema )
+    {
+        try ( Session session = sessionFactory.openSession() )
+        {
+            session.setDefaultReadOnly( true );
+
+            return mapUniqueFields( () -> session, schema );
+        }
+    }
+
+    private int getThreadPoolSize()
+    {
+        int threadPoolSize = SystemUtils.getCpuCores();
+
+        return threadPoolSize > 2 ? threadPoolSize - 1 : threadPoolSize;
     }
 
     @SuppressWarnings( "unchecked" )
-    private List<? extends IdentifiableObject> mapUniqueFields( Schema schema )
+    private List<? extends IdentifiableObject> mapUniqueFields( Supplier<Session> session, Schema schema )
     {
         List<Property> uniqueProperties = schema.getUniqueProperties();
 
@@ -94,7 +177,7 @@ public class SchemaToDataFetcher
         {
             final String fields = extractUniqueFields( uniqueProperties );
 
-            objects = sessionFactory.getCurrentSession()
+            objects = session.get()
                 .createQuery( "SELECT " + fields + " from " + schema.getKlass().getSimpleName() )
                 .setReadOnly( true )
                 .getResultList();
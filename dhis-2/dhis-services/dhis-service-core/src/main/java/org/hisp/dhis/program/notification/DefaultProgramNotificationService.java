@@ -29,9 +29,12 @@ package org.hisp.dhis.program.notification;
 
 import static org.hisp.dhis.program.notification.NotificationTrigger.PROGRAM_RULE;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -277,6 +280,56 @@ public class DefaultProgramNotificationService
         sendProgramInstanceNotifications( programInstanceStore.get( programInstance ), NotificationTrigger.ENROLLMENT );
     }
 
+    @Override
+    @Transactional
+    public void sendEventCompletionNotifications( Collection<Long> programStageInstances )
+    {
+        if ( programStageInstances.isEmpty() )
+        {
+            return;
+        }
+
+        Map<ProgramNotificationTemplate, List<ProgramStageInstance>> instancesByTemplate = new LinkedHashMap<>();
+
+        for ( ProgramStageInstance programStageInstance : programStageInstanceStore.getById( programStageInstances ) )
+        {
+            for ( ProgramNotificationTemplate template : resolveTemplates( programStageInstance,
+                NotificationTrigger.COMPLETION ) )
+            {
+                instancesByTemplate.computeIfAbsent( template, t -> Lists.newArrayList() ).add( programStageInstance );
+            }
+        }
+
+        sendAll( new MessageBatch( instancesByTemplate.entrySet().stream()
+            .map( e -> createProgramStageInstanceMessageBatch( e.getKey(), e.getValue() ) )
+            .toArray( MessageBatch[]::new ) ) );
+    }
+
+    @Override
+    @Transactional
+    public void sendEnrollmentNotifications( Collection<Long> programInstances )
+    {
+        if ( programInstances.isEmpty() )
+        {
+            return;
+        }
+
+        Map<ProgramNotificationTemplate, List<ProgramInstance>> instancesByTemplate = new LinkedHashMap<>();
+
+        for ( ProgramInstance programInstance : programInstanceStore.getById( programInstances ) )
+        {
+            for ( ProgramNotificationTemplate template : resolveTemplates( programInstance,
+                NotificationTrigger.ENROLLMENT ) )
+            {
+                instancesByTemplate.computeIfAbsent( template, t -> Lists.newArrayList() ).add( programInstance );
+            }
+        }
+
+        sendAll( new MessageBatch( instancesByTemplate.entrySet().stream()
+            .map( e -> createProgramInstanceMessageBatch( e.getKey(), e.getValue() ) )
+            .toArray( MessageBatch[]::new ) ) );
+    }
+
     @Override
     @Transactional
     public void sendProgramRuleTriggeredNotifications( long pnt, long programInstance )
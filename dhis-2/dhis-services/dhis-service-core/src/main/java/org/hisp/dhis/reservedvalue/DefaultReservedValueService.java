@@ -37,13 +37,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.textpattern.TextPattern;
 import org.hisp.dhis.textpattern.TextPatternGenerationException;
 import org.hisp.dhis.textpattern.TextPatternMethod;
@@ -72,6 +76,14 @@ public class DefaultReservedValueService
 
     private final ValueGeneratorService valueGeneratorService;
 
+    private final DhisConfigurationProvider config;
+
+    /**
+     * Pooled values which are not handed out within this period are removed
+     * by the used or expired reserved values job.
+     */
+    private static final long POOLED_VALUE_EXPIRY = TimeUnit.DAYS.toMillis( 30 );
+
     @Override
     @Transactional
     public List<ReservedValue> reserve( TrackedEntityAttribute trackedEntityAttribute, int numberOfReservations,
@@ -87,12 +99,7 @@ public class DefaultReservedValueService
 
         TextPattern textPattern = trackedEntityAttribute.getTextPattern();
 
-        TextPatternSegment generatedSegment = textPattern.getSegments()
-            .stream()
-            .filter(
-                ( tp ) -> tp.getMethod().isGenerated() && Boolean.TRUE.equals( trackedEntityAttribute.isGenerated() ) )
-            .findFirst()
-            .orElse( null );
+        TextPatternSegment generatedSegment = getGeneratedSegment( trackedEntityAttribute );
 
         String key = textPatternService.resolvePattern( textPattern, values );
 
@@ -102,9 +109,22 @@ public class DefaultReservedValueService
 
         ReservedValue reservedValue = ReservedValue.builder().created( new Date() )
             .ownerObject( textPattern.getOwnerObject().name() )
-            .ownerUid( textPattern.getOwnerUid() ).key( key ).value( valueKey ).expiryDate( expires ).build();
+            .ownerUid( textPattern.getOwnerUid() ).key( key ).value( valueKey ).expiryDate( expires )
+            .trackedEntityAttributeId( trackedEntityAttribute.getId() ).build();
 
-        checkIfEnoughValues( numberOfReservations, generatedSegment, reservedValue );
+        int poolSize = getPoolSize();
+
+        if ( generatedSegment != null && poolSize > 0 )
+        {
+            resultList.addAll( reservedValueStore.takePooledValues( reservedValue, numberOfReservations ) );
+
+            if ( resultList.size() == numberOfReservations )
+            {
+                return resultList;
+            }
+        }
+
+        checkIfEnoughValues( numberOfReservations - resultList.size(), generatedSegment, reservedValue );
 
         if ( generatedSegment == null )
         {
@@ -120,11 +140,14 @@ public class DefaultReservedValueService
         }
         else
         {
-            int numberOfValuesLeftToGenerate = numberOfReservations;
+            int numberOfValuesLeftToGenerate = numberOfReservations - resultList.size();
 
             boolean isPersistable = generatedSegment.getMethod().isPersistable();
 
-            reservedValue.setTrackedEntityAttributeId( trackedEntityAttribute.getId() );
+            // Sequential counters are allocated in blocks of the pool size,
+            // the surplus of a block is put into the pool
+
+            boolean isBlockAllocated = poolSize > 0 && TextPatternMethod.SEQUENTIAL == generatedSegment.getMethod();
 
             try
             {
@@ -136,11 +159,20 @@ public class DefaultReservedValueService
 
                     generatedValues
                         .addAll( valueGeneratorService.generateValues( generatedSegment, textPattern, key,
-                            numberOfReservations - resultList.size() ) );
+                            isBlockAllocated ? Math.max( numberOfValuesLeftToGenerate, poolSize )
+                                : numberOfValuesLeftToGenerate ) );
 
                     List<String> resolvedPatterns = getResolvedPatterns( values, textPattern,
                         generatedSegment, generatedValues );
 
+                    if ( isBlockAllocated && resolvedPatterns.size() > numberOfValuesLeftToGenerate )
+                    {
+                        addToPool( reservedValue, resolvedPatterns.subList( numberOfValuesLeftToGenerate,
+                            resolvedPatterns.size() ) );
+
+                        resolvedPatterns = resolvedPatterns.subList( 0, numberOfValuesLeftToGenerate );
+                    }
+
                     saveGeneratedValues( numberOfReservations, resultList, textPattern, reservedValue, isPersistable,
                         resolvedPatterns );
 
@@ -224,7 +256,7 @@ public class DefaultReservedValueService
                 textPattern.getOwnerObject().name() );
 
             List<ReservedValue> requiredValues = availableValues.subList( 0,
-                Math.min( availableValues.size(), numberOfReservations ) );
+                Math.min( availableValues.size(), numberOfReservations - resultList.size() ) );
 
             reservedValueStore.bulkInsertReservedValues(
                 requiredValues );
@@ -246,6 +278,119 @@ public class DefaultReservedValueService
         return totalValues >= valuesRequired + used;
     }
 
+    @Override
+    @Transactional
+    public int replenishPools( TrackedEntityAttribute trackedEntityAttribute, int poolSize )
+    {
+        TextPattern textPattern = trackedEntityAttribute.getTextPattern();
+
+        TextPatternSegment generatedSegment = getGeneratedSegment( trackedEntityAttribute );
+
+        if ( generatedSegment == null || poolSize <= 0 )
+        {
+            return 0;
+        }
+
+        Map<String, Integer> pooledValueCounts = reservedValueStore.getPooledValueCounts(
+            textPattern.getOwnerObject().name(), textPattern.getOwnerUid() );
+
+        int added = 0;
+
+        for ( Map.Entry<String, Integer> pooledValueCount : pooledValueCounts.entrySet() )
+        {
+            if ( pooledValueCount.getValue() > poolSize / 2 )
+            {
+                continue;
+            }
+
+            String key = pooledValueCount.getKey();
+
+            ReservedValue reservedValue = ReservedValue.builder().created( new Date() )
+                .ownerObject( textPattern.getOwnerObject().name() )
+                .ownerUid( textPattern.getOwnerUid() ).key( key )
+                .value( key.replaceAll( Pattern.quote( generatedSegment.getRawSegment() ), "%" ) )
+                .trackedEntityAttributeId( trackedEntityAttribute.getId() ).build();
+
+            int numberOfValues = poolSize - pooledValueCount.getValue();
+
+            if ( TextPatternMethod.SEQUENTIAL != generatedSegment.getMethod() )
+            {
+                long valuesLeft = TextPatternValidationUtils.getTotalValuesPotential( generatedSegment )
+                    - reservedValueStore.getNumberOfUsedValues( reservedValue );
+
+                numberOfValues = (int) Math.min( numberOfValues, valuesLeft );
+            }
+
+            if ( numberOfValues <= 0 )
+            {
+                continue;
+            }
+
+            try
+            {
+                List<String> resolvedValues = valueGeneratorService
+                    .generateValues( generatedSegment, textPattern, key, numberOfValues ).stream()
+                    .map( value -> key.replaceFirst( Pattern.quote( generatedSegment.getRawSegment() ),
+                        Matcher.quoteReplacement( value ) ) )
+                    .distinct()
+                    .collect( Collectors.toList() );
+
+                if ( generatedSegment.getMethod().isPersistable() )
+                {
+                    resolvedValues = reservedValueStore.getAvailableValues( reservedValue, resolvedValues,
+                        textPattern.getOwnerObject().name() ).stream()
+                        .map( ReservedValue::getValue )
+                        .collect( Collectors.toList() );
+                }
+
+                List<String> poolValues = resolvedValues.subList( 0, Math.min( resolvedValues.size(),
+                    numberOfValues ) );
+
+                addToPool( reservedValue, poolValues );
+
+                added += poolValues.size();
+            }
+            catch ( ReserveValueException | ExecutionException e )
+            {
+                log.warn( String.format( "Replenishing reserved value pool of %s with uid %s and key %s failed: %s",
+                    textPattern.getOwnerObject().name(), textPattern.getOwnerUid(), key, e.getMessage() ) );
+            }
+            catch ( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+
+                break;
+            }
+        }
+
+        return added;
+    }
+
+    private void addToPool( ReservedValue reservedValue, List<String> values )
+    {
+        Date created = new Date();
+
+        reservedValueStore.bulkInsertReservedValues( values.stream()
+            .map( value -> reservedValue.toBuilder().value( value ).created( created )
+                .expiryDate( new Date( created.getTime() + POOLED_VALUE_EXPIRY ) ).pooled( true ).build() )
+            .collect( Collectors.toList() ) );
+    }
+
+    private TextPatternSegment getGeneratedSegment( TrackedEntityAttribute trackedEntityAttribute )
+    {
+        return trackedEntityAttribute.getTextPattern().getSegments()
+            .stream()
+            .filter(
+                ( tp ) -> tp.getMethod().isGenerated() && Boolean.TRUE.equals( trackedEntityAttribute.isGenerated() ) )
+            .findFirst()
+            .orElse( null );
+    }
+
+    private int getPoolSize()
+    {
+        return Integer.parseInt( config.getProperty( ConfigurationKey.RESERVED_VALUE_POOL_SIZE ) );
+    }
+
     @Override
     @Transactional
     public boolean useReservedValue( TextPattern textPattern, String value )
@@ -30,7 +30,10 @@ package org.hisp.dhis.reservedvalue.hibernate;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.hisp.dhis.common.Objects.TRACKEDENTITYATTRIBUTE;
 
+import java.sql.Timestamp;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -175,7 +178,7 @@ public class HibernateReservedValueStore
     public boolean isReserved( String ownerObject, String ownerUID, String value )
     {
         String hql = "from ReservedValue rv where rv.ownerObject =:ownerObject and rv.ownerUid =:ownerUid " +
-            "and rv.value =:value";
+            "and rv.value =:value and rv.pooled = false";
 
         return !getQuery( hql )
             .setParameter( "ownerObject", ownerObject )
@@ -200,4 +203,45 @@ public class HibernateReservedValueStore
 
         log.info( "... Completed deleting expired or used reserved values" );
     }
+
+    @Override
+    public Map<String, Integer> getPooledValueCounts( String ownerObject, String ownerUid )
+    {
+        String sql = "select key, sum(case when pooled then 1 else 0 end) as pooledcount " +
+            "from reservedvalue " +
+            "where ownerobject = ? and owneruid = ? " +
+            "group by key " +
+            "having sum(case when pooled then 0 else 1 end) > 0";
+
+        Map<String, Integer> counts = new HashMap<>();
+
+        jdbcTemplate.query( sql, rs -> {
+            counts.put( rs.getString( "key" ), rs.getInt( "pooledcount" ) );
+        }, ownerObject, ownerUid );
+
+        return counts;
+    }
+
+    @Override
+    public List<ReservedValue> takePooledValues( ReservedValue reservedValue, int numberOfValues )
+    {
+        String sql = "update reservedvalue set pooled = false, created = ?, expirydate = ? " +
+            "where reservedvalueid in (" +
+            "select rv.reservedvalueid from reservedvalue rv " +
+            "where rv.pooled and rv.ownerobject = ? and rv.owneruid = ? and rv.key = ? " +
+            "and not exists (select 1 from trackedentityattributevalue teav " +
+            "where teav.trackedentityattributeid = ? and teav.value = rv.value) " +
+            "order by rv.reservedvalueid limit ? for update skip locked) " +
+            "returning value";
+
+        List<String> values = jdbcTemplate.queryForList( sql, String.class,
+            new Timestamp( reservedValue.getCreated().getTime() ),
+            new Timestamp( reservedValue.getExpiryDate().getTime() ),
+            reservedValue.getOwnerObject(), reservedValue.getOwnerUid(), reservedValue.getKey(),
+            reservedValue.getTrackedEntityAttributeId(), numberOfValues );
+
+        return values.stream()
+            .map( value -> reservedValue.toBuilder().value( value ).pooled( false ).build() )
+            .collect( Collectors.toList() );
+    }
 }
@@ -54,9 +54,11 @@ import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.leader.election.LeaderManager;
 import org.hisp.dhis.message.MessageService;
+import org.hisp.dhis.monitoring.StatementBudgetReporter;
 import org.hisp.dhis.scheduling.JobProgress.Process;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.system.util.Clock;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * Base for synchronous or asynchronous {@link SchedulingManager} implementation
@@ -94,6 +96,8 @@ public abstract class AbstractSchedulingManager implements SchedulingManager
 
     private final Cache<Boolean> cancelledRemotely;
 
+    private StatementBudgetReporter statementBudgetReporter;
+
     protected AbstractSchedulingManager( JobService jobService, JobConfigurationService jobConfigurationService,
         MessageService messageService, LeaderManager leaderManager, Notifier notifier, CacheProvider cacheProvider )
     {
@@ -108,6 +112,12 @@ public abstract class AbstractSchedulingManager implements SchedulingManager
         this.cancelledRemotely = cacheProvider.createJobCancelRequestedCache();
     }
 
+    @Autowired( required = false )
+    public void setStatementBudgetReporter( StatementBudgetReporter statementBudgetReporter )
+    {
+        this.statementBudgetReporter = statementBudgetReporter;
+    }
+
     @PostConstruct
     public void init()
     {
@@ -293,6 +303,10 @@ public abstract class AbstractSchedulingManager implements SchedulingManager
         JobProgress tracker = configuration.getJobType().isUsingNotifications()
             ? new NotifierJobProgress( notifier, configuration )
             : NoopJobProgress.INSTANCE;
+        if ( statementBudgetReporter != null && statementBudgetReporter.isEnabled() )
+        {
+            tracker = new StatementBudgetJobProgress( tracker, statementBudgetReporter, configuration );
+        }
         return new ControlledJobProgress( configuration, tracker, true );
     }
 
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import lombok.RequiredArgsConstructor;
+
+import org.hisp.dhis.monitoring.StatementBudgetReporter;
+
+/**
+ * A {@link JobProgress} implementation that counts the JDBC statements, entity
+ * loads and collection initializations of each stage and reports stages
+ * exceeding the statement budget through the {@link StatementBudgetReporter}.
+ * All tracking is forwarded to the wrapped {@link #tracker}.
+ * <p>
+ * Only the work done on the thread running the stage is counted, items of
+ * parallel stages are not.
+ */
+@RequiredArgsConstructor
+public class StatementBudgetJobProgress implements JobProgress
+{
+    private final JobProgress tracker;
+
+    private final StatementBudgetReporter reporter;
+
+    private final JobConfiguration configuration;
+
+    private boolean counting;
+
+    private String stage;
+
+    @Override
+    public boolean isCancellationRequested()
+    {
+        return tracker.isCancellationRequested();
+    }
+
+    @Override
+    public void startingProcess( String description )
+    {
+        tracker.startingProcess( description );
+    }
+
+    @Override
+    public void completedProcess( String summary )
+    {
+        stopStage();
+        tracker.completedProcess( summary );
+    }
+
+    @Override
+    public void failedProcess( String error )
+    {
+        stopStage();
+        tracker.failedProcess( error );
+    }
+
+    @Override
+    public void startingStage( String description, int workItems )
+    {
+        tracker.startingStage( description, workItems );
+        stopStage();
+        counting = reporter.start();
+        stage = description;
+    }
+
+    @Override
+    public void completedStage( String summary )
+    {
+        stopStage();
+        tracker.completedStage( summary );
+    }
+
+    @Override
+    public void failedStage( String error )
+    {
+        stopStage();
+        tracker.failedStage( error );
+    }
+
+    @Override
+    public void startingWorkItem( String description )
+    {
+        tracker.startingWorkItem( description );
+    }
+
+    @Override
+    public void completedWorkItem( String summary )
+    {
+        tracker.completedWorkItem( summary );
+    }
+
+    @Override
+    public void failedWorkItem( String error )
+    {
+        tracker.failedWorkItem( error );
+    }
+
+    private void stopStage()
+    {
+        if ( counting )
+        {
+            counting = false;
+            reporter.stop( StatementBudgetReporter.JOB_STAGE_SCOPE,
+                configuration.getJobType() + " stage '" + stage + "'" );
+        }
+    }
+}
@@ -51,6 +51,8 @@ public class JdbcTrackedEntityAttributeTableManager implements TrackedEntityAttr
 
     private static final String TRIGRAM_INDEX_DROP_QUERY = "DROP INDEX IF EXISTS in_gin_teavalue_%d";
 
+    private static final String TRIGRAM_INDEX_REBUILD_QUERY = "REINDEX INDEX CONCURRENTLY in_gin_teavalue_%d";
+
     private static final String LIST_TRIGRAM_INDEXED_ATTRIBUTE_ID_QUERY = "SELECT cast(substring(indexname from 'in_gin_teavalue_(.*)') as bigint) as teaid FROM  pg_indexes"
         + " WHERE   indexname like 'in_gin_teavalue_%' and tablename = 'trackedentityattributevalue'";
 
@@ -80,6 +82,13 @@ public class JdbcTrackedEntityAttributeTableManager implements TrackedEntityAttr
         jdbcTemplate.execute( query );
     }
 
+    @Override
+    public void rebuildTrigramIndex( Long teaId )
+    {
+        String query = String.format( TRIGRAM_INDEX_REBUILD_QUERY, teaId );
+        jdbcTemplate.execute( query );
+    }
+
     @Override
     public List<Long> getAttributeIdsWithTrigramIndexCreated()
     {
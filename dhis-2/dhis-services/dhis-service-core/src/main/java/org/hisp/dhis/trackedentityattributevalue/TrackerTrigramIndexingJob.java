@@ -87,7 +87,8 @@ public class TrackerTrigramIndexingJob implements Job
         progress.startingProcess( "Starting Trigram indexing process" );
 
         // fetch all indexable attributes only if needed
-        if ( !CollectionUtils.isEmpty( parameters.getAttributes() ) || !parameters.isSkipIndexDeletion() )
+        if ( !CollectionUtils.isEmpty( parameters.getAttributes() ) || parameters.isIndexAllAttributes()
+            || !parameters.isSkipIndexDeletion() )
         {
             log.debug( "Fetching all indexable attributes from db" );
             Set<TrackedEntityAttribute> allIndexableAttributes = allIndexableAttributes = trackedEntityAttributeService
@@ -95,7 +96,11 @@ public class TrackerTrigramIndexingJob implements Job
 
             // Trigram index only need to be created if requested in the job
             // parameters.
-            if ( !CollectionUtils.isEmpty( parameters.getAttributes() ) )
+            if ( parameters.isIndexAllAttributes() )
+            {
+                createMissingTrigramIndexes( progress, allIndexableAttributes );
+            }
+            else if ( !CollectionUtils.isEmpty( parameters.getAttributes() ) )
             {
                 createTrigramIndexesOnIndexableAttributes( progress, parameters, allIndexableAttributes );
             }
@@ -107,6 +112,12 @@ public class TrackerTrigramIndexingJob implements Job
             }
 
         }
+
+        if ( parameters.isRebuildIndexes() )
+        {
+            rebuildTrigramIndexes( progress );
+        }
+
         progress.completedProcess( "Job completed" );
         log.info( "Trigram Indexing job completed" );
     }
@@ -145,6 +156,36 @@ public class TrackerTrigramIndexingJob implements Job
         }
     }
 
+    private void createMissingTrigramIndexes( JobProgress progress,
+        Set<TrackedEntityAttribute> allIndexableAttributes )
+    {
+        Set<Long> indexedAttributeIds = new HashSet<>(
+            trackedEntityAttributeTableManager.getAttributeIdsWithTrigramIndexCreated() );
+
+        Set<TrackedEntityAttribute> indexableAttributes = allIndexableAttributes.stream()
+            .filter( tea -> !indexedAttributeIds.contains( tea.getId() ) )
+            .collect( Collectors.toSet() );
+
+        log.debug( "Found {} indexable attributes without trigram index", indexableAttributes.size() );
+
+        if ( !indexableAttributes.isEmpty() )
+        {
+            createTrigramIndexes( progress, indexableAttributes );
+        }
+    }
+
+    private void rebuildTrigramIndexes( JobProgress progress )
+    {
+        List<Long> teaIds = trackedEntityAttributeTableManager.getAttributeIdsWithTrigramIndexCreated();
+
+        log.debug( "Rebuilding {} trigram indexes", teaIds.size() );
+        progress.startingStage( "Rebuilding trigram indexes", teaIds.size() );
+        progress.runStage( teaIds.stream(), Object::toString,
+            teaId -> trackedEntityAttributeTableManager.rebuildTrigramIndex( teaId ),
+            TrackerTrigramIndexingJob::computeTrigramIndexingRebuildSummary );
+        progress.completedStage( "Trigram indexes rebuilt" );
+    }
+
     private void removeObsoleteTrigramIndexes( JobProgress progress,
         Set<TrackedEntityAttribute> allIndexableAttributes )
     {
@@ -209,6 +250,14 @@ public class TrackerTrigramIndexingJob implements Job
         return summary;
     }
 
+    private static String computeTrigramIndexingRebuildSummary( int successful, int failed )
+    {
+        String summary = format( "Number of trigram index rebuilt: %d. Number of trigram index rebuild failed: %d",
+            successful, failed );
+        log.debug( summary );
+        return summary;
+    }
+
     private static String computeTrigramIndexingDropSummary( int successful, int failed )
     {
         String summary = format(
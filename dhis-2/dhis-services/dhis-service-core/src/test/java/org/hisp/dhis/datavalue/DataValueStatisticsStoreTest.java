@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datavalue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.hisp.dhis.IntegrationTestBase;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Tests the upsert of {@link DataValueStatistics} against PostgreSQL.
+ */
+class DataValueStatisticsStoreTest extends IntegrationTestBase
+{
+    private static final double DELTA = 0.0001;
+
+    @Autowired
+    private DataValueStatisticsStore dataValueStatisticsStore;
+
+    private DataElement dataElement;
+
+    private OrganisationUnit orgUnit;
+
+    private CategoryOptionCombo optionCombo;
+
+    @Override
+    public void setUpTest()
+    {
+        dataElement = new DataElement( "DataElementA" );
+        dataElement.setId( 1L );
+        dataElement.setValueType( ValueType.NUMBER );
+
+        orgUnit = createOrganisationUnit( 'A' );
+        orgUnit.setId( 2L );
+
+        optionCombo = new CategoryOptionCombo();
+        optionCombo.setId( 3L );
+    }
+
+    @Test
+    void testInsertStatistics()
+    {
+        update( changes -> {
+            changes.add( value( "2" ) );
+            changes.add( value( "4" ) );
+        } );
+
+        assertStatistics( 2, 3d, 2d );
+    }
+
+    @Test
+    void testMergeStatistics()
+    {
+        update( changes -> {
+            changes.add( value( "2" ) );
+            changes.add( value( "4" ) );
+        } );
+        update( changes -> changes.add( value( "6" ) ) );
+
+        assertStatistics( 3, 4d, 8d );
+    }
+
+    @Test
+    void testRemoveStatistics()
+    {
+        update( changes -> {
+            changes.add( value( "2" ) );
+            changes.add( value( "4" ) );
+            changes.add( value( "6" ) );
+        } );
+        update( changes -> changes.remove( value( "6" ), "6" ) );
+
+        assertStatistics( 2, 3d, 2d );
+    }
+
+    @Test
+    void testRemoveAllStatistics()
+    {
+        update( changes -> changes.add( value( "5" ) ) );
+        update( changes -> changes.remove( value( "5" ), "5" ) );
+
+        assertStatistics( 0, 0d, 0d );
+    }
+
+    @Test
+    void testRemoveWithoutStatistics()
+    {
+        update( changes -> changes.remove( value( "5" ), "5" ) );
+
+        assertTrue( getStatistics().isEmpty() );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void update( Consumer<DataValueStatisticsChanges> recorder )
+    {
+        DataValueStatisticsChanges changes = new DataValueStatisticsChanges();
+        recorder.accept( changes );
+        dataValueStatisticsStore.updateStatistics( changes );
+    }
+
+    private DataValue value( String value )
+    {
+        return new DataValue( dataElement, null, orgUnit, optionCombo, optionCombo, value );
+    }
+
+    private List<Map<String, Object>> getStatistics()
+    {
+        return jdbcTemplate.queryForList( "select valuecount, mean, m2 from datavaluestatistics " +
+            "where dataelementid = 1 and sourceid = 2 and categoryoptioncomboid = 3 and attributeoptioncomboid = 3" );
+    }
+
+    private void assertStatistics( long count, double mean, double m2 )
+    {
+        List<Map<String, Object>> rows = getStatistics();
+
+        assertEquals( 1, rows.size() );
+        assertEquals( count, ((Number) rows.get( 0 ).get( "valuecount" )).longValue() );
+        assertEquals( mean, ((Number) rows.get( 0 ).get( "mean" )).doubleValue(), DELTA );
+        assertEquals( m2, ((Number) rows.get( 0 ).get( "m2" )).doubleValue(), DELTA );
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.expression;
+
+import static org.hisp.dhis.common.DimensionItemType.DATA_ELEMENT;
+import static org.hisp.dhis.expression.MissingValueStrategy.NEVER_SKIP;
+import static org.hisp.dhis.expression.MissingValueStrategy.SKIP_IF_ANY_VALUE_MISSING;
+import static org.hisp.dhis.expression.ParseType.INDICATOR_EXPRESSION;
+import static org.hisp.dhis.expression.ParseType.VALIDATION_RULE_EXPRESSION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.SimpleCacheBuilder;
+import org.hisp.dhis.common.DimensionService;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.constant.ConstantService;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementService;
+import org.hisp.dhis.hibernate.HibernateGenericStore;
+import org.hisp.dhis.organisationunit.OrganisationUnitGroupService;
+import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.parser.expression.CompiledExpression;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+/**
+ * Tests that expressions evaluated through their cached
+ * {@link CompiledExpression} give the same results as expressions evaluated by
+ * parsing them.
+ */
+@MockitoSettings( strictness = Strictness.LENIENT )
+@ExtendWith( MockitoExtension.class )
+class CompiledExpressionTest
+{
+    private static final List<String> EXPRESSIONS = List.of(
+        "#{deabcdefghA}+#{deabcdefghB}",
+        "#{deabcdefghA}*2-#{deabcdefghB}/4+#{deabcdefghA}",
+        "if(#{deabcdefghA}>#{deabcdefghB},#{deabcdefghA},#{deabcdefghB})",
+        "greatest(#{deabcdefghA},#{deabcdefghC},#{deabcdefghB})",
+        "firstNonNull(#{deabcdefghC},#{deabcdefghB})",
+        "#{deabcdefghA}/[days]",
+        "#{deabcdefghC}+1" );
+
+    @Mock
+    private HibernateGenericStore<Expression> expressionStore;
+
+    @Mock
+    private DataElementService dataElementService;
+
+    @Mock
+    private ConstantService constantService;
+
+    @Mock
+    private OrganisationUnitService organisationUnitService;
+
+    @Mock
+    private OrganisationUnitGroupService organisationUnitGroupService;
+
+    @Mock
+    private DimensionService dimensionService;
+
+    @Mock
+    private IdentifiableObjectManager idObjectManager;
+
+    @Mock
+    private CacheProvider cacheProvider;
+
+    @Mock
+    private Cache<Optional<CompiledExpression>> noCompiledExpressionCache;
+
+    private Cache<Optional<CompiledExpression>> compiledExpressionCache;
+
+    private DefaultExpressionService compiledService;
+
+    private DefaultExpressionService interpretedService;
+
+    private final Map<DimensionalItemId, DimensionalItemObject> itemMap = new HashMap<>();
+
+    private final Map<DimensionalItemObject, Object> valueMap = new HashMap<>();
+
+    @BeforeEach
+    void setUp()
+    {
+        compiledExpressionCache = new SimpleCacheBuilder<Optional<CompiledExpression>>().build();
+
+        doReturn( new SimpleCacheBuilder<>().build() ).when( cacheProvider ).createAllConstantsCache();
+        doReturn( compiledExpressionCache ).when( cacheProvider ).createCompiledExpressionCache();
+        compiledService = newService();
+
+        // a cache which never yields a compiled expression forces parsing
+
+        when( noCompiledExpressionCache.get( anyString(), any() ) ).thenReturn( Optional.empty() );
+        doReturn( noCompiledExpressionCache ).when( cacheProvider ).createCompiledExpressionCache();
+        interpretedService = newService();
+
+        DataElement deA = addDataElement( "deabcdefghA", 12d );
+        DataElement deB = addDataElement( "deabcdefghB", 5d );
+        addDataElement( "deabcdefghC", null );
+
+        assertEquals( 12d, valueMap.get( deA ) );
+        assertEquals( 5d, valueMap.get( deB ) );
+    }
+
+    @Test
+    void testCompiledAndInterpretedResultsAreEqual()
+    {
+        for ( String expression : EXPRESSIONS )
+        {
+            for ( MissingValueStrategy strategy : MissingValueStrategy.values() )
+            {
+                assertEquals( evaluate( interpretedService, expression, strategy ),
+                    evaluate( compiledService, expression, strategy ), expression + " " + strategy );
+            }
+        }
+    }
+
+    @Test
+    void testCompiledResults()
+    {
+        assertEquals( 17d, evaluate( compiledService, "#{deabcdefghA}+#{deabcdefghB}", NEVER_SKIP ) );
+        assertEquals( 34.75d,
+            evaluate( compiledService, "#{deabcdefghA}*2-#{deabcdefghB}/4+#{deabcdefghA}", NEVER_SKIP ) );
+        assertEquals( 1d, evaluate( compiledService, "#{deabcdefghC}+1", NEVER_SKIP ) );
+        assertNull( evaluate( compiledService, "#{deabcdefghC}+1", SKIP_IF_ANY_VALUE_MISSING ) );
+    }
+
+    @Test
+    void testSlotBinding()
+    {
+        evaluate( compiledService, "#{deabcdefghA}*2-#{deabcdefghB}/4+#{deabcdefghA}", NEVER_SKIP );
+
+        CompiledExpression compiled = getCached( INDICATOR_EXPRESSION,
+            "#{deabcdefghA}*2-#{deabcdefghB}/4+#{deabcdefghA}" ).orElseThrow();
+
+        List<DimensionalItemId> itemIds = compiled.getItemIds();
+        assertEquals( 3, itemIds.size() );
+        assertEquals( "deabcdefghA", itemIds.get( 0 ).getId0() );
+        assertEquals( "deabcdefghB", itemIds.get( 1 ).getId0() );
+        assertEquals( "deabcdefghA", itemIds.get( 2 ).getId0() );
+
+        DimensionalItemObject[] items = compiled.resolveItems( itemMap );
+        assertEquals( "deabcdefghB", items[1].getUid() );
+        assertSame( items[0], items[2] );
+    }
+
+    @Test
+    void testCompiledExpressionIsCachedPerParseType()
+    {
+        String expression = "#{deabcdefghA}+#{deabcdefghB}";
+
+        evaluate( compiledService, expression, NEVER_SKIP );
+        CompiledExpression compiled = getCached( INDICATOR_EXPRESSION, expression ).orElseThrow();
+
+        evaluate( compiledService, expression, NEVER_SKIP );
+        assertSame( compiled, getCached( INDICATOR_EXPRESSION, expression ).orElseThrow() );
+
+        assertFalse( compiledExpressionCache.getIfPresent( VALIDATION_RULE_EXPRESSION.name() + ":" + expression )
+            .isPresent() );
+    }
+
+    @Test
+    void testUncompilableExpressionIsCachedAsEmpty()
+    {
+        String expression = "#{deabcdefghA}+";
+
+        assertEquals( evaluate( interpretedService, expression, NEVER_SKIP ),
+            evaluate( compiledService, expression, NEVER_SKIP ) );
+
+        Optional<Optional<CompiledExpression>> cached = compiledExpressionCache
+            .getIfPresent( INDICATOR_EXPRESSION.name() + ":" + expression );
+
+        assertTrue( cached.isPresent() );
+        assertFalse( cached.get().isPresent() );
+    }
+
+    private Double evaluate( DefaultExpressionService service, String expression, MissingValueStrategy strategy )
+    {
+        return service.getExpressionValue( expression, INDICATOR_EXPRESSION, itemMap, valueMap, Map.of(),
+            Map.of(), Map.of(), 31, strategy, null );
+    }
+
+    private Optional<CompiledExpression> getCached( ParseType parseType, String expression )
+    {
+        return compiledExpressionCache.getIfPresent( parseType.name() + ":" + expression ).orElseThrow();
+    }
+
+    private DataElement addDataElement( String uid, Double value )
+    {
+        DataElement dataElement = new DataElement( uid );
+        dataElement.setUid( uid );
+        dataElement.setValueType( ValueType.NUMBER );
+        itemMap.put( new DimensionalItemId( DATA_ELEMENT, uid, 0 ), dataElement );
+
+        if ( value != null )
+        {
+            valueMap.put( dataElement, value );
+        }
+
+        return dataElement;
+    }
+
+    private DefaultExpressionService newService()
+    {
+        return new DefaultExpressionService( expressionStore, dataElementService, constantService,
+            organisationUnitService, organisationUnitGroupService, dimensionService, idObjectManager, cacheProvider );
+    }
+}
@@ -40,6 +40,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import org.hamcrest.collection.IsIterableContainingInAnyOrder;
@@ -197,6 +198,24 @@ class SchemaToDataFetcherTest extends DhisConvenienceTest
 
     }
 
+    @Test
+    void verifyUniqueFieldsAreFetchedForEachSchema()
+    {
+        Schema dataElementSchema = createSchema( DataElement.class, "dataElement",
+            Stream.of( createUniqueProperty( String.class, "code", true, true ) ).collect( toList() ) );
+        Schema smsCommandSchema = createSchema( SMSCommand.class, "smsCommand", Lists.newArrayList() );
+
+        when( sessionFactory.openSession() ).thenReturn( session );
+        mockSession( "SELECT code from " + dataElementSchema.getKlass().getSimpleName() );
+        when( query.getResultList() ).thenReturn( Lists.newArrayList( "abc", "def" ) );
+
+        Map<Schema, List<? extends IdentifiableObject>> result = subject
+            .fetch( Lists.newArrayList( dataElementSchema, smsCommandSchema ), true );
+
+        assertThat( result.get( dataElementSchema ), hasSize( 2 ) );
+        assertThat( result.get( smsCommandSchema ), hasSize( 0 ) );
+    }
+
     @Test
     void verifyNoSqlWhenUniquePropertiesListIsEmpty()
     {
@@ -30,21 +30,28 @@ package org.hisp.dhis.reservedvalue;
 import static java.util.Calendar.DATE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import org.hisp.dhis.common.Objects;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.textpattern.DefaultTextPatternService;
 import org.hisp.dhis.textpattern.TextPattern;
 import org.hisp.dhis.textpattern.TextPatternGenerationException;
@@ -76,9 +83,15 @@ class ReservedValueServiceTest
     @Mock
     private ValueGeneratorService valueGeneratorService;
 
+    @Mock
+    private DhisConfigurationProvider config;
+
     @Captor
     private ArgumentCaptor<ReservedValue> reservedValue;
 
+    @Captor
+    private ArgumentCaptor<List<ReservedValue>> reservedValues;
+
     private static final String simpleText = "\"FOO\"";
 
     private static final String sequentialText = "\"TEST-\"+SEQUENTIAL(##)";
@@ -93,7 +106,8 @@ class ReservedValueServiceTest
     void setUpClass()
     {
         reservedValueService = new DefaultReservedValueService( textPatternService, reservedValueStore,
-            valueGeneratorService );
+            valueGeneratorService, config );
+        when( config.getProperty( ConfigurationKey.RESERVED_VALUE_POOL_SIZE ) ).thenReturn( "0" );
         Calendar calendar = Calendar.getInstance();
         calendar.add( DATE, 1 );
         futureDate = calendar.getTime();
@@ -185,6 +199,74 @@ class ReservedValueServiceTest
         verify( reservedValueStore, times( 1 ) ).bulkInsertReservedValues( argThat( list -> list.size() == 2 ) );
     }
 
+    @Test
+    void shouldReserveValuesFromPool()
+        throws TextPatternParser.TextPatternParsingException,
+        TextPatternGenerationException,
+        ReserveValueException
+    {
+        when( config.getProperty( ConfigurationKey.RESERVED_VALUE_POOL_SIZE ) ).thenReturn( "10" );
+        when( reservedValueStore.takePooledValues( any(), eq( 2 ) ) ).thenReturn( Arrays.asList(
+            ReservedValue.builder().value( "TEST-AAA" ).build(),
+            ReservedValue.builder().value( "TEST-BBB" ).build() ) );
+        assertEquals( 2,
+            reservedValueService
+                .reserve( createTrackedEntityAttribute( Objects.TRACKEDENTITYATTRIBUTE, ownerUid, randomText ), 2,
+                    new HashMap<>(), futureDate )
+                .size() );
+        verify( reservedValueStore, times( 0 ) ).getAvailableValues( any(), any(), any() );
+        verify( reservedValueStore, times( 0 ) ).bulkInsertReservedValues( anyList() );
+    }
+
+    @Test
+    void shouldPoolSurplusOfSequentialBlock()
+        throws TextPatternParser.TextPatternParsingException,
+        TextPatternGenerationException,
+        ReserveValueException,
+        ExecutionException,
+        InterruptedException
+    {
+        when( config.getProperty( ConfigurationKey.RESERVED_VALUE_POOL_SIZE ) ).thenReturn( "4" );
+        when( valueGeneratorService.generateValues( any(), any(), any(), eq( 4 ) ) )
+            .thenReturn( Arrays.asList( "01", "02", "03", "04" ) );
+        List<ReservedValue> values = reservedValueService
+            .reserve( createTrackedEntityAttribute( Objects.TRACKEDENTITYATTRIBUTE, ownerUid, sequentialText ), 1,
+                new HashMap<>(), futureDate );
+        assertEquals( 1, values.size() );
+        assertEquals( "TEST-01", values.get( 0 ).getValue() );
+        verify( reservedValueStore, times( 1 ) ).bulkInsertReservedValues( reservedValues.capture() );
+        assertEquals( 3, reservedValues.getValue().size() );
+        assertTrue( reservedValues.getValue().stream().allMatch( ReservedValue::isPooled ) );
+    }
+
+    @Test
+    void shouldReplenishDepletedPools()
+        throws TextPatternParser.TextPatternParsingException,
+        ReserveValueException,
+        ExecutionException,
+        InterruptedException
+    {
+        when( reservedValueStore.getPooledValueCounts( anyString(), anyString() ) )
+            .thenReturn( Collections.singletonMap( "TEST-SEQUENTIAL(##)", 1 ) );
+        when( valueGeneratorService.generateValues( any(), any(), any(), eq( 3 ) ) )
+            .thenReturn( Arrays.asList( "01", "02", "03" ) );
+        assertEquals( 3, reservedValueService.replenishPools(
+            createTrackedEntityAttribute( Objects.TRACKEDENTITYATTRIBUTE, ownerUid, sequentialText ), 4 ) );
+        verify( reservedValueStore, times( 1 ) ).bulkInsertReservedValues( reservedValues.capture() );
+        assertEquals( "TEST-03", reservedValues.getValue().get( 2 ).getValue() );
+    }
+
+    @Test
+    void shouldNotReplenishPoolsAboveHalfFull()
+        throws TextPatternParser.TextPatternParsingException
+    {
+        when( reservedValueStore.getPooledValueCounts( anyString(), anyString() ) )
+            .thenReturn( Collections.singletonMap( "TEST-SEQUENTIAL(##)", 3 ) );
+        assertEquals( 0, reservedValueService.replenishPools(
+            createTrackedEntityAttribute( Objects.TRACKEDENTITYATTRIBUTE, ownerUid, sequentialText ), 4 ) );
+        verify( reservedValueStore, times( 0 ) ).bulkInsertReservedValues( anyList() );
+    }
+
     @Test
     void shouldDeleteUsedOrExpiredReservedValues()
     {
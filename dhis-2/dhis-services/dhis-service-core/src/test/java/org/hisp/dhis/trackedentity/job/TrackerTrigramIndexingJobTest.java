@@ -146,4 +146,47 @@ public class TrackerTrigramIndexingJobTest
         verify( trackedEntityAttributeTableManager, times( 2 ) ).createTrigramIndex( any() );
     }
 
+    @Test
+    public void testRunJobIndexingAllAttributesSkipsIndexedAttributes()
+    {
+        TrackedEntityAttribute tea1 = new TrackedEntityAttribute();
+        tea1.setId( 1L );
+        tea1.setUid( "tea1" );
+        TrackedEntityAttribute tea2 = new TrackedEntityAttribute();
+        tea2.setId( 2L );
+        tea2.setUid( "tea2" );
+
+        when( trackedEntityAttributeService.getAllTrigramIndexableTrackedEntityAttributes() ).thenReturn(
+            Stream.of( tea1, tea2 ).collect( Collectors.toSet() ) );
+        when( trackedEntityAttributeTableManager.getAttributeIdsWithTrigramIndexCreated() ).thenReturn(
+            Collections.singletonList( 1L ) );
+        JobConfiguration jobConfiguration = new JobConfiguration();
+        TrackerTrigramIndexJobParameters jp = new TrackerTrigramIndexJobParameters();
+        jp.setIndexAllAttributes( true );
+        jobConfiguration.setJobParameters( jp );
+
+        job.execute( jobConfiguration, NoopJobProgress.INSTANCE );
+
+        verify( trackedEntityAttributeTableManager, times( 1 ) ).createTrigramIndex( tea2 );
+        verify( trackedEntityAttributeTableManager, never() ).createTrigramIndex( tea1 );
+        verify( trackedEntityAttributeTableManager, never() ).dropTrigramIndex( any() );
+    }
+
+    @Test
+    public void testRunJobRebuildingIndexes()
+    {
+        when( trackedEntityAttributeTableManager.getAttributeIdsWithTrigramIndexCreated() ).thenReturn(
+            Arrays.asList( 12l, 13l ) );
+
+        JobConfiguration jobConfiguration = new JobConfiguration();
+        TrackerTrigramIndexJobParameters jp = new TrackerTrigramIndexJobParameters();
+        jp.setSkipIndexDeletion( true );
+        jp.setRebuildIndexes( true );
+        jobConfiguration.setJobParameters( jp );
+
+        job.execute( jobConfiguration, NoopJobProgress.INSTANCE );
+
+        verify( trackedEntityAttributeTableManager, times( 2 ) ).rebuildTrigramIndex( any() );
+        verify( trackedEntityAttributeTableManager, never() ).dropTrigramIndex( any() );
+    }
 }
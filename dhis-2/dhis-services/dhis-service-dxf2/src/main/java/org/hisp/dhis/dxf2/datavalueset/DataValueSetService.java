@@ -83,6 +83,23 @@ public interface DataValueSetService
     void exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes, int pageSize,
         int page );
 
+    /**
+     * Query for {@link DataValueSet DataValueSets} and write result as JSON,
+     * paging by keyset of last updated time and primary key.
+     *
+     * @param lastUpdated specifies the date to filter data values last updated
+     *        after
+     * @param outputStream the stream to write to
+     * @param idSchemes idSchemes
+     * @param pageSize maximum number of data values to write
+     * @param after the key of the last data value of the previous page, or
+     *        null to start with the first page
+     * @return the key of the last data value written, or null if no data
+     *         values were written
+     */
+    DataValueSyncKey exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes,
+        int pageSize, DataValueSyncKey after );
+
     void exportDataValueSetCsv( DataExportParams params, Writer writer );
 
     RootNode getDataValueSetTemplate( DataSet dataSet, Period period, List<String> orgUnits, boolean writeComments,
@@ -67,4 +67,23 @@ public interface DataValueSetStore
      */
     void exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes, int pageSize,
         int page );
+
+    /**
+     * Query for {@link DataValueSet DataValueSets} and write result as JSON,
+     * paging by keyset. The data values are ordered by last updated time and
+     * primary key, and only the values positioned after the given key are
+     * written.
+     *
+     * @param lastUpdated specifies the date to filter data values last updated
+     *        after
+     * @param outputStream the stream to write to
+     * @param idSchemes idSchemes
+     * @param pageSize maximum number of data values to write
+     * @param after the key of the last data value of the previous page, or
+     *        null to start with the first page
+     * @return the key of the last data value written, or null if no data
+     *         values were written
+     */
+    DataValueSyncKey exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes,
+        int pageSize, DataValueSyncKey after );
 }
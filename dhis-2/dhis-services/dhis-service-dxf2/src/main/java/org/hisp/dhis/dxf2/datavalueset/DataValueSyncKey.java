@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.sql.Timestamp;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Position of a data value in the keyset used to page through data values for
+ * synchronization. Data values are ordered by last updated time and then by
+ * the columns of their composite primary key.
+ */
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public final class DataValueSyncKey
+{
+    private static final String SEPARATOR = ":";
+
+    /**
+     * Last updated time, including the sub-millisecond precision of the
+     * database column.
+     */
+    private final Timestamp lastUpdated;
+
+    private final long dataElementId;
+
+    private final long periodId;
+
+    private final long sourceId;
+
+    private final long categoryOptionComboId;
+
+    private final long attributeOptionComboId;
+
+    /**
+     * Encodes this key as a string which can be parsed with
+     * {@link #decode(String)}.
+     */
+    public String encode()
+    {
+        return String.join( SEPARATOR,
+            String.valueOf( lastUpdated.getTime() ),
+            String.valueOf( lastUpdated.getNanos() ),
+            String.valueOf( dataElementId ),
+            String.valueOf( periodId ),
+            String.valueOf( sourceId ),
+            String.valueOf( categoryOptionComboId ),
+            String.valueOf( attributeOptionComboId ) );
+    }
+
+    /**
+     * Parses a key encoded with {@link #encode()}.
+     *
+     * @param value the encoded key.
+     * @return the key.
+     * @throws IllegalArgumentException if the value is not a valid key.
+     */
+    public static DataValueSyncKey decode( String value )
+    {
+        String[] parts = value.split( SEPARATOR );
+
+        if ( parts.length != 7 )
+        {
+            throw new IllegalArgumentException( "Invalid data value sync key: " + value );
+        }
+
+        try
+        {
+            Timestamp lastUpdated = new Timestamp( Long.parseLong( parts[0] ) );
+            lastUpdated.setNanos( Integer.parseInt( parts[1] ) );
+
+            return new DataValueSyncKey( lastUpdated, Long.parseLong( parts[2] ), Long.parseLong( parts[3] ),
+                Long.parseLong( parts[4] ), Long.parseLong( parts[5] ), Long.parseLong( parts[6] ) );
+        }
+        catch ( NumberFormatException ex )
+        {
+            throw new IllegalArgumentException( "Invalid data value sync key: " + value, ex );
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return encode();
+    }
+}
@@ -74,6 +74,8 @@ import org.hisp.dhis.datavalue.DataExportParams;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueAudit;
 import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.datavalue.DataValueStatisticsChanges;
+import org.hisp.dhis.datavalue.DataValueStatisticsStore;
 import org.hisp.dhis.dxf2.common.ImportOptions;
 import org.hisp.dhis.dxf2.datavalueset.ImportContext.DataSetContext;
 import org.hisp.dhis.dxf2.importsummary.ImportCount;
@@ -139,6 +141,12 @@ public class DefaultDataValueSetService
 
     private static final int CACHE_MISS_THRESHOLD = 250;
 
+    /**
+     * Number of imported data values after which the data value batch and the
+     * collected statistics changes are flushed together.
+     */
+    private static final int FLUSH_INTERVAL = 10_000;
+
     private final IdentifiableObjectManager identifiableObjectManager;
 
     private final CategoryService categoryService;
@@ -181,6 +189,8 @@ public class DefaultDataValueSetService
 
     private final SchemaService schemaService;
 
+    private final DataValueStatisticsStore dataValueStatisticsStore;
+
     @Override
     public void setCurrentUserService( CurrentUserService currentUserService )
     {
@@ -404,6 +414,14 @@ public class DefaultDataValueSetService
         dataValueSetStore.exportDataValueSetJson( lastUpdated, outputStream, idSchemes, pageSize, page );
     }
 
+    @Override
+    @Transactional
+    public DataValueSyncKey exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes,
+        int pageSize, DataValueSyncKey after )
+    {
+        return dataValueSetStore.exportDataValueSetJson( lastUpdated, outputStream, idSchemes, pageSize, after );
+    }
+
     @Override
     @Transactional
     public void exportDataValueSetCsv( DataExportParams params, Writer writer )
@@ -715,16 +733,18 @@ public class DefaultDataValueSetService
             for ( DataValueEntry dataValue : values )
             {
                 importDataValue( context, dataSetContext, importCount, now, index++, dataValue );
+                flushDataValues( context, index );
             }
         }
         DataValueEntry dataValue = reader.readNext();
         while ( dataValue != null )
         {
             importDataValue( context, dataSetContext, importCount, now, index++, dataValue );
+            flushDataValues( context, index );
             dataValue = reader.readNext();
         }
 
-        context.getDataValueBatchHandler().flush();
+        flushDataValues( context );
 
         if ( !context.isSkipAudit() )
         {
@@ -746,6 +766,30 @@ public class DefaultDataValueSetService
         return context.getSummary();
     }
 
+    /**
+     * Flushes the data value batch and the statistics changes every
+     * {@link #FLUSH_INTERVAL} imported data values, so that the statistics
+     * never fall far behind the data values already written by the batch.
+     */
+    private void flushDataValues( ImportContext context, int index )
+    {
+        if ( index % FLUSH_INTERVAL == 0 )
+        {
+            flushDataValues( context );
+        }
+    }
+
+    /**
+     * Flushes the data value batch and merges the statistics changes collected
+     * since the previous flush.
+     */
+    private void flushDataValues( ImportContext context )
+    {
+        context.getDataValueBatchHandler().flush();
+
+        dataValueStatisticsStore.updateStatistics( context.takeStatisticsChanges() );
+    }
+
     private void importDataValue( ImportContext context, DataSetContext dataSetContext, ImportCount importCount,
         Date now, int index, DataValueEntry dataValue )
     {
@@ -843,6 +887,7 @@ public class DefaultDataValueSetService
             if ( !context.isDryRun() )
             {
                 context.getDataValueBatchHandler().updateObject( internalValue );
+                context.getStatisticsChanges().add( internalValue );
 
                 if ( valueContext.getDataElement().isFileType() )
                 {
@@ -861,6 +906,11 @@ public class DefaultDataValueSetService
         {
             added = context.getDataValueBatchHandler().addObject( internalValue );
 
+            if ( added )
+            {
+                context.getStatisticsChanges().add( internalValue );
+            }
+
             if ( added && valueContext.getDataElement().isFileType() )
             {
                 FileResource fr = fileResourceService.getFileResource( internalValue.getValue() );
@@ -896,6 +946,7 @@ public class DefaultDataValueSetService
             }
 
             context.getDataValueBatchHandler().updateObject( internalValue );
+            context.getStatisticsChanges().remove( internalValue, existingValue.getValue() );
 
             if ( !context.isSkipAudit() )
             {
@@ -935,6 +986,15 @@ public class DefaultDataValueSetService
         {
             context.getDataValueBatchHandler().updateObject( internalValue );
 
+            if ( internalValue.isDeleted() )
+            {
+                context.getStatisticsChanges().remove( internalValue, existingValue.getValue() );
+            }
+            else
+            {
+                context.getStatisticsChanges().replace( internalValue, existingValue.getValue() );
+            }
+
             if ( !context.isSkipAudit() )
             {
                 DataValueAudit auditValue = new DataValueAudit( internalValue, existingValue.getValue(),
@@ -1085,6 +1145,7 @@ public class DefaultDataValueSetService
                 .createBatchHandler( DataValueBatchHandler.class ).init() )
             .auditBatchHandler( skipAudit ? null
                 : batchHandlerFactory.createBatchHandler( DataValueAuditBatchHandler.class ).init() )
+            .statisticsChanges( new DataValueStatisticsChanges() )
             .singularNameForType( klass -> schemaService.getDynamicSchema( klass ).getSingular() )
             .build();
     }
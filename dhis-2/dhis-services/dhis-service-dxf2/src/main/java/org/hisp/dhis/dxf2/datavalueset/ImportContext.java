@@ -49,6 +49,7 @@ import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.datavalue.DataValueAudit;
 import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.datavalue.DataValueStatisticsChanges;
 import org.hisp.dhis.dxf2.common.ImportOptions;
 import org.hisp.dhis.dxf2.importsummary.ImportConflict;
 import org.hisp.dhis.dxf2.importsummary.ImportConflictDescriptor;
@@ -188,6 +189,8 @@ public final class ImportContext
 
     private final BatchHandler<DataValueAudit> auditBatchHandler;
 
+    private DataValueStatisticsChanges statisticsChanges;
+
     private final Function<Class<? extends IdentifiableObject>, String> singularNameForType;
 
     public String getCurrentUserName()
@@ -195,6 +198,17 @@ public final class ImportContext
         return currentUser.getUsername();
     }
 
+    /**
+     * Returns the statistics changes collected so far and starts collecting
+     * into a fresh instance.
+     */
+    public DataValueStatisticsChanges takeStatisticsChanges()
+    {
+        DataValueStatisticsChanges changes = statisticsChanges;
+        statisticsChanges = new DataValueStatisticsChanges();
+        return changes;
+    }
+
     public ImportContext error()
     {
         summary.setStatus( ImportStatus.ERROR );
@@ -146,6 +146,45 @@ public class SpringDataValueSetStore
         }
     }
 
+    @Override
+    public DataValueSyncKey exportDataValueSetJson( Date lastUpdated, OutputStream out, IdSchemes idSchemes,
+        int pageSize, DataValueSyncKey after )
+    {
+        final String keyColumns = "dv.lastupdated, dv.dataelementid, dv.periodid, dv.sourceid, "
+            + "dv.categoryoptioncomboid, dv.attributeoptioncomboid";
+
+        String sql = buildDataValueSql( lastUpdated, idSchemes );
+        Object[] args = {};
+
+        if ( after != null )
+        {
+            sql += "and (" + keyColumns + ") > (?, ?, ?, ?, ?, ?) ";
+            args = new Object[] { after.getLastUpdated(), after.getDataElementId(), after.getPeriodId(),
+                after.getSourceId(), after.getCategoryOptionComboId(), after.getAttributeOptionComboId() };
+        }
+
+        sql += "order by " + keyColumns + " limit " + pageSize;
+
+        final DataValueSyncKey[] last = new DataValueSyncKey[1];
+
+        try ( DataValueSetWriter writer = new JsonDataValueSetWriter( out ) )
+        {
+            writer.writeHeader();
+
+            final Calendar calendar = PeriodType.getCalendar();
+
+            jdbcTemplate.query( sql, ( ResultSet rs ) -> {
+                writer.writeValue( new ResultSetDataValueEntry( rs, calendar ) );
+
+                last[0] = new DataValueSyncKey( rs.getTimestamp( "lastupdated" ), rs.getLong( "dataelementid" ),
+                    rs.getLong( "periodid" ), rs.getLong( "sourceid" ), rs.getLong( "categoryoptioncomboid" ),
+                    rs.getLong( "attributeoptioncomboid" ) );
+            }, args );
+        }
+
+        return last[0];
+    }
+
     private String buildDataValueSql( Date lastUpdated, IdSchemes idSchemes )
     {
         String deScheme = idSchemes.getDataElementIdScheme().getIdentifiableString().toLowerCase();
@@ -156,7 +195,8 @@ public class SpringDataValueSetStore
         final String sql = "select de." + deScheme + " as deid, pe.startdate as pestart, pt.name as ptname, ou."
             + ouScheme + " as ouid, " +
             "coc." + ocScheme + " as cocid, aoc." + aocScheme + " as aocid, " +
-            "dv.value, dv.storedby, dv.created, dv.lastupdated, dv.comment, dv.followup, dv.deleted " +
+            "dv.value, dv.storedby, dv.created, dv.lastupdated, dv.comment, dv.followup, dv.deleted, " +
+            "dv.dataelementid, dv.periodid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid " +
             "from datavalue dv " +
             "join dataelement de on (dv.dataelementid=de.dataelementid) " +
             "join period pe on (dv.periodid=pe.periodid) " +
@@ -56,10 +56,12 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -89,6 +91,7 @@ import org.hisp.dhis.dxf2.events.enrollment.EnrollmentStatus;
 import org.hisp.dhis.dxf2.events.importer.EventImporter;
 import org.hisp.dhis.dxf2.events.importer.EventManager;
 import org.hisp.dhis.dxf2.events.importer.context.WorkContext;
+import org.hisp.dhis.dxf2.events.importer.context.WorkContextCache;
 import org.hisp.dhis.dxf2.events.importer.context.WorkContextLoader;
 import org.hisp.dhis.dxf2.events.relationship.RelationshipService;
 import org.hisp.dhis.dxf2.events.report.EventRow;
@@ -131,6 +134,7 @@ import org.hisp.dhis.user.UserService;
 import org.hisp.dhis.util.DateUtils;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 
 /**
@@ -234,15 +238,31 @@ public abstract class AbstractEventService implements EventService
     @Override
     public ImportSummaries addEvents( final List<Event> events, ImportOptions importOptions,
         final JobConfiguration jobConfiguration )
+    {
+        return addEvents( events.iterator(), importOptions, jobConfiguration );
+    }
+
+    @Transactional
+    @Override
+    public ImportSummaries addEvents( final Iterator<Event> events, ImportOptions importOptions,
+        final JobConfiguration jobConfiguration )
     {
         notifier.clear( jobConfiguration ).notify( jobConfiguration, "Importing events" );
         importOptions = updateImportOptions( importOptions );
 
         try
         {
-            final WorkContext workContext = workContextLoader.load( importOptions, events );
+            final ImportSummaries importSummaries = new ImportSummaries();
+            final WorkContextCache cache = new WorkContextCache();
+            final Iterator<List<Event>> chunks = Iterators.partition( events, EventImporter.CHUNK_SIZE );
 
-            final ImportSummaries importSummaries = eventManager.addEvents( events, workContext );
+            while ( chunks.hasNext() )
+            {
+                final List<Event> chunk = chunks.next();
+                final WorkContext workContext = workContextLoader.load( importOptions, chunk, cache );
+
+                importSummaries.addImportSummaries( eventManager.addEvents( chunk, workContext ) );
+            }
 
             if ( jobConfiguration != null )
             {
@@ -293,7 +313,7 @@ public abstract class AbstractEventService implements EventService
 
         Events events = new Events();
 
-        if ( params.isPaging() )
+        if ( params.isPaging() && !params.isKeysetPaging() )
         {
             int count = 0;
 
@@ -310,9 +330,29 @@ public abstract class AbstractEventService implements EventService
 
         events.setEvents( eventList );
 
+        if ( params.getNextCursor() != null )
+        {
+            events.setNextCursor( params.getNextCursor().encode() );
+        }
+
         return events;
     }
 
+    @Transactional( readOnly = true )
+    @Override
+    public void streamEvents( EventSearchParams params, Consumer<Event> consumer )
+    {
+        User user = currentUserService.getCurrentUser();
+
+        validate( params, user );
+
+        List<OrganisationUnit> organisationUnits = getOrganisationUnits( params, user );
+
+        params.handleCurrentUserSelectionMode( user );
+
+        eventStore.streamEvents( params, organisationUnits, consumer );
+    }
+
     @Transactional( readOnly = true )
     @Override
     public Grid getEventsGrid( EventSearchParams params )
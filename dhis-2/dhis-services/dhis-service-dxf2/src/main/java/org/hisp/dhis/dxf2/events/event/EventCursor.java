@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.events.event;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+import lombok.Value;
+
+import org.hisp.dhis.common.IllegalQueryException;
+
+/**
+ * Position of the last event of a page in the keyset ordering of events by
+ * last updated and id, both descending. The next page holds the events
+ * positioned after the cursor, which unlike offset paging does not require the
+ * database to skip all preceding events.
+ */
+@Value
+public class EventCursor
+{
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Last updated timestamp of the event, including sub-millisecond
+     * precision.
+     */
+    Timestamp lastUpdated;
+
+    /**
+     * Database identifier of the event.
+     */
+    long id;
+
+    /**
+     * Encodes this cursor as an opaque, URL safe string.
+     *
+     * @return the encoded cursor.
+     */
+    public String encode()
+    {
+        String value = lastUpdated.toString() + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString( value.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    /**
+     * Decodes the given string produced by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor.
+     * @return the cursor.
+     * @throws IllegalQueryException if the cursor is not valid.
+     */
+    public static EventCursor decode( String cursor )
+    {
+        try
+        {
+            String value = new String( Base64.getUrlDecoder().decode( cursor ), StandardCharsets.UTF_8 );
+            int separator = value.lastIndexOf( SEPARATOR );
+
+            return new EventCursor( Timestamp.valueOf( value.substring( 0, separator ) ),
+                Long.parseLong( value.substring( separator + 1 ) ) );
+        }
+        catch ( IllegalArgumentException | IndexOutOfBoundsException ex )
+        {
+            throw new IllegalQueryException( "Cursor is invalid: " + cursor );
+        }
+    }
+}
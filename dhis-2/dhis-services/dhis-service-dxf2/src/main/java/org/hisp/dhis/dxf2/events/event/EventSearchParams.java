@@ -153,6 +153,24 @@ public class EventSearchParams
 
     private boolean skipPaging;
 
+    /**
+     * Indicates whether to page by keyset, ordering events by last updated and
+     * id, instead of by offset.
+     */
+    private boolean keysetPaging;
+
+    /**
+     * Position after which to start the page when paging by keyset, null for
+     * the first page.
+     */
+    private EventCursor cursor;
+
+    /**
+     * Position of the last event read when paging by keyset, set by the event
+     * store. Null if no events were read.
+     */
+    private EventCursor nextCursor;
+
     private boolean includeRelationships;
 
     private List<OrderParam> orders;
@@ -568,6 +586,39 @@ public class EventSearchParams
         return this;
     }
 
+    public boolean isKeysetPaging()
+    {
+        return keysetPaging;
+    }
+
+    public EventSearchParams setKeysetPaging( boolean keysetPaging )
+    {
+        this.keysetPaging = keysetPaging;
+        return this;
+    }
+
+    public EventCursor getCursor()
+    {
+        return cursor;
+    }
+
+    public EventSearchParams setCursor( EventCursor cursor )
+    {
+        this.cursor = cursor;
+        return this;
+    }
+
+    public EventCursor getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    public EventSearchParams setNextCursor( EventCursor nextCursor )
+    {
+        this.nextCursor = nextCursor;
+        return this;
+    }
+
     public boolean isIncludeAttributes()
     {
         return includeAttributes;
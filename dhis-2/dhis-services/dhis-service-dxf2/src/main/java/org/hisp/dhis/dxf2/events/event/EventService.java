@@ -30,9 +30,11 @@ package org.hisp.dhis.dxf2.events.event;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.dxf2.common.ImportOptions;
@@ -54,6 +56,12 @@ public interface EventService
 
     Events getEvents( EventSearchParams params );
 
+    /**
+     * Hands the events matching the given parameters to the given consumer as
+     * they are read, without holding all of them in memory.
+     */
+    void streamEvents( EventSearchParams params, Consumer<Event> consumer );
+
     EventRows getEventRows( EventSearchParams params );
 
     Grid getEventsGrid( EventSearchParams params );
@@ -106,6 +114,13 @@ public interface EventService
 
     ImportSummaries addEvents( List<Event> events, ImportOptions importOptions, JobConfiguration jobId );
 
+    /**
+     * Adds the events read from the given iterator. Events are processed in
+     * chunks, so that the iterator can stream events from the payload without
+     * holding all of them in memory.
+     */
+    ImportSummaries addEvents( Iterator<Event> events, ImportOptions importOptions, JobConfiguration jobId );
+
     ImportSummaries addEventsXml( InputStream inputStream, ImportOptions importOptions )
         throws IOException;
 
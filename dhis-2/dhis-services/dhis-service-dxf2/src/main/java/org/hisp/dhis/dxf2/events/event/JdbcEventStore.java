@@ -78,10 +78,12 @@ import static org.hisp.dhis.util.DateUtils.getMediumDateString;
 
 import java.io.IOException;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
@@ -90,6 +92,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
@@ -142,6 +145,8 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.rowset.ResultSetWrappingSqlRowSet;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
@@ -152,9 +157,7 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
-import com.google.gson.Gson;
 
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
@@ -308,6 +311,16 @@ public class JdbcEventStore implements EventStore
 
     private static final String NULL = "null";
 
+    /**
+     * Max number of events to complete and hand over to the consumer at once.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * Number of rows to fetch from the database at once when reading events.
+     */
+    private static final int FETCH_SIZE = 1000;
+
     static
     {
         INSERT_EVENT_SQL = "insert into programstageinstance (" +
@@ -338,6 +351,11 @@ public class JdbcEventStore implements EventStore
         {
         } );
 
+    private static final ObjectReader relationshipIdJsonReader = JsonEventDataValueSetBinaryType.MAPPER
+        .readerFor( new TypeReference<List<Long>>()
+        {
+        } );
+
     private final StatementBuilder statementBuilder;
 
     private final JdbcTemplate jdbcTemplate;
@@ -363,29 +381,107 @@ public class JdbcEventStore implements EventStore
     public List<Event> getEvents( EventSearchParams params, List<OrganisationUnit> organisationUnits,
         Map<String, Set<String>> psdesWithSkipSyncTrue )
     {
-        User user = currentUserService.getCurrentUser();
+        List<Event> events = new ArrayList<>();
 
-        setAccessiblePrograms( user, params );
+        queryEvents( params, organisationUnits, psdesWithSkipSyncTrue, events::addAll );
 
-        Map<String, Event> eventUidToEventMap = new HashMap<>( params.getPageSizeWithDefault() );
-        List<Event> events = new ArrayList<>();
-        List<Long> relationshipIds = new ArrayList<>();
+        return events;
+    }
 
-        final Gson gson = new Gson();
+    @Override
+    public void streamEvents( EventSearchParams params, List<OrganisationUnit> organisationUnits,
+        Consumer<Event> consumer )
+    {
+        queryEvents( params, organisationUnits, Collections.emptyMap(), events -> events.forEach( consumer ) );
+    }
+
+    /**
+     * Reads events row by row and hands them to the given consumer in chunks of
+     * at most {@link #CHUNK_SIZE} events, so that events can be consumed while
+     * the result set is read. Rows of an event are adjacent since events are
+     * always ordered by id last.
+     */
+    private void queryEvents( EventSearchParams params, List<OrganisationUnit> organisationUnits,
+        Map<String, Set<String>> psdesWithSkipSyncTrue, Consumer<List<Event>> consumer )
+    {
+        User user = currentUserService.getCurrentUser();
+
+        setAccessiblePrograms( user, params );
 
         String sql = buildSql( params, organisationUnits, user );
-        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
 
         log.debug( "Event query SQL: " + sql );
 
-        Set<String> notes = new HashSet<>();
+        EventRowCallbackHandler handler = new EventRowCallbackHandler( params, user, psdesWithSkipSyncTrue,
+            consumer );
 
-        while ( rowSet.next() )
+        jdbcTemplate.query( connection -> {
+            PreparedStatement statement = connection.prepareStatement( sql );
+            statement.setFetchSize( FETCH_SIZE );
+            return statement;
+        }, handler );
+
+        handler.flush();
+
+        if ( params.isKeysetPaging() )
         {
+            params.setNextCursor( handler.getLastCursor() );
+        }
+    }
+
+    /**
+     * Maps event rows to events. An event spans multiple rows, one for each
+     * note and attribute category option of the event.
+     */
+    private class EventRowCallbackHandler
+        implements RowCallbackHandler
+    {
+        private final EventSearchParams params;
+
+        private final Map<String, Set<String>> psdesWithSkipSyncTrue;
+
+        private final Consumer<List<Event>> consumer;
+
+        private final boolean isSuper;
+
+        private final Map<String, Event> eventUidToEventMap = new HashMap<>();
+
+        private final List<Event> events = new ArrayList<>();
+
+        private final List<Long> relationshipIds = new ArrayList<>();
+
+        private final Set<String> notes = new HashSet<>();
+
+        private SqlRowSet rowSet;
+
+        private Timestamp lastUpdated;
+
+        private long lastId;
+
+        EventRowCallbackHandler( EventSearchParams params, User user, Map<String, Set<String>> psdesWithSkipSyncTrue,
+            Consumer<List<Event>> consumer )
+        {
+            this.params = params;
+            this.psdesWithSkipSyncTrue = psdesWithSkipSyncTrue;
+            this.consumer = consumer;
+            this.isSuper = isSuper( user );
+        }
+
+        @Override
+        public void processRow( ResultSet resultSet )
+        {
+            if ( rowSet == null )
+            {
+                rowSet = new ResultSetWrappingSqlRowSet( resultSet );
+            }
+
+            lastUpdated = rowSet.getTimestamp( "psi_lastupdated" );
+            lastId = rowSet.getLong( "psi_id" );
+
             if ( rowSet.getString( "psi_uid" ) == null
-                || (params.getCategoryOptionCombo() == null && !isSuper( user ) && !userHasAccess( rowSet )) )
+                || (params.getCategoryOptionCombo() == null && !isSuper && !userHasAccess( rowSet )) )
             {
-                continue;
+                return;
             }
 
             String psiUid = rowSet.getString( "psi_uid" );
@@ -394,6 +490,11 @@ public class JdbcEventStore implements EventStore
 
             if ( !eventUidToEventMap.containsKey( psiUid ) )
             {
+                if ( events.size() >= CHUNK_SIZE )
+                {
+                    flush();
+                }
+
                 validateIdentifiersPresence( rowSet, params.getIdSchemes(), true );
 
                 event = new Event();
@@ -424,7 +525,7 @@ public class JdbcEventStore implements EventStore
                     event.setFollowup( rowSet.getBoolean( "pi_followup" ) );
                 }
 
-                if ( params.getCategoryOptionCombo() == null && !isSuper( user ) )
+                if ( params.getCategoryOptionCombo() == null && !isSuper )
                 {
                     event.setOptionSize( rowSet.getInt( "option_size" ) );
                 }
@@ -543,40 +644,69 @@ public class JdbcEventStore implements EventStore
                 {
                     String value = pGobject.getValue();
 
-                    relationshipIds.addAll( Lists.newArrayList( gson.fromJson( value, Long[].class ) ) );
+                    relationshipIds.addAll( convertRelationshipIdJsonIntoList( value ) );
                 }
             }
         }
 
-        final Multimap<String, Relationship> map = eventStore
-            .getRelationshipsByIds( relationshipIds );
-
-        if ( !map.isEmpty() )
+        /**
+         * Completes the events read so far and hands them to the consumer.
+         */
+        void flush()
         {
-            events.forEach( e -> e.getRelationships().addAll( map.get( e.getEvent() ) ) );
-        }
+            if ( events.isEmpty() )
+            {
+                return;
+            }
 
-        IdSchemes idSchemes = ObjectUtils.firstNonNull( params.getIdSchemes(), new IdSchemes() );
-        IdScheme dataElementIdScheme = idSchemes.getDataElementIdScheme();
+            final Multimap<String, Relationship> map = eventStore
+                .getRelationshipsByIds( relationshipIds );
 
-        if ( dataElementIdScheme != IdScheme.ID && dataElementIdScheme != IdScheme.UID )
-        {
-            CachingMap<String, String> dataElementUidToIdentifierCache = new CachingMap<>();
+            if ( !map.isEmpty() )
+            {
+                events.forEach( e -> e.getRelationships().addAll( map.get( e.getEvent() ) ) );
+            }
 
-            List<Collection<DataValue>> dataValuesList = events.stream().map( Event::getDataValues )
-                .collect( Collectors.toList() );
-            populateCache( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
-            convertDataValuesIdentifiers( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+            IdSchemes idSchemes = ObjectUtils.firstNonNull( params.getIdSchemes(), new IdSchemes() );
+            IdScheme dataElementIdScheme = idSchemes.getDataElementIdScheme();
+
+            if ( dataElementIdScheme != IdScheme.ID && dataElementIdScheme != IdScheme.UID )
+            {
+                CachingMap<String, String> dataElementUidToIdentifierCache = new CachingMap<>();
+
+                List<Collection<DataValue>> dataValuesList = events.stream().map( Event::getDataValues )
+                    .collect( Collectors.toList() );
+                populateCache( dataElementIdScheme, dataValuesList, dataElementUidToIdentifierCache );
+                convertDataValuesIdentifiers( dataElementIdScheme, dataValuesList,
+                    dataElementUidToIdentifierCache );
+            }
+
+            if ( params.getCategoryOptionCombo() == null && !isSuper )
+            {
+                consumer.accept( events.stream().filter( ev -> ev.getAttributeCategoryOptions() != null
+                    && splitToArray( ev.getAttributeCategoryOptions(), TextUtils.SEMICOLON ).size() == ev
+                        .getOptionSize() )
+                    .collect( Collectors.toList() ) );
+            }
+            else
+            {
+                consumer.accept( new ArrayList<>( events ) );
+            }
+
+            eventUidToEventMap.clear();
+            events.clear();
+            relationshipIds.clear();
+            notes.clear();
         }
 
-        if ( params.getCategoryOptionCombo() == null && !isSuper( user ) )
+        /**
+         * Returns the position of the last row read, or null if no rows were
+         * read.
+         */
+        EventCursor getLastCursor()
         {
-            return events.stream().filter( ev -> ev.getAttributeCategoryOptions() != null
-                && splitToArray( ev.getAttributeCategoryOptions(), TextUtils.SEMICOLON ).size() == ev.getOptionSize() )
-                .collect( Collectors.toList() );
+            return lastUpdated != null ? new EventCursor( lastUpdated, lastId ) : null;
         }
-
-        return events;
     }
 
     @Override
@@ -955,11 +1085,18 @@ public class JdbcEventStore implements EventStore
     {
         StringBuilder sqlBuilder = new StringBuilder().append( "select * from (" );
 
-        sqlBuilder.append( getEventSelectQuery( params, organisationUnits, user ) );
+        if ( params.isKeysetPaging() )
+        {
+            sqlBuilder.append( getKeysetEventSelectQuery( params, organisationUnits, user ) );
+        }
+        else
+        {
+            sqlBuilder.append( getEventSelectQuery( params, organisationUnits, user ) );
 
-        sqlBuilder.append( getOrderQuery( params ) );
+            sqlBuilder.append( getOrderQuery( params ) );
 
-        sqlBuilder.append( getEventPagingQuery( params ) );
+            sqlBuilder.append( getEventPagingQuery( params ) );
+        }
 
         sqlBuilder.append( ") as event left join (" );
 
@@ -984,6 +1121,20 @@ public class JdbcEventStore implements EventStore
         return sqlBuilder.toString();
     }
 
+    /**
+     * Returns the event query for a keyset page. An event spans one row per
+     * attribute category option, so the page size is applied to the rank of
+     * the event rather than to the rows. This way a page always holds complete
+     * events and the cursor of the last row read is the last complete event.
+     */
+    private String getKeysetEventSelectQuery( EventSearchParams params, List<OrganisationUnit> organisationUnits,
+        User user )
+    {
+        return "select * from (select events.*, dense_rank() over (order by psi_lastupdated desc, psi_id desc) " +
+            "as psi_rank from (" + getEventSelectQuery( params, organisationUnits, user ) + ") as events) as ranked " +
+            "where psi_rank <= " + params.getPageSizeWithDefault() + " " + getOrderQuery( params );
+    }
+
     private String getEventSelectQuery( EventSearchParams params, List<OrganisationUnit> organisationUnits, User user )
     {
         SqlHelper hlp = new SqlHelper();
@@ -1257,6 +1408,14 @@ public class JdbcEventStore implements EventStore
                 .append( " (pi.uid in (" + getQuotedCommaDelimitedString( params.getProgramInstances() ) + "))" );
         }
 
+        if ( params.isKeysetPaging() && params.getCursor() != null )
+        {
+            sqlBuilder.append( hlp.whereAnd() )
+                .append( " (psi.lastupdated, psi.programstageinstanceid) < (timestamp '" )
+                .append( params.getCursor().getLastUpdated() ).append( "', " )
+                .append( params.getCursor().getId() ).append( ") " );
+        }
+
         return sqlBuilder.toString();
     }
 
@@ -1508,7 +1667,11 @@ public class JdbcEventStore implements EventStore
     {
         StringBuilder sqlBuilder = new StringBuilder().append( " " );
 
-        if ( !params.isSkipPaging() )
+        if ( params.isKeysetPaging() )
+        {
+            sqlBuilder.append( "limit " ).append( params.getPageSizeWithDefault() ).append( " " );
+        }
+        else if ( !params.isSkipPaging() )
         {
             sqlBuilder.append( "limit " ).append( params.getPageSizeWithDefault() ).append( " offset " )
                 .append( params.getOffset() ).append( " " );
@@ -1557,6 +1720,11 @@ public class JdbcEventStore implements EventStore
 
     private String getOrderQuery( EventSearchParams params )
     {
+        if ( params.isKeysetPaging() )
+        {
+            return "order by psi_lastupdated desc, psi_id desc ";
+        }
+
         ArrayList<String> orderFields = new ArrayList<>();
 
         if ( params.getGridOrders() != null )
@@ -1592,11 +1760,11 @@ public class JdbcEventStore implements EventStore
 
         if ( !orderFields.isEmpty() )
         {
-            return "order by " + StringUtils.join( orderFields, ',' ) + " ";
+            return "order by " + StringUtils.join( orderFields, ',' ) + ", psi_id desc ";
         }
         else
         {
-            return "order by psi_lastupdated desc ";
+            return "order by psi_lastupdated desc, psi_id desc ";
         }
     }
 
@@ -1826,6 +1994,19 @@ public class JdbcEventStore implements EventStore
         }
     }
 
+    private List<Long> convertRelationshipIdJsonIntoList( String jsonString )
+    {
+        try
+        {
+            return relationshipIdJsonReader.readValue( jsonString );
+        }
+        catch ( IOException e )
+        {
+            log.error( "Parsing relationship ids json string failed. String value: " + jsonString );
+            throw new IllegalArgumentException( e );
+        }
+    }
+
     private void convertDataValuesIdentifiers( IdScheme idScheme, List<Collection<DataValue>> dataValuesList,
         CachingMap<String, String> dataElementUidToIdentifierCache )
     {
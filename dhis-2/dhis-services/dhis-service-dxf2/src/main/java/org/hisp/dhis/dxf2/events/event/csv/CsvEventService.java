@@ -30,7 +30,10 @@ package org.hisp.dhis.dxf2.events.event.csv;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
@@ -40,7 +43,40 @@ public interface CsvEventService<T>
     void writeEvents( OutputStream outputStream, List<T> events, boolean withHeader )
         throws IOException;
 
+    /**
+     * Writes the events handed over by the given producer as they are
+     * produced, so that events do not have to be held in memory. Defaults to
+     * collecting the events before writing them.
+     */
+    default void streamEvents( OutputStream outputStream, Consumer<Consumer<T>> producer, boolean withHeader )
+        throws IOException
+    {
+        List<T> events = new ArrayList<>();
+
+        producer.accept( events::add );
+
+        writeEvents( outputStream, events, withHeader );
+    }
+
     List<T> readEvents( InputStream inputStream, boolean skipFirst )
         throws IOException,
         org.locationtech.jts.io.ParseException;
+
+    /**
+     * Reads events lazily, so that events can be processed while the input
+     * stream is read. Invalid rows surface as
+     * {@link IllegalArgumentException} while iterating.
+     */
+    default Iterator<T> iterateEvents( InputStream inputStream, boolean skipFirst )
+        throws IOException
+    {
+        try
+        {
+            return readEvents( inputStream, skipFirst ).iterator();
+        }
+        catch ( org.locationtech.jts.io.ParseException ex )
+        {
+            throw new IllegalArgumentException( ex.getMessage(), ex );
+        }
+    }
 }
@@ -30,8 +30,13 @@ package org.hisp.dhis.dxf2.events.event.csv;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.dxf2.events.event.DataValue;
@@ -44,6 +49,7 @@ import org.springframework.stereotype.Service;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvParser;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
@@ -71,47 +77,81 @@ public class DefaultCsvEventService
 
         for ( Event event : events )
         {
-            CsvEventDataValue templateDataValue = new CsvEventDataValue();
-            templateDataValue.setEvent( event.getEvent() );
-            templateDataValue.setStatus( event.getStatus() != null ? event.getStatus().name() : null );
-            templateDataValue.setProgram( event.getProgram() );
-            templateDataValue.setProgramStage( event.getProgramStage() );
-            templateDataValue.setEnrollment( event.getEnrollment() );
-            templateDataValue.setOrgUnit( event.getOrgUnit() );
-            templateDataValue.setEventDate( event.getEventDate() );
-            templateDataValue.setDueDate( event.getDueDate() );
-            templateDataValue.setStoredBy( event.getStoredBy() );
-            templateDataValue.setCompletedDate( event.getCompletedDate() );
-            templateDataValue.setCompletedBy( event.getCompletedBy() );
-
-            if ( event.getGeometry() != null )
-            {
-                templateDataValue.setGeometry( event.getGeometry().toText() );
+            dataValues.addAll( getDataValues( event ) );
+        }
+
+        writer.writeValue( outputStream, dataValues );
+    }
+
+    @Override
+    public void streamEvents( OutputStream outputStream, Consumer<Consumer<Event>> producer, boolean withHeader )
+        throws IOException
+    {
+        ObjectWriter writer = CSV_MAPPER.writer( CSV_SCHEMA.withUseHeader( withHeader ) );
 
-                if ( event.getGeometry().getGeometryType().equals( "Point" ) )
+        try ( SequenceWriter sequenceWriter = writer.writeValues( outputStream ) )
+        {
+            producer.accept( event -> {
+                try
                 {
-                    templateDataValue.setLongitude( event.getGeometry().getCoordinate().x );
-                    templateDataValue.setLatitude( event.getGeometry().getCoordinate().y );
+                    sequenceWriter.writeAll( getDataValues( event ) );
                 }
-            }
+                catch ( IOException ex )
+                {
+                    throw new UncheckedIOException( ex );
+                }
+            } );
+        }
+        catch ( UncheckedIOException ex )
+        {
+            throw ex.getCause();
+        }
+    }
 
-            for ( DataValue value : event.getDataValues() )
+    private List<CsvEventDataValue> getDataValues( Event event )
+    {
+        List<CsvEventDataValue> dataValues = new ArrayList<>();
+
+        CsvEventDataValue templateDataValue = new CsvEventDataValue();
+        templateDataValue.setEvent( event.getEvent() );
+        templateDataValue.setStatus( event.getStatus() != null ? event.getStatus().name() : null );
+        templateDataValue.setProgram( event.getProgram() );
+        templateDataValue.setProgramStage( event.getProgramStage() );
+        templateDataValue.setEnrollment( event.getEnrollment() );
+        templateDataValue.setOrgUnit( event.getOrgUnit() );
+        templateDataValue.setEventDate( event.getEventDate() );
+        templateDataValue.setDueDate( event.getDueDate() );
+        templateDataValue.setStoredBy( event.getStoredBy() );
+        templateDataValue.setCompletedDate( event.getCompletedDate() );
+        templateDataValue.setCompletedBy( event.getCompletedBy() );
+
+        if ( event.getGeometry() != null )
+        {
+            templateDataValue.setGeometry( event.getGeometry().toText() );
+
+            if ( event.getGeometry().getGeometryType().equals( "Point" ) )
             {
-                CsvEventDataValue dataValue = new CsvEventDataValue( templateDataValue );
-                dataValue.setDataElement( value.getDataElement() );
-                dataValue.setValue( value.getValue() );
-                dataValue.setProvidedElsewhere( value.getProvidedElsewhere() );
+                templateDataValue.setLongitude( event.getGeometry().getCoordinate().x );
+                templateDataValue.setLatitude( event.getGeometry().getCoordinate().y );
+            }
+        }
 
-                if ( value.getStoredBy() != null )
-                {
-                    dataValue.setStoredBy( value.getStoredBy() );
-                }
+        for ( DataValue value : event.getDataValues() )
+        {
+            CsvEventDataValue dataValue = new CsvEventDataValue( templateDataValue );
+            dataValue.setDataElement( value.getDataElement() );
+            dataValue.setValue( value.getValue() );
+            dataValue.setProvidedElsewhere( value.getProvidedElsewhere() );
 
-                dataValues.add( dataValue );
+            if ( value.getStoredBy() != null )
+            {
+                dataValue.setStoredBy( value.getStoredBy() );
             }
+
+            dataValues.add( dataValue );
         }
 
-        writer.writeValue( outputStream, dataValues );
+        return dataValues;
     }
 
     @Override
@@ -121,33 +161,98 @@ public class DefaultCsvEventService
     {
         List<Event> events = Lists.newArrayList();
 
+        try
+        {
+            iterateEvents( inputStream, skipFirst ).forEachRemaining( events::add );
+        }
+        catch ( IllegalArgumentException ex )
+        {
+            if ( ex.getCause() instanceof ParseException )
+            {
+                throw (ParseException) ex.getCause();
+            }
+
+            throw ex;
+        }
+
+        return events;
+    }
+
+    @Override
+    public Iterator<Event> iterateEvents( InputStream inputStream, boolean skipFirst )
+        throws IOException
+    {
         ObjectReader reader = CSV_MAPPER.readerFor( CsvEventDataValue.class )
             .with( CSV_SCHEMA.withSkipFirstDataRow( skipFirst ) );
 
-        MappingIterator<CsvEventDataValue> iterator = reader.readValues( inputStream );
-        Event event = new Event();
-        event.setEvent( "not_valid" );
+        return new CsvEventIterator( reader.readValues( inputStream ) );
+    }
+
+    /**
+     * Iterator which groups consecutive data value rows of the same event
+     * into one {@link Event}, reading rows only as events are requested.
+     */
+    private static final class CsvEventIterator
+        implements Iterator<Event>
+    {
+        private final MappingIterator<CsvEventDataValue> rows;
+
+        private CsvEventDataValue next;
+
+        CsvEventIterator( MappingIterator<CsvEventDataValue> rows )
+        {
+            this.rows = rows;
+            this.next = rows.hasNext() ? rows.next() : null;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return next != null;
+        }
 
-        while ( iterator.hasNext() )
+        @Override
+        public Event next()
         {
-            CsvEventDataValue dataValue = iterator.next();
+            if ( next == null )
+            {
+                throw new NoSuchElementException();
+            }
 
-            if ( !event.getEvent().equals( dataValue.getEvent() ) )
+            Event event = createEvent( next );
+
+            while ( next != null && Objects.equals( event.getEvent(), next.getEvent() ) )
             {
-                event = new Event();
-                event.setEvent( dataValue.getEvent() );
-                event.setStatus( StringUtils.isEmpty( dataValue.getStatus() )
-                    ? EventStatus.ACTIVE
-                    : Enum.valueOf( EventStatus.class, dataValue.getStatus() ) );
-                event.setProgram( dataValue.getProgram() );
-                event.setProgramStage( dataValue.getProgramStage() );
-                event.setEnrollment( dataValue.getEnrollment() );
-                event.setOrgUnit( dataValue.getOrgUnit() );
-                event.setEventDate( dataValue.getEventDate() );
-                event.setDueDate( dataValue.getDueDate() );
-                event.setCompletedDate( dataValue.getCompletedDate() );
-                event.setCompletedBy( dataValue.getCompletedBy() );
+                DataValue value = new DataValue( next.getDataElement(), next.getValue() );
+                value.setStoredBy( next.getStoredBy() );
+                value.setProvidedElsewhere( next.getProvidedElsewhere() );
+
+                event.getDataValues().add( value );
+
+                next = rows.hasNext() ? rows.next() : null;
+            }
+
+            return event;
+        }
 
+        private static Event createEvent( CsvEventDataValue dataValue )
+        {
+            Event event = new Event();
+            event.setEvent( dataValue.getEvent() );
+            event.setStatus( StringUtils.isEmpty( dataValue.getStatus() )
+                ? EventStatus.ACTIVE
+                : Enum.valueOf( EventStatus.class, dataValue.getStatus() ) );
+            event.setProgram( dataValue.getProgram() );
+            event.setProgramStage( dataValue.getProgramStage() );
+            event.setEnrollment( dataValue.getEnrollment() );
+            event.setOrgUnit( dataValue.getOrgUnit() );
+            event.setEventDate( dataValue.getEventDate() );
+            event.setDueDate( dataValue.getDueDate() );
+            event.setCompletedDate( dataValue.getCompletedDate() );
+            event.setCompletedBy( dataValue.getCompletedBy() );
+
+            try
+            {
                 if ( dataValue.getGeometry() != null )
                 {
                     event.setGeometry( new WKTReader().read( dataValue.getGeometry() ) );
@@ -157,17 +262,13 @@ public class DefaultCsvEventService
                     event.setGeometry( new WKTReader()
                         .read( "Point(" + dataValue.getLongitude() + " " + dataValue.getLatitude() + ")" ) );
                 }
-
-                events.add( event );
+            }
+            catch ( ParseException ex )
+            {
+                throw new IllegalArgumentException( "Invalid geometry for event " + dataValue.getEvent(), ex );
             }
 
-            DataValue value = new DataValue( dataValue.getDataElement(), dataValue.getValue() );
-            value.setStoredBy( dataValue.getStoredBy() );
-            value.setProvidedElsewhere( dataValue.getProvidedElsewhere() );
-
-            event.getDataValues().add( value );
+            return event;
         }
-
-        return events;
     }
 }
@@ -34,6 +34,7 @@ import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.hisp.dhis.dxf2.metadata.feedback.ImportReportMode.ERRORS;
 import static org.hisp.dhis.system.notification.NotificationLevel.INFO;
 
+import java.util.Iterator;
 import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
@@ -41,6 +42,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.dxf2.common.ImportOptions;
 import org.hisp.dhis.dxf2.events.event.Event;
 import org.hisp.dhis.dxf2.events.importer.context.WorkContext;
+import org.hisp.dhis.dxf2.events.importer.context.WorkContextCache;
 import org.hisp.dhis.dxf2.events.importer.context.WorkContextLoader;
 import org.hisp.dhis.dxf2.importsummary.ImportSummaries;
 import org.hisp.dhis.scheduling.JobConfiguration;
@@ -48,12 +50,19 @@ import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.system.util.Clock;
 import org.springframework.stereotype.Component;
 
+import com.google.common.collect.Iterators;
+
 @Slf4j
 @Component
 public class EventImporter
 {
     private static final int BATCH_SIZE = 100;
 
+    /**
+     * Max number of events for which a {@link WorkContext} is held in memory.
+     */
+    public static final int CHUNK_SIZE = 1000;
+
     private final EventManager eventManager;
 
     private final WorkContextLoader workContextLoader;
@@ -74,12 +83,30 @@ public class EventImporter
 
     public ImportSummaries importAll( final List<Event> events, final ImportOptions importOptions,
         final JobConfiguration jobConfiguration )
+    {
+        return importAll( events.iterator(), importOptions, jobConfiguration );
+    }
+
+    /**
+     * Imports the given events in chunks of {@value #CHUNK_SIZE}. A
+     * {@link WorkContext} is loaded for each chunk only, while metadata is
+     * shared across chunks through a {@link WorkContextCache}. Events are
+     * pulled from the iterator as needed, so that the memory used stays flat
+     * regardless of the number of events when the iterator streams them.
+     *
+     * @param events the events to import.
+     * @param importOptions the {@link ImportOptions}.
+     * @param jobConfiguration the {@link JobConfiguration}, can be null.
+     * @return the {@link ImportSummaries}.
+     */
+    public ImportSummaries importAll( final Iterator<Event> events, final ImportOptions importOptions,
+        final JobConfiguration jobConfiguration )
     {
         assert importOptions != null;
 
         final ImportSummaries importSummaries = new ImportSummaries();
 
-        if ( events.size() == 0 )
+        if ( !events.hasNext() )
         {
             return importSummaries;
         }
@@ -87,22 +114,41 @@ public class EventImporter
         notifier.clear( jobConfiguration ).notify( jobConfiguration, "Importing events" );
         final Clock clock = new Clock( log ).startClock();
 
-        long now = nanoTime();
+        final WorkContextCache cache = new WorkContextCache();
 
-        final WorkContext context = workContextLoader.load( importOptions, events );
+        final Iterator<List<Event>> chunks = Iterators.partition( events, CHUNK_SIZE );
 
-        log.debug( "::: event tracker import context load took : " + (nanoTime() - now) );
+        while ( chunks.hasNext() )
+        {
+            final List<Event> chunk = chunks.next();
 
-        final List<List<Event>> partitions = partition( events, BATCH_SIZE );
+            long now = nanoTime();
 
-        for ( final List<Event> batch : partitions )
-        {
-            final ImportStrategyAccumulator accumulator = new ImportStrategyAccumulator().partitionEvents( batch,
-                importOptions.getImportStrategy(), context.getProgramStageInstanceMap() );
+            final WorkContext context = workContextLoader.load( importOptions, chunk, cache );
 
-            importSummaries.addImportSummaries( eventManager.addEvents( accumulator.getCreate(), context ) );
-            importSummaries.addImportSummaries( eventManager.updateEvents( accumulator.getUpdate(), context ) );
-            importSummaries.addImportSummaries( eventManager.deleteEvents( accumulator.getDelete(), context ) );
+            log.debug( "::: event tracker import context load took : " + (nanoTime() - now) );
+
+            for ( final List<Event> batch : partition( chunk, BATCH_SIZE ) )
+            {
+                final ImportStrategyAccumulator accumulator = new ImportStrategyAccumulator().partitionEvents( batch,
+                    importOptions.getImportStrategy(), context.getProgramStageInstanceMap() );
+
+                importSummaries.addImportSummaries( eventManager.addEvents( accumulator.getCreate(), context ) );
+                importSummaries.addImportSummaries( eventManager.updateEvents( accumulator.getUpdate(), context ) );
+                importSummaries.addImportSummaries( eventManager.deleteEvents( accumulator.getDelete(), context ) );
+            }
+
+            // Drop successful summaries as we go to keep memory flat
+
+            if ( ERRORS == importOptions.getReportMode() && isNotEmpty( importSummaries.getImportSummaries() ) )
+            {
+                importSummaries.getImportSummaries().removeIf( is -> !is.hasConflicts() );
+            }
+
+            if ( chunks.hasNext() )
+            {
+                notifier.notify( jobConfiguration, "Imported " + importSummaries.getImported() + " events" );
+            }
         }
 
         if ( jobConfiguration != null )
@@ -115,11 +161,6 @@ public class EventImporter
             clock.logTime( "Import done" );
         }
 
-        if ( ERRORS == importOptions.getReportMode() && isNotEmpty( importSummaries.getImportSummaries() ) )
-        {
-            importSummaries.getImportSummaries().removeIf( is -> !is.hasConflicts() );
-        }
-
         return importSummaries;
     }
 }
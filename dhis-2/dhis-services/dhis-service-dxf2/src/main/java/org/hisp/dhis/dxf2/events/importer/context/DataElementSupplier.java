@@ -64,14 +64,28 @@ public class DataElementSupplier extends AbstractSupplier<Map<String, DataElemen
     @Override
     public Map<String, DataElement> get( ImportOptions importOptions, List<Event> events )
     {
-        Map<String, DataElement> dataElementsMap;
+        return get( importOptions, events, new WorkContextCache() );
+    }
 
+    /**
+     * Returns the data elements referenced by the given events, reusing the
+     * data elements already held by the given cache.
+     */
+    public Map<String, DataElement> get( ImportOptions importOptions, List<Event> events, WorkContextCache cache )
+    {
         IdScheme dataElementIdScheme = importOptions.getIdSchemes().getDataElementIdScheme();
 
         // Collects all Data Elements IDs
         Set<String> allDataElements = events.stream().map( Event::getDataValues ).flatMap( Collection::stream )
             .map( DataValue::getDataElement ).collect( Collectors.toSet() );
 
+        return cache.getDataElements( allDataElements, ids -> load( dataElementIdScheme, ids ) );
+    }
+
+    private Map<String, DataElement> load( IdScheme dataElementIdScheme, Set<String> allDataElements )
+    {
+        Map<String, DataElement> dataElementsMap;
+
         if ( dataElementIdScheme.isNull() || dataElementIdScheme.is( IdentifiableProperty.UID ) )
         {
             dataElementsMap = manager.getObjects( DataElement.class, IdentifiableProperty.UID, allDataElements )
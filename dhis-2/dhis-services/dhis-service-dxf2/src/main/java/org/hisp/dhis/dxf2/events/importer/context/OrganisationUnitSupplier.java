@@ -47,9 +47,6 @@ import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
-
 /**
  * @author Luciano Fiandesio
  */
@@ -65,6 +62,16 @@ public class OrganisationUnitSupplier extends AbstractSupplier<Map<String, Organ
 
     @Override
     public Map<String, OrganisationUnit> get( ImportOptions importOptions, List<Event> events )
+    {
+        return get( importOptions, events, new WorkContextCache() );
+    }
+
+    /**
+     * Returns the organisation units of the given events, mapped by event UID,
+     * reusing the organisation units already held by the given cache.
+     */
+    public Map<String, OrganisationUnit> get( ImportOptions importOptions, List<Event> events,
+        WorkContextCache cache )
     {
         //
         // Get the IdScheme for Org Units. Org Units should support also the
@@ -94,19 +101,25 @@ public class OrganisationUnitSupplier extends AbstractSupplier<Map<String, Organ
             return new HashMap<>();
         }
 
-        // Create a map: org unit uid -> List [event uid]
-        Multimap<String, String> orgUnitToEvent = HashMultimap.create();
+        final Map<String, OrganisationUnit> orgUnits = cache.getOrganisationUnits( orgUnitUids,
+            ids -> fetchOu( idScheme, ids ) );
+
+        // Create a map: event uid -> org unit
+        Map<String, OrganisationUnit> results = new HashMap<>();
         for ( Event event : events )
         {
-            orgUnitToEvent.put( event.getOrgUnit(), event.getUid() );
-        }
+            OrganisationUnit orgUnit = event.getOrgUnit() != null ? orgUnits.get( event.getOrgUnit() ) : null;
 
-        return fetchOu( idScheme, orgUnitUids, orgUnitToEvent );
+            if ( orgUnit != null )
+            {
+                results.put( event.getUid(), orgUnit );
+            }
+        }
 
+        return results;
     }
 
-    private Map<String, OrganisationUnit> fetchOu( IdScheme idScheme, Set<String> orgUnitUids,
-        Multimap<String, String> orgUnitToEvent )
+    private Map<String, OrganisationUnit> fetchOu( IdScheme idScheme, Set<String> orgUnitUids )
     {
         String sql = "select ou.organisationunitid, ou.uid, ou.code, ou.name, ou.path, ou.hierarchylevel ";
 
@@ -150,12 +163,8 @@ public class OrganisationUnitSupplier extends AbstractSupplier<Map<String, Organ
 
                 try
                 {
-                    for ( String event : orgUnitToEvent
-                        .get( idScheme.isAttribute() ? rs.getString( ATTRIBUTESCHEME_COL )
-                            : getIdentifierBasedOnIdScheme( ou, idScheme ) ) )
-                    {
-                        results.put( event, ou );
-                    }
+                    results.put( idScheme.isAttribute() ? rs.getString( ATTRIBUTESCHEME_COL )
+                        : getIdentifierBasedOnIdScheme( ou, idScheme ), ou );
                 }
                 catch ( Exception e )
                 {
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.events.importer.context;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+
+/**
+ * Metadata shared by the {@link WorkContext} instances of an event import
+ * which is processed in chunks, so that metadata referenced by many chunks is
+ * loaded only once. Identifiers which were looked up but not found are
+ * remembered as well.
+ * <p>
+ * Only metadata is kept here. Data, like tracked entity instances and program
+ * instances, is loaded per chunk so that memory use does not grow with the
+ * size of the payload.
+ */
+public class WorkContextCache
+{
+    /**
+     * Map: key -> DataElement ID (based on IdScheme) value -> DataElement
+     */
+    private final Map<String, DataElement> dataElements = new HashMap<>();
+
+    private final Set<String> missingDataElements = new HashSet<>();
+
+    /**
+     * Map: key -> OrganisationUnit ID (based on IdScheme) value ->
+     * OrganisationUnit
+     */
+    private final Map<String, OrganisationUnit> organisationUnits = new HashMap<>();
+
+    private final Set<String> missingOrganisationUnits = new HashSet<>();
+
+    /**
+     * Returns the data elements with the given identifiers, loading those not
+     * yet cached with the given loader.
+     *
+     * @param ids the data element identifiers based on the IdScheme.
+     * @param loader loads the missing data elements, mapped by identifier.
+     * @return a map of identifier to data element.
+     */
+    public Map<String, DataElement> getDataElements( Set<String> ids,
+        Function<Set<String>, Map<String, DataElement>> loader )
+    {
+        return get( ids, dataElements, missingDataElements, loader );
+    }
+
+    /**
+     * Returns the organisation units with the given identifiers, loading those
+     * not yet cached with the given loader.
+     *
+     * @param ids the organisation unit identifiers based on the IdScheme.
+     * @param loader loads the missing organisation units, mapped by
+     *        identifier.
+     * @return a map of identifier to organisation unit.
+     */
+    public Map<String, OrganisationUnit> getOrganisationUnits( Set<String> ids,
+        Function<Set<String>, Map<String, OrganisationUnit>> loader )
+    {
+        return get( ids, organisationUnits, missingOrganisationUnits, loader );
+    }
+
+    private static <T> Map<String, T> get( Set<String> ids, Map<String, T> cache, Set<String> missing,
+        Function<Set<String>, Map<String, T>> loader )
+    {
+        Set<String> uncached = ids.stream()
+            .filter( id -> id != null && !cache.containsKey( id ) && !missing.contains( id ) )
+            .collect( Collectors.toSet() );
+
+        if ( !uncached.isEmpty() )
+        {
+            Map<String, T> loaded = loader.apply( uncached );
+            cache.putAll( loaded );
+            uncached.stream().filter( id -> !loaded.containsKey( id ) ).forEach( missing::add );
+        }
+
+        return ids.stream().filter( id -> id != null && cache.containsKey( id ) )
+            .collect( Collectors.toMap( Function.identity(), cache::get ) );
+    }
+}
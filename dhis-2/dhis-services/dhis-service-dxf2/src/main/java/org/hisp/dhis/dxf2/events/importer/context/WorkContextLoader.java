@@ -108,6 +108,22 @@ public class WorkContextLoader
 
     @Transactional( readOnly = true )
     public WorkContext load( ImportOptions importOptions, List<Event> events )
+    {
+        return load( importOptions, events, new WorkContextCache() );
+    }
+
+    /**
+     * Loads the {@link WorkContext} for the given events, reusing the metadata
+     * held by the given cache. Use the same cache for all chunks of an import
+     * processed in chunks.
+     *
+     * @param importOptions the {@link ImportOptions}.
+     * @param events the events of the chunk.
+     * @param cache the {@link WorkContextCache} shared across chunks.
+     * @return a {@link WorkContext}.
+     */
+    @Transactional( readOnly = true )
+    public WorkContext load( ImportOptions importOptions, List<Event> events, WorkContextCache cache )
     {
         sessionFactory.getCurrentSession().flush();
 
@@ -129,7 +145,8 @@ public class WorkContextLoader
         final Map<String, Pair<TrackedEntityInstance, Boolean>> teiMap = trackedEntityInstanceSupplier
             .get( localImportOptions, events );
 
-        final Map<String, OrganisationUnit> orgUniMap = organisationUnitSupplier.get( localImportOptions, events );
+        final Map<String, OrganisationUnit> orgUniMap = organisationUnitSupplier.get( localImportOptions, events,
+            cache );
 
         return WorkContext.builder()
             .importOptions( localImportOptions )
@@ -139,7 +156,7 @@ public class WorkContextLoader
             .trackedEntityInstanceMap( teiMap )
             .programInstanceMap( programInstanceSupplier.get( localImportOptions, teiMap, events ) )
             .categoryOptionComboMap( categoryOptionComboSupplier.get( localImportOptions, events ) )
-            .dataElementMap( dataElementSupplier.get( localImportOptions, events ) )
+            .dataElementMap( dataElementSupplier.get( localImportOptions, events, cache ) )
             .notesMap( noteSupplier.get( localImportOptions, events ) )
             .assignedUserMap( assignedUserSupplier.get( localImportOptions, events ) )
             .eventDataValueMap( new EventDataValueAggregator().aggregateDataValues( events, programStageInstanceMap,
@@ -27,7 +27,9 @@
  */
 package org.hisp.dhis.dxf2.metadata;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -46,6 +48,7 @@ import org.hisp.dhis.category.CategoryCombo;
 import org.hisp.dhis.category.CategoryOption;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.InterpretableObject;
 import org.hisp.dhis.common.SetMap;
 import org.hisp.dhis.commons.timer.SystemTimer;
@@ -86,8 +89,10 @@ import org.hisp.dhis.programrule.ProgramRuleAction;
 import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariable;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
+import org.hisp.dhis.query.Order;
 import org.hisp.dhis.query.Query;
 import org.hisp.dhis.query.QueryService;
+import org.hisp.dhis.query.planner.QueryPlanner;
 import org.hisp.dhis.report.Report;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
@@ -103,6 +108,7 @@ import org.hisp.dhis.visualization.Visualization;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.collect.Sets;
 
@@ -137,54 +143,35 @@ public class DefaultMetadataExportService implements MetadataExportService
     @Autowired
     private AttributeService attributeService;
 
+    @Autowired
+    private QueryPlanner queryPlanner;
+
+    @Autowired
+    private IdentifiableObjectManager manager;
+
+    @Autowired
+    private MetadataDependencyLoader dependencyLoader;
+
+    /**
+     * Number of objects loaded, filtered and written at a time by the
+     * streaming export.
+     */
+    private static final int STREAM_PAGE_SIZE = 1000;
+
     @Override
-    @SuppressWarnings( "unchecked" )
     public Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> getMetadata(
         MetadataExportParams params )
     {
         Timer timer = new SystemTimer().start();
         Map<Class<? extends IdentifiableObject>, List<? extends IdentifiableObject>> metadata = new HashMap<>();
 
-        if ( params.getUser() == null )
-        {
-            params.setUser( currentUserService.getCurrentUser() );
-        }
-
-        if ( params.getClasses().isEmpty() )
-        {
-            schemaService.getMetadataSchemas().stream()
-                .filter( schema -> schema.isIdentifiableObject() && schema.isPersisted() )
-                .filter( s -> !s.isSecondaryMetadata() )
-                .forEach(
-                    schema -> params.getClasses().add( (Class<? extends IdentifiableObject>) schema.getKlass() ) );
-        }
+        initParams( params );
 
         log.info( "(" + params.getUsername() + ") Export:Start" );
 
         for ( Class<? extends IdentifiableObject> klass : params.getClasses() )
         {
-            Query query;
-
-            if ( params.getQuery( klass ) != null )
-            {
-                query = params.getQuery( klass );
-            }
-            else
-            {
-                OrderParams orderParams = new OrderParams( Sets.newHashSet( params.getDefaultOrder() ) );
-                query = queryService.getQueryFromUrl( klass, params.getDefaultFilter(),
-                    orderParams.getOrders( schemaService.getDynamicSchema( klass ) ) );
-            }
-
-            if ( query.getUser() == null )
-            {
-                query.setUser( params.getUser() );
-            }
-
-            query.setDefaultOrder();
-            query.setDefaults( params.getDefaults() );
-
-            List<? extends IdentifiableObject> objects = queryService.query( query );
+            List<? extends IdentifiableObject> objects = queryService.query( getQuery( params, klass ) );
 
             if ( !objects.isEmpty() )
             {
@@ -233,6 +220,178 @@ public class DefaultMetadataExportService implements MetadataExportService
         return rootNode;
     }
 
+    @Override
+    public void writeMetadata( MetadataExportParams params, JsonGenerator generator )
+        throws IOException
+    {
+        Timer timer = new SystemTimer().start();
+        SystemInfo systemInfo = systemService.getSystemInfo();
+
+        initParams( params );
+
+        log.info( "(" + params.getUsername() + ") Export:Start streaming" );
+
+        generator.writeStartObject();
+        generator.writeObjectFieldStart( "system" );
+        generator.writeStringField( "id", systemInfo.getSystemId() );
+        generator.writeStringField( "rev", systemInfo.getRevision() );
+        generator.writeStringField( "version", systemInfo.getVersion() );
+        generator.writeStringField( "date", DateUtils.getIso8601( systemInfo.getServerDate() ) );
+        generator.writeEndObject();
+
+        for ( Class<? extends IdentifiableObject> klass : params.getClasses() )
+        {
+            long count = writeObjects( params, klass, generator );
+
+            if ( count > 0 )
+            {
+                log.info( "(" + params.getUsername() + ") Exported " + count + " objects of type "
+                    + klass.getSimpleName() );
+            }
+        }
+
+        generator.writeEndObject();
+        generator.flush();
+
+        log.info( "(" + params.getUsername() + ") Export:Done streaming took " + timer.toString() );
+    }
+
+    /**
+     * Writes the objects of the given class page by page. Objects are field
+     * filtered per page, written and evicted from the session before the next
+     * page is loaded. Queries which can not be paged in the database are
+     * written in one go.
+     *
+     * @return the number of written objects
+     */
+    private long writeObjects( MetadataExportParams params, Class<? extends IdentifiableObject> klass,
+        JsonGenerator generator )
+        throws IOException
+    {
+        Query query = getQuery( params, klass );
+        boolean pageable = isPageable( query );
+
+        if ( pageable )
+        {
+            query.setFirstResult( 0 );
+            query.setMaxResults( STREAM_PAGE_SIZE );
+        }
+
+        long count = 0;
+
+        while ( true )
+        {
+            List<? extends IdentifiableObject> objects = queryService.query( query );
+
+            FieldFilterParams<?> fieldFilterParams = FieldFilterParams.builder()
+                .objects( new ArrayList<>( objects ) )
+                .filters( new HashSet<>( params.getFields( klass ) ) )
+                .skipSharing( params.getSkipSharing() )
+                .build();
+
+            List<ObjectNode> objectNodes = fieldFilterService.toObjectNodes( fieldFilterParams );
+
+            if ( count == 0 && !objectNodes.isEmpty() )
+            {
+                generator.writeArrayFieldStart( schemaService.getDynamicSchema( klass ).getPlural() );
+            }
+
+            for ( ObjectNode objectNode : objectNodes )
+            {
+                generator.writeTree( objectNode );
+            }
+
+            count += objectNodes.size();
+            generator.flush();
+
+            objects.stream()
+                .filter( object -> object != params.getUser() )
+                .forEach( manager::evict );
+
+            if ( !pageable || objects.size() < STREAM_PAGE_SIZE )
+            {
+                break;
+            }
+
+            query.setFirstResult( query.getFirstResult() + STREAM_PAGE_SIZE );
+        }
+
+        if ( count > 0 )
+        {
+            generator.writeEndArray();
+        }
+
+        return count;
+    }
+
+    /**
+     * A query can be paged in the database if all criteria and orders are on
+     * persisted properties. A unique order on id is added to keep pages
+     * stable.
+     */
+    private boolean isPageable( Query query )
+    {
+        if ( !query.ordersPersisted()
+            || !queryPlanner.planQuery( query ).getNonPersistedQuery().getCriterions().isEmpty() )
+        {
+            return false;
+        }
+
+        Schema schema = query.getSchema();
+
+        if ( schema.havePersistedProperty( "id" )
+            && query.getOrders().stream().noneMatch( order -> "id".equals( order.getProperty().getName() ) ) )
+        {
+            query.addOrder( Order.asc( schema.getPersistedProperty( "id" ) ) );
+        }
+
+        return true;
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private void initParams( MetadataExportParams params )
+    {
+        if ( params.getUser() == null )
+        {
+            params.setUser( currentUserService.getCurrentUser() );
+        }
+
+        if ( params.getClasses().isEmpty() )
+        {
+            schemaService.getMetadataSchemas().stream()
+                .filter( schema -> schema.isIdentifiableObject() && schema.isPersisted() )
+                .filter( s -> !s.isSecondaryMetadata() )
+                .forEach(
+                    schema -> params.getClasses().add( (Class<? extends IdentifiableObject>) schema.getKlass() ) );
+        }
+    }
+
+    private Query getQuery( MetadataExportParams params, Class<? extends IdentifiableObject> klass )
+    {
+        Query query;
+
+        if ( params.getQuery( klass ) != null )
+        {
+            query = params.getQuery( klass );
+        }
+        else
+        {
+            OrderParams orderParams = new OrderParams( Sets.newHashSet( params.getDefaultOrder() ) );
+            query = queryService.getQueryFromUrl( klass, params.getDefaultFilter(),
+                orderParams.getOrders( schemaService.getDynamicSchema( klass ) ) );
+        }
+
+        if ( query.getUser() == null )
+        {
+            query.setUser( params.getUser() );
+        }
+
+        query.setDefaultOrder();
+        query.setDefaults( params.getDefaults() );
+
+        return query;
+    }
+
     @Override
     public ObjectNode getMetadataWithDependenciesAsNode( IdentifiableObject object,
         @Nonnull MetadataExportParams params )
@@ -415,6 +574,8 @@ public class DefaultMetadataExportService implements MetadataExportService
     {
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata = new SetMap<>();
 
+        dependencyLoader.load( Collections.singletonList( object ) );
+
         if ( OptionSet.class.isInstance( object ) )
         {
             return handleOptionSet( metadata, (OptionSet) object );
@@ -501,9 +662,11 @@ public class DefaultMetadataExportService implements MetadataExportService
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata,
         CategoryOptionCombo categoryOptionCombo )
     {
-        if ( categoryOptionCombo == null )
+        if ( categoryOptionCombo == null || !visit( metadata, CategoryOptionCombo.class, categoryOptionCombo ) )
+        {
             return metadata;
-        metadata.putValue( CategoryOptionCombo.class, categoryOptionCombo );
+        }
+
         handleAttributes( metadata, categoryOptionCombo );
 
         categoryOptionCombo.getCategoryOptions()
@@ -515,9 +678,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleCategoryCombo(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, CategoryCombo categoryCombo )
     {
-        if ( categoryCombo == null )
+        if ( categoryCombo == null || !visit( metadata, CategoryCombo.class, categoryCombo ) )
+        {
             return metadata;
-        metadata.putValue( CategoryCombo.class, categoryCombo );
+        }
+
         handleAttributes( metadata, categoryCombo );
 
         categoryCombo.getCategories().forEach( category -> handleCategory( metadata, category ) );
@@ -529,9 +694,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleCategory(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Category category )
     {
-        if ( category == null )
+        if ( category == null || !visit( metadata, Category.class, category ) )
+        {
             return metadata;
-        metadata.putValue( Category.class, category );
+        }
+
         handleAttributes( metadata, category );
 
         category.getCategoryOptions().forEach( categoryOption -> handleCategoryOption( metadata, categoryOption ) );
@@ -542,9 +709,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleCategoryOption(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, CategoryOption categoryOption )
     {
-        if ( categoryOption == null )
+        if ( categoryOption == null || !visit( metadata, CategoryOption.class, categoryOption ) )
+        {
             return metadata;
-        metadata.putValue( CategoryOption.class, categoryOption );
+        }
+
         handleAttributes( metadata, categoryOption );
 
         return metadata;
@@ -569,9 +738,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleLegend(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Legend legend )
     {
-        if ( legend == null )
+        if ( legend == null || !visit( metadata, Legend.class, legend ) )
+        {
             return metadata;
-        metadata.putValue( Legend.class, legend );
+        }
+
         handleAttributes( metadata, legend );
 
         return metadata;
@@ -580,9 +751,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleDataEntryForm(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, DataEntryForm dataEntryForm )
     {
-        if ( dataEntryForm == null )
+        if ( dataEntryForm == null || !visit( metadata, DataEntryForm.class, dataEntryForm ) )
+        {
             return metadata;
-        metadata.putValue( DataEntryForm.class, dataEntryForm );
+        }
+
         handleAttributes( metadata, dataEntryForm );
 
         return metadata;
@@ -603,9 +776,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleDataElement(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, DataElement dataElement )
     {
-        if ( dataElement == null )
+        if ( dataElement == null || !visit( metadata, DataElement.class, dataElement ) )
+        {
             return metadata;
-        metadata.putValue( DataElement.class, dataElement );
+        }
+
         handleAttributes( metadata, dataElement );
 
         handleCategoryCombo( metadata, dataElement.getCategoryCombo() );
@@ -618,9 +793,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleOptionSet(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, OptionSet optionSet )
     {
-        if ( optionSet == null )
+        if ( optionSet == null || !visit( metadata, OptionSet.class, optionSet ) )
+        {
             return metadata;
-        metadata.putValue( OptionSet.class, optionSet );
+        }
+
         handleAttributes( metadata, optionSet );
 
         optionSet.getOptions().forEach( o -> handleOption( metadata, o ) );
@@ -631,9 +808,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleOption(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Option option )
     {
-        if ( option == null )
+        if ( option == null || !visit( metadata, Option.class, option ) )
+        {
             return metadata;
-        metadata.putValue( Option.class, option );
+        }
+
         handleAttributes( metadata, option );
 
         return metadata;
@@ -642,9 +821,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleSection(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Section section )
     {
-        if ( section == null )
+        if ( section == null || !visit( metadata, Section.class, section ) )
+        {
             return metadata;
-        metadata.putValue( Section.class, section );
+        }
+
         handleAttributes( metadata, section );
 
         section.getGreyedFields()
@@ -658,9 +839,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleIndicator(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Indicator indicator )
     {
-        if ( indicator == null )
+        if ( indicator == null || !visit( metadata, Indicator.class, indicator ) )
+        {
             return metadata;
-        metadata.putValue( Indicator.class, indicator );
+        }
+
         handleAttributes( metadata, indicator );
 
         handleIndicatorType( metadata, indicator.getIndicatorType() );
@@ -671,9 +854,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleIndicatorType(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, IndicatorType indicatorType )
     {
-        if ( indicatorType == null )
+        if ( indicatorType == null || !visit( metadata, IndicatorType.class, indicatorType ) )
+        {
             return metadata;
-        metadata.putValue( IndicatorType.class, indicatorType );
+        }
+
         handleAttributes( metadata, indicatorType );
 
         return metadata;
@@ -682,9 +867,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleProgram(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Program program )
     {
-        if ( program == null )
+        if ( program == null || !visit( metadata, Program.class, program ) )
+        {
             return metadata;
-        metadata.putValue( Program.class, program );
+        }
+
         handleAttributes( metadata, program );
 
         handleCategoryCombo( metadata, program.getCategoryCombo() );
@@ -702,6 +889,8 @@ public class DefaultMetadataExportService implements MetadataExportService
         List<ProgramRule> programRules = programRuleService.getProgramRule( program );
         List<ProgramRuleVariable> programRuleVariables = programRuleVariableService.getProgramRuleVariable( program );
 
+        dependencyLoader.load( programRules );
+
         programRules.forEach( programRule -> handleProgramRule( metadata, programRule ) );
         programRuleVariables
             .forEach( programRuleVariable -> handleProgramRuleVariable( metadata, programRuleVariable ) );
@@ -712,13 +901,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleNotificationTemplate(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, ProgramNotificationTemplate template )
     {
-        if ( template == null )
+        if ( template == null || !visit( metadata, ProgramNotificationTemplate.class, template ) )
         {
             return metadata;
         }
 
-        metadata.putValue( ProgramNotificationTemplate.class, template );
-
         handleTrackedEntityAttribute( metadata, template.getRecipientProgramAttribute() );
 
         handleDataElement( metadata, template.getRecipientDataElement() );
@@ -730,9 +917,11 @@ public class DefaultMetadataExportService implements MetadataExportService
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata,
         ProgramRuleVariable programRuleVariable )
     {
-        if ( programRuleVariable == null )
+        if ( programRuleVariable == null || !visit( metadata, ProgramRuleVariable.class, programRuleVariable ) )
+        {
             return metadata;
-        metadata.putValue( ProgramRuleVariable.class, programRuleVariable );
+        }
+
         handleAttributes( metadata, programRuleVariable );
 
         handleTrackedEntityAttribute( metadata, programRuleVariable.getAttribute() );
@@ -746,9 +935,12 @@ public class DefaultMetadataExportService implements MetadataExportService
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata,
         TrackedEntityAttribute trackedEntityAttribute )
     {
-        if ( trackedEntityAttribute == null )
+        if ( trackedEntityAttribute == null
+            || !visit( metadata, TrackedEntityAttribute.class, trackedEntityAttribute ) )
+        {
             return metadata;
-        metadata.putValue( TrackedEntityAttribute.class, trackedEntityAttribute );
+        }
+
         handleAttributes( metadata, trackedEntityAttribute );
 
         handleOptionSet( metadata, trackedEntityAttribute.getOptionSet() );
@@ -759,9 +951,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleProgramRule(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, ProgramRule programRule )
     {
-        if ( programRule == null )
+        if ( programRule == null || !visit( metadata, ProgramRule.class, programRule ) )
+        {
             return metadata;
-        metadata.putValue( ProgramRule.class, programRule );
+        }
+
         handleAttributes( metadata, programRule );
 
         programRule.getProgramRuleActions()
@@ -773,9 +967,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleProgramRuleAction(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, ProgramRuleAction programRuleAction )
     {
-        if ( programRuleAction == null )
+        if ( programRuleAction == null || !visit( metadata, ProgramRuleAction.class, programRuleAction ) )
+        {
             return metadata;
-        metadata.putValue( ProgramRuleAction.class, programRuleAction );
+        }
+
         handleAttributes( metadata, programRuleAction );
 
         handleDataElement( metadata, programRuleAction.getDataElement() );
@@ -791,9 +987,12 @@ public class DefaultMetadataExportService implements MetadataExportService
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata,
         ProgramTrackedEntityAttribute programTrackedEntityAttribute )
     {
-        if ( programTrackedEntityAttribute == null )
+        if ( programTrackedEntityAttribute == null
+            || !visit( metadata, ProgramTrackedEntityAttribute.class, programTrackedEntityAttribute ) )
+        {
             return metadata;
-        metadata.putValue( ProgramTrackedEntityAttribute.class, programTrackedEntityAttribute );
+        }
+
         handleAttributes( metadata, programTrackedEntityAttribute );
 
         handleTrackedEntityAttribute( metadata, programTrackedEntityAttribute.getAttribute() );
@@ -804,9 +1003,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleProgramStage(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, ProgramStage programStage )
     {
-        if ( programStage == null )
+        if ( programStage == null || !visit( metadata, ProgramStage.class, programStage ) )
+        {
             return metadata;
-        metadata.putValue( ProgramStage.class, programStage );
+        }
+
         handleAttributes( metadata, programStage );
 
         programStage.getNotificationTemplates().forEach( template -> handleNotificationTemplate( metadata, template ) );
@@ -824,9 +1025,11 @@ public class DefaultMetadataExportService implements MetadataExportService
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata,
         ProgramStageSection programStageSection )
     {
-        if ( programStageSection == null )
+        if ( programStageSection == null || !visit( metadata, ProgramStageSection.class, programStageSection ) )
+        {
             return metadata;
-        metadata.putValue( ProgramStageSection.class, programStageSection );
+        }
+
         handleAttributes( metadata, programStageSection );
 
         programStageSection.getProgramIndicators()
@@ -838,9 +1041,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleProgramIndicator(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, ProgramIndicator programIndicator )
     {
-        if ( programIndicator == null )
+        if ( programIndicator == null || !visit( metadata, ProgramIndicator.class, programIndicator ) )
+        {
             return metadata;
-        metadata.putValue( ProgramIndicator.class, programIndicator );
+        }
+
         handleAttributes( metadata, programIndicator );
 
         return metadata;
@@ -850,9 +1055,11 @@ public class DefaultMetadataExportService implements MetadataExportService
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata,
         ProgramStageDataElement programStageDataElement )
     {
-        if ( programStageDataElement == null )
+        if ( programStageDataElement == null
+            || !visit( metadata, ProgramStageDataElement.class, programStageDataElement ) )
+        {
             return metadata;
-        metadata.putValue( ProgramStageDataElement.class, programStageDataElement );
+        }
 
         handleAttributes( metadata, programStageDataElement );
         handleDataElement( metadata, programStageDataElement.getDataElement() );
@@ -863,9 +1070,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleTrackedEntityType(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, TrackedEntityType trackedEntityType )
     {
-        if ( trackedEntityType == null )
+        if ( trackedEntityType == null || !visit( metadata, TrackedEntityType.class, trackedEntityType ) )
+        {
             return metadata;
-        metadata.putValue( TrackedEntityType.class, trackedEntityType );
+        }
+
         handleAttributes( metadata, trackedEntityType );
 
         return metadata;
@@ -874,9 +1083,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleEventChart(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, EventChart eventChart )
     {
-        if ( eventChart == null )
+        if ( eventChart == null || !visit( metadata, EventChart.class, eventChart ) )
+        {
             return metadata;
-        metadata.putValue( EventChart.class, eventChart );
+        }
+
         handleAttributes( metadata, eventChart );
 
         return metadata;
@@ -885,9 +1096,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleEventReport(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, EventReport eventReport )
     {
-        if ( eventReport == null )
+        if ( eventReport == null || !visit( metadata, EventReport.class, eventReport ) )
+        {
             return metadata;
-        metadata.putValue( EventReport.class, eventReport );
+        }
+
         handleAttributes( metadata, eventReport );
 
         return metadata;
@@ -896,9 +1109,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleMapView(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, MapView mapView )
     {
-        if ( mapView == null )
+        if ( mapView == null || !visit( metadata, MapView.class, mapView ) )
+        {
             return metadata;
-        metadata.putValue( MapView.class, mapView );
+        }
+
         handleAttributes( metadata, mapView );
 
         return metadata;
@@ -907,9 +1122,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleMap(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, org.hisp.dhis.mapping.Map map )
     {
-        if ( map == null )
+        if ( map == null || !visit( metadata, org.hisp.dhis.mapping.Map.class, map ) )
+        {
             return metadata;
-        metadata.putValue( org.hisp.dhis.mapping.Map.class, map );
+        }
+
         handleAttributes( metadata, map );
 
         map.getMapViews().forEach( mapView -> handleMapView( metadata, mapView ) );
@@ -920,9 +1137,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleVisualization(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Visualization visualization )
     {
-        if ( visualization == null )
+        if ( visualization == null || !visit( metadata, Visualization.class, visualization ) )
+        {
             return metadata;
-        metadata.putValue( Visualization.class, visualization );
+        }
+
         handleAttributes( metadata, visualization );
 
         return metadata;
@@ -932,9 +1151,11 @@ public class DefaultMetadataExportService implements MetadataExportService
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata,
         EventVisualization eventVisualization )
     {
-        if ( eventVisualization == null )
+        if ( eventVisualization == null || !visit( metadata, EventVisualization.class, eventVisualization ) )
+        {
             return metadata;
-        metadata.putValue( EventVisualization.class, eventVisualization );
+        }
+
         handleAttributes( metadata, eventVisualization );
 
         return metadata;
@@ -943,9 +1164,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleReport(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Report report )
     {
-        if ( report == null )
+        if ( report == null || !visit( metadata, Report.class, report ) )
+        {
             return metadata;
-        metadata.putValue( Report.class, report );
+        }
+
         handleAttributes( metadata, report );
 
         return metadata;
@@ -954,9 +1177,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleInterpretation(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Interpretation interpretation )
     {
-        if ( interpretation == null )
+        if ( interpretation == null || !visit( metadata, Interpretation.class, interpretation ) )
+        {
             return metadata;
-        metadata.putValue( Interpretation.class, interpretation );
+        }
+
         handleAttributes( metadata, interpretation );
 
         return metadata;
@@ -980,9 +1205,11 @@ public class DefaultMetadataExportService implements MetadataExportService
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleDocument(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata, Document document )
     {
-        if ( document == null )
+        if ( document == null || !visit( metadata, Document.class, document ) )
+        {
             return metadata;
-        metadata.putValue( Document.class, document );
+        }
+
         handleAttributes( metadata, document );
 
         return metadata;
@@ -1030,6 +1257,18 @@ public class DefaultMetadataExportService implements MetadataExportService
         return metadata;
     }
 
+    /**
+     * Adds the given object to the metadata map.
+     *
+     * @return true if the object was added, false if it was already visited
+     *         and its dependencies do not need to be handled again.
+     */
+    private boolean visit( SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata,
+        Class<? extends IdentifiableObject> klass, IdentifiableObject object )
+    {
+        return metadata.computeIfAbsent( klass, key -> new HashSet<>() ).add( object );
+    }
+
     private SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> handleAttributes(
         SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata,
         IdentifiableObject identifiableObject )
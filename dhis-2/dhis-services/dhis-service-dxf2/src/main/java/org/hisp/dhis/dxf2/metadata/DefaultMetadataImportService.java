@@ -212,6 +212,8 @@ public class DefaultMetadataImportService implements MetadataImportService
         params.setAtomicMode( getEnumWithDefault( AtomicMode.class, parameters, "atomicMode", AtomicMode.ALL ) );
         params.setMergeMode( getEnumWithDefault( MergeMode.class, parameters, "mergeMode", MergeMode.REPLACE ) );
         params.setFlushMode( getEnumWithDefault( FlushMode.class, parameters, "flushMode", FlushMode.AUTO ) );
+        params.setCommitMode(
+            getEnumWithDefault( CommitMode.class, parameters, "commitMode", CommitMode.HIBERNATE ) );
         params.setImportReportMode(
             getEnumWithDefault( ImportReportMode.class, parameters, "importReportMode", ImportReportMode.ERRORS ) );
         params.setFirstRowIsHeader( getBooleanWithDefault( parameters, "firstRowIsHeader", true ) );
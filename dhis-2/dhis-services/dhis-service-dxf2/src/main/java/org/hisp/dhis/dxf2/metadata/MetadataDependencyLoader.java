@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.metadata;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.hisp.dhis.category.Category;
+import org.hisp.dhis.category.CategoryCombo;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.common.ListMap;
+import org.hisp.dhis.dashboard.Dashboard;
+import org.hisp.dhis.dashboard.DashboardItem;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementGroup;
+import org.hisp.dhis.dataelement.DataElementOperand;
+import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.dataset.DataSetElement;
+import org.hisp.dhis.dataset.Section;
+import org.hisp.dhis.hibernate.HibernateProxyUtils;
+import org.hisp.dhis.indicator.Indicator;
+import org.hisp.dhis.legend.LegendSet;
+import org.hisp.dhis.option.OptionSet;
+import org.hisp.dhis.program.Program;
+import org.hisp.dhis.program.ProgramStage;
+import org.hisp.dhis.program.ProgramStageDataElement;
+import org.hisp.dhis.program.ProgramStageSection;
+import org.hisp.dhis.program.ProgramTrackedEntityAttribute;
+import org.hisp.dhis.program.notification.ProgramNotificationTemplate;
+import org.hisp.dhis.programrule.ProgramRule;
+import org.hisp.dhis.programrule.ProgramRuleAction;
+import org.hisp.dhis.programrule.ProgramRuleVariable;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Loads the dependency graph of a metadata export breadth-first, so that the
+ * recursive handlers of {@link DefaultMetadataExportService} find every object
+ * and collection already initialized in the session.
+ * <p>
+ * For each level of the graph the uninitialized references are grouped by
+ * entity and loaded with one IN-query per batch, and the uninitialized
+ * collections are grouped by owner entity and role and fetched with one
+ * join-fetch IN-query per batch. The next level consists of the objects
+ * reachable through the associations listed in {@link #DEPENDENCIES}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MetadataDependencyLoader
+{
+    /**
+     * Maximum number of identifiers in a single IN-query.
+     */
+    static final int BATCH_SIZE = 500;
+
+    /**
+     * Associations followed from each class, mirroring the handlers of
+     * {@link DefaultMetadataExportService}.
+     */
+    static final ImmutableMap<Class<?>, Set<String>> DEPENDENCIES = ImmutableMap.<Class<?>, Set<String>> builder()
+        .put( DataSet.class, ImmutableSet.of( "dataSetElements", "sections", "indicators", "dataEntryForm",
+            "legendSets", "categoryCombo", "compulsoryDataElementOperands" ) )
+        .put( DataSetElement.class, ImmutableSet.of( "dataElement", "categoryCombo" ) )
+        .put( DataElementOperand.class, ImmutableSet.of( "dataElement", "categoryOptionCombo" ) )
+        .put( Section.class, ImmutableSet.of( "greyedFields", "indicators", "dataElements" ) )
+        .put( Indicator.class, ImmutableSet.of( "indicatorType" ) )
+        .put( DataElement.class, ImmutableSet.of( "categoryCombo", "optionSet", "commentOptionSet" ) )
+        .put( DataElementGroup.class, ImmutableSet.of( "members", "legendSets" ) )
+        .put( CategoryCombo.class, ImmutableSet.of( "categories", "optionCombos" ) )
+        .put( Category.class, ImmutableSet.of( "categoryOptions" ) )
+        .put( CategoryOptionCombo.class, ImmutableSet.of( "categoryOptions" ) )
+        .put( LegendSet.class, ImmutableSet.of( "legends" ) )
+        .put( OptionSet.class, ImmutableSet.of( "options" ) )
+        .put( Program.class, ImmutableSet.of( "categoryCombo", "dataEntryForm", "trackedEntityType",
+            "notificationTemplates", "programStages", "programAttributes", "programIndicators",
+            "programRuleVariables" ) )
+        .put( ProgramStage.class, ImmutableSet.of( "notificationTemplates", "programStageDataElements",
+            "programStageSections", "dataEntryForm" ) )
+        .put( ProgramStageSection.class, ImmutableSet.of( "programIndicators" ) )
+        .put( ProgramStageDataElement.class, ImmutableSet.of( "dataElement" ) )
+        .put( ProgramTrackedEntityAttribute.class, ImmutableSet.of( "attribute" ) )
+        .put( TrackedEntityAttribute.class, ImmutableSet.of( "optionSet" ) )
+        .put( ProgramNotificationTemplate.class,
+            ImmutableSet.of( "recipientProgramAttribute", "recipientDataElement" ) )
+        .put( ProgramRule.class, ImmutableSet.of( "programRuleActions" ) )
+        .put( ProgramRuleAction.class, ImmutableSet.of( "dataElement", "attribute", "programIndicator",
+            "programStageSection", "programStage" ) )
+        .put( ProgramRuleVariable.class, ImmutableSet.of( "attribute", "dataElement", "programStage" ) )
+        .put( Dashboard.class, ImmutableSet.of( "items" ) )
+        .put( DashboardItem.class, ImmutableSet.of( "visualization", "eventVisualization", "eventChart",
+            "eventReport", "map", "reports", "resources" ) )
+        .put( org.hisp.dhis.mapping.Map.class, ImmutableSet.of( "mapViews" ) )
+        .build();
+
+    private final SessionFactory sessionFactory;
+
+    /**
+     * Initializes the dependency graph of the given root objects in the
+     * current session.
+     *
+     * @param roots the objects to load the dependencies of.
+     */
+    @Transactional( readOnly = true )
+    public void load( Collection<?> roots )
+    {
+        Session session = sessionFactory.getCurrentSession();
+        Set<Object> visited = Collections.newSetFromMap( new IdentityHashMap<>() );
+
+        List<Object> level = new ArrayList<>();
+        roots.stream().filter( Objects::nonNull ).filter( visited::add ).forEach( level::add );
+
+        int depth = 0;
+
+        while ( !level.isEmpty() )
+        {
+            initializeReferences( session, level );
+            initializeCollections( session, level );
+
+            log.debug( "Loaded metadata dependency level " + depth++ + " with " + level.size() + " objects" );
+
+            level = getDependencies( level, visited );
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Loads all uninitialized proxies with one IN-query per entity and batch.
+     * The proxies then initialize from the session without a database trip.
+     */
+    private void initializeReferences( Session session, List<Object> objects )
+    {
+        ListMap<String, Serializable> idsByEntity = new ListMap<>();
+
+        for ( Object object : objects )
+        {
+            if ( object instanceof HibernateProxy )
+            {
+                LazyInitializer initializer = ((HibernateProxy) object).getHibernateLazyInitializer();
+
+                if ( initializer.isUninitialized() )
+                {
+                    idsByEntity.putValue( initializer.getEntityName(), initializer.getIdentifier() );
+                }
+            }
+        }
+
+        idsByEntity.forEach( ( entityName, ids ) -> {
+            EntityPersister persister = getPersister( entityName );
+
+            String hql = "from " + entityName + " e where e." + persister.getIdentifierPropertyName()
+                + " in (:ids)";
+
+            Lists.partition( ids, BATCH_SIZE )
+                .forEach( batch -> session.createQuery( hql ).setParameterList( "ids", batch ).list() );
+        } );
+    }
+
+    /**
+     * Initializes all uninitialized dependency collections with one join-fetch
+     * IN-query per owner entity, collection role and batch.
+     */
+    private void initializeCollections( Session session, List<Object> objects )
+    {
+        Map<String, ListMap<String, Serializable>> ownerIdsByEntity = new HashMap<>();
+
+        for ( Object object : objects )
+        {
+            Object entity = Hibernate.unproxy( object );
+            EntityPersister persister = getPersister( entity );
+
+            if ( persister == null )
+            {
+                continue;
+            }
+
+            for ( String property : getDependencyProperties( entity ) )
+            {
+                Integer index = persister.getEntityMetamodel().getPropertyIndexOrNull( property );
+
+                if ( index == null || !persister.getPropertyTypes()[index].isCollectionType() )
+                {
+                    continue;
+                }
+
+                Object value = persister.getPropertyValue( entity, index );
+
+                if ( value instanceof PersistentCollection && !((PersistentCollection) value).wasInitialized() )
+                {
+                    ownerIdsByEntity.computeIfAbsent( persister.getEntityName(), key -> new ListMap<>() )
+                        .putValue( property, session.getIdentifier( entity ) );
+                }
+            }
+        }
+
+        ownerIdsByEntity.forEach( ( entityName, ownerIdsByRole ) -> ownerIdsByRole.forEach( ( property, ids ) -> {
+            String hql = "select distinct e from " + entityName + " e left join fetch e." + property
+                + " where e." + getPersister( entityName ).getIdentifierPropertyName() + " in (:ids)";
+
+            Lists.partition( ids, BATCH_SIZE )
+                .forEach( batch -> session.createQuery( hql ).setParameterList( "ids", batch ).list() );
+        } ) );
+    }
+
+    /**
+     * Returns the objects reachable from the given objects through their
+     * dependency associations which have not been visited yet.
+     */
+    private List<Object> getDependencies( List<Object> objects, Set<Object> visited )
+    {
+        List<Object> dependencies = new ArrayList<>();
+
+        for ( Object object : objects )
+        {
+            Object entity = Hibernate.unproxy( object );
+            EntityPersister persister = getPersister( entity );
+
+            if ( persister == null )
+            {
+                continue;
+            }
+
+            for ( String property : getDependencyProperties( entity ) )
+            {
+                Integer index = persister.getEntityMetamodel().getPropertyIndexOrNull( property );
+
+                if ( index == null )
+                {
+                    continue;
+                }
+
+                Object value = persister.getPropertyValue( entity, index );
+
+                if ( value instanceof Collection )
+                {
+                    ((Collection<?>) value).stream().filter( Objects::nonNull ).filter( visited::add )
+                        .forEach( dependencies::add );
+                }
+                else if ( value != null && visited.add( value ) )
+                {
+                    dependencies.add( value );
+                }
+            }
+        }
+
+        return dependencies;
+    }
+
+    private Set<String> getDependencyProperties( Object entity )
+    {
+        return DEPENDENCIES.getOrDefault( HibernateProxyUtils.getRealClass( entity ), Collections.emptySet() );
+    }
+
+    private EntityPersister getPersister( Object entity )
+    {
+        return sessionFactory.unwrap( SessionFactoryImplementor.class ).getMetamodel().entityPersisters()
+            .get( HibernateProxyUtils.getRealClass( entity ).getName() );
+    }
+
+    private EntityPersister getPersister( String entityName )
+    {
+        return sessionFactory.unwrap( SessionFactoryImplementor.class ).getMetamodel().entityPersister( entityName );
+    }
+}
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.dxf2.metadata;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +36,7 @@ import javax.annotation.Nonnull;
 
 import org.hisp.dhis.common.IdentifiableObject;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
@@ -60,6 +62,18 @@ public interface MetadataExportService
      */
     ObjectNode getMetadataAsNode( MetadataExportParams params );
 
+    /**
+     * Same export as getMetadataAsNode, but written to the given generator
+     * while the objects of each class are loaded page by page. Memory use is
+     * bounded by the page size instead of the size of the export.
+     *
+     * @param params Export parameters
+     * @param generator the generator to write the exported objects to
+     * @throws IOException when writing to the generator fails
+     */
+    void writeMetadata( MetadataExportParams params, JsonGenerator generator )
+        throws IOException;
+
     /**
      * Validates the import params. Not currently implemented.
      *
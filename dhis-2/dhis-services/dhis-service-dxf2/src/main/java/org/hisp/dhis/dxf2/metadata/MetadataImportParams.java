@@ -110,6 +110,12 @@ public class MetadataImportParams
      */
     private FlushMode flushMode = FlushMode.AUTO;
 
+    /**
+     * Write objects through Hibernate or insert simple objects in JDBC
+     * batches.
+     */
+    private CommitMode commitMode = CommitMode.HIBERNATE;
+
     /**
      * Decides how much to report back to the user (errors only, or a more full
      * per object report).
@@ -302,6 +308,19 @@ public class MetadataImportParams
         return this;
     }
 
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public CommitMode getCommitMode()
+    {
+        return commitMode;
+    }
+
+    public MetadataImportParams setCommitMode( CommitMode commitMode )
+    {
+        this.commitMode = commitMode;
+        return this;
+    }
+
     @JsonProperty
     @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
     public ImportReportMode getImportReportMode()
@@ -506,6 +525,7 @@ public class MetadataImportParams
         params.setObjectBundleMode( importMode );
         params.setMergeMode( mergeMode );
         params.setFlushMode( flushMode );
+        params.setCommitMode( commitMode );
         params.setImportReportMode( importReportMode );
         params.setMetadataSyncImport( metadataSyncImport );
 
@@ -37,14 +37,25 @@ import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.hibernate.MappingException;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.CascadeStyles;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.CompositeType;
+import org.hibernate.type.Type;
 import org.hisp.dhis.cache.HibernateCacheManager;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.common.MergeMode;
 import org.hisp.dhis.dbms.DbmsManager;
+import org.hisp.dhis.dxf2.metadata.CommitMode;
 import org.hisp.dhis.dxf2.metadata.FlushMode;
 import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleCommitReport;
 import org.hisp.dhis.feedback.ObjectReport;
@@ -69,6 +80,11 @@ import org.springframework.transaction.annotation.Transactional;
 @AllArgsConstructor
 public class DefaultObjectBundleService implements ObjectBundleService
 {
+    /**
+     * Number of inserts per JDBC batch in {@link CommitMode#BATCH}.
+     */
+    private static final int JDBC_BATCH_SIZE = 500;
+
     private final CurrentUserService currentUserService;
 
     private final PreheatService preheatService;
@@ -216,6 +232,8 @@ public class DefaultObjectBundleService implements ObjectBundleService
 
         session.flush();
 
+        boolean batchInsert = isBatchInsert( bundle, klass );
+
         for ( T object : objects )
         {
             ObjectReport objectReport = new ObjectReport( object, bundle );
@@ -234,6 +252,11 @@ public class DefaultObjectBundleService implements ObjectBundleService
                 }
             }
 
+            if ( batchInsert )
+            {
+                continue;
+            }
+
             session.save( object );
 
             bundle.getPreheat().replace( bundle.getPreheatIdentifier(), object );
@@ -251,6 +274,13 @@ public class DefaultObjectBundleService implements ObjectBundleService
             }
         }
 
+        if ( batchInsert )
+        {
+            insertInBatches( session, objects );
+
+            objects.forEach( object -> bundle.getPreheat().replace( bundle.getPreheatIdentifier(), object ) );
+        }
+
         session.flush();
 
         objects.forEach( object -> objectBundleHooks.getObjectHooks( object )
@@ -392,6 +422,85 @@ public class DefaultObjectBundleService implements ObjectBundleService
         return typeReport;
     }
 
+    /**
+     * Inserts the given objects through a stateless session sharing the
+     * connection, and so the transaction, of the given session. The inserts
+     * are sent in JDBC batches.
+     */
+    private <T extends IdentifiableObject> void insertInBatches( Session session, List<T> objects )
+    {
+        session.doWork( connection -> {
+            try ( StatelessSession statelessSession = sessionFactory.withStatelessOptions()
+                .connection( connection )
+                .openStatelessSession() )
+            {
+                statelessSession.setJdbcBatchSize( JDBC_BATCH_SIZE );
+
+                objects.forEach( statelessSession::insert );
+
+                ((SharedSessionContractImplementor) statelessSession).getJdbcCoordinator().executeBatch();
+            }
+        } );
+    }
+
+    /**
+     * New objects are inserted in JDBC batches in {@link CommitMode#BATCH} if
+     * their class owns no collections and cascades to no other objects, as a
+     * stateless session writes neither.
+     */
+    private boolean isBatchInsert( ObjectBundle bundle, Class<?> klass )
+    {
+        if ( CommitMode.BATCH != bundle.getCommitMode() || FlushMode.OBJECT == bundle.getFlushMode() )
+        {
+            return false;
+        }
+
+        MetamodelImplementor metamodel = sessionFactory.unwrap( SessionFactoryImplementor.class ).getMetamodel();
+
+        EntityPersister persister;
+
+        try
+        {
+            persister = metamodel.entityPersister( klass );
+        }
+        catch ( MappingException ex )
+        {
+            return false;
+        }
+
+        for ( int i = 0; i < persister.getPropertyTypes().length; i++ )
+        {
+            if ( persister.getPropertyCascadeStyles()[i] != CascadeStyles.NONE
+                || ownsCollection( metamodel, persister.getPropertyTypes()[i] ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean ownsCollection( MetamodelImplementor metamodel, Type type )
+    {
+        if ( type.isCollectionType() )
+        {
+            return !metamodel.collectionPersister( ((CollectionType) type).getRole() ).isInverse();
+        }
+
+        if ( type.isComponentType() )
+        {
+            for ( Type subtype : ((CompositeType) type).getSubtypes() )
+            {
+                if ( ownsCollection( metamodel, subtype ) )
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     @SuppressWarnings( "unchecked" )
     private List<Class<? extends IdentifiableObject>> getSortedClasses( ObjectBundle bundle )
     {
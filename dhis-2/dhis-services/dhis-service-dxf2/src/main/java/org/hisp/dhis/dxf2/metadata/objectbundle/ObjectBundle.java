@@ -42,6 +42,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.MergeMode;
 import org.hisp.dhis.dxf2.metadata.AtomicMode;
+import org.hisp.dhis.dxf2.metadata.CommitMode;
 import org.hisp.dhis.dxf2.metadata.FlushMode;
 import org.hisp.dhis.dxf2.metadata.UserOverrideMode;
 import org.hisp.dhis.dxf2.metadata.feedback.ImportReportMode;
@@ -120,6 +121,12 @@ public class ObjectBundle implements ObjectIndexProvider
      */
     private final FlushMode flushMode;
 
+    /**
+     * Write objects through Hibernate or insert simple objects in JDBC
+     * batches.
+     */
+    private final CommitMode commitMode;
+
     /**
      * Internal preheat bundle.
      */
@@ -194,6 +201,7 @@ public class ObjectBundle implements ObjectIndexProvider
         this.preheatMode = params.getPreheatMode();
         this.mergeMode = params.getMergeMode();
         this.flushMode = params.getFlushMode();
+        this.commitMode = params.getCommitMode();
         this.skipSharing = params.isSkipSharing();
         this.skipTranslation = params.isSkipTranslation();
         this.skipValidation = params.isSkipValidation();
@@ -269,6 +277,11 @@ public class ObjectBundle implements ObjectIndexProvider
         return flushMode;
     }
 
+    public CommitMode getCommitMode()
+    {
+        return commitMode;
+    }
+
     public boolean isSkipSharing()
     {
         return skipSharing;
@@ -35,6 +35,7 @@ import java.util.Map;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.MergeMode;
 import org.hisp.dhis.dxf2.metadata.AtomicMode;
+import org.hisp.dhis.dxf2.metadata.CommitMode;
 import org.hisp.dhis.dxf2.metadata.FlushMode;
 import org.hisp.dhis.dxf2.metadata.UserOverrideMode;
 import org.hisp.dhis.dxf2.metadata.feedback.ImportReportMode;
@@ -73,6 +74,8 @@ public class ObjectBundleParams
 
     private FlushMode flushMode = FlushMode.AUTO;
 
+    private CommitMode commitMode = CommitMode.HIBERNATE;
+
     private ImportReportMode importReportMode = ImportReportMode.ERRORS;
 
     private Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> objects = new HashMap<>();
@@ -202,6 +205,17 @@ public class ObjectBundleParams
         return this;
     }
 
+    public CommitMode getCommitMode()
+    {
+        return commitMode;
+    }
+
+    public ObjectBundleParams setCommitMode( CommitMode commitMode )
+    {
+        this.commitMode = commitMode;
+        return this;
+    }
+
     public ImportReportMode getImportReportMode()
     {
         return importReportMode;
@@ -320,6 +334,7 @@ public class ObjectBundleParams
         PreheatParams params = new PreheatParams();
         params.setPreheatIdentifier( preheatIdentifier );
         params.setPreheatMode( preheatMode );
+        params.setParallel( CommitMode.BATCH == commitMode );
 
         return params;
     }
@@ -29,17 +29,29 @@ package org.hisp.dhis.dxf2.sync;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Date;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.hisp.dhis.common.IdSchemes;
 import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSetService;
+import org.hisp.dhis.dxf2.datavalueset.DataValueSyncKey;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.util.Clock;
 import org.hisp.dhis.system.util.CodecUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RequestCallback;
@@ -60,6 +72,12 @@ public class DataValueSynchronization extends DataSynchronizationWithPaging
 
     private final RestTemplate restTemplate;
 
+    /**
+     * Separates the lower last updated bound of a run from the key of its last
+     * uploaded page in the stored checkpoint.
+     */
+    private static final String CHECKPOINT_SEPARATOR = "/";
+
     private Date lastUpdatedAfter;
 
     public DataValueSynchronization( DataValueService dataValueService, DataValueSetService dataValueSetService,
@@ -113,16 +131,10 @@ public class DataValueSynchronization extends DataSynchronizationWithPaging
     private void initializeSyncVariables( final int pageSize )
     {
         clock = new Clock( log ).startClock().logTime( "Starting DataValueSynchronization job" );
-        final Date lastSuccessTime = SyncUtils.getLastSyncSuccess( systemSettingManager,
-            SettingKey.LAST_SUCCESSFUL_DATA_VALUE_SYNC );
-        final Date skipChangedBefore = systemSettingManager
-            .getDateSetting( SettingKey.SKIP_SYNCHRONIZATION_FOR_DATA_CHANGED_BEFORE );
-        lastUpdatedAfter = lastSuccessTime.after( skipChangedBefore ) ? lastSuccessTime : skipChangedBefore;
+        lastUpdatedAfter = getLastUpdatedAfter();
 
         objectsToSynchronize = dataValueService.getDataValueCountLastUpdatedAfter( lastUpdatedAfter, true );
 
-        log.info( "DataValues last changed before " + skipChangedBefore + " will not be synchronized." );
-
         if ( objectsToSynchronize != 0 )
         {
             instance = SyncUtils.getRemoteInstance( systemSettingManager, SyncEndpoint.DATA_VALUE_SETS );
@@ -137,6 +149,103 @@ public class DataValueSynchronization extends DataSynchronizationWithPaging
         }
     }
 
+    /**
+     * Synchronizes data values by paging through them by keyset of last
+     * updated time and primary key. Pages are gzip-compressed and up to
+     * {@code maxPagesInFlight} pages are uploaded concurrently. The key of the
+     * last page for which it and all preceding pages were uploaded is stored
+     * as a checkpoint, so that a failed run is resumed from there by the next
+     * run.
+     *
+     * @param pageSize the number of data values per page.
+     * @param maxPagesInFlight the maximum number of pages uploaded
+     *        concurrently.
+     * @return the result of the synchronization.
+     */
+    public SynchronizationResult synchronizeDataWithKeyset( final int pageSize, final int maxPagesInFlight )
+    {
+        if ( !SyncUtils.testServerAvailability( systemSettingManager, restTemplate ).isAvailable() )
+        {
+            return SynchronizationResult
+                .newFailureResultWithMessage( "DataValueSynchronization failed. Remote server is unavailable." );
+        }
+
+        clock = new Clock( log ).startClock().logTime( "Starting keyset DataValueSynchronization job" );
+        lastUpdatedAfter = getLastUpdatedAfter();
+        instance = SyncUtils.getRemoteInstance( systemSettingManager, SyncEndpoint.DATA_VALUE_SETS );
+
+        DataValueSyncKey after = getCheckpoint();
+
+        if ( after != null )
+        {
+            log.info( "Resuming DataValueSynchronization after checkpoint: " + after );
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( maxPagesInFlight );
+        Deque<Pair<DataValueSyncKey, Future<Boolean>>> inFlight = new ArrayDeque<>();
+        int pageCount = 0;
+        syncResult = true;
+
+        try
+        {
+            while ( syncResult )
+            {
+                ByteArrayOutputStream payload = new ByteArrayOutputStream();
+                DataValueSyncKey last;
+
+                try ( GZIPOutputStream gzip = new GZIPOutputStream( payload ) )
+                {
+                    last = dataValueSetService.exportDataValueSetJson( lastUpdatedAfter, gzip, new IdSchemes(),
+                        pageSize, after );
+                }
+
+                if ( last == null )
+                {
+                    break;
+                }
+
+                byte[] body = payload.toByteArray();
+                inFlight.add( Pair.of( last, executor.submit( () -> sendCompressedSyncRequest( body ) ) ) );
+                after = last;
+
+                log.info( String.format( "Synchronizing page %d with page size %d and %d compressed bytes",
+                    ++pageCount, pageSize, body.length ) );
+
+                while ( syncResult && inFlight.size() >= maxPagesInFlight )
+                {
+                    syncResult = completeOldestPage( inFlight );
+                }
+            }
+
+            while ( syncResult && !inFlight.isEmpty() )
+            {
+                syncResult = completeOldestPage( inFlight );
+            }
+        }
+        catch ( IOException ex )
+        {
+            log.error( "Writing compressed DataValues page failed", ex );
+            syncResult = false;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        if ( syncResult )
+        {
+            systemSettingManager.deleteSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT );
+            clock.logTime( "SUCCESS! DataValueSynchronization job is done. It took" );
+            SyncUtils.setLastSyncSuccess( systemSettingManager, SettingKey.LAST_SUCCESSFUL_DATA_VALUE_SYNC,
+                new Date( clock.getStartTime() ) );
+            return SynchronizationResult.newSuccessResultWithMessage( "DataValueSynchronization done. Synchronized "
+                + pageCount + " pages. It took " + clock.getTime() + " ms." );
+        }
+
+        return SynchronizationResult
+            .newFailureResultWithMessage( "DataValueSynchronization failed. Next run resumes from last checkpoint." );
+    }
+
     protected void synchronizePage( int page, int pageSize )
     {
         log.info( String.format( "Synchronizing page %d with page size %d", page, pageSize ) );
@@ -161,4 +270,91 @@ public class DataValueSynchronization extends DataSynchronizationWithPaging
         return SyncUtils.sendSyncRequest( systemSettingManager, restTemplate, requestCallback, instance,
             SyncEndpoint.DATA_VALUE_SETS );
     }
+
+    private boolean sendCompressedSyncRequest( byte[] body )
+    {
+        final RequestCallback requestCallback = request -> {
+            request.getHeaders().setContentType( MediaType.APPLICATION_JSON );
+            request.getHeaders().add( HttpHeaders.CONTENT_ENCODING, "gzip" );
+            request.getHeaders().add( SyncUtils.HEADER_AUTHORIZATION,
+                CodecUtils.getBasicAuthString( instance.getUsername(), instance.getPassword() ) );
+
+            request.getBody().write( body );
+        };
+
+        return SyncUtils.sendSyncRequest( systemSettingManager, restTemplate, requestCallback, instance,
+            SyncEndpoint.DATA_VALUE_SETS );
+    }
+
+    /**
+     * Waits for the upload of the oldest page in flight and stores its key as
+     * checkpoint if the upload was successful.
+     *
+     * @return true if the upload was successful, false otherwise.
+     */
+    private boolean completeOldestPage( Deque<Pair<DataValueSyncKey, Future<Boolean>>> inFlight )
+    {
+        Pair<DataValueSyncKey, Future<Boolean>> page = inFlight.poll();
+
+        try
+        {
+            if ( !page.getRight().get() )
+            {
+                return false;
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        catch ( ExecutionException ex )
+        {
+            log.error( "Uploading DataValues page failed", ex.getCause() );
+            return false;
+        }
+
+        systemSettingManager.saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            lastUpdatedAfter.getTime() + CHECKPOINT_SEPARATOR + page.getLeft().encode() );
+
+        return true;
+    }
+
+    /**
+     * Returns the stored checkpoint if it belongs to a run which synchronized
+     * data values last updated after the same date as this run, or null
+     * otherwise.
+     */
+    private DataValueSyncKey getCheckpoint()
+    {
+        String checkpoint = systemSettingManager.getStringSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT );
+        String prefix = lastUpdatedAfter.getTime() + CHECKPOINT_SEPARATOR;
+
+        if ( checkpoint == null || !checkpoint.startsWith( prefix ) )
+        {
+            return null;
+        }
+
+        try
+        {
+            return DataValueSyncKey.decode( checkpoint.substring( prefix.length() ) );
+        }
+        catch ( IllegalArgumentException ex )
+        {
+            log.warn( "Ignoring invalid DataValueSynchronization checkpoint: " + checkpoint );
+            return null;
+        }
+    }
+
+    private Date getLastUpdatedAfter()
+    {
+        final Date lastSuccessTime = SyncUtils.getLastSyncSuccess( systemSettingManager,
+            SettingKey.LAST_SUCCESSFUL_DATA_VALUE_SYNC );
+        final Date skipChangedBefore = systemSettingManager
+            .getDateSetting( SettingKey.SKIP_SYNCHRONIZATION_FOR_DATA_CHANGED_BEFORE );
+
+        log.info( "DataValues last changed before " + skipChangedBefore + " will not be synchronized." );
+
+        return lastSuccessTime.after( skipChangedBefore ) ? lastSuccessTime : skipChangedBefore;
+    }
 }
@@ -87,7 +87,17 @@ public class DataSynchronizationJob extends SynchronizationJob
     {
         DataSynchronizationJobParameters jobParameters = (DataSynchronizationJobParameters) jobConfiguration
             .getJobParameters();
-        dataValueSynchronization.synchronizeData( jobParameters.getPageSize() );
+
+        if ( jobParameters.isKeysetPaging() )
+        {
+            dataValueSynchronization.synchronizeDataWithKeyset( jobParameters.getPageSize(),
+                jobParameters.getMaxPagesInFlight() );
+        }
+        else
+        {
+            dataValueSynchronization.synchronizeData( jobParameters.getPageSize() );
+        }
+
         notifier.notify( jobConfiguration, "Data value sync successful" );
 
         completenessSynchronization.synchronizeData();
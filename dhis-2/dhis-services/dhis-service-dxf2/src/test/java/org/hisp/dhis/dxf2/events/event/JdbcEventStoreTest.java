@@ -28,14 +28,22 @@
 package org.hisp.dhis.dxf2.events.event;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -48,12 +56,15 @@ import org.hisp.dhis.user.CurrentUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.core.env.Environment;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -111,6 +122,43 @@ class JdbcEventStoreTest
         verify( rowSet, times( 4 ) ).getString( "psi_eventdatavalues" );
     }
 
+    @Test
+    void verifyKeysetPagingLimitsEventsRatherThanRows()
+        throws SQLException
+    {
+        EventSearchParams params = new EventSearchParams()
+            .setKeysetPaging( true )
+            .setCursor( new EventCursor( Timestamp.valueOf( "2022-03-01 10:00:00.123456" ), 42L ) )
+            .setPageSize( 2 );
+
+        subject.getEvents( params, new ArrayList<>(), Collections.emptyMap() );
+
+        String sql = getQueriedSql();
+
+        assertThat( sql, containsString( "dense_rank() over (order by psi_lastupdated desc, psi_id desc)" ) );
+        assertThat( sql, containsString( "where psi_rank <= 2 " ) );
+        assertThat( sql, containsString(
+            "(psi.lastupdated, psi.programstageinstanceid) < (timestamp '2022-03-01 10:00:00.123456', 42)" ) );
+        assertThat( sql, not( containsString( "limit 2" ) ) );
+    }
+
+    private String getQueriedSql()
+        throws SQLException
+    {
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass( PreparedStatementCreator.class );
+        verify( jdbcTemplate ).query( creator.capture(), any( RowCallbackHandler.class ) );
+
+        Connection connection = mock( Connection.class );
+        when( connection.prepareStatement( anyString() ) ).thenReturn( mock( PreparedStatement.class ) );
+
+        creator.getValue().createPreparedStatement( connection );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        verify( connection ).prepareStatement( sql.capture() );
+
+        return sql.getValue();
+    }
+
     private void mockRowSet()
     {
         // Simulate 3 rows
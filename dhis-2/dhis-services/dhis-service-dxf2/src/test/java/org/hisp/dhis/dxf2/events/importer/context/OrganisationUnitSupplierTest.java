@@ -31,7 +31,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.SQLException;
@@ -47,6 +51,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 
 /**
  * @author Luciano Fiandesio
@@ -193,4 +199,28 @@ class OrganisationUnitSupplierTest extends AbstractSupplierTest<OrganisationUnit
                 + attributeId + "'->>'value' as attributevalues from organisationunit ou where ou.attributevalues#>>'{"
                 + attributeId + ",value}' in (:ids)" ) );
     }
+
+    @Test
+    void verifyCachedOuIsNotFetchedAgain()
+        throws SQLException
+    {
+        when( mockResultSet.getLong( "organisationunitid" ) ).thenReturn( 100L );
+        when( mockResultSet.getString( "uid" ) ).thenReturn( "abcded" );
+        when( mockResultSet.getString( "path" ) ).thenReturn( "/abcded" );
+        when( mockResultSet.getInt( "hierarchylevel" ) ).thenReturn( 1 );
+        mockResultSetExtractor( mockResultSet );
+        WorkContextCache cache = new WorkContextCache();
+        Event first = new Event();
+        first.setUid( CodeGenerator.generateUid() );
+        first.setOrgUnit( "abcded" );
+        Event second = new Event();
+        second.setUid( CodeGenerator.generateUid() );
+        second.setOrgUnit( "abcded" );
+        subject.get( ImportOptions.getDefaultImportOptions(), Collections.singletonList( first ), cache );
+        Map<String, OrganisationUnit> map = subject.get( ImportOptions.getDefaultImportOptions(),
+            Collections.singletonList( second ), cache );
+        assertThat( map.get( second.getUid() ).getId(), is( 100L ) );
+        verify( jdbcTemplate, times( 1 ) ).query( anyString(), any( MapSqlParameterSource.class ),
+            any( ResultSetExtractor.class ) );
+    }
 }
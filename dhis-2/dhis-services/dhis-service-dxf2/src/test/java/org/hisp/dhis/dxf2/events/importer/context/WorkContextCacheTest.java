@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.events.importer.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hisp.dhis.dataelement.DataElement;
+import org.junit.jupiter.api.Test;
+
+class WorkContextCacheTest
+{
+    private final WorkContextCache cache = new WorkContextCache();
+
+    private final List<Set<String>> loads = new ArrayList<>();
+
+    @Test
+    void testLoadOnlyUncachedDataElements()
+    {
+        Map<String, DataElement> first = cache.getDataElements( Set.of( "a", "b" ), this::load );
+        Map<String, DataElement> second = cache.getDataElements( Set.of( "b", "c" ), this::load );
+
+        assertEquals( List.of( Set.of( "a", "b" ), Set.of( "c" ) ), loads );
+        assertEquals( Set.of( "a", "b" ), first.keySet() );
+        assertEquals( Set.of( "b", "c" ), second.keySet() );
+        assertSame( first.get( "b" ), second.get( "b" ) );
+    }
+
+    @Test
+    void testRememberMissingDataElements()
+    {
+        cache.getDataElements( Set.of( "a", "missing" ), this::load );
+        Map<String, DataElement> second = cache.getDataElements( Set.of( "a", "missing" ), this::load );
+
+        assertEquals( 1, loads.size() );
+        assertEquals( Set.of( "a" ), second.keySet() );
+    }
+
+    private Map<String, DataElement> load( Set<String> ids )
+    {
+        loads.add( ids );
+
+        return ids.stream().filter( id -> !id.equals( "missing" ) )
+            .collect( Collectors.toMap( id -> id, id -> {
+                DataElement dataElement = new DataElement();
+                dataElement.setUid( id );
+                return dataElement;
+            } ) );
+    }
+}
@@ -33,8 +33,12 @@ import java.util.List;
 import java.util.Map;
 
 import org.hisp.dhis.TransactionalIntegrationTest;
+import org.hisp.dhis.category.Category;
+import org.hisp.dhis.category.CategoryCombo;
+import org.hisp.dhis.category.CategoryOption;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.SetMap;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroup;
 import org.hisp.dhis.query.Disjunction;
@@ -191,6 +195,38 @@ class MetadataExportServiceTest extends TransactionalIntegrationTest
         metadata.get( DataElement.class ).stream().forEach( element -> checkSharingFields( element ) );
     }
 
+    @Test
+    void testMetadataWithDependencies()
+    {
+        CategoryOption categoryOptionA = createCategoryOption( 'A' );
+        CategoryOption categoryOptionB = createCategoryOption( 'B' );
+        Category category = createCategory( 'A', categoryOptionA, categoryOptionB );
+        CategoryCombo categoryCombo = createCategoryCombo( 'A', category );
+        manager.save( categoryOptionA );
+        manager.save( categoryOptionB );
+        manager.save( category );
+        manager.save( categoryCombo );
+        DataElementGroup deg1 = createDataElementGroup( 'A' );
+        DataElement de1 = createDataElement( 'A', categoryCombo );
+        DataElement de2 = createDataElement( 'B', categoryCombo );
+        DataElement de3 = createDataElement( 'C', categoryCombo );
+        manager.save( de1 );
+        manager.save( de2 );
+        manager.save( de3 );
+        deg1.addDataElement( de1 );
+        deg1.addDataElement( de2 );
+        deg1.addDataElement( de3 );
+        manager.save( deg1 );
+        dbmsManager.clearSession();
+        SetMap<Class<? extends IdentifiableObject>, IdentifiableObject> metadata = metadataExportService
+            .getMetadataWithDependencies( manager.get( DataElementGroup.class, deg1.getUid() ) );
+        assertEquals( 1, metadata.get( DataElementGroup.class ).size() );
+        assertEquals( 3, metadata.get( DataElement.class ).size() );
+        assertEquals( 1, metadata.get( CategoryCombo.class ).size() );
+        assertEquals( 1, metadata.get( Category.class ).size() );
+        assertEquals( 2, metadata.get( CategoryOption.class ).size() );
+    }
+
     private void checkSharingFields( IdentifiableObject object )
     {
         assertTrue( object.getUserAccesses().isEmpty() );
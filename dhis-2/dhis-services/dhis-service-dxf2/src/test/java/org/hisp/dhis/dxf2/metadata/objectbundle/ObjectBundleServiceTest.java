@@ -57,12 +57,14 @@ import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.dataset.DataSetElement;
 import org.hisp.dhis.dataset.Section;
 import org.hisp.dhis.dxf2.metadata.AtomicMode;
+import org.hisp.dhis.dxf2.metadata.CommitMode;
 import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleValidationReport;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.importexport.ImportStrategy;
 import org.hisp.dhis.indicator.Indicator;
 import org.hisp.dhis.option.OptionSet;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
 import org.hisp.dhis.organisationunit.OrganisationUnitLevel;
 import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.preheat.PreheatErrorReport;
@@ -1187,6 +1189,70 @@ class ObjectBundleServiceTest extends TransactionalIntegrationTest
         assertEquals( 3, root.getChildren().size() );
     }
 
+    @Test
+    void testCreateOrganisationUnitHierarchyInBatchCommitMode()
+        throws IOException
+    {
+        Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> metadata = renderService.fromMetadata(
+            new ClassPathResource( "dxf2/ou_hierarchy_with_group_and_dataset.json" ).getInputStream(),
+            RenderFormat.JSON );
+        ObjectBundleParams params = new ObjectBundleParams();
+        params.setObjectBundleMode( ObjectBundleMode.COMMIT );
+        params.setImportStrategy( ImportStrategy.CREATE );
+        params.setAtomicMode( AtomicMode.ALL );
+        params.setCommitMode( CommitMode.BATCH );
+        params.setObjects( metadata );
+        ObjectBundle bundle = objectBundleService.create( params );
+        assertFalse( objectBundleValidationService.validate( bundle ).hasErrorReports() );
+        objectBundleService.commit( bundle );
+
+        // Read back what the batch inserts wrote, not the imported objects
+
+        assertEquals( "/ouLevel1aaA", getPath( "ouLevel1aaA" ) );
+        assertEquals( "/ouLevel1aaA/ouLevel2aaB", getPath( "ouLevel2aaB" ) );
+        assertEquals( "/ouLevel1aaA/ouLevel2aaB/ouLevel3bbC", getPath( "ouLevel3bbC" ) );
+        assertEquals( "/ouLevel1aaA/ouLevel2aaB/ouLevel3bbD", getPath( "ouLevel3bbD" ) );
+        assertEquals( 1, getHierarchyLevel( "ouLevel1aaA" ) );
+        assertEquals( 2, getHierarchyLevel( "ouLevel2aaB" ) );
+        assertEquals( 3, getHierarchyLevel( "ouLevel3bbC" ) );
+        assertEquals( 3, getHierarchyLevel( "ouLevel3bbD" ) );
+
+        OrganisationUnit ouA = manager.get( OrganisationUnit.class, "ouLevel1aaA" );
+        OrganisationUnit ouB = manager.get( OrganisationUnit.class, "ouLevel2aaB" );
+        OrganisationUnit ouC = manager.get( OrganisationUnit.class, "ouLevel3bbC" );
+        OrganisationUnit ouD = manager.get( OrganisationUnit.class, "ouLevel3bbD" );
+        assertNull( ouA.getParent() );
+        assertEquals( ouA, ouB.getParent() );
+        assertEquals( ouB, ouC.getParent() );
+        assertEquals( Sets.newHashSet( ouB ), ouA.getChildren() );
+        assertEquals( Sets.newHashSet( ouC, ouD ), ouB.getChildren() );
+
+        OrganisationUnitGroup group = manager.get( OrganisationUnitGroup.class, "ouGroupaaaA" );
+        assertEquals( Sets.newHashSet( ouC, ouD ), group.getMembers() );
+        assertEquals( 2, countRows( "orgunitgroupmembers", "orgunitgroupid", group.getId() ) );
+
+        DataSet dataSet = manager.get( DataSet.class, "dataSetaaaA" );
+        assertEquals( Sets.newHashSet( ouB, ouC ), dataSet.getSources() );
+        assertEquals( 2, countRows( "datasetsource", "datasetid", dataSet.getId() ) );
+    }
+
+    private String getPath( String uid )
+    {
+        return jdbcTemplate.queryForObject( "select path from organisationunit where uid = ?", String.class, uid );
+    }
+
+    private int getHierarchyLevel( String uid )
+    {
+        return jdbcTemplate.queryForObject( "select hierarchylevel from organisationunit where uid = ?",
+            Integer.class, uid );
+    }
+
+    private int countRows( String table, String column, long id )
+    {
+        return jdbcTemplate.queryForObject( "select count(*) from " + table + " where " + column + " = ?",
+            Integer.class, id );
+    }
+
     @Test
     void testCreateAndUpdateDataSetWithSections()
         throws IOException
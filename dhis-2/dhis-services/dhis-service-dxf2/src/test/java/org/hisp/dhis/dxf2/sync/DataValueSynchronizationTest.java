@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.sync;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.hisp.dhis.common.IdSchemes;
+import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.dxf2.datavalueset.DataValueSetService;
+import org.hisp.dhis.dxf2.datavalueset.DataValueSyncKey;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the keyset mode of {@link DataValueSynchronization} against a local
+ * stand-in for the remote server.
+ */
+@ExtendWith( MockitoExtension.class )
+@MockitoSettings( strictness = Strictness.LENIENT )
+class DataValueSynchronizationTest
+{
+    private static final DataValueSyncKey KEY_A = new DataValueSyncKey( new Timestamp( 1000L ), 1, 2, 3, 4, 5 );
+
+    private static final DataValueSyncKey KEY_B = new DataValueSyncKey( new Timestamp( 2000L ), 1, 2, 3, 4, 5 );
+
+    private static final DataValueSyncKey KEY_C = new DataValueSyncKey( new Timestamp( 3000L ), 1, 2, 3, 4, 5 );
+
+    @Mock
+    private DataValueService dataValueService;
+
+    @Mock
+    private DataValueSetService dataValueSetService;
+
+    @Mock
+    private SystemSettingManager systemSettingManager;
+
+    private HttpServer server;
+
+    private final List<String> receivedPages = new ArrayList<>();
+
+    private final AtomicInteger failOnPage = new AtomicInteger( -1 );
+
+    private DataValueSynchronization synchronization;
+
+    @BeforeEach
+    void setUp()
+        throws IOException
+    {
+        server = HttpServer.create( new InetSocketAddress( "localhost", 0 ), 0 );
+        server.createContext( "/api/system/ping", exchange -> respond( exchange, "\"pong\"" ) );
+        server.createContext( "/api/dataValueSets", this::importPage );
+        server.start();
+
+        when( systemSettingManager.getStringSetting( SettingKey.REMOTE_INSTANCE_URL ) )
+            .thenReturn( "http://localhost:" + server.getAddress().getPort() );
+        when( systemSettingManager.getStringSetting( SettingKey.REMOTE_INSTANCE_USERNAME ) ).thenReturn( "admin" );
+        when( systemSettingManager.getStringSetting( SettingKey.REMOTE_INSTANCE_PASSWORD ) ).thenReturn( "district" );
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_DATA_VALUE_SYNC ) )
+            .thenReturn( new Date( 0 ) );
+        when( systemSettingManager.getDateSetting( SettingKey.SKIP_SYNCHRONIZATION_FOR_DATA_CHANGED_BEFORE ) )
+            .thenReturn( new Date( 0 ) );
+
+        synchronization = new DataValueSynchronization( dataValueService, dataValueSetService, systemSettingManager,
+            new RestTemplate() );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        server.stop( 0 );
+    }
+
+    @Test
+    void testSynchronizeDataWithKeyset()
+    {
+        givenPages( KEY_A, KEY_B, KEY_C );
+
+        SynchronizationResult result = synchronization.synchronizeDataWithKeyset( 100, 2 );
+
+        assertEquals( SynchronizationStatus.SUCCESS, result.status );
+        assertEquals( Set.of( page( KEY_A ), page( KEY_B ), page( KEY_C ) ), new HashSet<>( receivedPages ) );
+        assertEquals( 3, receivedPages.size() );
+        verify( systemSettingManager ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            "0/" + KEY_C.encode() );
+        verify( systemSettingManager ).deleteSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT );
+        verify( systemSettingManager ).saveSystemSetting( eq( SettingKey.LAST_SUCCESSFUL_DATA_VALUE_SYNC ),
+            any( Date.class ) );
+    }
+
+    @Test
+    void testSynchronizeDataWithKeysetStoresCheckpointOnFailure()
+    {
+        givenPages( KEY_A, KEY_B, KEY_C );
+        failOnPage.set( 2 );
+
+        SynchronizationResult result = synchronization.synchronizeDataWithKeyset( 100, 1 );
+
+        assertEquals( SynchronizationStatus.FAILURE, result.status );
+        verify( systemSettingManager ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            "0/" + KEY_A.encode() );
+        verify( systemSettingManager, never() ).saveSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT,
+            "0/" + KEY_B.encode() );
+        verify( systemSettingManager, never() ).deleteSystemSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT );
+        verify( systemSettingManager, never() ).saveSystemSetting( eq( SettingKey.LAST_SUCCESSFUL_DATA_VALUE_SYNC ),
+            any( Date.class ) );
+    }
+
+    @Test
+    void testSynchronizeDataWithKeysetResumesFromCheckpoint()
+    {
+        when( systemSettingManager.getStringSetting( SettingKey.DATA_VALUE_SYNC_CHECKPOINT ) )
+            .thenReturn( "0/" + KEY_A.encode() );
+        givenPages( KEY_B, KEY_C );
+
+        SynchronizationResult result = synchronization.synchronizeDataWithKeyset( 100, 2 );
+
+        assertEquals( SynchronizationStatus.SUCCESS, result.status );
+        assertEquals( Set.of( page( KEY_B ), page( KEY_C ) ), new HashSet<>( receivedPages ) );
+        assertEquals( 2, receivedPages.size() );
+        verify( dataValueSetService ).exportDataValueSetJson( any( Date.class ), any( OutputStream.class ),
+            any( IdSchemes.class ), eq( 100 ), eq( KEY_A ) );
+        verify( dataValueSetService, never() ).exportDataValueSetJson( any( Date.class ), any( OutputStream.class ),
+            any( IdSchemes.class ), anyInt(), isNull() );
+    }
+
+    /**
+     * Makes the export write one page per given key, each page containing
+     * the encoded key, followed by an empty result.
+     */
+    private void givenPages( DataValueSyncKey... keys )
+    {
+        Iterator<DataValueSyncKey> pages = Arrays.asList( keys ).iterator();
+
+        when( dataValueSetService.exportDataValueSetJson( any( Date.class ), any( OutputStream.class ),
+            any( IdSchemes.class ), anyInt(), any() ) ).thenAnswer( invocation -> {
+                if ( !pages.hasNext() )
+                {
+                    return null;
+                }
+
+                DataValueSyncKey key = pages.next();
+                OutputStream out = invocation.getArgument( 1 );
+                out.write( page( key ).getBytes( StandardCharsets.UTF_8 ) );
+                return key;
+            } );
+    }
+
+    private static String page( DataValueSyncKey key )
+    {
+        return "{\"dataValues\":[],\"key\":\"" + key.encode() + "\"}";
+    }
+
+    private void importPage( HttpExchange exchange )
+        throws IOException
+    {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        try ( InputStream in = new GZIPInputStream( exchange.getRequestBody() ) )
+        {
+            in.transferTo( body );
+        }
+
+        int page;
+
+        synchronized ( receivedPages )
+        {
+            receivedPages.add( body.toString( StandardCharsets.UTF_8 ) );
+            page = receivedPages.size();
+        }
+
+        assertEquals( "gzip", exchange.getRequestHeaders().getFirst( "Content-Encoding" ) );
+
+        respond( exchange, page == failOnPage.get() ? "{\"status\":\"ERROR\"}" : "{\"status\":\"SUCCESS\"}" );
+    }
+
+    private static void respond( HttpExchange exchange, String body )
+        throws IOException
+    {
+        byte[] bytes = body.getBytes( StandardCharsets.UTF_8 );
+        exchange.getResponseHeaders().add( "Content-Type", "application/json" );
+        exchange.sendResponseHeaders( 200, bytes.length );
+
+        try ( OutputStream out = exchange.getResponseBody() )
+        {
+            out.write( bytes );
+        }
+    }
+}
@@ -31,20 +31,33 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
+
+import javax.imageio.ImageIO;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.analytics.AnalyticsFinancialYearStartKey;
 import org.hisp.dhis.analytics.AnalyticsService;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.common.BaseAnalyticalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.UserContext;
 import org.hisp.dhis.commons.filter.FilterUtils;
 import org.hisp.dhis.i18n.I18nManager;
+import org.hisp.dhis.i18n.locale.LocaleManager;
 import org.hisp.dhis.mapping.Map;
 import org.hisp.dhis.mapping.MapView;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
@@ -55,9 +68,15 @@ import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.filter.OrganisationUnitWithCoordinatesFilter;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserAnalyticsScope;
+import org.hisp.dhis.user.UserSettingKey;
+import org.hisp.dhis.util.DateUtils;
+import org.locationtech.jts.geom.Geometry;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import com.google.common.hash.Hashing;
+
 /**
  * An implementation of MapGenerationService that uses GeoTools to generate
  * maps.
@@ -85,21 +104,44 @@ public class GeoToolsMapGenerationService
 
     private final I18nManager i18nManager;
 
+    private final IdentifiableObjectManager idObjectManager;
+
+    private final LocaleManager localeManager;
+
+    /**
+     * Rendered map images as PNG bytes by map, user analytics scope, size and
+     * data timestamp.
+     */
+    private final Cache<byte[]> mapImageCache;
+
+    /**
+     * Simplified geometries by organisation unit and last update.
+     */
+    private final Cache<Geometry> geometryCache;
+
     public GeoToolsMapGenerationService( OrganisationUnitService organisationUnitService,
         AnalyticsService analyticsService, CurrentUserService currentUserService,
-        SystemSettingManager systemSettingManager, I18nManager i18nManager )
+        SystemSettingManager systemSettingManager, I18nManager i18nManager,
+        IdentifiableObjectManager idObjectManager, LocaleManager localeManager, CacheProvider cacheProvider )
     {
         checkNotNull( organisationUnitService );
         checkNotNull( analyticsService );
         checkNotNull( currentUserService );
         checkNotNull( systemSettingManager );
         checkNotNull( i18nManager );
+        checkNotNull( idObjectManager );
+        checkNotNull( localeManager );
+        checkNotNull( cacheProvider );
 
         this.organisationUnitService = organisationUnitService;
         this.analyticsService = analyticsService;
         this.currentUserService = currentUserService;
         this.systemSettingManager = systemSettingManager;
         this.i18nManager = i18nManager;
+        this.idObjectManager = idObjectManager;
+        this.localeManager = localeManager;
+        this.mapImageCache = cacheProvider.createMapImageCache();
+        this.geometryCache = cacheProvider.createOrgUnitSimplifiedGeometryCache();
     }
 
     // -------------------------------------------------------------------------
@@ -139,6 +181,36 @@ public class GeoToolsMapGenerationService
             width = MapUtils.DEFAULT_MAP_WIDTH;
         }
 
+        if ( map.getUid() == null || user == null )
+        {
+            return renderMapImage( map, date, width, height, user );
+        }
+
+        String key = getMapImageKey( map, date, width, height, user );
+
+        Optional<byte[]> cachedImage = mapImageCache.getIfPresent( key );
+
+        if ( cachedImage.isPresent() )
+        {
+            return readImage( cachedImage.get() );
+        }
+
+        BufferedImage image = renderMapImage( map, date, width, height, user );
+
+        if ( image != null )
+        {
+            mapImageCache.put( key, writeImage( image ) );
+        }
+
+        return image;
+    }
+
+    // -------------------------------------------------------------------------
+    // Internal
+    // -------------------------------------------------------------------------
+
+    private BufferedImage renderMapImage( Map map, Date date, Integer width, Integer height, User user )
+    {
         InternalMap internalMap = new InternalMap();
 
         List<MapView> mapViews = new ArrayList<>( map.getMapViews() );
@@ -181,9 +253,84 @@ public class GeoToolsMapGenerationService
         }
     }
 
-    // -------------------------------------------------------------------------
-    // Internal
-    // -------------------------------------------------------------------------
+    /**
+     * Returns the cache key of a rendered map image. The key includes the last
+     * analytics table updates and the last organisation unit update, so that
+     * images are rendered again once data or geometries change. The scope
+     * includes the locales the image is rendered with, being the UI locale of
+     * the legend and the database locale of translated names, and the scope of
+     * the current user, as parts of the analytics are resolved for the current
+     * user rather than the given user. Without a date, the image is rendered
+     * for the current date.
+     */
+    private String getMapImageKey( Map map, Date date, Integer width, Integer height, User user )
+    {
+        UserAnalyticsScope userScope = UserAnalyticsScope.of( user, localeManager.getCurrentLocale(),
+            UserContext.getUserSetting( UserSettingKey.DB_LOCALE ) );
+
+        User currentUser = currentUserService.getCurrentUser();
+
+        String currentUserScope = currentUser != null ? UserAnalyticsScope.of( currentUser ).toString() : "";
+
+        String scope = Hashing.sha256()
+            .hashString( userScope + ":" + currentUserScope, StandardCharsets.UTF_8 ).toString();
+
+        return String.join( ":", map.getUid(), getTime( map.getLastUpdated() ),
+            DateUtils.getMediumDateString( date != null ? date : new Date() ), String.valueOf( width ),
+            String.valueOf( height ),
+            getTime( systemSettingManager.getSystemSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE,
+                Date.class ) ),
+            getTime( systemSettingManager.getSystemSetting(
+                SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE, Date.class ) ),
+            getTime( idObjectManager.getLastUpdated( OrganisationUnit.class ) ), scope );
+    }
+
+    private String getTime( Date date )
+    {
+        return date != null ? String.valueOf( date.getTime() ) : "";
+    }
+
+    private byte[] writeImage( BufferedImage image )
+    {
+        try
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write( image, "PNG", out );
+            return out.toByteArray();
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( ex );
+        }
+    }
+
+    private BufferedImage readImage( byte[] bytes )
+    {
+        try
+        {
+            return ImageIO.read( new ByteArrayInputStream( bytes ) );
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( ex );
+        }
+    }
+
+    /**
+     * Returns the simplified geometry of the given organisation unit. The
+     * simplified geometries are cached by organisation unit and last update,
+     * so a changed geometry is simplified again.
+     */
+    private Geometry getSimplifiedGeometry( OrganisationUnit unit )
+    {
+        if ( unit.getGeometry() == null )
+        {
+            return null;
+        }
+
+        return geometryCache.get( unit.getUid() + ":" + getTime( unit.getLastUpdated() ),
+            key -> MapUtils.simplify( unit.getGeometry() ) );
+    }
 
     private static final String DEFAULT_COLOR_HIGH = "#ff0000";
 
@@ -279,7 +426,7 @@ public class GeoToolsMapGenerationService
         {
             for ( OrganisationUnit unit : organisationUnits )
             {
-                mapLayer.addBoundaryMapObject( unit );
+                mapLayer.addBoundaryMapObject( unit, getSimplifiedGeometry( unit ) );
             }
         }
         else // Thematic layer
@@ -299,7 +446,7 @@ public class GeoToolsMapGenerationService
 
                 if ( orgUnit != null )
                 {
-                    mapLayer.addDataMapObject( mapValue.getValue(), orgUnit );
+                    mapLayer.addDataMapObject( mapValue.getValue(), orgUnit, getSimplifiedGeometry( orgUnit ) );
                 }
             }
 
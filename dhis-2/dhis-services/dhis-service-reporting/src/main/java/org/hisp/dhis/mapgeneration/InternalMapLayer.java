@@ -36,6 +36,7 @@ import org.hisp.dhis.mapgeneration.comparator.IntervalLowValueAscComparator;
 import org.hisp.dhis.mapping.MapView;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
+import org.locationtech.jts.geom.Geometry;
 import org.springframework.util.Assert;
 
 /**
@@ -170,6 +171,19 @@ public class InternalMapLayer
      * @param unit the organisation unit which name to set on the map object.
      */
     public void addDataMapObject( double mapValue, OrganisationUnit unit )
+    {
+        addDataMapObject( mapValue, unit, unit.getGeometry() );
+    }
+
+    /**
+     * Creates a map object with the given geometry and adds it to this map
+     * layer. Sets this map layer on the map object.
+     *
+     * @param mapValue the map values to set on the map object.
+     * @param unit the organisation unit which name to set on the map object.
+     * @param geometry the geometry outlining the organisation unit.
+     */
+    public void addDataMapObject( double mapValue, OrganisationUnit unit, Geometry geometry )
     {
         InternalMapObject mapObject = new InternalMapObject();
 
@@ -179,9 +193,8 @@ public class InternalMapLayer
         mapObject.setStrokeColor( Color.WHITE );
         mapObject.setMapLayerType( MapLayerType.THEMATIC );
 
-        // Build and set the geometric primitive that outlines org unit on the
-        // map
-        mapObject.buildGeometryForOrganisationUnit( unit );
+        // Set the geometric primitive that outlines org unit on the map
+        mapObject.setGeometry( geometry );
 
         // Add the map object to the map layer
         addMapObject( mapObject );
@@ -196,6 +209,18 @@ public class InternalMapLayer
      * @param unit the organisation unit.
      */
     public void addBoundaryMapObject( OrganisationUnit unit )
+    {
+        addBoundaryMapObject( unit, unit.getGeometry() );
+    }
+
+    /**
+     * Adds a map object with the given geometry for the given organisation
+     * unit to this map layer.
+     *
+     * @param unit the organisation unit.
+     * @param geometry the geometry outlining the organisation unit.
+     */
+    public void addBoundaryMapObject( OrganisationUnit unit, Geometry geometry )
     {
         InternalMapObject mapObject = new InternalMapObject();
 
@@ -204,7 +229,7 @@ public class InternalMapLayer
         mapObject.setStrokeColor( Color.BLACK );
         mapObject.setMapLayerType( MapLayerType.BOUNDARY );
 
-        mapObject.buildGeometryForOrganisationUnit( unit );
+        mapObject.setGeometry( geometry );
         addMapObject( mapObject );
         mapObject.setMapLayer( this );
     }
@@ -42,6 +42,10 @@ import org.geotools.map.MapContent;
 import org.geotools.renderer.GTRenderer;
 import org.geotools.renderer.lite.StreamingRenderer;
 import org.geotools.styling.Style;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.simplify.TopologyPreservingSimplifier;
 import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.feature.simple.SimpleFeatureType;
 
@@ -62,6 +66,13 @@ public class MapUtils
 
     public static final int TITLE_HEIGHT = 20;
 
+    /**
+     * Geometries are simplified to a tolerance of their extent divided by this
+     * factor, which stays below a pixel for geometries rendered at up to this
+     * many pixels.
+     */
+    private static final double SIMPLIFICATION_FACTOR = 2000d;
+
     /**
      * Linear interpolation of int.
      *
@@ -271,6 +282,29 @@ public class MapUtils
         return result;
     }
 
+    /**
+     * Simplifies the given geometry for rendering, keeping its topology. The
+     * tolerance is relative to the extent of the geometry, so a geometry
+     * rendered at any size up to a couple of thousand pixels looks unchanged.
+     * Points and empty geometries are returned as is.
+     *
+     * @param geometry the geometry, may be null.
+     * @return the simplified geometry.
+     */
+    public static Geometry simplify( Geometry geometry )
+    {
+        if ( geometry == null || geometry.isEmpty() || geometry instanceof Point )
+        {
+            return geometry;
+        }
+
+        Envelope envelope = geometry.getEnvelopeInternal();
+
+        double extent = Math.max( envelope.getWidth(), envelope.getHeight() );
+
+        return TopologyPreservingSimplifier.simplify( geometry, extent / SIMPLIFICATION_FACTOR );
+    }
+
     /**
      * Creates a feature layer based on a map object.
      */
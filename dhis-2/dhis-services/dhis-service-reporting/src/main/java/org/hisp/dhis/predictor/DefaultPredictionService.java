@@ -68,6 +68,7 @@ import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementOperand;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.datavalue.DataValueStatisticsStore;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.ExpressionService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
@@ -125,6 +126,8 @@ public class DefaultPredictionService
 
     private final BatchHandlerFactory batchHandlerFactory;
 
+    private final DataValueStatisticsStore dataValueStatisticsStore;
+
     private AnalyticsService analyticsService;
 
     private CurrentUserService currentUserService;
@@ -290,7 +293,8 @@ public class DefaultPredictionService
             new PredictionDataValueFetcher( dataValueService, categoryService ),
             new PredictionAnalyticsDataFetcher( analyticsService, categoryService ) );
 
-        PredictionWriter predictionWriter = new PredictionWriter( dataValueService, batchHandlerFactory );
+        PredictionWriter predictionWriter = new PredictionWriter( dataValueService, batchHandlerFactory,
+            dataValueStatisticsStore );
 
         predictionWriter.init( existingOutputPeriods, predictionSummary );
 
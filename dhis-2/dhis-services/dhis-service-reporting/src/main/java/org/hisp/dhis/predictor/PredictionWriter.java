@@ -37,6 +37,8 @@ import java.util.stream.Collectors;
 
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.datavalue.DataValueStatisticsChanges;
+import org.hisp.dhis.datavalue.DataValueStatisticsStore;
 import org.hisp.dhis.jdbc.batchhandler.DataValueBatchHandler;
 import org.hisp.dhis.period.Period;
 import org.hisp.quick.BatchHandler;
@@ -55,19 +57,26 @@ public class PredictionWriter
 
     private final BatchHandlerFactory batchHandlerFactory;
 
+    private final DataValueStatisticsStore dataValueStatisticsStore;
+
     private BatchHandler<DataValue> dataValueBatchHandler;
 
+    private DataValueStatisticsChanges statisticsChanges;
+
     private Set<Period> existingOutputPeriods;
 
     private PredictionSummary summary;
 
-    public PredictionWriter( DataValueService dataValueService, BatchHandlerFactory batchHandlerFactory )
+    public PredictionWriter( DataValueService dataValueService, BatchHandlerFactory batchHandlerFactory,
+        DataValueStatisticsStore dataValueStatisticsStore )
     {
         checkNotNull( dataValueService );
         checkNotNull( batchHandlerFactory );
+        checkNotNull( dataValueStatisticsStore );
 
         this.dataValueService = dataValueService;
         this.batchHandlerFactory = batchHandlerFactory;
+        this.dataValueStatisticsStore = dataValueStatisticsStore;
     }
 
     /**
@@ -82,6 +91,7 @@ public class PredictionWriter
         this.summary = summary;
 
         dataValueBatchHandler = batchHandlerFactory.createBatchHandler( DataValueBatchHandler.class ).init();
+        statisticsChanges = new DataValueStatisticsChanges();
     }
 
     /**
@@ -113,6 +123,11 @@ public class PredictionWriter
     public void flush()
     {
         dataValueBatchHandler.flush();
+
+        DataValueStatisticsChanges changes = statisticsChanges;
+        statisticsChanges = new DataValueStatisticsChanges();
+
+        dataValueStatisticsStore.updateStatistics( changes );
     }
 
     // -------------------------------------------------------------------------
@@ -155,7 +170,7 @@ public class PredictionWriter
             else if ( !prediction.getValue().equals( oldPrediction.getValue() )
                 || oldPrediction.isDeleted() )
             {
-                updatePrediction( prediction );
+                updatePrediction( prediction, oldPrediction );
             }
             else
             {
@@ -182,6 +197,7 @@ public class PredictionWriter
         if ( existingOutputPeriods.contains( prediction.getPeriod() ) )
         {
             dataValueBatchHandler.addObject( prediction );
+            statisticsChanges.add( prediction );
         }
         else
         {
@@ -193,12 +209,22 @@ public class PredictionWriter
      * Updates a predicted data value in the database.
      *
      * @param prediction the predicted data value.
+     * @param oldPrediction the existing predicted data value.
      */
-    private void updatePrediction( DataValue prediction )
+    private void updatePrediction( DataValue prediction, DataValue oldPrediction )
     {
         summary.incrementUpdated();
 
         dataValueBatchHandler.updateObject( prediction );
+
+        if ( oldPrediction.isDeleted() )
+        {
+            statisticsChanges.add( prediction );
+        }
+        else
+        {
+            statisticsChanges.replace( prediction, oldPrediction.getValue() );
+        }
     }
 
     /**
@@ -217,6 +243,7 @@ public class PredictionWriter
                 remainingOldPrediction.setDeleted( true );
 
                 dataValueBatchHandler.updateObject( remainingOldPrediction );
+                statisticsChanges.remove( remainingOldPrediction, remainingOldPrediction.getValue() );
             }
         }
     }
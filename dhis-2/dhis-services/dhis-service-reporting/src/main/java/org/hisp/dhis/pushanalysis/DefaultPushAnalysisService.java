@@ -39,18 +39,28 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
 import javax.imageio.ImageIO;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.velocity.VelocityContext;
+import org.hibernate.SessionFactory;
+import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.IdentifiableObjectStore;
 import org.hisp.dhis.commons.util.Encoder;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.dashboard.DashboardItem;
+import org.hisp.dhis.dbms.DbmsUtils;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.fileresource.ExternalFileResource;
@@ -75,13 +85,17 @@ import org.hisp.dhis.system.util.ChartUtils;
 import org.hisp.dhis.system.velocity.VelocityManager;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserAnalyticsScope;
 import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserService;
 import org.hisp.dhis.visualization.ChartService;
 import org.hisp.dhis.visualization.PlotData;
 import org.hisp.dhis.visualization.Visualization;
 import org.hisp.dhis.visualization.VisualizationGridService;
 import org.jfree.chart.JFreeChart;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.MimeTypeUtils;
@@ -125,13 +139,20 @@ public class DefaultPushAnalysisService
 
     private final IdentifiableObjectStore<PushAnalysis> pushAnalysisStore;
 
+    private final IdentifiableObjectManager idObjectManager;
+
+    private final UserService userService;
+
+    private final SessionFactory sessionFactory;
+
     public DefaultPushAnalysisService( Notifier notifier, SystemSettingManager systemSettingManager,
         DhisConfigurationProvider dhisConfigurationProvider, ExternalFileResourceService externalFileResourceService,
         FileResourceService fileResourceService, CurrentUserService currentUserService,
         MapGenerationService mapGenerationService, VisualizationGridService visualizationGridService,
         ChartService chartService, I18nManager i18nManager,
         @Qualifier( "emailMessageSender" ) MessageSender messageSender,
-        @Qualifier( "org.hisp.dhis.pushanalysis.PushAnalysisStore" ) IdentifiableObjectStore<PushAnalysis> pushAnalysisStore )
+        @Qualifier( "org.hisp.dhis.pushanalysis.PushAnalysisStore" ) IdentifiableObjectStore<PushAnalysis> pushAnalysisStore,
+        IdentifiableObjectManager idObjectManager, UserService userService, SessionFactory sessionFactory )
     {
         checkNotNull( notifier );
         checkNotNull( systemSettingManager );
@@ -145,6 +166,9 @@ public class DefaultPushAnalysisService
         checkNotNull( i18nManager );
         checkNotNull( messageSender );
         checkNotNull( pushAnalysisStore );
+        checkNotNull( idObjectManager );
+        checkNotNull( userService );
+        checkNotNull( sessionFactory );
 
         this.notifier = notifier;
         this.systemSettingManager = systemSettingManager;
@@ -158,6 +182,9 @@ public class DefaultPushAnalysisService
         this.i18nManager = i18nManager;
         this.messageSender = messageSender;
         this.pushAnalysisStore = pushAnalysisStore;
+        this.idObjectManager = idObjectManager;
+        this.userService = userService;
+        this.sessionFactory = sessionFactory;
     }
 
     // ----------------------------------------------------------------------
@@ -254,28 +281,29 @@ public class DefaultPushAnalysisService
         // Generating reports
         // ----------------------------------------------------------------------
 
+        java.util.Map<UserAnalyticsScope, List<User>> usersByScope = receivingUsers.stream()
+            .collect( Collectors.groupingBy( UserAnalyticsScope::of, LinkedHashMap::new, Collectors.toList() ) );
+
+        log( jobId, NotificationLevel.INFO, "Rendering dashboard items for " + usersByScope.size() +
+            " distinct analytics scopes", false, null );
+
+        java.util.Map<UserAnalyticsScope, HashMap<String, String>> itemHtmlByScope = renderItems(
+            pushAnalysis, usersByScope, jobId );
+
         log( jobId, NotificationLevel.INFO, "Generating and sending reports", false, null );
 
-        for ( User user : receivingUsers )
+        for ( java.util.Map.Entry<UserAnalyticsScope, List<User>> scopeUsers : usersByScope.entrySet() )
         {
-            try
-            {
-                String title = pushAnalysis.getTitle();
-                String html = generateHtmlReport( pushAnalysis, user, jobId );
-
-                // TODO: Better handling of messageStatus; Might require
-                // refactoring of EmailMessageSender
-                @SuppressWarnings( "unused" )
-                Future<OutboundMessageResponse> status = messageSender
-                    .sendMessageAsync( title, html, "", null, Sets.newHashSet( user ), true );
+            HashMap<String, String> itemHtml = itemHtmlByScope.get( scopeUsers.getKey() );
 
+            if ( itemHtml == null )
+            {
+                continue;
             }
-            catch ( Exception e )
+
+            for ( User user : scopeUsers.getValue() )
             {
-                log( jobId, NotificationLevel.ERROR,
-                    "Could not create or send report for PushAnalysis '" + pushAnalysis.getName() + "' and User '" +
-                        user.getUsername() + "': " + e.getMessage(),
-                    false, e );
+                sendReport( pushAnalysis, user, itemHtml, jobId );
             }
         }
     }
@@ -306,7 +334,6 @@ public class DefaultPushAnalysisService
         // ----------------------------------------------------------------------
 
         HashMap<String, String> itemHtml = new HashMap<>();
-        HashMap<String, String> itemLink = new HashMap<>();
 
         for ( DashboardItem item : pushAnalysis.getDashboard().getItems() )
         {
@@ -315,6 +342,36 @@ public class DefaultPushAnalysisService
             if ( item.getType() != null )
             {
                 itemHtml.put( item.getUid(), getItemHtml( item, user, jobId ) );
+            }
+        }
+
+        return generateHtmlReport( pushAnalysis, user, itemHtml, jobId );
+    }
+
+    // --------------------------------------------------------------------------
+    // Supportive methods
+    // --------------------------------------------------------------------------
+
+    /**
+     * Renders the report of the given user from the pre-rendered dashboard
+     * items.
+     *
+     * @param pushAnalysis the push analysis to render the report for.
+     * @param user the user to render the report for.
+     * @param itemHtml the HTML of the dashboard items by item UID, is
+     *        extended with the template values.
+     * @param jobId for logging.
+     * @return the HTML of the report.
+     */
+    private String generateHtmlReport( PushAnalysis pushAnalysis, User user, HashMap<String, String> itemHtml,
+        JobConfiguration jobId )
+    {
+        HashMap<String, String> itemLink = new HashMap<>();
+
+        for ( DashboardItem item : pushAnalysis.getDashboard().getItems() )
+        {
+            if ( item.getType() != null )
+            {
                 itemLink.put( item.getUid(), getItemLink( item ) );
             }
         }
@@ -351,9 +408,161 @@ public class DefaultPushAnalysisService
 
     }
 
-    // --------------------------------------------------------------------------
-    // Supportive methods
-    // --------------------------------------------------------------------------
+    /**
+     * Renders every dashboard item of the push analysis once per distinct
+     * analytics scope, on a bounded pool of workers. Each item is rendered for
+     * the first user of the scope, and the resulting HTML, including the URL
+     * of any uploaded image, is shared by all users of the scope. Scopes with
+     * an item which failed to render are left out of the result.
+     *
+     * @param pushAnalysis the push analysis to render.
+     * @param usersByScope the receiving users grouped by analytics scope.
+     * @param jobId for logging.
+     * @return the item HTML by item UID for each rendered scope.
+     */
+    private java.util.Map<UserAnalyticsScope, HashMap<String, String>> renderItems( PushAnalysis pushAnalysis,
+        java.util.Map<UserAnalyticsScope, List<User>> usersByScope, JobConfiguration jobId )
+    {
+        List<String> itemUids = pushAnalysis.getDashboard().getItems().stream()
+            // Preventing NPE when DB data is not consistent.
+            // In normal conditions all DashboardItem has a type.
+            .filter( item -> item.getType() != null )
+            .map( DashboardItem::getUid )
+            .collect( Collectors.toList() );
+
+        java.util.Map<UserAnalyticsScope, HashMap<String, String>> itemHtmlByScope = new HashMap<>();
+
+        int tasks = usersByScope.size() * itemUids.size();
+
+        if ( tasks == 0 )
+        {
+            usersByScope.keySet().forEach( scope -> itemHtmlByScope.put( scope, new HashMap<>() ) );
+            return itemHtmlByScope;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool( Math.min( getThreadPoolSize(), tasks ) );
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        try
+        {
+            java.util.Map<UserAnalyticsScope, java.util.Map<String, Future<String>>> futures = new HashMap<>();
+
+            for ( java.util.Map.Entry<UserAnalyticsScope, List<User>> scopeUsers : usersByScope.entrySet() )
+            {
+                String userUid = scopeUsers.getValue().get( 0 ).getUid();
+
+                java.util.Map<String, Future<String>> itemFutures = new LinkedHashMap<>();
+
+                for ( String itemUid : itemUids )
+                {
+                    itemFutures.put( itemUid,
+                        executor.submit( getRenderTask( itemUid, userUid, authentication, jobId ) ) );
+                }
+
+                futures.put( scopeUsers.getKey(), itemFutures );
+            }
+
+            for ( java.util.Map.Entry<UserAnalyticsScope, List<User>> scopeUsers : usersByScope.entrySet() )
+            {
+                HashMap<String, String> itemHtml = new HashMap<>();
+
+                try
+                {
+                    for ( java.util.Map.Entry<String, Future<String>> itemFuture : futures
+                        .get( scopeUsers.getKey() ).entrySet() )
+                    {
+                        itemHtml.put( itemFuture.getKey(), itemFuture.getValue().get() );
+                    }
+
+                    itemHtmlByScope.put( scopeUsers.getKey(), itemHtml );
+                }
+                catch ( ExecutionException e )
+                {
+                    log( jobId, NotificationLevel.ERROR,
+                        "Could not create report for PushAnalysis '" + pushAnalysis.getName() + "' and Users " +
+                            getUsernames( scopeUsers.getValue() ) + ": " + e.getCause().getMessage(),
+                        false, e.getCause() );
+                }
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+
+            log( jobId, NotificationLevel.ERROR, "Rendering of PushAnalysis '" + pushAnalysis.getName() +
+                "' was interrupted", false, e );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        return itemHtmlByScope;
+    }
+
+    /**
+     * Returns a task which renders a dashboard item for a user. The task binds
+     * its own Hibernate session and reloads the item and the user, as entities
+     * of the calling session must not be accessed from other threads.
+     */
+    private Callable<String> getRenderTask( String itemUid, String userUid, Authentication authentication,
+        JobConfiguration jobId )
+    {
+        return () -> {
+            SecurityContextHolder.getContext().setAuthentication( authentication );
+            DbmsUtils.bindSessionToThread( sessionFactory );
+
+            try
+            {
+                DashboardItem item = idObjectManager.get( DashboardItem.class, itemUid );
+                User user = userService.getUser( userUid );
+
+                return getItemHtml( item, user, jobId );
+            }
+            finally
+            {
+                DbmsUtils.unbindSessionFromThread( sessionFactory );
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private int getThreadPoolSize()
+    {
+        int threadPoolSize = SystemUtils.getCpuCores();
+
+        return threadPoolSize > 2 ? threadPoolSize - 1 : threadPoolSize;
+    }
+
+    private List<String> getUsernames( List<User> users )
+    {
+        return users.stream().map( User::getUsername ).collect( Collectors.toList() );
+    }
+
+    private void sendReport( PushAnalysis pushAnalysis, User user, HashMap<String, String> itemHtml,
+        JobConfiguration jobId )
+    {
+        try
+        {
+            String title = pushAnalysis.getTitle();
+            String html = generateHtmlReport( pushAnalysis, user, new HashMap<>( itemHtml ), jobId );
+
+            // TODO: Better handling of messageStatus; Might require
+            // refactoring of EmailMessageSender
+            @SuppressWarnings( "unused" )
+            Future<OutboundMessageResponse> status = messageSender
+                .sendMessageAsync( title, html, "", null, Sets.newHashSet( user ), true );
+
+        }
+        catch ( Exception e )
+        {
+            log( jobId, NotificationLevel.ERROR,
+                "Could not create or send report for PushAnalysis '" + pushAnalysis.getName() + "' and User '" +
+                    user.getUsername() + "': " + e.getMessage(),
+                false, e );
+        }
+    }
 
     /**
      * Finds the dashboardItem's type and calls the associated method for
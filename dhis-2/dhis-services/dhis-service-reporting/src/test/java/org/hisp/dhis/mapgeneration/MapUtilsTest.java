@@ -28,10 +28,18 @@
 package org.hisp.dhis.mapgeneration;
 
 import static org.hisp.dhis.mapgeneration.MapUtils.getWidthHeight;
+import static org.hisp.dhis.mapgeneration.MapUtils.simplify;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
 
 /**
  * Lars Helge Overland
@@ -63,4 +71,36 @@ class MapUtilsTest
     {
         assertThrows( IllegalArgumentException.class, () -> getWidthHeight( null, null, 0, 0, 0.5 ) );
     }
+
+    @Test
+    void testSimplify()
+    {
+        GeometryFactory factory = new GeometryFactory();
+
+        Coordinate[] coordinates = new Coordinate[1001];
+
+        for ( int i = 0; i < 1000; i++ )
+        {
+            double angle = 2 * Math.PI * i / 1000;
+            coordinates[i] = new Coordinate( Math.cos( angle ), Math.sin( angle ) );
+        }
+
+        coordinates[1000] = coordinates[0];
+
+        Geometry polygon = factory.createPolygon( coordinates );
+        Geometry simplified = simplify( polygon );
+
+        assertTrue( simplified.isValid() );
+        assertTrue( simplified.getNumPoints() < polygon.getNumPoints() );
+        assertEquals( polygon.getArea(), simplified.getArea(), 0.01 );
+    }
+
+    @Test
+    void testSimplifyPointAndNull()
+    {
+        Point point = new GeometryFactory().createPoint( new Coordinate( 1d, 2d ) );
+
+        assertSame( point, simplify( point ) );
+        assertNull( simplify( null ) );
+    }
 }
@@ -28,6 +28,7 @@
 package org.hisp.dhis.predictor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -43,6 +44,7 @@ import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.datavalue.DataValueStatisticsStore;
 import org.hisp.dhis.jdbc.batchhandler.DataValueBatchHandler;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
@@ -75,6 +77,9 @@ class PredictionWriterTest extends DhisConvenienceTest
     @Mock
     BatchHandler<DataValue> dataValueBatchHandler;
 
+    @Mock
+    private DataValueStatisticsStore dataValueStatisticsStore;
+
     private DataElement dataElementA;
 
     private DataElement dataElementB;
@@ -150,7 +155,7 @@ class PredictionWriterTest extends DhisConvenienceTest
 
         dataValueC = createDataValue( dataElementA, periodC, orgUnitA, "1", cocA );
 
-        writer = new PredictionWriter( dataValueService, batchHandlerFactory );
+        writer = new PredictionWriter( dataValueService, batchHandlerFactory, dataValueStatisticsStore );
 
         Set<Period> existingOutputPeriods = Sets.newHashSet( periodA );
 
@@ -260,4 +265,22 @@ class PredictionWriterTest extends DhisConvenienceTest
 
         assertEquals( "Ins 0 Upd 0 Del 0 Unchanged 0", writeSummary( predictionSummary ) );
     }
+
+    @Test
+    void testFlushUpdatesStatistics()
+    {
+        writer.write( Lists.newArrayList( dataValueA ), NO_OLD_DATA );
+        writer.write( NO_PREDICTED_DATA, Lists.newArrayList( dataValueC ) );
+        writer.flush();
+
+        verify( dataValueBatchHandler, times( 1 ) ).flush();
+        verify( dataValueStatisticsStore, times( 1 ) ).updateStatistics( argThat(
+            changes -> changes.getAdditions().size() == 1 && changes.getRemovals().size() == 1 ) );
+
+        // a later flush does not pass the changes again
+        writer.flush();
+
+        verify( dataValueStatisticsStore, times( 1 ) ).updateStatistics( argThat(
+            changes -> changes.getAdditions().isEmpty() && changes.getRemovals().isEmpty() ) );
+    }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.pushanalysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hisp.dhis.DhisConvenienceTest;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.IdentifiableObjectStore;
+import org.hisp.dhis.dashboard.Dashboard;
+import org.hisp.dhis.dashboard.DashboardItem;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.fileresource.ExternalFileResourceService;
+import org.hisp.dhis.fileresource.FileResourceService;
+import org.hisp.dhis.i18n.I18nManager;
+import org.hisp.dhis.mapgeneration.MapGenerationService;
+import org.hisp.dhis.mapping.Map;
+import org.hisp.dhis.message.MessageSender;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.user.CurrentUserService;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserService;
+import org.hisp.dhis.visualization.ChartService;
+import org.hisp.dhis.visualization.VisualizationGridService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Tests the rendering of push analysis dashboard items per analytics scope.
+ */
+@ExtendWith( MockitoExtension.class )
+class DefaultPushAnalysisServiceTest extends DhisConvenienceTest
+{
+    @Mock
+    private Notifier notifier;
+
+    @Mock
+    private SystemSettingManager systemSettingManager;
+
+    @Mock
+    private DhisConfigurationProvider dhisConfigurationProvider;
+
+    @Mock
+    private ExternalFileResourceService externalFileResourceService;
+
+    @Mock
+    private FileResourceService fileResourceService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private MapGenerationService mapGenerationService;
+
+    @Mock
+    private VisualizationGridService visualizationGridService;
+
+    @Mock
+    private ChartService chartService;
+
+    @Mock
+    private I18nManager i18nManager;
+
+    @Mock
+    private MessageSender messageSender;
+
+    @Mock
+    private IdentifiableObjectStore<PushAnalysis> pushAnalysisStore;
+
+    @Mock
+    private IdentifiableObjectManager idObjectManager;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Captor
+    private ArgumentCaptor<String> htmlCaptor;
+
+    @Captor
+    private ArgumentCaptor<Set<User>> usersCaptor;
+
+    private DefaultPushAnalysisService subject;
+
+    @BeforeEach
+    void setUp()
+    {
+        subject = new DefaultPushAnalysisService( notifier, systemSettingManager, dhisConfigurationProvider,
+            externalFileResourceService, fileResourceService, currentUserService, mapGenerationService,
+            visualizationGridService, chartService, i18nManager, messageSender, pushAnalysisStore,
+            idObjectManager, userService, sessionFactory );
+    }
+
+    @Test
+    void shouldRenderItemOncePerScopeAndShareItWithUsersOfScope()
+    {
+        OrganisationUnit orgUnit = createOrganisationUnit( 'A' );
+
+        User userA = createUser( 'A' );
+        User userB = createUser( 'B' );
+        User userC = createUser( 'C' );
+        userC.setOrganisationUnits( Sets.newHashSet( orgUnit ) );
+
+        Map map = new Map();
+        map.setAutoFields();
+        DashboardItem item = new DashboardItem();
+        item.setAutoFields();
+        item.setMap( map );
+
+        Dashboard dashboard = new Dashboard( "DashboardA" );
+        dashboard.getItems().add( item );
+
+        PushAnalysis pushAnalysis = new PushAnalysis();
+        pushAnalysis.setAutoFields();
+        pushAnalysis.setDashboard( dashboard );
+        pushAnalysis.setRecipientUserGroups(
+            Sets.newHashSet( createUserGroup( 'A', Sets.newHashSet( userA, userB, userC ) ) ) );
+
+        java.util.Map<String, User> usersByUid = new HashMap<>();
+        List.of( userA, userB, userC ).forEach( user -> usersByUid.put( user.getUid(), user ) );
+
+        when( pushAnalysisStore.getByUid( pushAnalysis.getUid() ) ).thenReturn( pushAnalysis );
+        when( dhisConfigurationProvider.getServerBaseUrl() ).thenReturn( "http://localhost" );
+        when( sessionFactory.openSession() ).thenReturn( mock( Session.class ) );
+        when( idObjectManager.get( DashboardItem.class, item.getUid() ) ).thenReturn( item );
+        when( userService.getUser( anyString() ) )
+            .thenAnswer( invocation -> usersByUid.get( invocation.getArgument( 0 ) ) );
+        when( mapGenerationService.generateMapImageForUser( eq( map ), any(), isNull(), eq( 578 ), eq( 440 ), any() ) )
+            .thenReturn( new BufferedImage( 1, 1, BufferedImage.TYPE_INT_RGB ) );
+        when( fileResourceService.saveFileResource( any(), any() ) ).thenReturn( "fileResource" );
+        when( externalFileResourceService.saveExternalFileResource( any() ) )
+            .thenReturn( "tokenOne", "tokenTwo" );
+
+        subject.runPushAnalysis( pushAnalysis.getUid(), new JobConfiguration() );
+
+        verify( mapGenerationService, times( 2 ) )
+            .generateMapImageForUser( eq( map ), any(), isNull(), eq( 578 ), eq( 440 ), any() );
+        verify( mapGenerationService ).generateMapImageForUser( eq( map ), any(), isNull(), eq( 578 ), eq( 440 ),
+            eq( userC ) );
+        verify( messageSender, times( 3 ) ).sendMessageAsync( any(), htmlCaptor.capture(), any(), any(),
+            usersCaptor.capture(), anyBoolean() );
+
+        java.util.Map<User, String> htmlByUser = new HashMap<>();
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            htmlByUser.put( usersCaptor.getAllValues().get( i ).iterator().next(), htmlCaptor.getAllValues().get( i ) );
+        }
+
+        assertEquals( htmlByUser.get( userA ), htmlByUser.get( userB ) );
+        assertNotEquals( htmlByUser.get( userA ), htmlByUser.get( userC ) );
+    }
+}
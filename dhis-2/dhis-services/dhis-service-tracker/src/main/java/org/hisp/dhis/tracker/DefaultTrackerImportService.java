@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.tracker;
 
+import static org.hisp.dhis.tracker.monitoring.TrackerImportMetrics.SIDE_EFFECTS_OPS;
 import static org.hisp.dhis.tracker.report.TrackerTimingsStats.COMMIT_OPS;
 import static org.hisp.dhis.tracker.report.TrackerTimingsStats.PREHEAT_OPS;
 import static org.hisp.dhis.tracker.report.TrackerTimingsStats.PREPROCESS_OPS;
@@ -52,6 +53,7 @@ import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.tracker.bundle.TrackerBundle;
 import org.hisp.dhis.tracker.bundle.TrackerBundleService;
 import org.hisp.dhis.tracker.job.TrackerSideEffectDataBundle;
+import org.hisp.dhis.tracker.monitoring.TrackerImportMetrics;
 import org.hisp.dhis.tracker.preprocess.TrackerPreprocessService;
 import org.hisp.dhis.tracker.report.TrackerBundleReport;
 import org.hisp.dhis.tracker.report.TrackerImportReport;
@@ -60,10 +62,13 @@ import org.hisp.dhis.tracker.report.TrackerTimingsStats;
 import org.hisp.dhis.tracker.report.TrackerTypeReport;
 import org.hisp.dhis.tracker.report.TrackerValidationReport;
 import org.hisp.dhis.tracker.validation.TrackerValidationService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.google.common.collect.ImmutableMap;
 
+import io.micrometer.core.instrument.Tags;
+
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
@@ -88,6 +93,14 @@ public class DefaultTrackerImportService
     @NonNull
     private final Notifier notifier;
 
+    private TrackerImportMetrics metrics = TrackerImportMetrics.DISABLED;
+
+    @Autowired( required = false )
+    public void setTrackerImportMetrics( TrackerImportMetrics metrics )
+    {
+        this.metrics = metrics;
+    }
+
     @Override
     public TrackerImportReport importTracker( TrackerImportParams params )
     {
@@ -95,6 +108,8 @@ public class DefaultTrackerImportService
 
         TrackerTimingsStats opsTimer = new TrackerTimingsStats();
 
+        Tags tags = metrics.tags( params );
+
         startImport( params );
 
         TrackerValidationReport validationReport = new TrackerValidationReport();
@@ -103,18 +118,18 @@ public class DefaultTrackerImportService
 
         try
         {
-            TrackerBundle trackerBundle = preHeat( params, opsTimer );
+            TrackerBundle trackerBundle = preHeat( params, opsTimer, tags );
 
             Map<TrackerType, Integer> bundleSize = calculatePayloadSize( trackerBundle );
 
-            preProcess( opsTimer, trackerBundle );
+            preProcess( opsTimer, trackerBundle, tags );
 
-            if ( addToValidationReport( params, opsTimer, validationReport, trackerBundle ) )
+            if ( addToValidationReport( params, opsTimer, validationReport, trackerBundle, tags ) )
             {
                 return buildReportAndNotify( params, validationReport, opsTimer, bundleSize );
             }
 
-            bundleReport = commit( params, opsTimer, trackerBundle );
+            bundleReport = commit( params, opsTimer, trackerBundle, tags );
 
             postCommit( trackerBundle );
 
@@ -140,27 +155,28 @@ public class DefaultTrackerImportService
         }
     }
 
-    private TrackerBundle preHeat( TrackerImportParams params, TrackerTimingsStats opsTimer )
+    private TrackerBundle preHeat( TrackerImportParams params, TrackerTimingsStats opsTimer, Tags tags )
     {
         TrackerBundle trackerBundle = opsTimer.exec( PREHEAT_OPS,
-            () -> preheatBundle( params ) );
+            () -> metrics.recordStage( PREHEAT_OPS, tags, () -> preheatBundle( params ) ) );
 
         notifyOps( params, PREHEAT_OPS, opsTimer );
 
         return trackerBundle;
     }
 
-    private void preProcess( TrackerTimingsStats opsTimer, TrackerBundle trackerBundle )
+    private void preProcess( TrackerTimingsStats opsTimer, TrackerBundle trackerBundle, Tags tags )
     {
         opsTimer.execVoid( PREPROCESS_OPS,
-            () -> preProcessBundle( trackerBundle ) );
+            () -> metrics.recordStage( PREPROCESS_OPS, tags, () -> preProcessBundle( trackerBundle ) ) );
     }
 
     private boolean addToValidationReport( TrackerImportParams params, TrackerTimingsStats opsTimer,
-        TrackerValidationReport validationReport, TrackerBundle trackerBundle )
+        TrackerValidationReport validationReport, TrackerBundle trackerBundle, Tags tags )
     {
         validationReport.addValidationReport( opsTimer.exec( VALIDATION_OPS,
-            () -> validateBundle( params, trackerBundle, opsTimer ) ) );
+            () -> metrics.recordStage( VALIDATION_OPS, tags,
+                () -> validateBundle( params, trackerBundle, opsTimer ) ) ) );
 
         if ( exitOnError( validationReport, params ) )
         {
@@ -169,23 +185,25 @@ public class DefaultTrackerImportService
 
         if ( !trackerBundle.isSkipRuleEngine() && !params.getImportStrategy().isDelete() )
         {
-            validationReport.addValidationReport( execRuleEngine( params, opsTimer, trackerBundle ) );
+            validationReport.addValidationReport( execRuleEngine( params, opsTimer, trackerBundle, tags ) );
         }
 
         return exitOnError( validationReport, params );
     }
 
     private TrackerBundleReport commit( TrackerImportParams params, TrackerTimingsStats opsTimer,
-        TrackerBundle trackerBundle )
+        TrackerBundle trackerBundle, Tags tags )
     {
         TrackerBundleReport bundleReport;
         if ( TrackerImportStrategy.DELETE == params.getImportStrategy() )
         {
-            bundleReport = opsTimer.exec( COMMIT_OPS, () -> deleteBundle( trackerBundle ) );
+            bundleReport = opsTimer.exec( COMMIT_OPS,
+                () -> metrics.recordStage( COMMIT_OPS, tags, () -> deleteBundle( trackerBundle ) ) );
         }
         else
         {
-            bundleReport = opsTimer.exec( COMMIT_OPS, () -> commitBundle( trackerBundle ) );
+            bundleReport = opsTimer.exec( COMMIT_OPS,
+                () -> metrics.recordStage( COMMIT_OPS, tags, () -> commitBundle( trackerBundle, tags ) ) );
         }
 
         notifyOps( params, COMMIT_OPS, opsTimer );
@@ -208,15 +226,15 @@ public class DefaultTrackerImportService
     }
 
     private TrackerValidationReport execRuleEngine( TrackerImportParams params, TrackerTimingsStats opsTimer,
-        TrackerBundle trackerBundle )
+        TrackerBundle trackerBundle, Tags tags )
     {
         opsTimer.execVoid( PROGRAMRULE_OPS,
-            () -> runRuleEngine( trackerBundle ) );
+            () -> metrics.recordStage( PROGRAMRULE_OPS, tags, () -> runRuleEngine( trackerBundle ) ) );
 
         notifyOps( params, PROGRAMRULE_OPS, opsTimer );
 
         TrackerValidationReport report = opsTimer.exec( VALIDATE_PROGRAMRULE_OPS,
-            () -> validateRuleEngine( trackerBundle ) );
+            () -> metrics.recordStage( VALIDATE_PROGRAMRULE_OPS, tags, () -> validateRuleEngine( trackerBundle ) ) );
 
         notifyOps( params, VALIDATE_PROGRAMRULE_OPS, opsTimer );
 
@@ -274,7 +292,7 @@ public class DefaultTrackerImportService
         trackerBundleService.runRuleEngine( bundle );
     }
 
-    protected TrackerBundleReport commitBundle( TrackerBundle trackerBundle )
+    protected TrackerBundleReport commitBundle( TrackerBundle trackerBundle, Tags tags )
     {
         TrackerBundleReport bundleReport = trackerBundleService.commit( trackerBundle );
 
@@ -286,7 +304,8 @@ public class DefaultTrackerImportService
                 .flatMap( Collection::stream )
                 .collect( Collectors.toList() );
 
-            trackerBundleService.handleTrackerSideEffects( sideEffectDataBundles );
+            metrics.recordStage( SIDE_EFFECTS_OPS, tags,
+                () -> trackerBundleService.handleTrackerSideEffects( sideEffectDataBundles ) );
         }
 
         return bundleReport;
@@ -27,6 +27,9 @@
  */
 package org.hisp.dhis.tracker.bundle;
 
+import static org.hisp.dhis.tracker.monitoring.TrackerImportMetrics.SIDE_EFFECTS_OPS;
+import static org.hisp.dhis.tracker.report.TrackerTimingsStats.COMMIT_OPS;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
@@ -51,6 +54,7 @@ import org.hisp.dhis.tracker.TrackerType;
 import org.hisp.dhis.tracker.bundle.persister.CommitService;
 import org.hisp.dhis.tracker.bundle.persister.TrackerObjectDeletionService;
 import org.hisp.dhis.tracker.job.TrackerSideEffectDataBundle;
+import org.hisp.dhis.tracker.monitoring.TrackerImportMetrics;
 import org.hisp.dhis.tracker.preheat.TrackerPreheat;
 import org.hisp.dhis.tracker.preheat.TrackerPreheatService;
 import org.hisp.dhis.tracker.report.TrackerBundleReport;
@@ -62,6 +66,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.google.common.collect.ImmutableMap;
 
+import io.micrometer.core.instrument.Tags;
+
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
@@ -90,6 +96,14 @@ public class DefaultTrackerBundleService
         this.sideEffectHandlers = sideEffectHandlers;
     }
 
+    private TrackerImportMetrics metrics = TrackerImportMetrics.DISABLED;
+
+    @Autowired( required = false )
+    public void setTrackerImportMetrics( TrackerImportMetrics metrics )
+    {
+        this.metrics = metrics;
+    }
+
     private ImmutableMap<TrackerType, Function<TrackerBundle, TrackerTypeReport>> DELETION_MAPPER;
 
     private ImmutableMap<TrackerType, BiFunction<Session, TrackerBundle, TrackerTypeReport>> COMMIT_MAPPER;
@@ -149,10 +163,11 @@ public class DefaultTrackerBundleService
         }
 
         Session session = sessionFactory.getCurrentSession();
+        Tags tags = metrics.tags( bundle );
 
         TrackerType.getOrderedByPriority()
-            .forEach( t -> bundleReport.getTypeReportMap().put( t, COMMIT_MAPPER.get( t )
-                .apply( session, bundle ) ) );
+            .forEach( t -> bundleReport.getTypeReportMap().put( t, metrics.recordStep( COMMIT_OPS, t.getName(), tags,
+                () -> COMMIT_MAPPER.get( t ).apply( session, bundle ) ) ) );
 
         return bundleReport;
     }
@@ -172,7 +187,11 @@ public class DefaultTrackerBundleService
     @Override
     public void handleTrackerSideEffects( List<TrackerSideEffectDataBundle> bundles )
     {
-        sideEffectHandlers.forEach( handler -> handler.handleSideEffects( bundles ) );
+        Tags tags = metrics.tags( bundles.stream().map( TrackerSideEffectDataBundle::getImportStrategy )
+            .findFirst().orElse( null ), bundles.size() );
+
+        sideEffectHandlers.forEach( handler -> metrics.recordStep( SIDE_EFFECTS_OPS,
+            handler.getClass().getSimpleName(), tags, () -> handler.handleSideEffects( bundles ) ) );
     }
 
     @Override
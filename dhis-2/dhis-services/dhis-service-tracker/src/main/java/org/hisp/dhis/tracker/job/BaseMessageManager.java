@@ -28,13 +28,17 @@
 package org.hisp.dhis.tracker.job;
 
 import java.io.IOException;
+import java.util.List;
 
+import javax.annotation.PreDestroy;
 import javax.jms.JMSException;
 import javax.jms.TextMessage;
 
 import org.hisp.dhis.artemis.MessageManager;
 import org.hisp.dhis.common.AsyncTaskExecutor;
 import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.render.RenderService;
 import org.springframework.stereotype.Component;
 
@@ -50,14 +54,21 @@ public abstract class BaseMessageManager
 
     private final RenderService renderService;
 
+    private final TrackerSideEffectBatcher batcher;
+
     public BaseMessageManager(
         MessageManager messageManager,
         AsyncTaskExecutor taskExecutor,
-        RenderService renderService )
+        RenderService renderService,
+        DhisConfigurationProvider config )
     {
         this.messageManager = messageManager;
         this.taskExecutor = taskExecutor;
         this.renderService = renderService;
+        this.batcher = new TrackerSideEffectBatcher( getTopic(),
+            Long.parseLong( config.getProperty( ConfigurationKey.TRACKER_SIDE_EFFECT_BATCH_WINDOW ) ),
+            Integer.parseInt( config.getProperty( ConfigurationKey.TRACKER_SIDE_EFFECT_BATCH_SIZE ) ),
+            this::executeBatch );
     }
 
     public String addJob( TrackerSideEffectDataBundle sideEffectDataBundle )
@@ -75,6 +86,23 @@ public abstract class BaseMessageManager
         taskExecutor.executeTask( runnable );
     }
 
+    /**
+     * Adds the consumed bundle to the current batch of side effects, which is
+     * processed by {@link #executeBatch(List)} once the batch window elapses.
+     *
+     * @param sideEffectDataBundle the consumed bundle
+     */
+    public void addToBatch( TrackerSideEffectDataBundle sideEffectDataBundle )
+    {
+        batcher.add( sideEffectDataBundle );
+    }
+
+    @PreDestroy
+    public void flushBatch()
+    {
+        batcher.shutdown();
+    }
+
     public TrackerSideEffectDataBundle toBundle( TextMessage message )
         throws JMSException,
         IOException
@@ -85,4 +113,11 @@ public abstract class BaseMessageManager
     }
 
     public abstract String getTopic();
+
+    /**
+     * Processes a batch of consumed side effect bundles.
+     *
+     * @param sideEffectDataBundles the bundles of the batch
+     */
+    public abstract void executeBatch( List<TrackerSideEffectDataBundle> sideEffectDataBundles );
 }
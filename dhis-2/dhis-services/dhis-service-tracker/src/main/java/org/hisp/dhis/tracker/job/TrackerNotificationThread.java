@@ -27,7 +27,15 @@
  */
 package org.hisp.dhis.tracker.job;
 
+import static org.hisp.dhis.tracker.monitoring.TrackerImportMetrics.NOTIFICATION_SIDE_EFFECT;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.common.BaseIdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
@@ -37,6 +45,8 @@ import org.hisp.dhis.program.notification.ProgramNotificationService;
 import org.hisp.dhis.security.SecurityContextRunnable;
 import org.hisp.dhis.system.notification.NotificationLevel;
 import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.tracker.monitoring.TrackerImportMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -45,11 +55,15 @@ import com.google.common.collect.ImmutableMap;
 
 /**
  * Class represents a thread which will be triggered as soon as tracker
- * notification consumer consumes a message from tracker notification queue.
+ * notification consumer has collected a batch of messages from tracker
+ * notification queue. The notifications of all bundles of the batch are sent
+ * together, grouped by object type. When a group fails, its notifications are
+ * sent again one instance at a time, so that a single broken instance only
+ * loses its own notifications.
  *
  * @author Zubair Asghar
  */
-
+@Slf4j
 @Component
 @Scope( BeanDefinition.SCOPE_PROTOTYPE )
 public class TrackerNotificationThread extends SecurityContextRunnable
@@ -58,11 +72,18 @@ public class TrackerNotificationThread extends SecurityContextRunnable
 
     private ProgramNotificationService programNotificationService;
 
-    private TrackerSideEffectDataBundle sideEffectDataBundle;
+    private List<TrackerSideEffectDataBundle> sideEffectDataBundles = Collections.emptyList();
 
     private IdentifiableObjectManager manager;
 
-    private final ImmutableMap<Class<? extends BaseIdentifiableObject>, Consumer<Long>> serviceMapper = new ImmutableMap.Builder<Class<? extends BaseIdentifiableObject>, Consumer<Long>>()
+    private TrackerImportMetrics metrics = TrackerImportMetrics.DISABLED;
+
+    private final ImmutableMap<Class<? extends BaseIdentifiableObject>, Consumer<List<Long>>> serviceMapper = new ImmutableMap.Builder<Class<? extends BaseIdentifiableObject>, Consumer<List<Long>>>()
+        .put( ProgramInstance.class, ids -> programNotificationService.sendEnrollmentNotifications( ids ) )
+        .put( ProgramStageInstance.class, ids -> programNotificationService.sendEventCompletionNotifications( ids ) )
+        .build();
+
+    private final ImmutableMap<Class<? extends BaseIdentifiableObject>, Consumer<Long>> instanceServiceMapper = new ImmutableMap.Builder<Class<? extends BaseIdentifiableObject>, Consumer<Long>>()
         .put( ProgramInstance.class, id -> programNotificationService.sendEnrollmentNotifications( id ) )
         .put( ProgramStageInstance.class, id -> programNotificationService.sendEventCompletionNotifications( id ) )
         .build();
@@ -75,28 +96,86 @@ public class TrackerNotificationThread extends SecurityContextRunnable
         this.manager = manager;
     }
 
+    @Autowired( required = false )
+    public void setTrackerImportMetrics( TrackerImportMetrics metrics )
+    {
+        this.metrics = metrics;
+    }
+
     @Override
     public void call()
     {
-        if ( sideEffectDataBundle == null )
+        if ( sideEffectDataBundles.isEmpty() )
         {
             return;
         }
 
-        if ( serviceMapper.containsKey( sideEffectDataBundle.getKlass() ) )
+        metrics.recordSideEffectBatch( NOTIFICATION_SIDE_EFFECT, sideEffectDataBundles.size(),
+            this::sendNotifications );
+
+        sideEffectDataBundles.forEach( bundle -> notifier.notify( bundle.getJobConfiguration(),
+            NotificationLevel.DEBUG, "Tracker notification side effects completed" ) );
+    }
+
+    private void sendNotifications()
+    {
+        Map<Class<? extends BaseIdentifiableObject>, List<String>> uidsByKlass = sideEffectDataBundles.stream()
+            .filter( bundle -> serviceMapper.containsKey( bundle.getKlass() ) )
+            .collect( Collectors.groupingBy( TrackerSideEffectDataBundle::getKlass,
+                Collectors.mapping( TrackerSideEffectDataBundle::getObject, Collectors.toList() ) ) );
+
+        uidsByKlass.forEach( this::sendNotifications );
+    }
+
+    private void sendNotifications( Class<? extends BaseIdentifiableObject> klass, List<String> uids )
+    {
+        List<Long> ids;
+
+        try
         {
-            BaseIdentifiableObject object = manager.get( sideEffectDataBundle.getKlass(),
-                sideEffectDataBundle.getObject() );
+            ids = manager.getByUid( klass, uids )
+                .stream()
+                .map( BaseIdentifiableObject::getId )
+                .collect( Collectors.toList() );
+        }
+        catch ( Exception ex )
+        {
+            log.error( String.format( "Notifications of %s %s failed", klass.getSimpleName(), uids ), ex );
+            return;
+        }
 
-            serviceMapper.get( sideEffectDataBundle.getKlass() ).accept( object.getId() );
+        try
+        {
+            serviceMapper.get( klass ).accept( ids );
         }
+        catch ( Exception ex )
+        {
+            log.warn( String.format( "Notifications of %s %s failed, sending them one at a time",
+                klass.getSimpleName(), uids ), ex );
 
-        notifier.notify( sideEffectDataBundle.getJobConfiguration(), NotificationLevel.DEBUG,
-            "Tracker notification side effects completed" );
+            ids.forEach( id -> sendNotification( klass, id ) );
+        }
+    }
+
+    private void sendNotification( Class<? extends BaseIdentifiableObject> klass, long id )
+    {
+        try
+        {
+            instanceServiceMapper.get( klass ).accept( id );
+        }
+        catch ( Exception ex )
+        {
+            log.error( String.format( "Notifications of %s with id %d failed", klass.getSimpleName(), id ), ex );
+        }
     }
 
     public void setSideEffectDataBundle( TrackerSideEffectDataBundle sideEffectDataBundle )
     {
-        this.sideEffectDataBundle = sideEffectDataBundle;
+        setSideEffectDataBundles( Collections.singletonList( sideEffectDataBundle ) );
+    }
+
+    public void setSideEffectDataBundles( List<TrackerSideEffectDataBundle> sideEffectDataBundles )
+    {
+        this.sideEffectDataBundles = sideEffectDataBundles;
     }
 }
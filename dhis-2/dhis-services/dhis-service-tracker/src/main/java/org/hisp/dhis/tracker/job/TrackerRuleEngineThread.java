@@ -27,9 +27,14 @@
  */
 package org.hisp.dhis.tracker.job;
 
+import static org.hisp.dhis.tracker.monitoring.TrackerImportMetrics.RULE_ENGINE_SIDE_EFFECT;
+
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import lombok.extern.slf4j.Slf4j;
+
 import org.hisp.dhis.program.ProgramInstance;
 import org.hisp.dhis.program.ProgramStageInstance;
 import org.hisp.dhis.programrule.engine.RuleActionImplementer;
@@ -37,6 +42,8 @@ import org.hisp.dhis.rules.models.RuleEffect;
 import org.hisp.dhis.security.SecurityContextRunnable;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.tracker.converter.TrackerSideEffectConverterService;
+import org.hisp.dhis.tracker.monitoring.TrackerImportMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
@@ -46,12 +53,14 @@ import com.google.common.collect.Lists;
 
 /**
  * Class represents a thread which will be triggered as soon as tracker rule
- * engine consumer consumes a message from tracker rule engine queue. It loops
- * through the list of rule effects and implement it if it has an associated
- * rule implementer class.
+ * engine consumer has collected a batch of messages from tracker rule engine
+ * queue. For each bundle of the batch it loops through the list of rule
+ * effects and implement it if it has an associated rule implementer class. A
+ * bundle which fails is logged and does not affect the other bundles.
  *
  * @author Zubair Asghar
  */
+@Slf4j
 @Component
 @Scope( BeanDefinition.SCOPE_PROTOTYPE )
 public class TrackerRuleEngineThread extends SecurityContextRunnable
@@ -62,7 +71,9 @@ public class TrackerRuleEngineThread extends SecurityContextRunnable
 
     private final Notifier notifier;
 
-    private TrackerSideEffectDataBundle sideEffectDataBundle;
+    private List<TrackerSideEffectDataBundle> sideEffectDataBundles = Collections.emptyList();
+
+    private TrackerImportMetrics metrics = TrackerImportMetrics.DISABLED;
 
     public TrackerRuleEngineThread(
         @Qualifier( "org.hisp.dhis.programrule.engine.RuleActionSendMessageImplementer" ) RuleActionImplementer sendMessageRuleActionImplementer,
@@ -76,14 +87,40 @@ public class TrackerRuleEngineThread extends SecurityContextRunnable
         this.notifier = notifier;
     }
 
+    @Autowired( required = false )
+    public void setTrackerImportMetrics( TrackerImportMetrics metrics )
+    {
+        this.metrics = metrics;
+    }
+
     @Override
     public void call()
     {
-        if ( sideEffectDataBundle == null )
+        if ( sideEffectDataBundles.isEmpty() )
         {
             return;
         }
 
+        metrics.recordSideEffectBatch( RULE_ENGINE_SIDE_EFFECT, sideEffectDataBundles.size(),
+            () -> sideEffectDataBundles.forEach( this::implementRuleEffectsOfBundle ) );
+    }
+
+    private void implementRuleEffectsOfBundle( TrackerSideEffectDataBundle sideEffectDataBundle )
+    {
+        try
+        {
+            implementRuleEffects( sideEffectDataBundle );
+        }
+        catch ( Exception ex )
+        {
+            log.error( String.format( "Rule engine side effects of %s %s failed",
+                sideEffectDataBundle.getKlass() != null ? sideEffectDataBundle.getKlass().getSimpleName() : "bundle",
+                sideEffectDataBundle.getObject() ), ex );
+        }
+    }
+
+    private void implementRuleEffects( TrackerSideEffectDataBundle sideEffectDataBundle )
+    {
         Map<String, List<RuleEffect>> enrollmentRuleEffects = trackerSideEffectConverterService
             .toRuleEffects( sideEffectDataBundle.getEnrollmentRuleEffects() );
         Map<String, List<RuleEffect>> eventRuleEffects = trackerSideEffectConverterService
@@ -119,6 +156,11 @@ public class TrackerRuleEngineThread extends SecurityContextRunnable
 
     public void setSideEffectDataBundle( TrackerSideEffectDataBundle sideEffectDataBundle )
     {
-        this.sideEffectDataBundle = sideEffectDataBundle;
+        setSideEffectDataBundles( Collections.singletonList( sideEffectDataBundle ) );
+    }
+
+    public void setSideEffectDataBundles( List<TrackerSideEffectDataBundle> sideEffectDataBundles )
+    {
+        this.sideEffectDataBundles = sideEffectDataBundles;
     }
 }
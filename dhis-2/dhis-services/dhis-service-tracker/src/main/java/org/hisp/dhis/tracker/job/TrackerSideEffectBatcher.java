@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.job;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Collects the side effect bundles consumed from a queue over a short window
+ * and hands them over as one batch. A batch is flushed once the window has
+ * elapsed since its first bundle, or as soon as it reaches the maximum size.
+ * A window of zero disables batching and hands every bundle over on its own.
+ */
+@Slf4j
+public class TrackerSideEffectBatcher
+{
+    private final long windowMillis;
+
+    private final int maxSize;
+
+    private final Consumer<List<TrackerSideEffectDataBundle>> batchConsumer;
+
+    private final ScheduledExecutorService scheduler;
+
+    private List<TrackerSideEffectDataBundle> pending = new ArrayList<>();
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    public TrackerSideEffectBatcher( String name, long windowMillis, int maxSize,
+        Consumer<List<TrackerSideEffectDataBundle>> batchConsumer )
+    {
+        this.windowMillis = windowMillis;
+        this.maxSize = Math.max( 1, maxSize );
+        this.batchConsumer = batchConsumer;
+        this.scheduler = windowMillis > 0 ? new ScheduledThreadPoolExecutor( 1, new ThreadFactoryBuilder()
+            .setNameFormat( name + "-batcher-%d" )
+            .setDaemon( true )
+            .build() ) : null;
+    }
+
+    public boolean isBatching()
+    {
+        return scheduler != null;
+    }
+
+    /**
+     * Adds the given bundle to the current batch, scheduling a flush of the
+     * batch when it is the first bundle of the window.
+     *
+     * @param bundle the {@link TrackerSideEffectDataBundle} to add
+     */
+    public void add( TrackerSideEffectDataBundle bundle )
+    {
+        if ( !isBatching() )
+        {
+            batchConsumer.accept( Collections.singletonList( bundle ) );
+            return;
+        }
+
+        boolean full;
+
+        synchronized ( this )
+        {
+            pending.add( bundle );
+
+            if ( pending.size() == 1 )
+            {
+                scheduledFlush = scheduler.schedule( this::flush, windowMillis, TimeUnit.MILLISECONDS );
+            }
+
+            full = pending.size() >= maxSize;
+        }
+
+        if ( full )
+        {
+            flush();
+        }
+    }
+
+    /**
+     * Hands the current batch over to the batch consumer, if not empty, and
+     * cancels the scheduled flush of the batch, so that it cannot cut the
+     * window of the next batch short.
+     */
+    public void flush()
+    {
+        List<TrackerSideEffectDataBundle> batch;
+
+        synchronized ( this )
+        {
+            if ( pending.isEmpty() )
+            {
+                return;
+            }
+
+            batch = pending;
+            pending = new ArrayList<>();
+
+            if ( scheduledFlush != null )
+            {
+                scheduledFlush.cancel( false );
+                scheduledFlush = null;
+            }
+        }
+
+        try
+        {
+            batchConsumer.accept( batch );
+        }
+        catch ( RuntimeException ex )
+        {
+            log.error( "Failed to process batch of " + batch.size() + " tracker side effects", ex );
+        }
+    }
+
+    /**
+     * Flushes the current batch and stops the scheduler.
+     */
+    public void shutdown()
+    {
+        if ( isBatching() )
+        {
+            scheduler.shutdownNow();
+            flush();
+        }
+    }
+}
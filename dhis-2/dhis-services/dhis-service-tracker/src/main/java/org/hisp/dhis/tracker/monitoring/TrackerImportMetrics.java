@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.monitoring;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.hisp.dhis.tracker.TrackerImportParams;
+import org.hisp.dhis.tracker.TrackerImportStrategy;
+import org.hisp.dhis.tracker.bundle.TrackerBundle;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records the duration of the tracker import stages as Micrometer timers.
+ * <p>
+ * Timings are exposed at two levels: {@value #STAGE_METRIC} for a whole stage
+ * (preheat, validation, commit, ...) and {@value #STEP_METRIC} for the single
+ * steps within a stage (a preheat supplier, a validation hook, a persister or
+ * a side effect handler). Both are tagged by import strategy and by a bucket
+ * of the bundle size, and publish percentiles over a rolling window.
+ * <p>
+ * The asynchronous side effects are recorded per batch as
+ * {@value #SIDE_EFFECT_BATCH_METRIC}, and the number of processed imports as
+ * the {@value #SIDE_EFFECT_BUNDLES_METRIC} counter, both tagged by side effect
+ * stage. The rate of the counter is the throughput of the stage.
+ * <p>
+ * The {@link #DISABLED} instance only executes the timed operations and is
+ * used unless tracker monitoring is enabled.
+ */
+public class TrackerImportMetrics
+{
+    public static final String STAGE_METRIC = "tracker.import.stage";
+
+    public static final String STEP_METRIC = "tracker.import.step";
+
+    public static final String SIDE_EFFECT_BATCH_METRIC = "tracker.sideeffect.batch";
+
+    public static final String SIDE_EFFECT_BUNDLES_METRIC = "tracker.sideeffect.bundles";
+
+    public static final String SIDE_EFFECTS_OPS = "sideEffects";
+
+    public static final String RULE_ENGINE_SIDE_EFFECT = "ruleEngine";
+
+    public static final String NOTIFICATION_SIDE_EFFECT = "notification";
+
+    public static final TrackerImportMetrics DISABLED = new TrackerImportMetrics( null );
+
+    private static final int MAX_SIZE_BUCKET = 100_000;
+
+    private static final Duration ROLLING_WINDOW = Duration.ofMinutes( 5 );
+
+    private final MeterRegistry registry;
+
+    public TrackerImportMetrics( MeterRegistry registry )
+    {
+        this.registry = registry;
+    }
+
+    public boolean isEnabled()
+    {
+        return registry != null;
+    }
+
+    public Tags tags( TrackerImportParams params )
+    {
+        return tags( params.getImportStrategy(), params.getTrackedEntities().size()
+            + params.getEnrollments().size() + params.getEvents().size() + params.getRelationships().size() );
+    }
+
+    public Tags tags( TrackerBundle bundle )
+    {
+        return tags( bundle.getImportStrategy(), bundle.getTrackedEntities().size()
+            + bundle.getEnrollments().size() + bundle.getEvents().size() + bundle.getRelationships().size() );
+    }
+
+    public Tags tags( TrackerImportStrategy strategy, int bundleSize )
+    {
+        return Tags.of( "strategy", strategy == null ? "UNKNOWN" : strategy.name(),
+            "bundle_size", bundleSizeBucket( bundleSize ) );
+    }
+
+    /**
+     * Executes the given Supplier and records its duration as a whole stage of
+     * the import.
+     *
+     * @param stage the stage name, see {@link org.hisp.dhis.tracker.report.TrackerTimingsStats}
+     * @param tags the tags of the current import
+     * @param supplier the Supplier to execute
+     * @return the result of the Supplier invocation
+     */
+    public <T> T recordStage( String stage, Tags tags, Supplier<T> supplier )
+    {
+        return isEnabled()
+            ? timer( STAGE_METRIC, tags.and( "stage", stage ) ).record( supplier )
+            : supplier.get();
+    }
+
+    public void recordStage( String stage, Tags tags, Runnable runnable )
+    {
+        recordStage( stage, tags, () -> {
+            runnable.run();
+            return null;
+        } );
+    }
+
+    /**
+     * Executes the given operation and records its duration as a single step
+     * of a stage of the import.
+     *
+     * @param stage the stage name the step belongs to
+     * @param step the step name, like the simple class name of a validation
+     *        hook
+     * @param tags the tags of the current import
+     * @param runnable the operation to execute
+     */
+    public void recordStep( String stage, String step, Tags tags, Runnable runnable )
+    {
+        if ( isEnabled() )
+        {
+            timer( STEP_METRIC, tags.and( "stage", stage, "step", step ) ).record( runnable );
+        }
+        else
+        {
+            runnable.run();
+        }
+    }
+
+    public <T> T recordStep( String stage, String step, Tags tags, Supplier<T> supplier )
+    {
+        return isEnabled()
+            ? timer( STEP_METRIC, tags.and( "stage", stage, "step", step ) ).record( supplier )
+            : supplier.get();
+    }
+
+    /**
+     * Executes the given batch of asynchronous side effects and records its
+     * duration and the number of imports it processed.
+     *
+     * @param stage the side effect stage, like {@link #NOTIFICATION_SIDE_EFFECT}
+     * @param bundles the number of side effect bundles in the batch
+     * @param runnable the batch to execute
+     */
+    public void recordSideEffectBatch( String stage, int bundles, Runnable runnable )
+    {
+        if ( !isEnabled() )
+        {
+            runnable.run();
+            return;
+        }
+
+        timer( SIDE_EFFECT_BATCH_METRIC, Tags.of( "stage", stage, "batch_size", bundleSizeBucket( bundles ) ) )
+            .record( runnable );
+
+        registry.counter( SIDE_EFFECT_BUNDLES_METRIC, "stage", stage ).increment( bundles );
+    }
+
+    private Timer timer( String name, Tags tags )
+    {
+        return Timer.builder( name )
+            .tags( tags )
+            .publishPercentiles( 0.5, 0.95, 0.99 )
+            .publishPercentileHistogram()
+            .distributionStatisticExpiry( ROLLING_WINDOW )
+            .distributionStatisticBufferLength( 5 )
+            .register( registry );
+    }
+
+    /**
+     * Maps a bundle size to a power of ten bucket to keep the number of tag
+     * values bounded.
+     */
+    static String bundleSizeBucket( int size )
+    {
+        if ( size <= 0 )
+        {
+            return "0";
+        }
+
+        int upper = 10;
+
+        while ( size > upper && upper < MAX_SIZE_BUCKET )
+        {
+            upper *= 10;
+        }
+
+        return size > upper ? ">" + upper : "<=" + upper;
+    }
+}
@@ -28,6 +28,7 @@
 package org.hisp.dhis.tracker.preheat;
 
 import static com.google.api.client.util.Preconditions.checkNotNull;
+import static org.hisp.dhis.tracker.report.TrackerTimingsStats.PREHEAT_OPS;
 
 import java.beans.Introspector;
 import java.util.List;
@@ -39,14 +40,18 @@ import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.preheat.PreheatException;
 import org.hisp.dhis.tracker.TrackerImportParams;
+import org.hisp.dhis.tracker.monitoring.TrackerImportMetrics;
 import org.hisp.dhis.tracker.preheat.supplier.PreheatSupplier;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.instrument.Tags;
+
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
@@ -70,6 +75,14 @@ public class DefaultTrackerPreheatService implements TrackerPreheatService, Appl
     @Qualifier( "preheatOrder" )
     private final List<String> preheatSuppliers;
 
+    private TrackerImportMetrics metrics = TrackerImportMetrics.DISABLED;
+
+    @Autowired( required = false )
+    public void setTrackerImportMetrics( TrackerImportMetrics metrics )
+    {
+        this.metrics = metrics;
+    }
+
     // TODO this flag should be configurable
     private final static boolean FAIL_FAST_ON_PREHEAT_ERROR = false;
 
@@ -84,12 +97,16 @@ public class DefaultTrackerPreheatService implements TrackerPreheatService, Appl
 
         checkNotNull( preheat.getUser(), "TrackerPreheat is missing the user object." );
 
+        Tags tags = metrics.tags( params );
+
         for ( String supplier : preheatSuppliers )
         {
             final String beanName = Introspector.decapitalize( supplier );
             try
             {
-                ctx.getBean( beanName, PreheatSupplier.class ).add( params, preheat );
+                PreheatSupplier preheatSupplier = ctx.getBean( beanName, PreheatSupplier.class );
+
+                metrics.recordStep( PREHEAT_OPS, supplier, tags, () -> preheatSupplier.add( params, preheat ) );
             }
             catch ( BeansException beanException )
             {
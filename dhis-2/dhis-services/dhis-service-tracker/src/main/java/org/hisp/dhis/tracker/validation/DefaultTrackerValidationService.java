@@ -27,6 +27,9 @@
  */
 package org.hisp.dhis.tracker.validation;
 
+import static org.hisp.dhis.tracker.report.TrackerTimingsStats.VALIDATE_PROGRAMRULE_OPS;
+import static org.hisp.dhis.tracker.report.TrackerTimingsStats.VALIDATION_OPS;
+
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -36,13 +39,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.commons.timer.Timer;
 import org.hisp.dhis.tracker.ValidationMode;
 import org.hisp.dhis.tracker.bundle.TrackerBundle;
+import org.hisp.dhis.tracker.monitoring.TrackerImportMetrics;
 import org.hisp.dhis.tracker.report.Timing;
 import org.hisp.dhis.tracker.report.TrackerValidationReport;
 import org.hisp.dhis.tracker.report.ValidationErrorReporter;
 import org.hisp.dhis.user.User;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Tags;
+
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
@@ -59,19 +66,28 @@ public class DefaultTrackerValidationService
     @Qualifier( "ruleEngineValidationHooks" )
     private final List<TrackerValidationHook> ruleEngineValidationHooks;
 
+    private TrackerImportMetrics metrics = TrackerImportMetrics.DISABLED;
+
+    @Autowired( required = false )
+    public void setTrackerImportMetrics( TrackerImportMetrics metrics )
+    {
+        this.metrics = metrics;
+    }
+
     @Override
     public TrackerValidationReport validate( TrackerBundle bundle )
     {
-        return validate( bundle, validationHooks );
+        return validate( bundle, validationHooks, VALIDATION_OPS );
     }
 
     @Override
     public TrackerValidationReport validateRuleEngine( TrackerBundle bundle )
     {
-        return validate( bundle, ruleEngineValidationHooks );
+        return validate( bundle, ruleEngineValidationHooks, VALIDATE_PROGRAMRULE_OPS );
     }
 
-    private TrackerValidationReport validate( TrackerBundle bundle, List<TrackerValidationHook> hooks )
+    private TrackerValidationReport validate( TrackerBundle bundle, List<TrackerValidationHook> hooks,
+        String stage )
     {
         TrackerValidationReport validationReport = new TrackerValidationReport();
 
@@ -88,6 +104,7 @@ public class DefaultTrackerValidationService
         // is always available
         TrackerImportValidationContext context = new TrackerImportValidationContext( bundle );
         ValidationErrorReporter reporter = new ValidationErrorReporter( context );
+        Tags tags = metrics.tags( bundle );
 
         try
         {
@@ -95,7 +112,8 @@ public class DefaultTrackerValidationService
             {
                 Timer hookTimer = Timer.startTimer();
 
-                hook.validate( reporter, context );
+                metrics.recordStep( stage, hook.getClass().getSimpleName(), tags,
+                    () -> hook.validate( reporter, context ) );
 
                 validationReport.addTiming( new Timing(
                     hook.getClass().getName(),
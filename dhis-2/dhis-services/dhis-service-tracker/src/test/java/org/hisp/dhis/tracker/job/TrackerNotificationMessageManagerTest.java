@@ -46,12 +46,14 @@ import javax.jms.TextMessage;
 import org.hisp.dhis.artemis.MessageManager;
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.common.AsyncTaskExecutor;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.render.RenderService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -82,7 +84,9 @@ class TrackerNotificationMessageManagerTest
     @Mock
     private TrackerNotificationThread trackerNotificationThread;
 
-    @InjectMocks
+    @Mock
+    private DhisConfigurationProvider config;
+
     private TrackerNotificationMessageManager trackerNotificationMessageManager;
 
     @Captor
@@ -94,6 +98,16 @@ class TrackerNotificationMessageManagerTest
     @Captor
     private ArgumentCaptor<Runnable> runnableCaptor;
 
+    @BeforeEach
+    void setUp()
+    {
+        when( config.getProperty( ConfigurationKey.TRACKER_SIDE_EFFECT_BATCH_WINDOW ) ).thenReturn( "0" );
+        when( config.getProperty( ConfigurationKey.TRACKER_SIDE_EFFECT_BATCH_SIZE ) ).thenReturn( "200" );
+
+        trackerNotificationMessageManager = new TrackerNotificationMessageManager( messageManager, taskExecutor,
+            renderService, config, objectFactory );
+    }
+
     @Test
     void test_add_job()
     {
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.job;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.hisp.dhis.common.BaseIdentifiableObject;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.program.ProgramInstance;
+import org.hisp.dhis.program.ProgramStageInstance;
+import org.hisp.dhis.program.notification.ProgramNotificationService;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.system.notification.NotificationLevel;
+import org.hisp.dhis.system.notification.Notifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith( MockitoExtension.class )
+class TrackerNotificationThreadTest
+{
+    @Mock
+    private ProgramNotificationService programNotificationService;
+
+    @Mock
+    private Notifier notifier;
+
+    @Mock
+    private IdentifiableObjectManager manager;
+
+    private TrackerNotificationThread thread;
+
+    @BeforeEach
+    void setUp()
+    {
+        thread = new TrackerNotificationThread( programNotificationService, notifier, manager );
+    }
+
+    @Test
+    void shouldSendRemainingNotificationsWhenFirstBundleFails()
+    {
+        JobConfiguration jobA = new JobConfiguration();
+        JobConfiguration jobB = new JobConfiguration();
+
+        ProgramInstance programInstance = new ProgramInstance();
+        programInstance.setId( 1 );
+        ProgramStageInstance programStageInstance = new ProgramStageInstance();
+        programStageInstance.setId( 2 );
+
+        when( manager.getByUid( ProgramInstance.class, List.of( "a" ) ) ).thenReturn( List.of( programInstance ) );
+        when( manager.getByUid( ProgramStageInstance.class, List.of( "b" ) ) )
+            .thenReturn( List.of( programStageInstance ) );
+        doThrow( new IllegalStateException( "Broken bundle" ) ).when( programNotificationService )
+            .sendEnrollmentNotifications( List.of( 1L ) );
+
+        thread.setSideEffectDataBundles( List.of(
+            bundle( ProgramInstance.class, "a", jobA ),
+            bundle( ProgramStageInstance.class, "b", jobB ) ) );
+        thread.call();
+
+        verify( programNotificationService ).sendEventCompletionNotifications( List.of( 2L ) );
+        verify( notifier ).notify( jobA, NotificationLevel.DEBUG, "Tracker notification side effects completed" );
+        verify( notifier ).notify( jobB, NotificationLevel.DEBUG, "Tracker notification side effects completed" );
+    }
+
+    @Test
+    void shouldSendNotificationsOneAtATimeWhenGroupFails()
+    {
+        JobConfiguration job = new JobConfiguration();
+
+        ProgramInstance programInstanceA = new ProgramInstance();
+        programInstanceA.setId( 1 );
+        ProgramInstance programInstanceB = new ProgramInstance();
+        programInstanceB.setId( 2 );
+
+        when( manager.getByUid( ProgramInstance.class, List.of( "a", "b" ) ) )
+            .thenReturn( List.of( programInstanceA, programInstanceB ) );
+        doThrow( new IllegalStateException( "Broken instance" ) ).when( programNotificationService )
+            .sendEnrollmentNotifications( List.of( 1L, 2L ) );
+        doThrow( new IllegalStateException( "Broken instance" ) ).when( programNotificationService )
+            .sendEnrollmentNotifications( 1L );
+
+        thread.setSideEffectDataBundles( List.of(
+            bundle( ProgramInstance.class, "a", job ),
+            bundle( ProgramInstance.class, "b", job ) ) );
+        thread.call();
+
+        verify( programNotificationService ).sendEnrollmentNotifications( 1L );
+        verify( programNotificationService ).sendEnrollmentNotifications( 2L );
+        verify( notifier, times( 2 ) ).notify( job, NotificationLevel.DEBUG,
+            "Tracker notification side effects completed" );
+    }
+
+    private TrackerSideEffectDataBundle bundle( Class<? extends BaseIdentifiableObject> klass, String object,
+        JobConfiguration jobConfiguration )
+    {
+        return TrackerSideEffectDataBundle.builder().klass( klass ).object( object )
+            .jobConfiguration( jobConfiguration ).build();
+    }
+}
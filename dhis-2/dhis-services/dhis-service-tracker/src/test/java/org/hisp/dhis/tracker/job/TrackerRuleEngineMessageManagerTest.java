@@ -47,12 +47,14 @@ import javax.jms.TextMessage;
 import org.hisp.dhis.artemis.MessageManager;
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.common.AsyncTaskExecutor;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.render.RenderService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -83,7 +85,9 @@ class TrackerRuleEngineMessageManagerTest
     @Mock
     private TrackerRuleEngineThread trackerRuleEngineThread;
 
-    @InjectMocks
+    @Mock
+    private DhisConfigurationProvider config;
+
     private TrackerRuleEngineMessageManager trackerRuleEngineMessageManager;
 
     @Captor
@@ -95,6 +99,16 @@ class TrackerRuleEngineMessageManagerTest
     @Captor
     private ArgumentCaptor<Runnable> runnableArgumentCaptor;
 
+    @BeforeEach
+    void setUp()
+    {
+        when( config.getProperty( ConfigurationKey.TRACKER_SIDE_EFFECT_BATCH_WINDOW ) ).thenReturn( "0" );
+        when( config.getProperty( ConfigurationKey.TRACKER_SIDE_EFFECT_BATCH_SIZE ) ).thenReturn( "200" );
+
+        trackerRuleEngineMessageManager = new TrackerRuleEngineMessageManager( messageManager, taskExecutor,
+            renderService, config, objectFactory );
+    }
+
     @Test
     void test_add_job()
     {
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.job;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.hisp.dhis.programrule.engine.RuleActionImplementer;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.tracker.converter.TrackerSideEffectConverterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith( MockitoExtension.class )
+class TrackerRuleEngineThreadTest
+{
+    @Mock
+    private RuleActionImplementer sendMessageImplementer;
+
+    @Mock
+    private RuleActionImplementer scheduleMessageImplementer;
+
+    @Mock
+    private TrackerSideEffectConverterService converterService;
+
+    @Mock
+    private Notifier notifier;
+
+    private TrackerRuleEngineThread thread;
+
+    @BeforeEach
+    void setUp()
+    {
+        thread = new TrackerRuleEngineThread( sendMessageImplementer, scheduleMessageImplementer, converterService,
+            notifier );
+    }
+
+    @Test
+    void shouldImplementRemainingBundlesWhenFirstBundleFails()
+    {
+        JobConfiguration jobA = new JobConfiguration();
+        JobConfiguration jobB = new JobConfiguration();
+
+        when( converterService.toRuleEffects( any() ) )
+            .thenThrow( new IllegalStateException( "Broken bundle" ) )
+            .thenReturn( Collections.emptyMap() );
+
+        thread.setSideEffectDataBundles( List.of( bundle( "a", jobA ), bundle( "b", jobB ) ) );
+        thread.call();
+
+        verify( notifier, never() ).notify( eq( jobA ), anyString() );
+        verify( notifier ).notify( jobB, "Tracker Rule-engine side effects completed" );
+    }
+
+    private TrackerSideEffectDataBundle bundle( String object, JobConfiguration jobConfiguration )
+    {
+        return TrackerSideEffectDataBundle.builder().object( object ).jobConfiguration( jobConfiguration ).build();
+    }
+}
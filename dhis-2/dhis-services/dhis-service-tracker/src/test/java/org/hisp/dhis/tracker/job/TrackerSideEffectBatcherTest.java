@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TrackerSideEffectBatcherTest
+{
+    private final List<List<TrackerSideEffectDataBundle>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    void shouldHandOverEveryBundleWhenWindowIsZero()
+    {
+        TrackerSideEffectBatcher batcher = new TrackerSideEffectBatcher( "test", 0, 10, batches::add );
+
+        batcher.add( bundle( "a" ) );
+        batcher.add( bundle( "b" ) );
+
+        assertFalse( batcher.isBatching() );
+        assertEquals( 2, batches.size() );
+        assertEquals( 1, batches.get( 0 ).size() );
+    }
+
+    @Test
+    void shouldFlushWhenBatchIsFull()
+    {
+        TrackerSideEffectBatcher batcher = new TrackerSideEffectBatcher( "test", 60_000, 3, batches::add );
+
+        batcher.add( bundle( "a" ) );
+        batcher.add( bundle( "b" ) );
+
+        assertTrue( batches.isEmpty() );
+
+        batcher.add( bundle( "c" ) );
+
+        assertEquals( 1, batches.size() );
+        assertEquals( 3, batches.get( 0 ).size() );
+
+        batcher.shutdown();
+    }
+
+    @Test
+    void shouldFlushWhenWindowElapses()
+        throws InterruptedException
+    {
+        CountDownLatch latch = new CountDownLatch( 1 );
+
+        TrackerSideEffectBatcher batcher = new TrackerSideEffectBatcher( "test", 10, 100, batch -> {
+            batches.add( batch );
+            latch.countDown();
+        } );
+
+        batcher.add( bundle( "a" ) );
+        batcher.add( bundle( "b" ) );
+
+        assertTrue( latch.await( 5, TimeUnit.SECONDS ) );
+        assertEquals( 2, batches.get( 0 ).size() );
+
+        batcher.shutdown();
+    }
+
+    @Test
+    void shouldNotFlushNextBatchEarlyAfterFlushForSize()
+        throws InterruptedException
+    {
+        TrackerSideEffectBatcher batcher = new TrackerSideEffectBatcher( "test", 500, 2, batches::add );
+
+        batcher.add( bundle( "a" ) );
+        batcher.add( bundle( "b" ) );
+
+        assertEquals( 1, batches.size() );
+
+        Thread.sleep( 250 );
+        batcher.add( bundle( "c" ) );
+
+        // The window of the first batch has elapsed, the one of the second
+        // batch has not
+        Thread.sleep( 400 );
+
+        assertEquals( 1, batches.size() );
+
+        batcher.shutdown();
+
+        assertEquals( 2, batches.size() );
+        assertEquals( "c", batches.get( 1 ).get( 0 ).getObject() );
+    }
+
+    @Test
+    void shouldFlushPendingBundlesOnShutdown()
+    {
+        TrackerSideEffectBatcher batcher = new TrackerSideEffectBatcher( "test", 60_000, 100, batches::add );
+
+        batcher.add( bundle( "a" ) );
+        batcher.shutdown();
+
+        assertEquals( 1, batches.size() );
+        assertEquals( "a", batches.get( 0 ).get( 0 ).getObject() );
+    }
+
+    private TrackerSideEffectDataBundle bundle( String object )
+    {
+        return TrackerSideEffectDataBundle.builder().object( object ).build();
+    }
+}
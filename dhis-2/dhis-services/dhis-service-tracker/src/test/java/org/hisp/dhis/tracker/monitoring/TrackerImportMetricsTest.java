@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.monitoring;
+
+import static org.hisp.dhis.tracker.report.TrackerTimingsStats.COMMIT_OPS;
+import static org.hisp.dhis.tracker.report.TrackerTimingsStats.VALIDATION_OPS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.hisp.dhis.tracker.TrackerImportStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TrackerImportMetricsTest
+{
+    private SimpleMeterRegistry registry;
+
+    private TrackerImportMetrics metrics;
+
+    @BeforeEach
+    void setUp()
+    {
+        registry = new SimpleMeterRegistry();
+        metrics = new TrackerImportMetrics( registry );
+    }
+
+    @Test
+    void shouldRecordStageTimerTaggedByStrategyAndBundleSize()
+    {
+        Tags tags = metrics.tags( TrackerImportStrategy.CREATE_AND_UPDATE, 42 );
+
+        String result = metrics.recordStage( COMMIT_OPS, tags, () -> "done" );
+
+        assertEquals( "done", result );
+        Timer timer = registry.find( TrackerImportMetrics.STAGE_METRIC )
+            .tags( "stage", COMMIT_OPS, "strategy", "CREATE_AND_UPDATE", "bundle_size", "<=100" )
+            .timer();
+        assertNotNull( timer );
+        assertEquals( 1, timer.count() );
+    }
+
+    @Test
+    void shouldRecordStepTimerTaggedByStageAndStep()
+    {
+        Tags tags = metrics.tags( TrackerImportStrategy.CREATE, 1 );
+
+        metrics.recordStep( VALIDATION_OPS, "PreCheckUidValidationHook", tags, () -> {
+        } );
+        metrics.recordStep( VALIDATION_OPS, "PreCheckUidValidationHook", tags, () -> {
+        } );
+
+        Timer timer = registry.find( TrackerImportMetrics.STEP_METRIC )
+            .tags( "stage", VALIDATION_OPS, "step", "PreCheckUidValidationHook" )
+            .timer();
+        assertNotNull( timer );
+        assertEquals( 2, timer.count() );
+    }
+
+    @Test
+    void shouldRecordSideEffectBatchTimerAndBundleCounter()
+    {
+        metrics.recordSideEffectBatch( TrackerImportMetrics.NOTIFICATION_SIDE_EFFECT, 3, () -> {
+        } );
+        metrics.recordSideEffectBatch( TrackerImportMetrics.NOTIFICATION_SIDE_EFFECT, 4, () -> {
+        } );
+
+        Timer timer = registry.find( TrackerImportMetrics.SIDE_EFFECT_BATCH_METRIC )
+            .tags( "stage", TrackerImportMetrics.NOTIFICATION_SIDE_EFFECT, "batch_size", "<=10" )
+            .timer();
+        assertNotNull( timer );
+        assertEquals( 2, timer.count() );
+        assertEquals( 7, registry.find( TrackerImportMetrics.SIDE_EFFECT_BUNDLES_METRIC )
+            .tags( "stage", TrackerImportMetrics.NOTIFICATION_SIDE_EFFECT ).counter().count() );
+    }
+
+    @Test
+    void shouldOnlyExecuteOperationWhenDisabled()
+    {
+        AtomicBoolean executed = new AtomicBoolean();
+
+        TrackerImportMetrics.DISABLED.recordStep( COMMIT_OPS, "EVENT",
+            TrackerImportMetrics.DISABLED.tags( TrackerImportStrategy.CREATE, 1 ), () -> executed.set( true ) );
+
+        assertTrue( executed.get() );
+        assertFalse( TrackerImportMetrics.DISABLED.isEnabled() );
+        assertTrue( registry.getMeters().isEmpty() );
+    }
+
+    @Test
+    void shouldBucketBundleSizeByPowersOfTen()
+    {
+        assertEquals( "0", TrackerImportMetrics.bundleSizeBucket( 0 ) );
+        assertEquals( "<=10", TrackerImportMetrics.bundleSizeBucket( 1 ) );
+        assertEquals( "<=10", TrackerImportMetrics.bundleSizeBucket( 10 ) );
+        assertEquals( "<=100", TrackerImportMetrics.bundleSizeBucket( 11 ) );
+        assertEquals( "<=100000", TrackerImportMetrics.bundleSizeBucket( 100_000 ) );
+        assertEquals( ">100000", TrackerImportMetrics.bundleSizeBucket( 100_001 ) );
+    }
+}
@@ -32,17 +32,21 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.datavalue.DataValueStatisticsStore;
 import org.hisp.dhis.datavalue.DeflatedDataValue;
 import org.hisp.dhis.jdbc.batchhandler.MinMaxDataElementBatchHandler;
 import org.hisp.dhis.minmax.MinMaxDataElement;
 import org.hisp.dhis.minmax.MinMaxDataElementService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.NoopJobProgress;
 import org.hisp.dhis.system.util.MathUtils;
 import org.hisp.quick.BatchHandler;
 import org.hisp.quick.BatchHandlerFactory;
@@ -69,16 +73,21 @@ public class MinMaxOutlierAnalysisService
 
     private final BatchHandlerFactory batchHandlerFactory;
 
+    private final DataValueStatisticsStore dataValueStatisticsStore;
+
     public MinMaxOutlierAnalysisService( DataAnalysisStore dataAnalysisStore,
-        MinMaxDataElementService minMaxDataElementService, BatchHandlerFactory batchHandlerFactory )
+        MinMaxDataElementService minMaxDataElementService, BatchHandlerFactory batchHandlerFactory,
+        DataValueStatisticsStore dataValueStatisticsStore )
     {
         checkNotNull( dataAnalysisStore );
         checkNotNull( minMaxDataElementService );
         checkNotNull( batchHandlerFactory );
+        checkNotNull( dataValueStatisticsStore );
 
         this.dataAnalysisStore = dataAnalysisStore;
         this.minMaxDataElementService = minMaxDataElementService;
         this.batchHandlerFactory = batchHandlerFactory;
+        this.dataValueStatisticsStore = dataValueStatisticsStore;
     }
 
     // -------------------------------------------------------------------------
@@ -112,25 +121,89 @@ public class MinMaxOutlierAnalysisService
         log.info( "Starting min-max value generation, no of data elements: " + dataElements.size() + ", parent: "
             + parent.getUid() );
 
-        Date from = new DateTime( 1, 1, 1, 1, 1 ).toDate();
-
         minMaxDataElementService.removeMinMaxDataElements( dataElements, parent );
 
         log.debug( "Deleted existing min-max values" );
 
-        List<String> parentPaths = Lists.newArrayList( parent.getPath() );
+        generateMinMaxValues( parent.getPath(), resolve( getNumericDataElements( dataElements ) ), stdDevFactor,
+            NoopJobProgress.INSTANCE );
+
+        log.info( "Min-max value generation done" );
+    }
+
+    @Override
+    public boolean generateMinMaxValues( OrganisationUnit parent, Collection<DataElement> dataElements,
+        Double stdDevFactor, int parallelism, JobProgress progress )
+    {
+        List<DataElement> numericDataElements = getNumericDataElements( dataElements );
+
+        log.info( "Starting min-max value generation, no of data elements: " + numericDataElements.size()
+            + ", parent: " + parent.getUid() + ", parallelism: " + parallelism );
+
+        progress.startingStage( "Deleting existing min-max values of " + parent.getName() );
+
+        if ( !progress.runStage( () -> minMaxDataElementService.removeMinMaxDataElements( dataElements, parent ) ) )
+        {
+            return false;
+        }
+
+        // Resolved on the calling thread, as the workers run without the
+        // session which loaded the data elements
+
+        String parentPath = parent.getPath();
+
+        List<List<ResolvedDataElement>> partitions = getPartitions( resolve( numericDataElements ), parallelism );
+
+        progress.startingStage( "Generating min-max values of " + parent.getName() + " for "
+            + numericDataElements.size() + " data elements", partitions.size() );
+
+        boolean success = progress.runStageInParallel( parallelism, partitions,
+            partition -> partition.size() + " data elements",
+            partition -> generateMinMaxValues( parentPath, partition, stdDevFactor, progress ) );
+
+        log.info( "Min-max value generation done, successful: " + success );
+
+        return success;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Generates min-max values for the given numeric data elements using a
+     * batch handler of its own, so that partitions of data elements can be
+     * processed concurrently. Stops before the next data element if
+     * cancellation is requested.
+     */
+    private void generateMinMaxValues( String parentPath, List<ResolvedDataElement> dataElements,
+        Double stdDevFactor, JobProgress progress )
+    {
+        Date from = new DateTime( 1, 1, 1, 1, 1 ).toDate();
+
+        List<String> parentPaths = Lists.newArrayList( parentPath );
+
+        boolean useStatistics = dataValueStatisticsStore.isEnabled();
 
         BatchHandler<MinMaxDataElement> batchHandler = batchHandlerFactory
             .createBatchHandler( MinMaxDataElementBatchHandler.class ).init();
 
-        for ( DataElement dataElement : dataElements )
+        try
         {
-            if ( dataElement.getValueType().isNumeric() )
+            for ( ResolvedDataElement resolved : dataElements )
             {
-                Set<CategoryOptionCombo> categoryOptionCombos = dataElement.getCategoryOptionCombos();
+                if ( progress.isCancellationRequested() )
+                {
+                    break;
+                }
 
-                List<DataAnalysisMeasures> measuresList = dataAnalysisStore.getDataAnalysisMeasures( dataElement,
-                    categoryOptionCombos, parentPaths, from );
+                DataElement dataElement = resolved.getDataElement();
+                List<CategoryOptionCombo> categoryOptionCombos = resolved.getCategoryOptionCombos();
+
+                List<DataAnalysisMeasures> measuresList = useStatistics
+                    ? dataAnalysisStore.getDataAnalysisMeasures( dataElement, categoryOptionCombos, parentPaths )
+                    : dataAnalysisStore.getDataAnalysisMeasures( dataElement, categoryOptionCombos, parentPaths,
+                        from );
 
                 for ( DataAnalysisMeasures measures : measuresList )
                 {
@@ -161,9 +234,78 @@ public class MinMaxOutlierAnalysisService
                 }
             }
         }
+        finally
+        {
+            batchHandler.flush();
+        }
+    }
 
-        log.info( "Min-max value generation done" );
+    private List<DataElement> getNumericDataElements( Collection<DataElement> dataElements )
+    {
+        return dataElements.stream()
+            .filter( de -> de.getValueType().isNumeric() )
+            .collect( Collectors.toList() );
+    }
+
+    /**
+     * Resolves the given data elements into detached instances holding only
+     * the identifier and value type, together with their category option
+     * combos holding only the identifier.
+     */
+    private List<ResolvedDataElement> resolve( List<DataElement> dataElements )
+    {
+        List<ResolvedDataElement> resolved = new ArrayList<>( dataElements.size() );
+
+        for ( DataElement dataElement : dataElements )
+        {
+            DataElement detached = new DataElement();
+            detached.setId( dataElement.getId() );
+            detached.setValueType( dataElement.getValueType() );
+
+            List<CategoryOptionCombo> categoryOptionCombos = new ArrayList<>();
+
+            for ( CategoryOptionCombo categoryOptionCombo : dataElement.getCategoryOptionCombos() )
+            {
+                CategoryOptionCombo coc = new CategoryOptionCombo();
+                coc.setId( categoryOptionCombo.getId() );
+                categoryOptionCombos.add( coc );
+            }
+
+            resolved.add( new ResolvedDataElement( detached, categoryOptionCombos ) );
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Distributes the data elements round-robin over at most the given number
+     * of partitions, which spreads data elements with many values evenly when
+     * the input is ordered by data set or group.
+     */
+    private <T> List<List<T>> getPartitions( List<T> dataElements, int parallelism )
+    {
+        int size = Math.max( 1, Math.min( parallelism, dataElements.size() ) );
+
+        List<List<T>> partitions = new ArrayList<>( size );
+
+        for ( int i = 0; i < size; i++ )
+        {
+            partitions.add( new ArrayList<>() );
+        }
+
+        for ( int i = 0; i < dataElements.size(); i++ )
+        {
+            partitions.get( i % size ).add( dataElements.get( i ) );
+        }
+
+        return partitions;
+    }
+
+    @Value
+    private static class ResolvedDataElement
+    {
+        DataElement dataElement;
 
-        batchHandler.flush();
+        List<CategoryOptionCombo> categoryOptionCombos;
     }
 }
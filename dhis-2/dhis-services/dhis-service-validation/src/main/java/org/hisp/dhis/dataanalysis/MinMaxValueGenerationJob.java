@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dataanalysis;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.scheduling.Job;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.scheduling.parameters.MinMaxValueGenerationJobParameters;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.hisp.dhis.system.util.SystemUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Generates min-max values for the data elements of the configured data sets,
+ * with the data elements spread over a pool of concurrent workers.
+ */
+@Component( "minMaxValueGenerationJob" )
+@AllArgsConstructor
+public class MinMaxValueGenerationJob implements Job
+{
+    private final MinMaxDataAnalysisService minMaxDataAnalysisService;
+
+    private final IdentifiableObjectManager idObjectManager;
+
+    private final OrganisationUnitService organisationUnitService;
+
+    private final SystemSettingManager systemSettingManager;
+
+    @Override
+    public JobType getJobType()
+    {
+        return JobType.MIN_MAX_VALUE_GENERATION;
+    }
+
+    @Override
+    @Transactional
+    public void execute( JobConfiguration jobConfiguration, JobProgress progress )
+    {
+        MinMaxValueGenerationJobParameters params = (MinMaxValueGenerationJobParameters) jobConfiguration
+            .getJobParameters();
+
+        if ( params == null )
+        {
+            throw new IllegalStateException( "No job parameters present in min-max value generation job" );
+        }
+
+        progress.startingProcess( "Min-max value generation" );
+
+        Collection<DataElement> dataElements = new HashSet<>();
+
+        for ( DataSet dataSet : idObjectManager.getByUid( DataSet.class, params.getDataSets() ) )
+        {
+            dataElements.addAll( dataSet.getDataElements() );
+        }
+
+        List<OrganisationUnit> parents = params.getOrganisationUnits().isEmpty()
+            ? organisationUnitService.getRootOrganisationUnits()
+            : organisationUnitService.getOrganisationUnitsByUid( params.getOrganisationUnits() );
+
+        Double stdDevFactor = systemSettingManager.getSystemSetting( SettingKey.FACTOR_OF_DEVIATION, Double.class );
+
+        int parallelism = params.getParallelism() > 0 ? params.getParallelism() : SystemUtils.getCpuCores();
+
+        boolean success = true;
+
+        for ( OrganisationUnit parent : parents )
+        {
+            if ( progress.isCancellationRequested() )
+            {
+                break;
+            }
+
+            success &= minMaxDataAnalysisService.generateMinMaxValues( parent, dataElements, stdDevFactor,
+                parallelism, progress );
+        }
+
+        if ( success && !progress.isCancellationRequested() )
+        {
+            progress.completedProcess( "Min-max values generated for " + dataElements.size()
+                + " data elements and " + parents.size() + " organisation units" );
+        }
+        else
+        {
+            progress.failedProcess( "Min-max value generation did not complete" );
+        }
+    }
+}
@@ -95,12 +95,7 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
 
         String catOptionComboIds = TextUtils.getCommaDelimitedString( getIdentifiers( categoryOptionCombos ) );
 
-        String matchPaths = "(";
-        for ( String path : parentPaths )
-        {
-            matchPaths += "ou.path like '" + path + "%' or ";
-        }
-        matchPaths = TextUtils.removeLastOr( matchPaths ) + ") ";
+        String matchPaths = getMatchPaths( parentPaths );
 
         String sql = "select dv.sourceid, dv.categoryoptioncomboid, " +
             "avg(cast(dv.value as " + statementBuilder.getDoubleColumnType() + ")) as average, " +
@@ -115,23 +110,38 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
             "and dv.deleted is false " +
             "group by dv.sourceid, dv.categoryoptioncomboid";
 
-        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
+        return getDataAnalysisMeasures( sql );
+    }
 
-        while ( rowSet.next() )
+    @Override
+    public List<DataAnalysisMeasures> getDataAnalysisMeasures( DataElement dataElement,
+        Collection<CategoryOptionCombo> categoryOptionCombos, Collection<String> parentPaths )
+    {
+        if ( categoryOptionCombos.isEmpty() || parentPaths.isEmpty() )
         {
-            int orgUnitId = rowSet.getInt( 1 );
-            int categoryOptionComboId = rowSet.getInt( 2 );
-            double average = rowSet.getDouble( 3 );
-            double stdDev = rowSet.getDouble( 4 );
-
-            if ( stdDev != 0.0 )
-            {
-                measures.add( new DataAnalysisMeasures(
-                    orgUnitId, categoryOptionComboId, average, stdDev ) );
-            }
+            return new ArrayList<>();
         }
 
-        return measures;
+        String catOptionComboIds = TextUtils.getCommaDelimitedString( getIdentifiers( categoryOptionCombos ) );
+
+        String matchPaths = getMatchPaths( parentPaths );
+
+        // Pools the statistics of the attribute option combos, where the
+        // variance is the mean of squares minus the square of the mean
+
+        String sql = "select st.sourceid, st.categoryoptioncomboid, " +
+            "sum(st.valuecount * st.mean) / sum(st.valuecount) as average, " +
+            "sqrt(greatest(0, sum(st.m2 + st.valuecount * st.mean * st.mean) / sum(st.valuecount) " +
+            "- power(sum(st.valuecount * st.mean) / sum(st.valuecount), 2))) as standarddeviation " +
+            "from datavaluestatistics st " +
+            "inner join organisationunit ou on ou.organisationunitid = st.sourceid " +
+            "where st.dataelementid = " + dataElement.getId() + " " +
+            "and st.categoryoptioncomboid in (" + catOptionComboIds + ") " +
+            "and " + matchPaths +
+            "and st.valuecount > 0 " +
+            "group by st.sourceid, st.categoryoptioncomboid";
+
+        return getDataAnalysisMeasures( sql );
     }
 
     @Override
@@ -298,4 +308,41 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
 
         return jdbcTemplate.query( sql, new DeflatedDataValueNameMinMaxRowMapper( null, null ) );
     }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private String getMatchPaths( Collection<String> parentPaths )
+    {
+        String matchPaths = "(";
+        for ( String path : parentPaths )
+        {
+            matchPaths += "ou.path like '" + path + "%' or ";
+        }
+        return TextUtils.removeLastOr( matchPaths ) + ") ";
+    }
+
+    private List<DataAnalysisMeasures> getDataAnalysisMeasures( String sql )
+    {
+        List<DataAnalysisMeasures> measures = new ArrayList<>();
+
+        SqlRowSet rowSet = jdbcTemplate.queryForRowSet( sql );
+
+        while ( rowSet.next() )
+        {
+            int orgUnitId = rowSet.getInt( 1 );
+            int categoryOptionComboId = rowSet.getInt( 2 );
+            double average = rowSet.getDouble( 3 );
+            double stdDev = rowSet.getDouble( 4 );
+
+            if ( stdDev != 0.0 )
+            {
+                measures.add( new DataAnalysisMeasures(
+                    orgUnitId, categoryOptionComboId, average, stdDev ) );
+            }
+        }
+
+        return measures;
+    }
 }
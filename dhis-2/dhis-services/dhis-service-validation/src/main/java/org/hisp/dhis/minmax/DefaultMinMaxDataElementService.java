@@ -36,6 +36,7 @@ import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -135,6 +136,7 @@ public class DefaultMinMaxDataElementService
     }
 
     @Override
+    @Transactional( propagation = Propagation.REQUIRES_NEW )
     public void removeMinMaxDataElements( Collection<DataElement> dataElements, OrganisationUnit parent )
     {
         minMaxDataElementStore.delete( dataElements, parent );
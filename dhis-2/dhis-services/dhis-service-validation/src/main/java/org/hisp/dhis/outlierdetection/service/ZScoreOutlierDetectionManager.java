@@ -38,6 +38,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.calendar.Calendar;
 import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.datavalue.DataValueStatisticsStore;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.outlierdetection.Order;
 import org.hisp.dhis.outlierdetection.OutlierDetectionAlgorithm;
@@ -69,9 +70,13 @@ public class ZScoreOutlierDetectionManager
 {
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
-    public ZScoreOutlierDetectionManager( NamedParameterJdbcTemplate jdbcTemplate )
+    private final DataValueStatisticsStore dataValueStatisticsStore;
+
+    public ZScoreOutlierDetectionManager( NamedParameterJdbcTemplate jdbcTemplate,
+        DataValueStatisticsStore dataValueStatisticsStore )
     {
         this.jdbcTemplate = jdbcTemplate;
+        this.dataValueStatisticsStore = dataValueStatisticsStore;
     }
 
     /**
@@ -96,6 +101,10 @@ public class ZScoreOutlierDetectionManager
             ? "middle_value_abs_dev"
             : request.getOrderBy().getKey();
 
+        final String statsSql = useStatistics( request, modifiedZ )
+            ? getMaintainedStatsSql( ouPathClause )
+            : getAggregatedStatsSql( middle_stats_calc, ouPathClause, dataStartDateClause, dataEndDateClause );
+
         // @formatter:off
         final String sql =
             "select dvs.de_uid, dvs.ou_uid, dvs.coc_uid, dvs.aoc_uid, " +
@@ -129,22 +138,7 @@ public class ZScoreOutlierDetectionManager
                 "and dv.deleted is false" +
             ") as dvs " +
             // Mean or Median and std dev mapping query
-            "inner join (" +
-                "select dv.dataelementid as dataelementid, dv.sourceid as sourceid, " +
-                "dv.categoryoptioncomboid as categoryoptioncomboid, " +
-                "dv.attributeoptioncomboid as attributeoptioncomboid, " +
-                middle_stats_calc +" as middle_value, "+
-                "stddev_pop(dv.value::double precision) as std_dev " +
-                "from datavalue dv " +
-                "inner join period pe on dv.periodid = pe.periodid " +
-                "inner join organisationunit ou on dv.sourceid = ou.organisationunitid " +
-                "where dv.dataelementid in (:data_element_ids) " +
-                dataStartDateClause +
-                dataEndDateClause +
-                "and " + ouPathClause + " " +
-                "and dv.deleted is false " +
-                "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid" +
-            ") as stats " +
+            "inner join (" + statsSql + ") as stats " +
             // Query join
             "on dvs.dataelementid = stats.dataelementid " +
             "and dvs.sourceid = stats.sourceid " +
@@ -184,6 +178,63 @@ public class ZScoreOutlierDetectionManager
         }
     }
 
+    /**
+     * Indicates whether the mean and standard deviation can be read from the
+     * maintained data value statistics, which cover the full data history and
+     * do not provide the median.
+     */
+    private boolean useStatistics( OutlierDetectionRequest request, boolean modifiedZ )
+    {
+        return !modifiedZ && request.getDataStartDate() == null && request.getDataEndDate() == null
+            && dataValueStatisticsStore.isEnabled();
+    }
+
+    /**
+     * Returns a query for the mean and standard deviation from the maintained
+     * data value statistics, restricted to the requested org unit hierarchy.
+     */
+    private String getMaintainedStatsSql( String ouPathClause )
+    {
+        // @formatter:off
+        return
+            "select dvst.dataelementid, dvst.sourceid, " +
+            "dvst.categoryoptioncomboid, dvst.attributeoptioncomboid, " +
+            "dvst.mean as middle_value, " +
+            "sqrt(dvst.m2 / dvst.valuecount) as std_dev " +
+            "from datavaluestatistics dvst " +
+            "inner join organisationunit ou on dvst.sourceid = ou.organisationunitid " +
+            "where dvst.dataelementid in (:data_element_ids) " +
+            "and " + ouPathClause + " " +
+            "and dvst.valuecount > 0";
+        // @formatter:on
+    }
+
+    /**
+     * Returns a query which aggregates the mean or median and the standard
+     * deviation from the data values.
+     */
+    private String getAggregatedStatsSql( String middleStatsCalc, String ouPathClause,
+        String dataStartDateClause, String dataEndDateClause )
+    {
+        // @formatter:off
+        return
+            "select dv.dataelementid as dataelementid, dv.sourceid as sourceid, " +
+            "dv.categoryoptioncomboid as categoryoptioncomboid, " +
+            "dv.attributeoptioncomboid as attributeoptioncomboid, " +
+            middleStatsCalc + " as middle_value, " +
+            "stddev_pop(dv.value::double precision) as std_dev " +
+            "from datavalue dv " +
+            "inner join period pe on dv.periodid = pe.periodid " +
+            "inner join organisationunit ou on dv.sourceid = ou.organisationunitid " +
+            "where dv.dataelementid in (:data_element_ids) " +
+            dataStartDateClause +
+            dataEndDateClause +
+            "and " + ouPathClause + " " +
+            "and dv.deleted is false " +
+            "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid";
+        // @formatter:on
+    }
+
     /**
      * Returns a {@link RowMapper} for {@link OutlierValue}.
      *
@@ -28,6 +28,7 @@
 package org.hisp.dhis.dataanalysis;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -50,6 +51,7 @@ import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.period.MonthlyPeriodType;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.scheduling.NoopJobProgress;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -202,4 +204,28 @@ class MinMaxOutlierAnalysisServiceTest extends DhisTest
             dataElementsA, periods, null, from );
         assertEquals( 2, result.size() );
     }
+
+    @Test
+    void testGenerateMinMaxValuesInParallel()
+    {
+        List<Period> periods = Lists.newArrayList( periodA, periodB, periodC, periodD );
+        String[] values = { "5", "-5", "10", "-10" };
+
+        for ( DataElement dataElement : Lists.newArrayList( dataElementA, dataElementB, dataElementC ) )
+        {
+            for ( int i = 0; i < periods.size(); i++ )
+            {
+                dataValueService.addDataValue( createDataValue( dataElement, periods.get( i ), organisationUnitA,
+                    values[i], categoryOptionCombo ) );
+            }
+        }
+
+        Set<DataElement> dataElements = new HashSet<>( dataElementsA );
+        dataElements.add( dataElementC );
+
+        assertTrue( minMaxOutlierAnalysisService.generateMinMaxValues( organisationUnitA, dataElements, 2.0, 2,
+            NoopJobProgress.INSTANCE ) );
+
+        assertEquals( 3, minMaxDataElementService.getMinMaxDataElements( organisationUnitA, dataElements ).size() );
+    }
 }
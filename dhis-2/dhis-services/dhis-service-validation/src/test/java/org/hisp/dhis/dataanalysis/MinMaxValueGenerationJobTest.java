@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dataanalysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hisp.dhis.DhisTest;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.category.CategoryService;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.datavalue.DataValueService;
+import org.hisp.dhis.minmax.MinMaxDataElement;
+import org.hisp.dhis.minmax.MinMaxDataElementService;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.scheduling.NoopJobProgress;
+import org.hisp.dhis.scheduling.parameters.MinMaxValueGenerationJobParameters;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Runs the min-max value generation job outside of a test transaction, so that
+ * the data elements are read by the job itself and handed to the parallel
+ * workers.
+ */
+class MinMaxValueGenerationJobTest extends DhisTest
+{
+    @Autowired
+    private MinMaxValueGenerationJob job;
+
+    @Autowired
+    private MinMaxDataElementService minMaxDataElementService;
+
+    @Autowired
+    private IdentifiableObjectManager idObjectManager;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private DataValueService dataValueService;
+
+    private DataElement dataElementA;
+
+    private DataElement dataElementB;
+
+    private DataElement dataElementC;
+
+    private DataElement dataElementD;
+
+    private DataSet dataSet;
+
+    private OrganisationUnit organisationUnitA;
+
+    private OrganisationUnit organisationUnitB;
+
+    @Override
+    public void setUpTest()
+    {
+        CategoryOptionCombo categoryOptionCombo = categoryService.getDefaultCategoryOptionCombo();
+
+        dataElementA = createDataElement( 'A' );
+        dataElementB = createDataElement( 'B' );
+        dataElementC = createDataElement( 'C' );
+        dataElementD = createDataElement( 'D' );
+        dataElementD.setValueType( ValueType.TEXT );
+        idObjectManager.save( dataElementA );
+        idObjectManager.save( dataElementB );
+        idObjectManager.save( dataElementC );
+        idObjectManager.save( dataElementD );
+
+        dataSet = createDataSet( 'A', new MonthlyPeriodType() );
+        dataSet.addDataSetElement( dataElementA );
+        dataSet.addDataSetElement( dataElementB );
+        dataSet.addDataSetElement( dataElementC );
+        dataSet.addDataSetElement( dataElementD );
+        idObjectManager.save( dataSet );
+
+        organisationUnitA = createOrganisationUnit( 'A' );
+        organisationUnitB = createOrganisationUnit( 'B', organisationUnitA );
+        idObjectManager.save( organisationUnitA );
+        idObjectManager.save( organisationUnitB );
+
+        List<Period> periods = Lists.newArrayList(
+            createPeriod( new MonthlyPeriodType(), getDate( 2000, 3, 1 ), getDate( 2000, 3, 31 ) ),
+            createPeriod( new MonthlyPeriodType(), getDate( 2000, 4, 1 ), getDate( 2000, 4, 30 ) ),
+            createPeriod( new MonthlyPeriodType(), getDate( 2000, 5, 1 ), getDate( 2000, 5, 31 ) ),
+            createPeriod( new MonthlyPeriodType(), getDate( 2000, 6, 1 ), getDate( 2000, 6, 30 ) ) );
+        String[] values = { "5", "-5", "10", "-10" };
+
+        for ( DataElement dataElement : Lists.newArrayList( dataElementA, dataElementB, dataElementC ) )
+        {
+            for ( int i = 0; i < periods.size(); i++ )
+            {
+                dataValueService.addDataValue( createDataValue( dataElement, periods.get( i ), organisationUnitB,
+                    values[i], categoryOptionCombo ) );
+            }
+        }
+    }
+
+    @Test
+    void testExecute()
+    {
+        job.execute( createJobConfiguration( 2 ), NoopJobProgress.INSTANCE );
+
+        List<MinMaxDataElement> minMaxValues = minMaxDataElementService.getMinMaxDataElements( organisationUnitB,
+            Lists.newArrayList( dataElementA, dataElementB, dataElementC, dataElementD ) );
+
+        assertEquals( 3, minMaxValues.size() );
+
+        for ( MinMaxDataElement minMax : minMaxValues )
+        {
+            assertTrue( minMax.isGenerated() );
+            assertTrue( minMax.getMin() < 0 );
+            assertTrue( minMax.getMax() > 0 );
+        }
+
+        assertNull( minMaxDataElementService.getMinMaxDataElement( organisationUnitB, dataElementD,
+            categoryService.getDefaultCategoryOptionCombo() ) );
+    }
+
+    @Test
+    void testExecuteReplacesGeneratedValues()
+    {
+        job.execute( createJobConfiguration( 2 ), NoopJobProgress.INSTANCE );
+        job.execute( createJobConfiguration( 1 ), NoopJobProgress.INSTANCE );
+
+        assertEquals( 3, minMaxDataElementService.getMinMaxDataElements( organisationUnitB,
+            Lists.newArrayList( dataElementA, dataElementB, dataElementC ) ).size() );
+    }
+
+    private JobConfiguration createJobConfiguration( int parallelism )
+    {
+        MinMaxValueGenerationJobParameters params = new MinMaxValueGenerationJobParameters();
+        params.setDataSets( Lists.newArrayList( dataSet.getUid() ) );
+        params.setParallelism( parallelism );
+
+        return new JobConfiguration( "Min-max value generation", JobType.MIN_MAX_VALUE_GENERATION, null, params );
+    }
+}
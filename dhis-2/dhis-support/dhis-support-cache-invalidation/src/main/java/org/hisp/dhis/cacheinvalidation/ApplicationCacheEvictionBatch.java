@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
+import org.hisp.dhis.cache.Cache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import io.debezium.data.Envelope;
+
+/**
+ * Collects the application cache evictions caused by replication events and
+ * applies them once per database transaction.
+ * <p>
+ * A transaction touching thousands of rows of the same table results in a
+ * single invalidation of each affected region, and key evictions are
+ * de-duplicated before the keys of a region are scanned. The pending evictions
+ * are flushed when an event of a new transaction arrives and at the end of each
+ * batch of events delivered by the Debezium engine, see
+ * {@link DbChangeEventHandler#handleDbChanges}.
+ * <p>
+ * The Debezium engine delivers events on a single thread, but the methods are
+ * synchronized so that a flush can safely be triggered from elsewhere.
+ */
+@Slf4j
+@Profile( { "!test", "!test-h2" } )
+@Component
+public class ApplicationCacheEvictionBatch
+{
+    @Autowired
+    private TableNameToCacheRegionMapping tableNameToCacheRegionMapping;
+
+    private Long currentTxId;
+
+    private final Map<String, Cache<?>> regionsToInvalidate = new HashMap<>();
+
+    private final Map<CacheEvictionRule, Set<String>> keyTokensToEvict = new LinkedHashMap<>();
+
+    /**
+     * Registers the application cache evictions caused by the given change
+     * event. If the event belongs to another transaction than the pending
+     * evictions, those are flushed first.
+     *
+     * @param txId the database transaction ID of the event.
+     * @param tableName the name of the changed table.
+     * @param payload the Debezium event payload.
+     */
+    public synchronized void add( long txId, String tableName, Struct payload )
+    {
+        List<CacheEvictionRule> rules = tableNameToCacheRegionMapping.getRules( tableName );
+
+        if ( rules.isEmpty() )
+        {
+            return;
+        }
+
+        if ( currentTxId != null && currentTxId != txId )
+        {
+            flush();
+        }
+
+        currentTxId = txId;
+
+        List<Struct> rows = getRows( payload );
+
+        for ( CacheEvictionRule rule : rules )
+        {
+            if ( rule.hasFilter() && !matchesFilter( rule, rows ) )
+            {
+                continue;
+            }
+
+            if ( rule.getKeyMatch() == CacheEvictionRule.KeyMatch.ALL )
+            {
+                regionsToInvalidate.put( rule.getRegion(), rule.getCache() );
+                continue;
+            }
+
+            Set<String> tokens = getValues( rows, rule.getKeyColumn() );
+
+            if ( tokens.isEmpty() )
+            {
+                // Key can not be derived, for instance for deletes without
+                // full replica identity
+
+                regionsToInvalidate.put( rule.getRegion(), rule.getCache() );
+            }
+            else
+            {
+                keyTokensToEvict.computeIfAbsent( rule, r -> new HashSet<>() ).addAll( tokens );
+            }
+        }
+    }
+
+    /**
+     * Applies all pending evictions to the application caches.
+     */
+    public synchronized void flush()
+    {
+        if ( regionsToInvalidate.isEmpty() && keyTokensToEvict.isEmpty() )
+        {
+            currentTxId = null;
+            return;
+        }
+
+        log.debug( String.format( "Flushing application cache evictions for txId=%s, regions=%s, keyRules=%d",
+            currentTxId, regionsToInvalidate.keySet(), keyTokensToEvict.size() ) );
+
+        for ( Cache<?> cache : regionsToInvalidate.values() )
+        {
+            cache.invalidateAll();
+        }
+
+        for ( Map.Entry<CacheEvictionRule, Set<String>> entry : keyTokensToEvict.entrySet() )
+        {
+            CacheEvictionRule rule = entry.getKey();
+
+            if ( !regionsToInvalidate.containsKey( rule.getRegion() ) )
+            {
+                evictKeys( rule, entry.getValue() );
+            }
+        }
+
+        regionsToInvalidate.clear();
+        keyTokensToEvict.clear();
+        currentTxId = null;
+    }
+
+    private void evictKeys( CacheEvictionRule rule, Set<String> tokens )
+    {
+        Cache<?> cache = rule.getCache();
+
+        if ( rule.getKeyMatch() == CacheEvictionRule.KeyMatch.EXACT )
+        {
+            tokens.forEach( cache::invalidate );
+            return;
+        }
+
+        List<String> keys = new ArrayList<>();
+
+        for ( String key : cache.keys() )
+        {
+            if ( tokens.stream().anyMatch( token -> rule.matches( key, token ) ) )
+            {
+                keys.add( key );
+            }
+        }
+
+        keys.forEach( cache::invalidate );
+    }
+
+    private boolean matchesFilter( CacheEvictionRule rule, List<Struct> rows )
+    {
+        Set<String> values = getValues( rows, rule.getFilterColumn() );
+
+        // If the filter column is not part of the event we can not tell, and
+        // must evict to be safe
+
+        return values.isEmpty() || values.contains( rule.getFilterValue() );
+    }
+
+    private List<Struct> getRows( Struct payload )
+    {
+        List<Struct> rows = new ArrayList<>( 2 );
+
+        for ( String fieldName : List.of( Envelope.FieldName.BEFORE, Envelope.FieldName.AFTER ) )
+        {
+            if ( payload.schema().field( fieldName ) != null )
+            {
+                Struct row = payload.getStruct( fieldName );
+
+                if ( row != null )
+                {
+                    rows.add( row );
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    private Set<String> getValues( List<Struct> rows, String column )
+    {
+        Set<String> values = new HashSet<>();
+
+        for ( Struct row : rows )
+        {
+            Field field = row.schema().field( column );
+
+            if ( field != null )
+            {
+                Object value = row.get( field );
+
+                if ( value != null )
+                {
+                    values.add( Objects.toString( value ) );
+                }
+            }
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.hisp.dhis.cache.Cache;
+
+/**
+ * Describes how a change to a row in a database table affects an application
+ * {@link Cache} region created by the
+ * {@link org.hisp.dhis.cache.CacheProvider}.
+ * <p>
+ * A rule either invalidates the whole region, or derives a key token from a
+ * column of the changed row and evicts the keys matching that token. If the
+ * token can not be derived from the row, the whole region is invalidated.
+ */
+@Getter
+@AllArgsConstructor( access = AccessLevel.PRIVATE )
+public final class CacheEvictionRule
+{
+    /**
+     * Separator used by the application caches for composite keys, see for
+     * instance {@code joinHyphen} in the organisation unit service.
+     */
+    public static final String KEY_SEPARATOR = "-";
+
+    public enum KeyMatch
+    {
+        /**
+         * Invalidates all keys in the region.
+         */
+        ALL,
+
+        /**
+         * Evicts the key equal to the column value.
+         */
+        EXACT,
+
+        /**
+         * Evicts all keys starting with the column value followed by
+         * {@link #KEY_SEPARATOR}.
+         */
+        PREFIX,
+
+        /**
+         * Evicts all keys ending with {@link #KEY_SEPARATOR} followed by the
+         * column value.
+         */
+        SUFFIX
+    }
+
+    private final String region;
+
+    private final Cache<?> cache;
+
+    private final KeyMatch keyMatch;
+
+    /**
+     * Column of the changed row holding the key token, null for
+     * {@link KeyMatch#ALL}.
+     */
+    private final String keyColumn;
+
+    /**
+     * Optional column which must hold {@link #filterValue} for the rule to
+     * apply to a changed row.
+     */
+    private final String filterColumn;
+
+    private final String filterValue;
+
+    public static CacheEvictionRule all( String region, Cache<?> cache )
+    {
+        return new CacheEvictionRule( region, cache, KeyMatch.ALL, null, null, null );
+    }
+
+    public static CacheEvictionRule exactKey( String region, Cache<?> cache, String keyColumn )
+    {
+        return new CacheEvictionRule( region, cache, KeyMatch.EXACT, keyColumn, null, null );
+    }
+
+    public static CacheEvictionRule keyPrefix( String region, Cache<?> cache, String keyColumn )
+    {
+        return new CacheEvictionRule( region, cache, KeyMatch.PREFIX, keyColumn, null, null );
+    }
+
+    public static CacheEvictionRule keySuffix( String region, Cache<?> cache, String keyColumn )
+    {
+        return new CacheEvictionRule( region, cache, KeyMatch.SUFFIX, keyColumn, null, null );
+    }
+
+    /**
+     * Restricts this rule to rows where the given column has the given value.
+     *
+     * @param column the column name.
+     * @param value the value the column must hold.
+     * @return a copy of this rule with the row filter applied.
+     */
+    public CacheEvictionRule when( String column, String value )
+    {
+        return new CacheEvictionRule( region, cache, keyMatch, keyColumn, column, value );
+    }
+
+    public boolean hasFilter()
+    {
+        return filterColumn != null;
+    }
+
+    /**
+     * Indicates whether the given cache key matches the given key token
+     * according to this rule.
+     *
+     * @param key the cache key.
+     * @param token the key token derived from the changed row.
+     * @return true if the key should be evicted.
+     */
+    public boolean matches( String key, String token )
+    {
+        switch ( keyMatch )
+        {
+        case EXACT:
+            return key.equals( token );
+        case PREFIX:
+            return key.startsWith( token + KEY_SEPARATOR );
+        case SUFFIX:
+            return key.endsWith( KEY_SEPARATOR + token );
+        default:
+            return true;
+        }
+    }
+}
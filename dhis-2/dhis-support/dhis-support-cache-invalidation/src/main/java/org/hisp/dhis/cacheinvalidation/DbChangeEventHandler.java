@@ -62,6 +62,7 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import io.debezium.data.Envelope;
+import io.debezium.engine.DebeziumEngine;
 import io.debezium.engine.RecordChangeEvent;
 
 /**
@@ -73,6 +74,10 @@ import io.debezium.engine.RecordChangeEvent;
  * incoming {@link RecordChangeEvent} objects and then calling
  * {@link org.hibernate.Cache#evict(Class, Object)} and
  * {@link org.hibernate.Cache#evictCollectionData(String, Serializable)}.
+ * <p>
+ * Application caches created by the {@link org.hisp.dhis.cache.CacheProvider}
+ * are evicted through the {@link ApplicationCacheEvictionBatch}, which applies
+ * the evictions once per database transaction.
  *
  * @author Morten Svanæs <msvanaes@dhis2.org>
  */
@@ -109,6 +114,41 @@ public class DbChangeEventHandler
     @Autowired
     private PeriodService periodService;
 
+    @Autowired
+    private ApplicationCacheEvictionBatch applicationCacheEvictionBatch;
+
+    /**
+     * Called by the {@link io.debezium.embedded.EmbeddedEngine}'s change
+     * consumer with a batch of events. Configured in
+     * {@link DebeziumService#startDebeziumEngine()}. Pending application cache
+     * evictions are flushed at the end of each batch.
+     *
+     * @param events list of RecordChangeEvent<SourceRecord> containing the
+     *        database replication event information
+     * @param committer the committer used to mark events as processed
+     */
+    protected void handleDbChanges( List<RecordChangeEvent<SourceRecord>> events,
+        DebeziumEngine.RecordCommitter<RecordChangeEvent<SourceRecord>> committer )
+        throws InterruptedException
+    {
+        for ( RecordChangeEvent<SourceRecord> event : events )
+        {
+            handleDbChange( event );
+            committer.markProcessed( event );
+        }
+
+        try
+        {
+            applicationCacheEvictionBatch.flush();
+        }
+        catch ( Exception e )
+        {
+            log.error( "Exception thrown during application cache eviction, this is an unexpected error!", e );
+        }
+
+        committer.markBatchFinished();
+    }
+
     /**
      * Called by the {@link io.debezium.embedded.EmbeddedEngine}'s event
      * handler. Configured in {@link DebeziumService#startDebeziumEngine()}
@@ -177,6 +217,8 @@ public class DbChangeEventHandler
 
         String tableName = topic[topic.length - 1];
 
+        applicationCacheEvictionBatch.add( txId, tableName, payload );
+
         List<Object[]> entityClasses = tableNameToEntityMapping.getEntities( tableName );
         Objects.requireNonNull( entityClasses, "Failed to look up entity in entity table! Table name=" + tableName );
 
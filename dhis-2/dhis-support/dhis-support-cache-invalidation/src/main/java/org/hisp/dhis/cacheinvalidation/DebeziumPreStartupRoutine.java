@@ -40,7 +40,9 @@ import org.springframework.context.annotation.Profile;
 
 /**
  * Startup routine responsible for pre-populating the table name to entity
- * lookup table {@link TableNameToEntityMapping} This class is executed before
+ * lookup table {@link TableNameToEntityMapping} and the table name to
+ * application cache region lookup table {@link TableNameToCacheRegionMapping}.
+ * This class is executed before
  * the {@link StartupDebeziumServiceRoutine} which starts the Debezium engine
  * itself.
  *
@@ -59,12 +61,16 @@ public class DebeziumPreStartupRoutine extends AbstractStartupRoutine
     @Autowired
     private TableNameToEntityMapping tableNameToEntityMapping;
 
+    @Autowired
+    private TableNameToCacheRegionMapping tableNameToCacheRegionMapping;
+
     @Override
 
     public void execute()
         throws Exception
     {
         tableNameToEntityMapping.init();
+        tableNameToCacheRegionMapping.init();
 
         SessionFactoryImpl sessionFactory = emf.unwrap( SessionFactoryImpl.class );
         EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService( EventListenerRegistry.class );
@@ -122,7 +122,7 @@ public class DebeziumService
             .using( configuration )
             .using( this::handleCompletionCallback )
             .using( connectorCallback )
-            .notifying( dbChangeEventHandler::handleDbChange )
+            .notifying( dbChangeEventHandler::handleDbChanges )
             .build();
 
         startupEngineOnExecutor();
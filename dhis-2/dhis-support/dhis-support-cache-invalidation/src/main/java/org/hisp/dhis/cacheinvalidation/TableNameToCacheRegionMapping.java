@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation;
+
+import static org.hisp.dhis.cacheinvalidation.CacheEvictionRule.all;
+import static org.hisp.dhis.cacheinvalidation.CacheEvictionRule.exactKey;
+import static org.hisp.dhis.cacheinvalidation.CacheEvictionRule.keyPrefix;
+import static org.hisp.dhis.cacheinvalidation.CacheEvictionRule.keySuffix;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * TreeMap responsible for keeping the mapping between raw database table names
+ * and the application cache regions created by the {@link CacheProvider} which
+ * hold values derived from rows in those tables.
+ * <p>
+ * The {@link CacheProvider} registers one cache per region, so calling the
+ * factory methods here returns the same cache instances as the ones used by
+ * the services. The mapping must therefore be initialized after the
+ * application context has been started, see {@link DebeziumPreStartupRoutine}.
+ */
+@Slf4j
+@Profile( { "!test", "!test-h2" } )
+@Component
+public class TableNameToCacheRegionMapping
+{
+    /**
+     * System setting written when the analytics tables have been regenerated.
+     * Mirrors {@code SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE}.
+     */
+    private static final String LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE = "keyLastSuccessfulAnalyticsTablesUpdate";
+
+    /**
+     * Only used if the analytics response cache has not been created yet, the
+     * expiration time is always overwritten by the analytics cache on put.
+     */
+    private static final Duration ANALYTICS_RESPONSE_DEFAULT_EXPIRATION = Duration.ofHours( 1 );
+
+    private static final String UID = "uid";
+
+    @Autowired
+    private CacheProvider cacheProvider;
+
+    private final TreeMap<String, List<CacheEvictionRule>> tableNameToRules = new TreeMap<>();
+
+    protected void init()
+    {
+        Cache<?> dataElementCache = cacheProvider.createDataElementCache();
+        Cache<?> programCache = cacheProvider.createProgramCache();
+        Cache<?> programHasRulesCache = cacheProvider.createProgramHasRulesCache();
+        Cache<?> programRuleVariablesCache = cacheProvider.createProgramRuleVariablesCache();
+        Cache<?> teiAttributesCache = cacheProvider.createTeiAttributesCache();
+        Cache<?> programTeiAttributesCache = cacheProvider.createProgramTeiAttributesCache();
+        Cache<?> inUserOrgUnitHierarchyCache = cacheProvider.createInUserOrgUnitHierarchyCache();
+        Cache<?> inUserViewOrgUnitHierarchyCache = cacheProvider.createInUserViewOrgUnitHierarchyCache();
+        Cache<?> inUserSearchOrgUnitHierarchyCache = cacheProvider.createInUserSearchOrgUnitHierarchyCache();
+        Cache<?> userDisplayNameCache = cacheProvider.createUserDisplayNameCache();
+        Cache<?> userGroupNameCache = cacheProvider.createUserGroupNameCache();
+        Cache<?> metadataAttributesCache = cacheProvider.createMetadataAttributesCache();
+        Cache<?> allConstantsCache = cacheProvider.createAllConstantsCache();
+        Cache<?> systemSettingCache = cacheProvider.createSystemSettingCache();
+        Cache<?> keyJsonValueCache = cacheProvider.createKeyJsonValueCache();
+        Cache<?> keyJsonNamespaceKeysCache = cacheProvider.createKeyJsonNamespaceKeysCache();
+        Cache<?> analyticsResponseCache = cacheProvider
+            .createAnalyticsResponseCache( ANALYTICS_RESPONSE_DEFAULT_EXPIRATION );
+
+        // Keys are "userUid-dataElementUid" and "dataElementUid"
+
+        add( "dataelement", keySuffix( "dataElementCache", dataElementCache, UID ) );
+        add( "dataelement", exactKey( "programRuleVariablesCache", programRuleVariablesCache, UID ) );
+
+        // Program cache holds all programs in a single entry
+
+        add( "program", all( "programCache", programCache ) );
+        add( "program", exactKey( "programHasRulesCache", programHasRulesCache, UID ) );
+        add( "program", all( "programTeiAttributesCache", programTeiAttributesCache ) );
+        add( "programstage", all( "programCache", programCache ) );
+        add( "programrule", all( "programHasRulesCache", programHasRulesCache ) );
+        add( "programrulevariable", all( "programRuleVariablesCache", programRuleVariablesCache ) );
+
+        add( "trackedentityattribute", all( "teiAttributesCache", teiAttributesCache ) );
+        add( "trackedentityattribute", all( "programTeiAttributesCache", programTeiAttributesCache ) );
+        add( "trackedentitytypeattribute", all( "teiAttributesCache", teiAttributesCache ) );
+        add( "program_attributes", all( "programTeiAttributesCache", programTeiAttributesCache ) );
+
+        // Keys are "username-orgUnitUid"
+
+        add( "organisationunit", keySuffix( "inUserOuHierarchy", inUserOrgUnitHierarchyCache, UID ) );
+        add( "organisationunit", keySuffix( "isUserViewOuHierHierarchy", inUserViewOrgUnitHierarchyCache, UID ) );
+        add( "organisationunit", keySuffix( "inUserSearchOuHierarchy", inUserSearchOrgUnitHierarchyCache, UID ) );
+        add( "users", keyPrefix( "inUserOuHierarchy", inUserOrgUnitHierarchyCache, "username" ) );
+        add( "users", keyPrefix( "isUserViewOuHierHierarchy", inUserViewOrgUnitHierarchyCache, "username" ) );
+        add( "users", keyPrefix( "inUserSearchOuHierarchy", inUserSearchOrgUnitHierarchyCache, "username" ) );
+
+        // The user org unit associations are excluded from replication, but
+        // any change to them updates the user row, which does not hold the
+        // username the org unit hierarchy caches are keyed on
+
+        add( "userinfo", all( "inUserOuHierarchy", inUserOrgUnitHierarchyCache ) );
+        add( "userinfo", all( "isUserViewOuHierHierarchy", inUserViewOrgUnitHierarchyCache ) );
+        add( "userinfo", all( "inUserSearchOuHierarchy", inUserSearchOrgUnitHierarchyCache ) );
+        add( "userinfo", keyPrefix( "dataElementCache", dataElementCache, UID ) );
+        add( "userinfo", exactKey( "userDisplayNameCache", userDisplayNameCache, UID ) );
+
+        // Keys are "namespace-key" and "namespace"
+
+        add( "keyjsonvalue", keyPrefix( "keyJsonValueCache", keyJsonValueCache, "namespace" ) );
+        add( "keyjsonvalue", exactKey( "keyJsonNamespaceKeysCache", keyJsonNamespaceKeysCache, "namespace" ) );
+
+        add( "usergroup", exactKey( "userGroupNameCache", userGroupNameCache, UID ) );
+        add( "attribute", exactKey( "metadataAttributes", metadataAttributesCache, UID ) );
+        add( "constant", all( "allConstantsCache", allConstantsCache ) );
+        add( "systemsetting", exactKey( "systemSetting", systemSettingCache, "name" ) );
+        add( "systemsetting", all( "analyticsResponse", analyticsResponseCache )
+            .when( "name", LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE ) );
+
+        if ( log.isDebugEnabled() )
+        {
+            log.debug( "Finished building table name to cache region mapping. "
+                + "tableNameToRules=\n" + printRuleTable() );
+        }
+    }
+
+    /**
+     * Returns the eviction rules for the given table name.
+     *
+     * @param tableName the database table name.
+     * @return a list of {@link CacheEvictionRule}, empty if no application
+     *         cache depends on the table.
+     */
+    protected List<CacheEvictionRule> getRules( String tableName )
+    {
+        return tableNameToRules.getOrDefault( tableName, List.of() );
+    }
+
+    private void add( String tableName, CacheEvictionRule rule )
+    {
+        tableNameToRules.computeIfAbsent( tableName, s -> new ArrayList<>() ).add( rule );
+    }
+
+    private String printRuleTable()
+    {
+        StringBuilder sb = new StringBuilder();
+        for ( Map.Entry<String, List<CacheEvictionRule>> entry : tableNameToRules.entrySet() )
+        {
+            for ( CacheEvictionRule rule : entry.getValue() )
+            {
+                sb.append( String.format( "Table=%s, Region=%s, KeyMatch=%s, KeyColumn=%s %n",
+                    entry.getKey(), rule.getRegion(), rule.getKeyMatch(), rule.getKeyColumn() ) );
+            }
+        }
+        return sb.toString();
+    }
+}
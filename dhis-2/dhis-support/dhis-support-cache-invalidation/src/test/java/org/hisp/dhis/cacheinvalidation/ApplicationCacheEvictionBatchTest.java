@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.hisp.dhis.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith( MockitoExtension.class )
+class ApplicationCacheEvictionBatchTest
+{
+    private static final Schema ROW = SchemaBuilder.struct().optional()
+        .field( "uid", Schema.OPTIONAL_STRING_SCHEMA )
+        .field( "name", Schema.OPTIONAL_STRING_SCHEMA )
+        .build();
+
+    private static final Schema PAYLOAD = SchemaBuilder.struct()
+        .field( "before", ROW )
+        .field( "after", ROW )
+        .build();
+
+    @Mock
+    private TableNameToCacheRegionMapping tableNameToCacheRegionMapping;
+
+    @Mock
+    private Cache<Object> cache;
+
+    @InjectMocks
+    private ApplicationCacheEvictionBatch batch;
+
+    @Test
+    void testInvalidateRegionOncePerTransaction()
+    {
+        when( tableNameToCacheRegionMapping.getRules( "program" ) )
+            .thenReturn( List.of( CacheEvictionRule.all( "programCache", cache ) ) );
+
+        batch.add( 1L, "program", payload( "p1", null ) );
+        batch.add( 1L, "program", payload( "p2", null ) );
+        batch.add( 1L, "program", payload( "p3", null ) );
+
+        verify( cache, never() ).invalidateAll();
+
+        batch.flush();
+
+        verify( cache, times( 1 ) ).invalidateAll();
+    }
+
+    @Test
+    void testEvictDistinctKeysOncePerTransaction()
+    {
+        when( tableNameToCacheRegionMapping.getRules( "usergroup" ) )
+            .thenReturn( List.of( CacheEvictionRule.exactKey( "userGroupNameCache", cache, "uid" ) ) );
+
+        batch.add( 1L, "usergroup", payload( "g1", null ) );
+        batch.add( 1L, "usergroup", payload( "g1", null ) );
+        batch.add( 1L, "usergroup", payload( "g2", null ) );
+        batch.flush();
+
+        verify( cache, times( 1 ) ).invalidate( "g1" );
+        verify( cache, times( 1 ) ).invalidate( "g2" );
+        verify( cache, never() ).invalidateAll();
+    }
+
+    @Test
+    void testFlushOnNewTransaction()
+    {
+        when( tableNameToCacheRegionMapping.getRules( "usergroup" ) )
+            .thenReturn( List.of( CacheEvictionRule.exactKey( "userGroupNameCache", cache, "uid" ) ) );
+
+        batch.add( 1L, "usergroup", payload( "g1", null ) );
+        verify( cache, never() ).invalidate( anyString() );
+
+        batch.add( 2L, "usergroup", payload( "g2", null ) );
+        verify( cache ).invalidate( "g1" );
+        verify( cache, never() ).invalidate( "g2" );
+
+        batch.flush();
+        verify( cache ).invalidate( "g2" );
+    }
+
+    @Test
+    void testEvictMatchingPrefixKeys()
+    {
+        when( tableNameToCacheRegionMapping.getRules( "users" ) )
+            .thenReturn( List.of( CacheEvictionRule.keyPrefix( "inUserOuHierarchy", cache, "uid" ) ) );
+        when( cache.keys() ).thenReturn( List.of( "bob-ou1", "bob-ou2", "bobby-ou1", "alice-ou1" ) );
+
+        batch.add( 1L, "users", payload( "bob", null ) );
+        batch.flush();
+
+        verify( cache ).invalidate( "bob-ou1" );
+        verify( cache ).invalidate( "bob-ou2" );
+        verify( cache, never() ).invalidate( "bobby-ou1" );
+        verify( cache, never() ).invalidate( "alice-ou1" );
+    }
+
+    @Test
+    void testInvalidateRegionWhenKeyIsMissing()
+    {
+        when( tableNameToCacheRegionMapping.getRules( "usergroup" ) )
+            .thenReturn( List.of( CacheEvictionRule.exactKey( "userGroupNameCache", cache, "uid" ) ) );
+
+        batch.add( 1L, "usergroup", payload( "g1", null ) );
+        batch.add( 1L, "usergroup", payload( null, null ) );
+        batch.flush();
+
+        verify( cache ).invalidateAll();
+        verify( cache, never() ).invalidate( anyString() );
+    }
+
+    @Test
+    void testRuleFilter()
+    {
+        when( tableNameToCacheRegionMapping.getRules( "systemsetting" ) ).thenReturn( List.of(
+            CacheEvictionRule.all( "analyticsResponse", cache ).when( "name", "keyLastUpdate" ) ) );
+
+        batch.add( 1L, "systemsetting", payload( null, "keyOther" ) );
+        batch.flush();
+        verify( cache, never() ).invalidateAll();
+
+        batch.add( 2L, "systemsetting", payload( null, "keyLastUpdate" ) );
+        batch.flush();
+        verify( cache ).invalidateAll();
+    }
+
+    @Test
+    void testIgnoreUnmappedTable()
+    {
+        when( tableNameToCacheRegionMapping.getRules( "datavalue" ) ).thenReturn( List.of() );
+
+        batch.add( 1L, "datavalue", payload( "dv", null ) );
+        batch.flush();
+
+        verify( cache, never() ).invalidateAll();
+        verify( cache, never() ).invalidate( anyString() );
+    }
+
+    private static Struct payload( String uid, String name )
+    {
+        Struct after = new Struct( ROW ).put( "uid", uid ).put( "name", name );
+        return new Struct( PAYLOAD ).put( "after", after );
+    }
+}
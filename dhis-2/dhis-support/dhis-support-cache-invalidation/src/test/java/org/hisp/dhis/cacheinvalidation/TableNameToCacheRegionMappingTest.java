@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+import java.util.List;
+
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cacheinvalidation.CacheEvictionRule.KeyMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith( MockitoExtension.class )
+class TableNameToCacheRegionMappingTest
+{
+    @Mock( answer = Answers.RETURNS_MOCKS )
+    private CacheProvider cacheProvider;
+
+    @Mock
+    private Cache<Object> dataElementCache;
+
+    @Mock
+    private Cache<Object> analyticsResponseCache;
+
+    @InjectMocks
+    private TableNameToCacheRegionMapping mapping;
+
+    @BeforeEach
+    void setUp()
+    {
+        doReturn( dataElementCache ).when( cacheProvider ).createDataElementCache();
+        doReturn( analyticsResponseCache ).when( cacheProvider ).createAnalyticsResponseCache( any() );
+        mapping.init();
+    }
+
+    @Test
+    void testGetRules()
+    {
+        List<CacheEvictionRule> rules = mapping.getRules( "dataelement" );
+
+        assertEquals( List.of( "dataElementCache", "programRuleVariablesCache" ),
+            rules.stream().map( CacheEvictionRule::getRegion ).collect( toList() ) );
+        assertEquals( KeyMatch.SUFFIX, rules.get( 0 ).getKeyMatch() );
+        assertEquals( "uid", rules.get( 0 ).getKeyColumn() );
+        assertSame( dataElementCache, rules.get( 0 ).getCache() );
+        assertEquals( KeyMatch.EXACT, rules.get( 1 ).getKeyMatch() );
+    }
+
+    @Test
+    void testGetRulesOfUnmappedTable()
+    {
+        assertTrue( mapping.getRules( "datavalue" ).isEmpty() );
+        assertTrue( mapping.getRules( "DataElement" ).isEmpty() );
+    }
+
+    @Test
+    void testGetRulesWithFilter()
+    {
+        List<CacheEvictionRule> rules = mapping.getRules( "systemsetting" );
+
+        assertEquals( 2, rules.size() );
+        assertFalse( rules.get( 0 ).hasFilter() );
+        assertEquals( "name", rules.get( 0 ).getKeyColumn() );
+
+        CacheEvictionRule analytics = rules.get( 1 );
+        assertTrue( analytics.hasFilter() );
+        assertEquals( KeyMatch.ALL, analytics.getKeyMatch() );
+        assertEquals( "name", analytics.getFilterColumn() );
+        assertEquals( "keyLastSuccessfulAnalyticsTablesUpdate", analytics.getFilterValue() );
+        assertSame( analyticsResponseCache, analytics.getCache() );
+    }
+
+    @Test
+    void testRuleMatches()
+    {
+        assertTrue( CacheEvictionRule.exactKey( "r", dataElementCache, "uid" ).matches( "abc", "abc" ) );
+        assertFalse( CacheEvictionRule.exactKey( "r", dataElementCache, "uid" ).matches( "abcd", "abc" ) );
+        assertTrue( CacheEvictionRule.keyPrefix( "r", dataElementCache, "username" ).matches( "bob-ou1", "bob" ) );
+        assertFalse( CacheEvictionRule.keyPrefix( "r", dataElementCache, "username" ).matches( "bobby-ou1", "bob" ) );
+        assertTrue( CacheEvictionRule.keySuffix( "r", dataElementCache, "uid" ).matches( "user1-de1", "de1" ) );
+        assertFalse( CacheEvictionRule.keySuffix( "r", dataElementCache, "uid" ).matches( "user1-xde1", "de1" ) );
+        assertTrue( CacheEvictionRule.all( "r", dataElementCache ).matches( "anything", "de1" ) );
+    }
+}
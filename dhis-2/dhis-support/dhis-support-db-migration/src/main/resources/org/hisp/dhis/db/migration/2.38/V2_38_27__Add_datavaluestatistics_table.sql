@@ -0,0 +1,29 @@
+-- Running statistics (count, mean and M2) of numeric data values per
+-- data element, org unit, category option combo and attribute option combo
+
+drop table if exists datavaluestatistics;
+create table datavaluestatistics (
+    dataelementid bigint not null,
+    sourceid bigint not null,
+    categoryoptioncomboid bigint not null,
+    attributeoptioncomboid bigint not null,
+    valuecount bigint not null,
+    mean double precision not null,
+    m2 double precision not null,
+    lastupdated timestamp without time zone not null,
+    constraint datavaluestatistics_pkey primary key (dataelementid, sourceid, categoryoptioncomboid, attributeoptioncomboid)
+);
+
+create index in_datavaluestatistics_sourceid on datavaluestatistics (sourceid);
+
+insert into datavaluestatistics (dataelementid, sourceid, categoryoptioncomboid, attributeoptioncomboid,
+    valuecount, mean, m2, lastupdated)
+select dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid,
+    count(*), avg(dv.value::double precision), coalesce(var_pop(dv.value::double precision), 0) * count(*), now()
+from datavalue dv
+inner join dataelement de on dv.dataelementid = de.dataelementid
+where de.valuetype in ('INTEGER', 'INTEGER_POSITIVE', 'INTEGER_NEGATIVE', 'INTEGER_ZERO_OR_POSITIVE',
+    'NUMBER', 'UNIT_INTERVAL', 'PERCENTAGE')
+and dv.deleted is false
+and dv.value ~ '^\s*[-+]?([0-9]+\.?[0-9]*|\.[0-9]+)([eE][-+]?[0-9]+)?\s*$'
+group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid;
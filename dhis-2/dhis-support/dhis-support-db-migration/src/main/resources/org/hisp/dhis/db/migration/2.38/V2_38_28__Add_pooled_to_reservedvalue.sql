@@ -0,0 +1,5 @@
+-- Pre-generated values waiting in the reserved value pool of their owner and key
+
+alter table reservedvalue add column if not exists pooled boolean not null default false;
+
+create index if not exists in_reservedvalue_pooled on reservedvalue (ownerobject, owneruid, key) where pooled;
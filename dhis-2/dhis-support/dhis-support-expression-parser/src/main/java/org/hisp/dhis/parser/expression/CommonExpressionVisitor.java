@@ -224,6 +224,16 @@ public class CommonExpressionVisitor
      */
     private Set<String> dataElementAndAttributeIdentifiers;
 
+    /**
+     * The compiled expression being compiled or evaluated, if any.
+     */
+    private CompiledExpression compiledExpression;
+
+    /**
+     * Dimensional items by slot of the compiled expression being evaluated.
+     */
+    private DimensionalItemObject[] slotItems;
+
     /**
      * Default value for data type double.
      */
@@ -513,6 +523,26 @@ public class CommonExpressionVisitor
         this.dataElementAndAttributeIdentifiers = dataElementAndAttributeIdentifiers;
     }
 
+    public CompiledExpression getCompiledExpression()
+    {
+        return compiledExpression;
+    }
+
+    public void setCompiledExpression( CompiledExpression compiledExpression )
+    {
+        this.compiledExpression = compiledExpression;
+    }
+
+    public DimensionalItemObject[] getSlotItems()
+    {
+        return slotItems;
+    }
+
+    public void setSlotItems( DimensionalItemObject[] slotItems )
+    {
+        this.slotItems = slotItems;
+    }
+
     public Map<String, String> getItemDescriptions()
     {
         return itemDescriptions;
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.parser.expression;
+
+import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hisp.dhis.antlr.Parser;
+import org.hisp.dhis.antlr.ParserException;
+import org.hisp.dhis.antlr.ParserExceptionWithoutContext;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.parser.expression.antlr.ExpressionBaseListener;
+
+/**
+ * An expression parsed once into its ANTLR parse tree, to be evaluated many
+ * times without parsing it again.
+ * <p/>
+ * The dimensional items of the expression are bound to slots while the
+ * expression is compiled, so that on evaluation each item finds its
+ * {@link DimensionalItemObject} by slot instead of rebuilding its
+ * {@link DimensionalItemId} from the parse tree.
+ * <p/>
+ * A compiled expression is immutable once compiled and can be shared between
+ * threads.
+ */
+public class CompiledExpression
+{
+    private final String expression;
+
+    private final ExprContext root;
+
+    /**
+     * Slot of each dimensional item node of the parse tree.
+     */
+    private final Map<ExprContext, Integer> slots = new IdentityHashMap<>();
+
+    /**
+     * Dimensional item id of each slot.
+     */
+    private final List<DimensionalItemId> itemIds = new ArrayList<>();
+
+    private CompiledExpression( String expression, ExprContext root )
+    {
+        this.expression = expression;
+        this.root = root;
+    }
+
+    /**
+     * Parses the given expression. Items are bound to slots by visiting the
+     * parse tree with {@link ParserUtils#ITEM_GET_IDS} and a visitor which
+     * has this compiled expression set.
+     *
+     * @param expression the expression to parse.
+     * @return the parsed expression.
+     * @throws ParserException if the expression cannot be parsed.
+     */
+    public static CompiledExpression parse( String expression )
+    {
+        RootCollector collector = new RootCollector();
+
+        Parser.listen( expression, collector );
+
+        return new CompiledExpression( expression, collector.root );
+    }
+
+    /**
+     * Binds the dimensional item of the given parse tree node to a slot.
+     *
+     * @param ctx the item node.
+     * @param itemId the id of the item.
+     */
+    public void bindItem( ExprContext ctx, DimensionalItemId itemId )
+    {
+        slots.computeIfAbsent( ctx, key -> {
+            itemIds.add( itemId );
+            return itemIds.size() - 1;
+        } );
+    }
+
+    /**
+     * Gets the slot of the given item node.
+     *
+     * @param ctx the item node.
+     * @return the slot, or -1 if the node is not bound to a slot.
+     */
+    public int getSlot( ExprContext ctx )
+    {
+        Integer slot = slots.get( ctx );
+
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Resolves the items of all slots.
+     *
+     * @param itemMap map from item ids to items.
+     * @return the items indexed by slot.
+     */
+    public DimensionalItemObject[] resolveItems( Map<DimensionalItemId, DimensionalItemObject> itemMap )
+    {
+        DimensionalItemObject[] items = new DimensionalItemObject[itemIds.size()];
+
+        if ( itemMap != null )
+        {
+            for ( int i = 0; i < items.length; i++ )
+            {
+                items[i] = itemMap.get( itemIds.get( i ) );
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * Evaluates the parse tree with the given visitor.
+     *
+     * @param visitor the visitor.
+     * @return the value of the expression.
+     * @throws ParserException if the expression cannot be evaluated.
+     */
+    public Object evaluate( CommonExpressionVisitor visitor )
+    {
+        try
+        {
+            return visitor.visit( root );
+        }
+        catch ( ParserExceptionWithoutContext ex )
+        {
+            throw new ParserException( ex.getMessage() );
+        }
+    }
+
+    public String getExpression()
+    {
+        return expression;
+    }
+
+    public ExprContext getRoot()
+    {
+        return root;
+    }
+
+    public List<DimensionalItemId> getItemIds()
+    {
+        return Collections.unmodifiableList( itemIds );
+    }
+
+    /**
+     * Collects the outermost expression node, which is the first one entered.
+     */
+    private static class RootCollector
+        extends ExpressionBaseListener
+    {
+        private ExprContext root;
+
+        @Override
+        public void enterExpr( ExprContext ctx )
+        {
+            if ( root == null )
+            {
+                root = ctx;
+            }
+        }
+    }
+}
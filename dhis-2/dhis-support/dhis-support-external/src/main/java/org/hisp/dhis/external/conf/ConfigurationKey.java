@@ -86,6 +86,66 @@ public enum ConfigurationKey
      */
     SYSTEM_CACHE_CAP_PERCENTAGE( "system.cache.cap.percentage", "0", false ),
 
+    /**
+     * Number of notifications kept from the start of a job. (default: 100).
+     */
+    SYSTEM_NOTIFICATIONS_RETAIN_FIRST( "system.notifications.retain.first", "100", false ),
+
+    /**
+     * Number of most recent notifications kept for a job. (default: 500).
+     */
+    SYSTEM_NOTIFICATIONS_RETAIN_LAST( "system.notifications.retain.last", "500", false ),
+
+    /**
+     * Number of error notifications kept for a job in addition to the first
+     * and most recent ones. (default: 500).
+     */
+    SYSTEM_NOTIFICATIONS_RETAIN_ERRORS( "system.notifications.retain.errors", "500", false ),
+
+    /**
+     * Process long-running analytics and export API requests asynchronously
+     * on a dedicated executor. When off, these requests run on the servlet
+     * request thread. (default: on).
+     */
+    WEB_ASYNC_ENABLED( "web.async.enabled", Constants.ON, false ),
+
+    /**
+     * Max number of analytics API requests processed concurrently. (default:
+     * 8).
+     */
+    WEB_ASYNC_ANALYTICS_CONCURRENCY( "web.async.analytics.concurrency", "8", false ),
+
+    /**
+     * Max number of analytics API requests waiting for a free thread before
+     * new requests are rejected with 503. (default: 32).
+     */
+    WEB_ASYNC_ANALYTICS_QUEUE( "web.async.analytics.queue", "32", false ),
+
+    /**
+     * Max number of bulk export API requests processed concurrently.
+     * (default: 4).
+     */
+    WEB_ASYNC_EXPORT_CONCURRENCY( "web.async.export.concurrency", "4", false ),
+
+    /**
+     * Max number of bulk export API requests waiting for a free thread before
+     * new requests are rejected with 503. (default: 16).
+     */
+    WEB_ASYNC_EXPORT_QUEUE( "web.async.export.queue", "16", false ),
+
+    /**
+     * Timeout in seconds for asynchronously processed API requests.
+     * (default: 1800).
+     */
+    WEB_ASYNC_TIMEOUT( "web.async.timeout", "1800", false ),
+
+    /**
+     * Maintain running statistics of numeric data values on write, which are
+     * read by outlier detection and min-max generation instead of aggregating
+     * the data value history. (default: on).
+     */
+    DATA_VALUE_STATISTICS_ENABLED( "datavalue.statistics.enabled", Constants.ON, false ),
+
     /**
      * Node identifier, optional, useful in clusters.
      */
@@ -425,6 +485,72 @@ public enum ConfigurationKey
      */
     SERVER_HTTPS( "server.https", Constants.OFF ),
 
+    /**
+     * Compress API responses with gzip or zstd as negotiated by the
+     * Accept-Encoding request header, and decompress request bodies sent with
+     * a Content-Encoding, can be 'on', 'off'. (default: on).
+     */
+    SERVER_COMPRESSION_ENABLED( "server.compression.enabled", Constants.ON, false ),
+
+    /**
+     * Min size in bytes of API responses to compress. (default: 1024).
+     */
+    SERVER_COMPRESSION_THRESHOLD( "server.compression.threshold", "1024", false ),
+
+    /**
+     * Limit the number of concurrent requests per endpoint class, and reject
+     * requests with 503 and Retry-After once the queue of an endpoint class
+     * is full, can be 'on', 'off'. (default: on).
+     */
+    SERVER_ADMISSION_ENABLED( "server.admission.enabled", Constants.ON, false ),
+
+    /**
+     * Max number of data, tracker and metadata import requests processed
+     * concurrently. (default: 16).
+     */
+    SERVER_ADMISSION_IMPORT_CONCURRENCY( "server.admission.import.concurrency", "16", false ),
+
+    /**
+     * Max number of import requests waiting for admission. (default: 32).
+     */
+    SERVER_ADMISSION_IMPORT_QUEUE( "server.admission.import.queue", "32", false ),
+
+    /**
+     * Max number of metadata export requests processed concurrently.
+     * (default: 16).
+     */
+    SERVER_ADMISSION_METADATA_CONCURRENCY( "server.admission.metadata.concurrency", "16", false ),
+
+    /**
+     * Max number of metadata export requests waiting for admission. (default:
+     * 32).
+     */
+    SERVER_ADMISSION_METADATA_QUEUE( "server.admission.metadata.queue", "32", false ),
+
+    /**
+     * Max number of static resource requests, like scripts, style sheets,
+     * pages and images, processed concurrently. (default: 100).
+     */
+    SERVER_ADMISSION_STATIC_CONCURRENCY( "server.admission.static.concurrency", "100", false ),
+
+    /**
+     * Max number of static resource requests waiting for admission. (default:
+     * 200).
+     */
+    SERVER_ADMISSION_STATIC_QUEUE( "server.admission.static.queue", "200", false ),
+
+    /**
+     * Max time in seconds a request waits for admission before it is rejected.
+     * The waiting request holds on to a server thread. (default: 2).
+     */
+    SERVER_ADMISSION_QUEUE_TIMEOUT( "server.admission.queue.timeout", "2", false ),
+
+    /**
+     * Seconds returned in the Retry-After header of rejected requests.
+     * (default: 10).
+     */
+    SERVER_ADMISSION_RETRY_AFTER( "server.admission.retry.after", "10", false ),
+
     /**
      * DHIS2 API monitoring.
      */
@@ -455,6 +581,11 @@ public enum ConfigurationKey
      */
     MONITORING_CPU_ENABLED( "monitoring.cpu.enabled", Constants.OFF, false ),
 
+    /**
+     * Tracker import stage timings monitoring. (default: off)
+     */
+    MONITORING_TRACKER_ENABLED( "monitoring.tracker.enabled", Constants.OFF, false ),
+
     /**
      * AppHub base URL. (default: https://apps.dhis2.org).
      */
@@ -477,6 +608,28 @@ public enum ConfigurationKey
      */
     CHANGELOG_TRACKER( "changelog.tracker", Constants.ON ),
 
+    /**
+     * Number of pre-generated values to keep in the reserved value pool of
+     * each generated tracked entity attribute and key. The pools are topped up
+     * by the reserved value pool job. Also used as the block size when
+     * sequential counters are allocated on demand. (default: 0, disabled).
+     */
+    RESERVED_VALUE_POOL_SIZE( "reservedvalue.pool.size", "0", false ),
+
+    /**
+     * Window in milliseconds over which tracker rule engine and notification
+     * side effects are collected before being processed as one batch. Zero
+     * processes every import on its own. (default: 250).
+     */
+    TRACKER_SIDE_EFFECT_BATCH_WINDOW( "tracker.sideeffect.batch.window", "250", false ),
+
+    /**
+     * Maximum number of imports in one batch of tracker side effects. A batch
+     * is processed once it reaches this size, even if the window has not yet
+     * elapsed. (default: 200).
+     */
+    TRACKER_SIDE_EFFECT_BATCH_SIZE( "tracker.sideeffect.batch.size", "200", false ),
+
     /**
      * Use in-memory queue before sending audits into the Artemis queue.
      * (default: off).
@@ -607,6 +760,26 @@ public enum ConfigurationKey
      */
     ELAPSED_TIME_QUERY_LOGGING_ENABLED( "elapsed.time.query.logging.enabled", Constants.OFF, false ),
 
+    /**
+     * Database debugging feature. Counts JDBC statements, entity loads and
+     * collection initializations per API request and per job stage and reports
+     * those exceeding the statement budget. (default: off)
+     */
+    STATEMENT_BUDGET_ENABLED( "statement.budget.enabled", Constants.OFF, false ),
+
+    /**
+     * Max number of JDBC statements per API request or job stage before it is
+     * reported as slow path. (default: 500)
+     */
+    STATEMENT_BUDGET( "statement.budget", "500", false ),
+
+    /**
+     * Max number of Hibernate entity loads and collection initializations per
+     * API request or job stage before it is reported as slow path. (default:
+     * 5000)
+     */
+    STATEMENT_BUDGET_LOADS( "statement.budget.loads", "5000", false ),
+
     /**
      * Database datasource pool type. Supported pool types are: c3p0 (default)
      * or hikari
@@ -48,6 +48,7 @@ import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.datasource.DatabasePoolUtils;
 import org.hisp.dhis.datasource.DefaultReadOnlyDataSourceManager;
+import org.hisp.dhis.datasource.StatementCounter;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.hibernate.HibernateConfigurationProvider;
@@ -146,12 +147,29 @@ public class DataSourceConfig
     public DataSource dataSource( @Qualifier( "actualDataSource" ) DataSource actualDataSource )
     {
         boolean enableQueryLogging = dhisConfig.isEnabled( ConfigurationKey.ENABLE_QUERY_LOGGING );
+        boolean statementCounting = dhisConfig.isEnabled( ConfigurationKey.STATEMENT_BUDGET_ENABLED );
 
-        if ( !enableQueryLogging )
+        if ( !enableQueryLogging && !statementCounting )
         {
             return actualDataSource;
         }
 
+        ProxyDataSourceBuilder b = ProxyDataSourceBuilder
+
+            .create( actualDataSource )
+            .name( "ProxyDS_DHIS2_" + dhisConfig.getProperty( ConfigurationKey.DB_POOL_TYPE ) +
+                "_" + CodeGenerator.generateCode( 5 ) );
+
+        if ( statementCounting )
+        {
+            b.afterQuery( ( execInfo, queryInfoList ) -> StatementCounter.countStatements( queryInfoList.size() ) );
+        }
+
+        if ( !enableQueryLogging )
+        {
+            return b.build();
+        }
+
         PrettyQueryEntryCreator creator = new PrettyQueryEntryCreator();
         creator.setMultiline( true );
 
@@ -160,15 +178,9 @@ public class DataSourceConfig
         listener.setLogLevel( SLF4JLogLevel.INFO );
         listener.setQueryLogEntryCreator( creator );
 
-        ProxyDataSourceBuilder b = ProxyDataSourceBuilder
-
-            .create( actualDataSource )
-            .name( "ProxyDS_DHIS2_" + dhisConfig.getProperty( ConfigurationKey.DB_POOL_TYPE ) +
-                "_" + CodeGenerator.generateCode( 5 ) )
-
-            .logSlowQueryBySlf4j(
-                Integer.parseInt( dhisConfig.getProperty( ConfigurationKey.SLOW_QUERY_LOGGING_THRESHOLD_TIME_MS ) ),
-                TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN )
+        b.logSlowQueryBySlf4j(
+            Integer.parseInt( dhisConfig.getProperty( ConfigurationKey.SLOW_QUERY_LOGGING_THRESHOLD_TIME_MS ) ),
+            TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN )
 
             .listener( listener )
             .proxyResultSet();
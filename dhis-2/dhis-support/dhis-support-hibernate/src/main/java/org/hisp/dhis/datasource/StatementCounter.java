@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Counts JDBC statements, Hibernate entity loads and collection
+ * initializations of the current thread within explicitly started scopes, like
+ * an API request or a job stage.
+ * <p>
+ * Scopes nest: counting applies to all scopes open on the current thread. Work
+ * done on other threads, like parallel job stages or asynchronous requests, is
+ * not attributed to the scope. Outside of any scope counting is a no-op.
+ */
+public final class StatementCounter
+{
+    private static final ThreadLocal<Deque<StatementCounts>> SCOPES = ThreadLocal.withInitial( ArrayDeque::new );
+
+    private StatementCounter()
+    {
+        throw new UnsupportedOperationException( "util" );
+    }
+
+    /**
+     * Opens a new counting scope on the current thread.
+     *
+     * @return the counts of the new scope
+     */
+    public static StatementCounts start()
+    {
+        StatementCounts counts = new StatementCounts();
+        SCOPES.get().push( counts );
+        return counts;
+    }
+
+    /**
+     * Closes the innermost counting scope of the current thread.
+     *
+     * @return the counts of the closed scope, or null if no scope was open
+     */
+    public static StatementCounts stop()
+    {
+        Deque<StatementCounts> scopes = SCOPES.get();
+        StatementCounts counts = scopes.poll();
+        if ( scopes.isEmpty() )
+        {
+            SCOPES.remove();
+        }
+        return counts;
+    }
+
+    /**
+     * @return the counts of the innermost open scope of the current thread, or
+     *         null if no scope is open
+     */
+    public static StatementCounts current()
+    {
+        return SCOPES.get().peek();
+    }
+
+    public static void countStatements( int count )
+    {
+        forEachScope( counts -> counts.addStatements( count ) );
+    }
+
+    public static void countEntityLoad()
+    {
+        forEachScope( StatementCounts::addEntityLoad );
+    }
+
+    public static void countCollectionLoad()
+    {
+        forEachScope( StatementCounts::addCollectionLoad );
+    }
+
+    private static void forEachScope( Consumer<StatementCounts> action )
+    {
+        Deque<StatementCounts> scopes = SCOPES.get();
+        if ( scopes.isEmpty() )
+        {
+            SCOPES.remove();
+            return;
+        }
+        scopes.forEach( action );
+    }
+}
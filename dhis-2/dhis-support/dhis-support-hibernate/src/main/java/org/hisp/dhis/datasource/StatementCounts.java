@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import lombok.Getter;
+
+/**
+ * Number of JDBC statements, Hibernate entity loads and collection
+ * initializations counted within a {@link StatementCounter} scope.
+ */
+@Getter
+public final class StatementCounts
+{
+    private long statements;
+
+    private long entityLoads;
+
+    private long collectionLoads;
+
+    void addStatements( int count )
+    {
+        statements += count;
+    }
+
+    void addEntityLoad()
+    {
+        entityLoads++;
+    }
+
+    void addCollectionLoad()
+    {
+        collectionLoads++;
+    }
+
+    /**
+     * @return sum of entity loads and collection initializations
+     */
+    public long getLoads()
+    {
+        return entityLoads + collectionLoads;
+    }
+
+    /**
+     * @param statementBudget max number of JDBC statements
+     * @param loadBudget max number of entity loads and collection
+     *        initializations
+     * @return true, if either of the budgets is exceeded
+     */
+    public boolean isExceeding( long statementBudget, long loadBudget )
+    {
+        return statements > statementBudget || getLoads() > loadBudget;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "statements: " + statements + ", entity loads: " + entityLoads + ", collection loads: "
+            + collectionLoads;
+    }
+}
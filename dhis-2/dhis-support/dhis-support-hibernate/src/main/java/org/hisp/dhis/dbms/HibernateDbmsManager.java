@@ -87,6 +87,7 @@ public class HibernateDbmsManager
 
         emptyTable( "datavalueaudit" );
         emptyTable( "datavalue" );
+        emptyTable( "datavaluestatistics" );
         emptyTable( "completedatasetregistration" );
 
         emptyTable( "pushanalysisrecipientusergroups" );
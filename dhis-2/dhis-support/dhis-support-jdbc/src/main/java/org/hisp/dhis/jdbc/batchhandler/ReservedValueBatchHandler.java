@@ -96,7 +96,7 @@ public class ReservedValueBatchHandler
     @Override
     public List<String> getColumns()
     {
-        return getStringList( "ownerobject", "owneruid", "key", "value", "expirydate", "created" );
+        return getStringList( "ownerobject", "owneruid", "key", "value", "expirydate", "created", "pooled" );
     }
 
     @Override
@@ -108,7 +108,8 @@ public class ReservedValueBatchHandler
             object.getKey(),
             object.getValue(),
             object.getExpiryDate(),
-            object.getCreated() );
+            object.getCreated(),
+            object.isPooled() );
     }
 
     @Override
@@ -119,7 +120,8 @@ public class ReservedValueBatchHandler
             .ownerObject( resultSet.getString( "ownerobject" ) ).ownerUid( resultSet.getString( "ownerUid" ) )
             .key( resultSet.getString( "key" ) ).value( resultSet.getString( "value" ) )
             .expiryDate( resultSet.getDate( "expirydate" ) )
-            .created( resultSet.getDate( "created" ) ).build();
+            .created( resultSet.getDate( "created" ) )
+            .pooled( resultSet.getBoolean( "pooled" ) ).build();
     }
 
     @Override
@@ -129,4 +129,14 @@ public interface CacheProvider
     <V> Cache<V> createCompletedJobsInfoCache();
 
     <V> Cache<V> createJobCancelRequestedCache();
+
+    <V> Cache<V> createKeyJsonValueCache();
+
+    <V> Cache<V> createKeyJsonNamespaceKeysCache();
+
+    <V> Cache<V> createCompiledExpressionCache();
+
+    <V> Cache<V> createMapImageCache();
+
+    <V> Cache<V> createOrgUnitSimplifiedGeometryCache();
 }
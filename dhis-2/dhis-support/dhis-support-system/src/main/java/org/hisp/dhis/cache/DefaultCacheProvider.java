@@ -127,7 +127,12 @@ public class DefaultCacheProvider
         securityCache,
         runningJobsInfo,
         completedJobsInfo,
-        jobCancelRequested
+        jobCancelRequested,
+        keyJsonValueCache,
+        keyJsonNamespaceKeysCache,
+        compiledExpressionCache,
+        mapImageCache,
+        orgUnitSimplifiedGeometryCache
     }
 
     private final Map<String, Cache<?>> allCaches = new ConcurrentHashMap<>();
@@ -598,4 +603,74 @@ public class DefaultCacheProvider
             .forRegion( Region.jobCancelRequested.name() )
             .expireAfterWrite( 60, SECONDS ) );
     }
+
+    @Override
+    public <V> Cache<V> createKeyJsonValueCache()
+    {
+        return registerCache( this.<V> newBuilder()
+            .forRegion( Region.keyJsonValueCache.name() )
+            .expireAfterWrite( 1, TimeUnit.HOURS )
+            .withInitialCapacity( (int) getActualSize( SIZE_1K ) )
+            .forceInMemory()
+            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
+    }
+
+    @Override
+    public <V> Cache<V> createKeyJsonNamespaceKeysCache()
+    {
+        return registerCache( this.<V> newBuilder()
+            .forRegion( Region.keyJsonNamespaceKeysCache.name() )
+            .expireAfterWrite( 1, TimeUnit.HOURS )
+            .withInitialCapacity( (int) getActualSize( SIZE_100 ) )
+            .forceInMemory()
+            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_1K ) ) ) );
+    }
+
+    /**
+     * Compiled expressions hold ANTLR parse trees, so they are always kept in
+     * memory. They only depend on the expression text and are never
+     * invalidated.
+     */
+    @Override
+    public <V> Cache<V> createCompiledExpressionCache()
+    {
+        return registerCache( this.<V> newBuilder()
+            .forRegion( Region.compiledExpressionCache.name() )
+            .expireAfterAccess( 12, TimeUnit.HOURS )
+            .withInitialCapacity( (int) getActualSize( SIZE_1K ) )
+            .forceInMemory()
+            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
+    }
+
+    /**
+     * Rendered map images as PNG. Keys include the last analytics table and
+     * organisation unit updates, so stale images are never hit and just age
+     * out.
+     */
+    @Override
+    public <V> Cache<V> createMapImageCache()
+    {
+        return registerCache( this.<V> newBuilder()
+            .forRegion( Region.mapImageCache.name() )
+            .expireAfterWrite( 12, TimeUnit.HOURS )
+            .withInitialCapacity( (int) getActualSize( SIZE_100 ) )
+            .forceInMemory()
+            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_500 ) ) ) );
+    }
+
+    /**
+     * Simplified organisation unit geometries hold JTS objects, so they are
+     * always kept in memory. Keys include the last update of the
+     * organisation unit.
+     */
+    @Override
+    public <V> Cache<V> createOrgUnitSimplifiedGeometryCache()
+    {
+        return registerCache( this.<V> newBuilder()
+            .forRegion( Region.orgUnitSimplifiedGeometryCache.name() )
+            .expireAfterAccess( 12, TimeUnit.HOURS )
+            .withInitialCapacity( (int) getActualSize( SIZE_1K ) )
+            .forceInMemory()
+            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_10K ) ) ) );
+    }
 }
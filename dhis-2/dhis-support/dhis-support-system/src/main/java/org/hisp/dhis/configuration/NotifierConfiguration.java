@@ -29,7 +29,10 @@ package org.hisp.dhis.configuration;
 
 import org.hisp.dhis.condition.RedisDisabledCondition;
 import org.hisp.dhis.condition.RedisEnabledCondition;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.system.notification.InMemoryNotifier;
+import org.hisp.dhis.system.notification.NotificationMap;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.system.notification.RedisNotifier;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -62,8 +65,16 @@ public class NotifierConfiguration
 
     @Bean( "notifier" )
     @Conditional( RedisDisabledCondition.class )
-    public Notifier inMemoryNotifier()
+    public Notifier inMemoryNotifier( DhisConfigurationProvider config )
     {
-        return new InMemoryNotifier();
+        return new InMemoryNotifier( new NotificationMap(
+            getInt( config, ConfigurationKey.SYSTEM_NOTIFICATIONS_RETAIN_FIRST ),
+            getInt( config, ConfigurationKey.SYSTEM_NOTIFICATIONS_RETAIN_LAST ),
+            getInt( config, ConfigurationKey.SYSTEM_NOTIFICATIONS_RETAIN_ERRORS ) ) );
+    }
+
+    private static int getInt( DhisConfigurationProvider config, ConfigurationKey key )
+    {
+        return Integer.parseInt( config.getProperty( key ) );
     }
 }
\ No newline at end of file
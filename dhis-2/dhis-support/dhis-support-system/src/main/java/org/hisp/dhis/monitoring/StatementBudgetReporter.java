@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.monitoring;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.datasource.StatementCounter;
+import org.hisp.dhis.datasource.StatementCounts;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Checks the {@link StatementCounts} of an API request or job stage against the
+ * configured statement budget. Scopes exceeding the budget are logged as slow
+ * path with a warning.
+ * <p>
+ * Counts are published as {@value #COUNT_METRIC}, tagged by scope and kind,
+ * scopes exceeding the budget as {@value #EXCEEDED_METRIC}, tagged by scope.
+ */
+@Slf4j
+@Component
+public class StatementBudgetReporter
+{
+    public static final String COUNT_METRIC = "statement.budget.count";
+
+    public static final String EXCEEDED_METRIC = "statement.budget.exceeded";
+
+    public static final String REQUEST_SCOPE = "request";
+
+    public static final String JOB_STAGE_SCOPE = "job_stage";
+
+    @Getter
+    private final boolean enabled;
+
+    @Getter
+    private final long statementBudget;
+
+    @Getter
+    private final long loadBudget;
+
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    private MeterRegistry meterRegistry;
+
+    public StatementBudgetReporter( DhisConfigurationProvider config )
+    {
+        this.enabled = config.isEnabled( ConfigurationKey.STATEMENT_BUDGET_ENABLED );
+        this.statementBudget = Long.parseLong( config.getProperty( ConfigurationKey.STATEMENT_BUDGET ) );
+        this.loadBudget = Long.parseLong( config.getProperty( ConfigurationKey.STATEMENT_BUDGET_LOADS ) );
+
+        if ( enabled )
+        {
+            log.info( "Statement budget per request and job stage: {} statements, {} loads", statementBudget,
+                loadBudget );
+        }
+    }
+
+    @Autowired( required = false )
+    public void setMeterRegistry( MeterRegistry meterRegistry )
+    {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Opens a counting scope on the current thread if the statement budget is
+     * enabled.
+     *
+     * @return true, if a scope was opened and must be closed by
+     *         {@link #stop(String, String)}
+     */
+    public boolean start()
+    {
+        if ( !enabled )
+        {
+            return false;
+        }
+        StatementCounter.start();
+        return true;
+    }
+
+    /**
+     * Closes the innermost counting scope of the current thread and reports
+     * its counts.
+     *
+     * @param scope the kind of scope, e.g. {@link #REQUEST_SCOPE}
+     * @param name describes the request or job stage in the log
+     * @return the counts of the closed scope, or null if no scope was open
+     */
+    public StatementCounts stop( String scope, String name )
+    {
+        StatementCounts counts = StatementCounter.stop();
+
+        if ( counts != null )
+        {
+            report( scope, name, counts );
+        }
+
+        return counts;
+    }
+
+    /**
+     * Reports the given counts to the metrics and logs them as slow path if
+     * they exceed the budget.
+     *
+     * @param scope the kind of scope, e.g. {@link #REQUEST_SCOPE}
+     * @param name describes the request or job stage in the log
+     * @param counts the counts of the scope
+     */
+    public void report( String scope, String name, StatementCounts counts )
+    {
+        boolean exceeding = counts.isExceeding( statementBudget, loadBudget );
+
+        if ( meterRegistry != null )
+        {
+            Meters scopeMeters = meters.computeIfAbsent( scope, key -> new Meters( key, meterRegistry ) );
+            scopeMeters.statements.record( counts.getStatements() );
+            scopeMeters.entityLoads.record( counts.getEntityLoads() );
+            scopeMeters.collectionLoads.record( counts.getCollectionLoads() );
+
+            if ( exceeding )
+            {
+                scopeMeters.exceeded.increment();
+            }
+        }
+
+        if ( exceeding )
+        {
+            log.warn( "Statement budget exceeded by {} {}, {}", scope.replace( '_', ' ' ), name, counts );
+        }
+    }
+
+    private static final class Meters
+    {
+        private final DistributionSummary statements;
+
+        private final DistributionSummary entityLoads;
+
+        private final DistributionSummary collectionLoads;
+
+        private final Counter exceeded;
+
+        Meters( String scope, MeterRegistry registry )
+        {
+            this.statements = summary( scope, "statements", registry );
+            this.entityLoads = summary( scope, "entity_loads", registry );
+            this.collectionLoads = summary( scope, "collection_loads", registry );
+            this.exceeded = Counter.builder( EXCEEDED_METRIC ).tag( "scope", scope )
+                .description( "Scopes exceeding the statement budget" ).register( registry );
+        }
+
+        private static DistributionSummary summary( String scope, String kind, MeterRegistry registry )
+        {
+            return DistributionSummary.builder( COUNT_METRIC ).tag( "scope", scope ).tag( "kind", kind )
+                .description( "Statements and loads per scope" ).register( registry );
+        }
+    }
+}
@@ -43,7 +43,17 @@ import org.hisp.dhis.scheduling.JobType;
 @Slf4j
 public class InMemoryNotifier implements Notifier
 {
-    private final NotificationMap notificationMap = new NotificationMap();
+    private final NotificationMap notificationMap;
+
+    public InMemoryNotifier()
+    {
+        this( new NotificationMap() );
+    }
+
+    public InMemoryNotifier( NotificationMap notificationMap )
+    {
+        this.notificationMap = notificationMap;
+    }
 
     // -------------------------------------------------------------------------
     // Notifier implementation
@@ -122,6 +132,12 @@ public class InMemoryNotifier implements Notifier
         return notificationMap.getNotificationsByJobId( jobType, jobId );
     }
 
+    @Override
+    public NotificationPage getNotificationsByJobId( JobType jobType, String jobId, long cursor )
+    {
+        return notificationMap.getNotificationsByJobId( jobType, jobId, cursor );
+    }
+
     @Override
     public Map<String, Deque<Notification>> getNotificationsByJobType( JobType jobType )
     {
@@ -168,4 +184,10 @@ public class InMemoryNotifier implements Notifier
     {
         return notificationMap.getSummary( jobType, jobId );
     }
+
+    @Override
+    public Map<JobType, NotificationMemoryUsage> getNotificationMemoryUsage()
+    {
+        return notificationMap.getMemoryUsage();
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.notification;
+
+import static java.util.Comparator.reverseOrder;
+
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free store of the notifications of a single job.
+ * <p>
+ * The store keeps the first {@code first} notifications of the job, the last
+ * {@code last} notifications in a ring buffer and up to {@code errors} error
+ * notifications which fell out of both. Every notification is assigned a
+ * sequence number which is used as cursor by clients polling for
+ * notifications added since their last read.
+ */
+final class JobNotifications
+{
+    /**
+     * Rough estimate of the fixed size of a retained notification, the
+     * {@link Notification} object with its uid and date plus the entry and
+     * buffer slot holding it.
+     */
+    private static final int NOTIFICATION_BASE_BYTES = 160;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicReferenceArray<Entry> head;
+
+    private final AtomicReferenceArray<Entry> tail;
+
+    private final Queue<Entry> errors = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger errorCount = new AtomicInteger();
+
+    private final int maxErrors;
+
+    JobNotifications( int first, int last, int errors )
+    {
+        this.head = new AtomicReferenceArray<>( Math.max( 0, first ) );
+        this.tail = new AtomicReferenceArray<>( Math.max( 1, last ) );
+        this.maxErrors = Math.max( 0, errors );
+    }
+
+    /**
+     * @return the sequence number assigned to the added notification
+     */
+    long add( Notification notification )
+    {
+        long seq = sequence.getAndIncrement();
+        Entry entry = new Entry( seq, notification );
+
+        if ( seq < head.length() )
+        {
+            head.set( (int) seq, entry );
+            return seq;
+        }
+
+        tail.set( (int) (seq % tail.length()), entry );
+
+        if ( notification.getLevel() == NotificationLevel.ERROR && errorCount.getAndIncrement() < maxErrors )
+        {
+            errors.add( entry );
+        }
+
+        return seq;
+    }
+
+    /**
+     * @return a copy of all retained notifications, most recent first
+     */
+    Deque<Notification> getNotifications()
+    {
+        return new LinkedList<>( collect( 0 ).values() );
+    }
+
+    /**
+     * @param cursor only notifications added at or after this cursor are
+     *        returned, use 0 for all retained notifications
+     * @return a copy of the matching notifications, most recent first, and the
+     *         cursor for the next read
+     */
+    NotificationPage getNotifications( long cursor )
+    {
+        TreeMap<Long, Notification> bySeq = collect( cursor );
+
+        long next = bySeq.isEmpty() ? cursor : bySeq.firstKey() + 1;
+
+        return new NotificationPage( new LinkedList<>( bySeq.values() ), next );
+    }
+
+    NotificationMemoryUsage getMemoryUsage()
+    {
+        Map<Long, Notification> retained = collect( 0 );
+        long bytes = 0;
+
+        for ( Notification notification : retained.values() )
+        {
+            String message = notification.getMessage();
+            bytes += NOTIFICATION_BASE_BYTES + (message == null ? 0 : 2L * message.length());
+        }
+
+        return new NotificationMemoryUsage( 1, retained.size(), sequence.get() - retained.size(), bytes );
+    }
+
+    private TreeMap<Long, Notification> collect( long cursor )
+    {
+        TreeMap<Long, Notification> bySeq = new TreeMap<>( reverseOrder() );
+
+        collect( head, cursor, bySeq );
+        collect( tail, cursor, bySeq );
+
+        for ( Entry entry : errors )
+        {
+            if ( entry.seq >= cursor )
+            {
+                bySeq.put( entry.seq, entry.notification );
+            }
+        }
+
+        return bySeq;
+    }
+
+    private static void collect( AtomicReferenceArray<Entry> buffer, long cursor, Map<Long, Notification> bySeq )
+    {
+        for ( int i = 0; i < buffer.length(); i++ )
+        {
+            Entry entry = buffer.get( i );
+
+            if ( entry != null && entry.seq >= cursor )
+            {
+                bySeq.put( entry.seq, entry.notification );
+            }
+        }
+    }
+
+    private static final class Entry
+    {
+        private final long seq;
+
+        private final Notification notification;
+
+        private Entry( long seq, Notification notification )
+        {
+            this.seq = seq;
+            this.notification = notification;
+        }
+    }
+}
@@ -32,6 +32,7 @@ import static java.util.Collections.unmodifiableMap;
 
 import java.util.Deque;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -41,13 +42,24 @@ import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.scheduling.JobType;
 
 /**
+ * Keeps the notifications and summaries of the most recent
+ * {@link #MAX_POOL_TYPE_SIZE} jobs of each job type. The notifications of each
+ * job are held in a bounded {@link JobNotifications} store which retains the
+ * first, the last and the error notifications of the job.
+ *
  * @author Henning Håkonsen
  */
 public class NotificationMap
 {
     public static final int MAX_POOL_TYPE_SIZE = 500;
 
-    private final Map<JobType, Map<String, Deque<Notification>>> notificationsWithType = new EnumMap<>( JobType.class );
+    public static final int DEFAULT_RETAIN_FIRST = 100;
+
+    public static final int DEFAULT_RETAIN_LAST = 500;
+
+    public static final int DEFAULT_RETAIN_ERRORS = 500;
+
+    private final Map<JobType, Map<String, JobNotifications>> notificationsWithType = new EnumMap<>( JobType.class );
 
     private final Map<JobType, Map<String, Object>> summariesWithType = new EnumMap<>( JobType.class );
 
@@ -55,8 +67,23 @@ public class NotificationMap
 
     private final Map<JobType, Deque<String>> summariesJobIdOrder = new EnumMap<>( JobType.class );
 
+    private final int retainFirst;
+
+    private final int retainLast;
+
+    private final int retainErrors;
+
     NotificationMap()
     {
+        this( DEFAULT_RETAIN_FIRST, DEFAULT_RETAIN_LAST, DEFAULT_RETAIN_ERRORS );
+    }
+
+    public NotificationMap( int retainFirst, int retainLast, int retainErrors )
+    {
+        this.retainFirst = retainFirst;
+        this.retainLast = retainLast;
+        this.retainErrors = retainErrors;
+
         stream( JobType.values() ).forEach( jobType -> {
             notificationsWithType.put( jobType, new ConcurrentHashMap<>() );
             summariesWithType.put( jobType, new ConcurrentHashMap<>() );
@@ -67,19 +94,48 @@ public class NotificationMap
 
     public Map<JobType, Map<String, Deque<Notification>>> getNotifications()
     {
-        return unmodifiableMap( notificationsWithType );
+        Map<JobType, Map<String, Deque<Notification>>> notifications = new EnumMap<>( JobType.class );
+        stream( JobType.values() )
+            .forEach( jobType -> notifications.put( jobType, getNotificationsWithType( jobType ) ) );
+        return unmodifiableMap( notifications );
     }
 
     public Deque<Notification> getNotificationsByJobId( JobType jobType, String jobId )
     {
-        Deque<Notification> notifications = notificationsWithType.get( jobType ).get( jobId );
+        JobNotifications notifications = notificationsWithType.get( jobType ).get( jobId );
         // return a defensive copy
-        return notifications == null ? new LinkedList<>() : new LinkedList<>( notifications );
+        return notifications == null ? new LinkedList<>() : notifications.getNotifications();
+    }
+
+    public NotificationPage getNotificationsByJobId( JobType jobType, String jobId, long cursor )
+    {
+        JobNotifications notifications = notificationsWithType.get( jobType ).get( jobId );
+        return notifications == null
+            ? new NotificationPage( new LinkedList<>(), cursor )
+            : notifications.getNotifications( cursor );
     }
 
     public Map<String, Deque<Notification>> getNotificationsWithType( JobType jobType )
     {
-        return unmodifiableMap( notificationsWithType.get( jobType ) );
+        Map<String, Deque<Notification>> notifications = new LinkedHashMap<>();
+        notificationsWithType.get( jobType )
+            .forEach( ( jobId, jobNotifications ) -> notifications.put( jobId, jobNotifications.getNotifications() ) );
+        return unmodifiableMap( notifications );
+    }
+
+    public Map<JobType, NotificationMemoryUsage> getMemoryUsage()
+    {
+        Map<JobType, NotificationMemoryUsage> usage = new EnumMap<>( JobType.class );
+        notificationsWithType.forEach( ( jobType, jobs ) -> {
+            NotificationMemoryUsage jobTypeUsage = jobs.values().stream()
+                .map( JobNotifications::getMemoryUsage )
+                .reduce( NotificationMemoryUsage.EMPTY, NotificationMemoryUsage::add );
+            if ( jobTypeUsage.getJobs() > 0 )
+            {
+                usage.put( jobType, jobTypeUsage );
+            }
+        } );
+        return usage;
     }
 
     public void add( JobConfiguration configuration, Notification notification )
@@ -90,15 +146,28 @@ public class NotificationMap
             return;
         }
         JobType jobType = configuration.getJobType();
-        Deque<String> notifications = notificationsJobIdOrder.get( jobType );
-        if ( notifications.size() > MAX_POOL_TYPE_SIZE )
+        Map<String, JobNotifications> jobs = notificationsWithType.get( jobType );
+        JobNotifications notifications = jobs.get( jobId );
+        if ( notifications == null )
         {
-            notificationsWithType.get( jobType ).remove( notifications.removeLast() );
+            JobNotifications created = new JobNotifications( retainFirst, retainLast, retainErrors );
+            notifications = jobs.putIfAbsent( jobId, created );
+            if ( notifications == null )
+            {
+                notifications = created;
+                Deque<String> jobIdOrder = notificationsJobIdOrder.get( jobType );
+                jobIdOrder.addFirst( jobId );
+                while ( jobIdOrder.size() > MAX_POOL_TYPE_SIZE )
+                {
+                    String evicted = jobIdOrder.pollLast();
+                    if ( evicted != null )
+                    {
+                        jobs.remove( evicted );
+                    }
+                }
+            }
         }
-        notifications.addFirst( jobId );
-        notificationsWithType.get( jobType )
-            .computeIfAbsent( jobId, key -> new ConcurrentLinkedDeque<>() )
-            .addFirst( notification );
+        notifications.add( notification );
     }
 
     public void addSummary( JobConfiguration configuration, Object summary )
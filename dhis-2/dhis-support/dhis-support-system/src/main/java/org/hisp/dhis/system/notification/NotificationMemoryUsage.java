@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Memory held by the notifications of the jobs of a job type, as reported by
+ * {@link Notifier#getNotificationMemoryUsage()}.
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationMemoryUsage
+{
+    public static final NotificationMemoryUsage EMPTY = new NotificationMemoryUsage( 0, 0, 0, 0 );
+
+    @JsonProperty
+    private final int jobs;
+
+    /**
+     * Number of notifications currently kept in memory.
+     */
+    @JsonProperty
+    private final long retained;
+
+    /**
+     * Number of notifications dropped by the retention policy.
+     */
+    @JsonProperty
+    private final long dropped;
+
+    /**
+     * Estimated number of bytes held by the retained notifications.
+     */
+    @JsonProperty
+    private final long estimatedBytes;
+
+    public NotificationMemoryUsage add( NotificationMemoryUsage other )
+    {
+        return new NotificationMemoryUsage( jobs + other.jobs, retained + other.retained, dropped + other.dropped,
+            estimatedBytes + other.estimatedBytes );
+    }
+}
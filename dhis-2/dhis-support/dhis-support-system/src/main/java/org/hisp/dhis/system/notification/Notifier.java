@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.system.notification;
 
+import static java.util.Collections.emptyMap;
+
 import java.util.Deque;
 import java.util.Map;
 
@@ -56,6 +58,23 @@ public interface Notifier
 
     Deque<Notification> getNotificationsByJobId( JobType jobType, String jobId );
 
+    /**
+     * Cursor based read of the notifications of a job for clients polling for
+     * progress. Implementations not supporting cursors return all
+     * notifications of the job on every read.
+     *
+     * @param jobType the job type
+     * @param jobId the job id
+     * @param cursor the cursor returned by the previous read, 0 on the first
+     *        read
+     * @return the notifications added since the cursor and the cursor for the
+     *         next read
+     */
+    default NotificationPage getNotificationsByJobId( JobType jobType, String jobId, long cursor )
+    {
+        return new NotificationPage( getNotificationsByJobId( jobType, jobId ), 0 );
+    }
+
     Map<String, Deque<Notification>> getNotificationsByJobType( JobType jobType );
 
     Notifier clear( JobConfiguration id );
@@ -67,4 +86,13 @@ public interface Notifier
     Map<String, Object> getJobSummariesForJobType( JobType jobType );
 
     Object getJobSummaryByJobId( JobType jobType, String jobId );
+
+    /**
+     * @return the memory held by notifications per job type, empty if the
+     *         notifications are not kept in memory
+     */
+    default Map<JobType, NotificationMemoryUsage> getNotificationMemoryUsage()
+    {
+        return emptyMap();
+    }
 }
@@ -30,7 +30,13 @@ package org.hisp.dhis.system.notification;
 import static org.hisp.dhis.scheduling.JobType.DATAVALUE_IMPORT;
 import static org.hisp.dhis.system.notification.NotificationMap.MAX_POOL_TYPE_SIZE;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.junit.jupiter.api.Assertions;
@@ -66,4 +72,78 @@ class NotificationMapTest
             .filter( object -> object.equals( "1" ) ).findAny();
         Assertions.assertFalse( notPresentSummary.isPresent() );
     }
+
+    @Test
+    void testRetentionKeepsFirstLastAndErrors()
+    {
+        NotificationMap map = new NotificationMap( 2, 3, 1 );
+        JobConfiguration job = newJob( "job" );
+        for ( int i = 0; i < 20; i++ )
+        {
+            map.add( job, newNotification( i == 7 || i == 9 ? NotificationLevel.ERROR : NotificationLevel.INFO,
+                String.valueOf( i ) ) );
+        }
+
+        assertEquals( List.of( "19", "18", "17", "7", "1", "0" ),
+            messages( map.getNotificationsByJobId( DATAVALUE_IMPORT, "job" ) ) );
+
+        NotificationMemoryUsage usage = map.getMemoryUsage().get( DATAVALUE_IMPORT );
+        assertEquals( 1, usage.getJobs() );
+        assertEquals( 6, usage.getRetained() );
+        assertEquals( 14, usage.getDropped() );
+    }
+
+    @Test
+    void testCursorReturnsOnlyNewerNotifications()
+    {
+        JobConfiguration job = newJob( "job" );
+        mapToTest.add( job, newNotification( NotificationLevel.INFO, "a" ) );
+        mapToTest.add( job, newNotification( NotificationLevel.INFO, "b" ) );
+
+        NotificationPage page = mapToTest.getNotificationsByJobId( DATAVALUE_IMPORT, "job", 0 );
+        assertEquals( List.of( "b", "a" ), messages( page.getNotifications() ) );
+        assertEquals( 2, page.getCursor() );
+
+        mapToTest.add( job, newNotification( NotificationLevel.INFO, "c" ) );
+
+        page = mapToTest.getNotificationsByJobId( DATAVALUE_IMPORT, "job", page.getCursor() );
+        assertEquals( List.of( "c" ), messages( page.getNotifications() ) );
+        assertEquals( 3, page.getCursor() );
+
+        page = mapToTest.getNotificationsByJobId( DATAVALUE_IMPORT, "job", page.getCursor() );
+        assertEquals( List.of(), messages( page.getNotifications() ) );
+        assertEquals( 3, page.getCursor() );
+    }
+
+    @Test
+    void testOldestJobIsRemovedWhenPoolIsFull()
+    {
+        for ( int i = 0; i <= MAX_POOL_TYPE_SIZE; i++ )
+        {
+            JobConfiguration job = newJob( String.valueOf( i ) );
+            mapToTest.add( job, newNotification( NotificationLevel.INFO, "first" ) );
+            mapToTest.add( job, newNotification( NotificationLevel.INFO, "second" ) );
+        }
+
+        assertEquals( MAX_POOL_TYPE_SIZE, mapToTest.getNotificationsWithType( DATAVALUE_IMPORT ).size() );
+        Assertions.assertTrue( mapToTest.getNotificationsByJobId( DATAVALUE_IMPORT, "0" ).isEmpty() );
+        assertEquals( 2, mapToTest.getNotificationsByJobId( DATAVALUE_IMPORT, "1" ).size() );
+    }
+
+    private static JobConfiguration newJob( String uid )
+    {
+        JobConfiguration job = new JobConfiguration( null, DATAVALUE_IMPORT, "userId", false );
+        job.setUid( uid );
+        return job;
+    }
+
+    private static Notification newNotification( NotificationLevel level, String message )
+    {
+        return new Notification( level, DATAVALUE_IMPORT, new Date(), message, false );
+    }
+
+    private static List<String> messages( Deque<Notification> notifications )
+    {
+        return notifications.stream().map( Notification::getMessage ).collect( Collectors.toList() );
+    }
 }
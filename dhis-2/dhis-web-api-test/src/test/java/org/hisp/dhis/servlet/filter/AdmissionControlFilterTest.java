@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.servlet.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.webapi.filter.AdmissionControlFilter;
+import org.hisp.dhis.webapi.filter.AdmissionControlFilter.EndpointClass;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@MockitoSettings( strictness = Strictness.LENIENT )
+@ExtendWith( MockitoExtension.class )
+class AdmissionControlFilterTest
+{
+    @Mock
+    private DhisConfigurationProvider dhisConfigurationProvider;
+
+    @Test
+    void testEndpointClassOf()
+    {
+        assertEquals( EndpointClass.IMPORT, EndpointClass.of( "POST", "/api/dataValueSets" ) );
+        assertEquals( EndpointClass.IMPORT, EndpointClass.of( "POST", "/api/38/dataValueSets.json" ) );
+        assertEquals( EndpointClass.IMPORT, EndpointClass.of( "POST", "/api/tracker" ) );
+        assertEquals( EndpointClass.IMPORT, EndpointClass.of( "POST", "/api/metadata" ) );
+        assertEquals( EndpointClass.METADATA, EndpointClass.of( "GET", "/api/metadata.json" ) );
+        assertEquals( EndpointClass.STATIC, EndpointClass.of( "GET", "/dhis-web-dashboard/index.html" ) );
+        assertEquals( EndpointClass.STATIC, EndpointClass.of( "GET", "/dhis-web-commons/javascripts/main.js" ) );
+        assertEquals( EndpointClass.STATIC, EndpointClass.of( "GET", "/favicon.ico" ) );
+        assertNull( EndpointClass.of( "GET", "/api/analytics" ) );
+        assertNull( EndpointClass.of( "GET", "/api/38/analytics/events/query/abc" ) );
+        assertNull( EndpointClass.of( "GET", "/api/apps/dashboard/index.html" ) );
+        assertNull( EndpointClass.of( "GET", "/dhis-web-commons-security/login.action" ) );
+        assertNull( EndpointClass.of( "GET", "/dhis-web-commons/security/login.action" ) );
+        assertNull( EndpointClass.of( "GET", "/" ) );
+        assertNull( EndpointClass.of( "GET", "/api/dataValueSets" ) );
+        assertNull( EndpointClass.of( "GET", "/api/dataElements" ) );
+        assertNull( EndpointClass.of( "POST", "/api/analyticsTableHooks" ) );
+        assertNull( EndpointClass.of( "POST", "/dhis-web-commons-security/login.action" ) );
+    }
+
+    @Test
+    void testRejectWhenQueueIsFull()
+        throws Exception
+    {
+        AdmissionControlFilter filter = init( true );
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        AtomicInteger processed = new AtomicInteger();
+
+        filter.doFilter( importRequest(), new MockHttpServletResponse(), ( req, res ) -> {
+            processed.incrementAndGet();
+            filter.doFilter( importRequest(), rejected, ( r, s ) -> processed.incrementAndGet() );
+        } );
+
+        assertEquals( 1, processed.get() );
+        assertEquals( 503, rejected.getStatus() );
+        assertEquals( "7", rejected.getHeader( "Retry-After" ) );
+        assertTrue( rejected.getContentAsString().contains( "import" ) );
+    }
+
+    @Test
+    void testAdmitAfterRelease()
+        throws Exception
+    {
+        AdmissionControlFilter filter = init( true );
+        AtomicInteger processed = new AtomicInteger();
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter( importRequest(), response, ( req, res ) -> processed.incrementAndGet() );
+            assertEquals( 200, response.getStatus() );
+        }
+
+        assertEquals( 3, processed.get() );
+    }
+
+    @Test
+    void testIsDisabled()
+        throws Exception
+    {
+        AdmissionControlFilter filter = init( false );
+        AtomicInteger processed = new AtomicInteger();
+
+        filter.doFilter( importRequest(), new MockHttpServletResponse(), ( req, res ) -> {
+            processed.incrementAndGet();
+            filter.doFilter( importRequest(), new MockHttpServletResponse(),
+                ( r, s ) -> processed.incrementAndGet() );
+        } );
+
+        assertEquals( 2, processed.get() );
+    }
+
+    private AdmissionControlFilter init( boolean enabled )
+    {
+        when( dhisConfigurationProvider.isEnabled( ConfigurationKey.SERVER_ADMISSION_ENABLED ) ).thenReturn( enabled );
+        when( dhisConfigurationProvider.getProperty( any() ) ).thenReturn( "1" );
+        when( dhisConfigurationProvider.getProperty( ConfigurationKey.SERVER_ADMISSION_IMPORT_QUEUE ) )
+            .thenReturn( "0" );
+        when( dhisConfigurationProvider.getProperty( ConfigurationKey.SERVER_ADMISSION_RETRY_AFTER ) )
+            .thenReturn( "7" );
+
+        return new AdmissionControlFilter( dhisConfigurationProvider );
+    }
+
+    private static MockHttpServletRequest importRequest()
+    {
+        return new MockHttpServletRequest( "POST", "/api/dataValueSets" );
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.servlet.filter;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.SERVER_COMPRESSION_ENABLED;
+import static org.hisp.dhis.external.conf.ConfigurationKey.SERVER_COMPRESSION_THRESHOLD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.webapi.filter.ContentEncoding;
+import org.hisp.dhis.webapi.filter.ContentEncodingFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@MockitoSettings( strictness = Strictness.LENIENT )
+@ExtendWith( MockitoExtension.class )
+class ContentEncodingFilterTest
+{
+    private static final String LARGE_BODY = StringUtils.repeat( "{\"name\":\"ANC 1st visit\"},", 100 );
+
+    @Mock
+    private DhisConfigurationProvider dhisConfigurationProvider;
+
+    @Test
+    void testCompressLargeResponse()
+        throws Exception
+    {
+        MockHttpServletResponse response = doFilter( true, "gzip, deflate", "application/json", LARGE_BODY );
+
+        assertEquals( "gzip", response.getHeader( "Content-Encoding" ) );
+        assertEquals( "Accept-Encoding", response.getHeader( "Vary" ) );
+        assertEquals( LARGE_BODY, gunzip( response.getContentAsByteArray() ) );
+    }
+
+    @Test
+    void testDoNotCompressSmallResponse()
+        throws Exception
+    {
+        MockHttpServletResponse response = doFilter( true, "gzip", "application/json", "{}" );
+
+        assertNull( response.getHeader( "Content-Encoding" ) );
+        assertEquals( 2, response.getContentLength() );
+        assertEquals( "{}", response.getContentAsString() );
+    }
+
+    @Test
+    void testDoNotCompressBinaryResponse()
+        throws Exception
+    {
+        MockHttpServletResponse response = doFilter( true, "gzip", "image/png", LARGE_BODY );
+
+        assertNull( response.getHeader( "Content-Encoding" ) );
+        assertEquals( LARGE_BODY, response.getContentAsString() );
+    }
+
+    @Test
+    void testDoNotCompressWhenNotAccepted()
+        throws Exception
+    {
+        MockHttpServletResponse response = doFilter( true, "identity", "application/json", LARGE_BODY );
+
+        assertNull( response.getHeader( "Content-Encoding" ) );
+        assertEquals( LARGE_BODY, response.getContentAsString() );
+    }
+
+    @Test
+    void testIsDisabled()
+        throws Exception
+    {
+        MockHttpServletResponse response = doFilter( false, "gzip", "application/json", LARGE_BODY );
+
+        assertNull( response.getHeader( "Content-Encoding" ) );
+        assertEquals( LARGE_BODY, response.getContentAsString() );
+    }
+
+    @Test
+    void testDecompressRequest()
+        throws Exception
+    {
+        init( true );
+
+        MockHttpServletRequest request = new MockHttpServletRequest( "POST", "/api/dataValueSets" );
+        request.addHeader( "Content-Encoding", "gzip" );
+        request.setContent( gzip( LARGE_BODY ) );
+
+        String[] body = new String[2];
+        FilterChain chain = ( req, res ) -> {
+            body[0] = IOUtils.toString( req.getInputStream(), StandardCharsets.UTF_8 );
+            body[1] = ((HttpServletRequest) req).getHeader( "Content-Encoding" );
+        };
+
+        new ContentEncodingFilter( dhisConfigurationProvider ).doFilter( request, new MockHttpServletResponse(),
+            chain );
+
+        assertEquals( LARGE_BODY, body[0] );
+        assertNull( body[1] );
+    }
+
+    @Test
+    void testNegotiate()
+    {
+        assertEquals( ContentEncoding.GZIP, ContentEncoding.negotiate( "gzip;q=0.8, br" ) );
+        assertEquals( ContentEncoding.ZSTD.isAvailable() ? ContentEncoding.ZSTD : ContentEncoding.GZIP,
+            ContentEncoding.negotiate( "*" ) );
+        assertNull( ContentEncoding.negotiate( "gzip;q=0" ) );
+        assertNull( ContentEncoding.negotiate( "deflate" ) );
+        assertNull( ContentEncoding.negotiate( null ) );
+    }
+
+    private MockHttpServletResponse doFilter( boolean enabled, String acceptEncoding, String contentType,
+        String body )
+        throws ServletException,
+        IOException
+    {
+        init( enabled );
+
+        MockHttpServletRequest request = new MockHttpServletRequest( "GET", "/api/dataElements" );
+        request.addHeader( "Accept-Encoding", acceptEncoding );
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FilterChain chain = ( req, res ) -> {
+            res.setContentType( contentType );
+            res.setContentLength( body.length() );
+            res.getOutputStream().write( body.getBytes( StandardCharsets.UTF_8 ) );
+        };
+
+        new ContentEncodingFilter( dhisConfigurationProvider ).doFilter( request, response, chain );
+
+        return response;
+    }
+
+    private void init( boolean enabled )
+    {
+        when( dhisConfigurationProvider.isEnabled( SERVER_COMPRESSION_ENABLED ) ).thenReturn( enabled );
+        when( dhisConfigurationProvider.getProperty( SERVER_COMPRESSION_THRESHOLD ) ).thenReturn( "1024" );
+    }
+
+    private static byte[] gzip( String value )
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( GZIPOutputStream gzip = new GZIPOutputStream( out ) )
+        {
+            gzip.write( value.getBytes( StandardCharsets.UTF_8 ) );
+        }
+
+        return out.toByteArray();
+    }
+
+    private static String gunzip( byte[] value )
+        throws IOException
+    {
+        return IOUtils.toString( new GZIPInputStream( new ByteArrayInputStream( value ) ), StandardCharsets.UTF_8 );
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.servlet.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hisp.dhis.datasource.StatementCounter;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.monitoring.StatementBudgetReporter;
+import org.hisp.dhis.webapi.filter.StatementBudgetFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@MockitoSettings( strictness = Strictness.LENIENT )
+@ExtendWith( MockitoExtension.class )
+class StatementBudgetFilterTest
+{
+    @Mock
+    private DhisConfigurationProvider dhisConfigurationProvider;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp()
+    {
+        registry = new SimpleMeterRegistry();
+        when( dhisConfigurationProvider.getProperty( ConfigurationKey.STATEMENT_BUDGET ) ).thenReturn( "2" );
+        when( dhisConfigurationProvider.getProperty( ConfigurationKey.STATEMENT_BUDGET_LOADS ) ).thenReturn( "3" );
+    }
+
+    @Test
+    void testReportExceedingRequest()
+        throws Exception
+    {
+        StatementBudgetFilter filter = init( true );
+
+        filter.doFilter( request(), new MockHttpServletResponse(), ( req, res ) -> {
+            StatementCounter.countStatements( 3 );
+            StatementCounter.countEntityLoad();
+        } );
+        filter.doFilter( request(), new MockHttpServletResponse(), ( req, res ) -> {
+            StatementCounter.countStatements( 1 );
+            StatementCounter.countCollectionLoad();
+        } );
+
+        assertNull( StatementCounter.current() );
+        assertEquals( 1d, registry.get( StatementBudgetReporter.EXCEEDED_METRIC ).tag( "scope", "request" )
+            .counter().count() );
+        assertEquals( 4d, registry.get( StatementBudgetReporter.COUNT_METRIC ).tag( "scope", "request" )
+            .tag( "kind", "statements" ).summary().totalAmount() );
+        assertEquals( 2L, registry.get( StatementBudgetReporter.COUNT_METRIC ).tag( "scope", "request" )
+            .tag( "kind", "statements" ).summary().count() );
+    }
+
+    @Test
+    void testNestedScopes()
+        throws Exception
+    {
+        StatementBudgetFilter filter = init( true );
+
+        StatementCounter.start();
+        try
+        {
+            filter.doFilter( request(), new MockHttpServletResponse(),
+                ( req, res ) -> StatementCounter.countStatements( 2 ) );
+            assertEquals( 2L, StatementCounter.current().getStatements() );
+        }
+        finally
+        {
+            StatementCounter.stop();
+        }
+        assertNull( StatementCounter.current() );
+    }
+
+    @Test
+    void testIsDisabled()
+        throws Exception
+    {
+        StatementBudgetFilter filter = init( false );
+        AtomicInteger processed = new AtomicInteger();
+
+        filter.doFilter( request(), new MockHttpServletResponse(), ( req, res ) -> {
+            assertNull( StatementCounter.current() );
+            StatementCounter.countStatements( 10 );
+            processed.incrementAndGet();
+        } );
+
+        assertEquals( 1, processed.get() );
+        assertNull( registry.find( StatementBudgetReporter.COUNT_METRIC ).summary() );
+    }
+
+    @Test
+    void testCountsInScope()
+        throws Exception
+    {
+        StatementBudgetFilter filter = init( true );
+
+        filter.doFilter( request(), new MockHttpServletResponse(), ( req, res ) -> {
+            assertNotNull( StatementCounter.current() );
+            StatementCounter.countEntityLoad();
+            StatementCounter.countCollectionLoad();
+            assertEquals( 2L, StatementCounter.current().getLoads() );
+        } );
+
+        assertEquals( 0d, registry.get( StatementBudgetReporter.EXCEEDED_METRIC ).counter().count() );
+    }
+
+    private StatementBudgetFilter init( boolean enabled )
+    {
+        when( dhisConfigurationProvider.isEnabled( ConfigurationKey.STATEMENT_BUDGET_ENABLED ) )
+            .thenReturn( enabled );
+        StatementBudgetReporter reporter = new StatementBudgetReporter( dhisConfigurationProvider );
+        reporter.setMeterRegistry( registry );
+        return new StatementBudgetFilter( reporter );
+    }
+
+    private static MockHttpServletRequest request()
+    {
+        MockHttpServletRequest request = new MockHttpServletRequest( "GET", "/api/dataElements" );
+        request.setContextPath( "" );
+        return request;
+    }
+}
@@ -28,8 +28,11 @@
 package org.hisp.dhis.webapi;
 
 import static org.hisp.dhis.webapi.utils.WebClientUtils.failOnException;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 
+import org.hisp.dhis.datasource.StatementCounter;
+import org.hisp.dhis.datasource.StatementCounts;
 import org.hisp.dhis.jsontree.JsonResponse;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserService;
@@ -131,10 +134,47 @@ public abstract class DhisControllerConvenienceTest extends DhisMockMvcControlle
         return webRequest( multipart( url ).file( part ) );
     }
 
+    /**
+     * Runs the given requests and counts the JDBC statements, entity loads and
+     * collection initializations they cause.
+     *
+     * @param requests the requests to count
+     * @return the counts of the requests
+     */
+    protected final StatementCounts countStatements( Runnable requests )
+    {
+        StatementCounts counts = StatementCounter.start();
+        try
+        {
+            requests.run();
+        }
+        finally
+        {
+            StatementCounter.stop();
+        }
+        return counts;
+    }
+
+    /**
+     * Asserts that the given requests run within the given statement budget.
+     *
+     * @param maxStatements max number of JDBC statements
+     * @param maxLoads max number of entity loads and collection
+     *        initializations
+     * @param requests the requests to count
+     */
+    protected final void assertStatementBudget( long maxStatements, long maxLoads, Runnable requests )
+    {
+        StatementCounts counts = countStatements( requests );
+        assertFalse( counts.isExceeding( maxStatements, maxLoads ),
+            () -> "Expected at most " + maxStatements + " statements and " + maxLoads + " loads but got "
+                + counts );
+    }
+
     @Override
     protected final HttpResponse webRequest( MockHttpServletRequestBuilder request )
     {
         return failOnException( () -> new HttpResponse(
-            toResponse( mvc.perform( request.session( session ) ).andReturn().getResponse() ) ) );
+            toResponse( perform( mvc, request.session( session ) ) ) ) );
     }
 }
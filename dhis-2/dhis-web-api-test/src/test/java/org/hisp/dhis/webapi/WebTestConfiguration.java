@@ -30,6 +30,7 @@ package org.hisp.dhis.webapi;
 import java.beans.PropertyVetoException;
 import java.sql.SQLException;
 import java.util.Date;
+import java.util.Properties;
 
 import javax.sql.DataSource;
 import javax.transaction.Transactional;
@@ -171,7 +172,12 @@ public class WebTestConfiguration
     @Bean( name = "dhisConfigurationProvider" )
     public DhisConfigurationProvider dhisConfigurationProvider()
     {
-        return new H2DhisConfigurationProvider();
+        H2DhisConfigurationProvider provider = new H2DhisConfigurationProvider();
+        // count statements so that tests can assert a statement budget
+        Properties properties = new Properties();
+        properties.put( ConfigurationKey.STATEMENT_BUDGET_ENABLED.getKey(), "on" );
+        provider.addProperties( properties );
+        return provider;
     }
 
     @Bean
@@ -32,6 +32,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.hisp.dhis.keyjsonvalue.MetadataKeyJsonService.METADATA_STORE_NS;
 import static org.hisp.dhis.utils.Assertions.assertContainsOnly;
+import static org.hisp.dhis.webapi.WebClient.Header;
 import static org.hisp.dhis.webapi.utils.WebClientUtils.assertSeries;
 import static org.hisp.dhis.webapi.utils.WebClientUtils.assertStatus;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -39,11 +40,13 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import org.hisp.dhis.jsontree.JsonResponse;
 import org.hisp.dhis.keyjsonvalue.KeyJsonNamespaceProtection;
 import org.hisp.dhis.keyjsonvalue.KeyJsonNamespaceProtection.ProtectionType;
 import org.hisp.dhis.keyjsonvalue.KeyJsonValue;
 import org.hisp.dhis.keyjsonvalue.KeyJsonValueService;
 import org.hisp.dhis.webapi.DhisControllerConvenienceTest;
+import org.hisp.dhis.webapi.WebClient.HttpResponse;
 import org.hisp.dhis.webapi.json.domain.JsonKeyJsonValue;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -513,6 +516,82 @@ class KeyJsonValueControllerTest extends DhisControllerConvenienceTest
         assertStatus( HttpStatus.OK, DELETE( "/dataStore/pets/cat" ) );
     }
 
+    @Test
+    void testGetKeyJsonValue_NotModified()
+    {
+        assertStatus( HttpStatus.CREATED, POST( "/dataStore/pets/cat", "{\"a\":42}" ) );
+        HttpResponse response = GET( "/dataStore/pets/cat" );
+        assertStatus( HttpStatus.OK, response );
+        String etag = response.header( "ETag" );
+        assertNotNull( etag );
+
+        assertStatus( HttpStatus.NOT_MODIFIED, GET( "/dataStore/pets/cat", Header( "If-None-Match", etag ) ) );
+
+        assertStatus( HttpStatus.OK, PUT( "/dataStore/pets/cat", "{\"a\":43}" ) );
+        assertStatus( HttpStatus.OK, GET( "/dataStore/pets/cat", Header( "If-None-Match", etag ) ) );
+    }
+
+    @Test
+    void testGetKeysInNamespace_NotModified()
+    {
+        assertStatus( HttpStatus.CREATED, POST( "/dataStore/pets/cat", "{}" ) );
+        String etag = GET( "/dataStore/pets" ).header( "ETag" );
+        assertNotNull( etag );
+
+        assertStatus( HttpStatus.NOT_MODIFIED, GET( "/dataStore/pets", Header( "If-None-Match", etag ) ) );
+
+        assertStatus( HttpStatus.CREATED, POST( "/dataStore/pets/dog", "{}" ) );
+        assertStatus( HttpStatus.OK, GET( "/dataStore/pets", Header( "If-None-Match", etag ) ) );
+    }
+
+    @Test
+    void testGetKeyJsonValues()
+    {
+        assertStatus( HttpStatus.CREATED, POST( "/dataStore/pets/cat", "{\"a\":42}" ) );
+        assertStatus( HttpStatus.CREATED, POST( "/dataStore/pets/dog", "false" ) );
+        assertStatus( HttpStatus.CREATED, POST( "/dataStore/pets/pet", "[42]" ) );
+
+        JsonResponse values = GET( "/dataStore/pets?keys=cat,pet,missing" ).content();
+        assertEquals( 2, values.size() );
+        assertEquals( 42, values.getObject( "cat" ).getNumber( "a" ).intValue() );
+        assertEquals( singletonList( 42 ), values.getArray( "pet" ).numberValues() );
+    }
+
+    @Test
+    void testSaveOrUpdateKeyJsonValues()
+    {
+        assertStatus( HttpStatus.CREATED, POST( "/dataStore/pets/cat", "{\"a\":42}" ) );
+
+        assertStatus( HttpStatus.OK, PUT( "/dataStore/pets", "{'cat':{'a':1},'dog':[1,2],'pet':true}" ) );
+
+        assertContainsOnly( GET( "/dataStore/pets" ).content().stringValues(), "cat", "dog", "pet" );
+        assertEquals( 1, GET( "/dataStore/pets/cat" ).content().getNumber( "a" ).intValue() );
+        assertEquals( asList( 1, 2 ), GET( "/dataStore/pets/dog" ).content().numberValues() );
+        assertTrue( GET( "/dataStore/pets/pet" ).content().booleanValue() );
+    }
+
+    @Test
+    void testSaveOrUpdateKeyJsonValues_ProtectedNamespaceWhenRestricted()
+    {
+        setUpNamespaceProtection( "pets", ProtectionType.RESTRICTED, "pets-admin" );
+        // a user without required authority cannot write
+        switchToNewUser( "someone" );
+        assertStatus( HttpStatus.FORBIDDEN, PUT( "/dataStore/pets", "{'cat':{}}" ) );
+        // a user with required authority can
+        switchToNewUser( "someone-else", "pets-admin" );
+        assertStatus( HttpStatus.OK, PUT( "/dataStore/pets", "{'cat':{}}" ) );
+    }
+
+    @Test
+    void testDeleteKeyJsonValues()
+    {
+        assertStatus( HttpStatus.OK, PUT( "/dataStore/pets", "{'cat':{},'dog':[],'pet':1}" ) );
+
+        assertStatus( HttpStatus.OK, DELETE( "/dataStore/pets?keys=cat,pet" ) );
+
+        assertEquals( singletonList( "dog" ), GET( "/dataStore/pets" ).content().stringValues() );
+    }
+
     private void setUpNamespaceProtection( String namespace, ProtectionType readWrite, String... authorities )
     {
         service.addProtection( new KeyJsonNamespaceProtection( namespace, readWrite, false, authorities ) );
@@ -57,6 +57,12 @@ class MeControllerTest extends DhisControllerConvenienceTest
         assertEquals( getCurrentUser().getUid(), GET( "/me" ).content().as( JsonUser.class ).getId() );
     }
 
+    @Test
+    void testGetCurrentUserStatementBudget()
+    {
+        assertStatementBudget( 200, 2000, () -> assertStatus( HttpStatus.OK, GET( "/me" ) ) );
+    }
+
     @Test
     void testGetCurrentUserDataApprovalWorkflows()
     {
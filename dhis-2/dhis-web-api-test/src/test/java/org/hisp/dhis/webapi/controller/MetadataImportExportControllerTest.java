@@ -30,8 +30,11 @@ package org.hisp.dhis.webapi.controller;
 import static org.hisp.dhis.webapi.WebClient.Body;
 import static org.hisp.dhis.webapi.WebClient.ContentType;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.hisp.dhis.feedback.ErrorCode;
+import org.hisp.dhis.jsontree.JsonArray;
 import org.hisp.dhis.jsontree.JsonObject;
 import org.hisp.dhis.webapi.DhisControllerConvenienceTest;
 import org.hisp.dhis.webapi.json.domain.JsonImportSummary;
@@ -82,6 +85,21 @@ class MetadataImportExportControllerTest extends DhisControllerConvenienceTest
         assertEquals( "OK", report.getString( "status" ).string() );
     }
 
+    @Test
+    void testGetMetadata_Stream()
+    {
+        assertStatus( HttpStatus.OK, POST( "/38/metadata",
+            "{'organisationUnits':[{'name':'My Unit', 'shortName':'OU1', 'openingDate': '2020-01-01'}]}" ) );
+
+        JsonObject metadata = GET( "/metadata?stream=true&organisationUnits=true&fields=id,name" )
+            .content( HttpStatus.OK );
+        assertTrue( metadata.getObject( "system" ).isObject() );
+        JsonArray units = metadata.getArray( "organisationUnits" );
+        assertEquals( 1, units.size() );
+        assertEquals( "My Unit", units.getObject( 0 ).getString( "name" ).string() );
+        assertFalse( metadata.has( "dataElements" ) );
+    }
+
     @Test
     void testPostCsvMetadata()
     {
@@ -32,8 +32,13 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.hisp.dhis.jsontree.JsonArray;
 import org.hisp.dhis.jsontree.JsonObject;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.webapi.DhisControllerConvenienceTest;
+import org.hisp.dhis.webapi.WebClient.HttpResponse;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 
 /**
@@ -43,6 +48,8 @@ import org.springframework.http.HttpStatus;
  */
 class SystemControllerTest extends DhisControllerConvenienceTest
 {
+    @Autowired
+    private Notifier notifier;
 
     @Test
     void testGetTasksJson()
@@ -71,6 +78,42 @@ class SystemControllerTest extends DhisControllerConvenienceTest
         assertEquals( 0, task.size() );
     }
 
+    @Test
+    void testGetTaskJsonByUid_Cursor()
+    {
+        JobConfiguration job = new JobConfiguration( null, JobType.META_DATA_SYNC, "userId", false );
+        job.setUid( "cursorJob" );
+        notifier.notify( job, "Sync started" );
+        notifier.notify( job, "Sync working" );
+
+        HttpResponse response = GET( "/system/tasks/META_DATA_SYNC/cursorJob?cursor=0" );
+        JsonArray all = response.content( HttpStatus.OK );
+        assertEquals( 2, all.size() );
+        String cursor = response.header( SystemController.HEADER_NOTIFICATION_CURSOR );
+        assertEquals( "2", cursor );
+
+        notifier.notify( job, "Sync done" );
+
+        JsonArray newer = GET( "/system/tasks/META_DATA_SYNC/cursorJob?cursor={cursor}", cursor )
+            .content( HttpStatus.OK );
+        assertEquals( 1, newer.size() );
+        assertEquals( "Sync done", newer.getObject( 0 ).getString( "message" ).string() );
+    }
+
+    @Test
+    void testGetTasksMemoryUsage()
+    {
+        JobConfiguration job = new JobConfiguration( null, JobType.DATA_INTEGRITY, "userId", false );
+        job.setUid( "memoryJob" );
+        notifier.notify( job, "Integrity check started" );
+
+        JsonObject usage = GET( "/system/tasks/memory" ).content( HttpStatus.OK );
+        JsonObject dataIntegrity = usage.getObject( "DATA_INTEGRITY" );
+        assertTrue( dataIntegrity.isObject() );
+        assertTrue( dataIntegrity.getNumber( "retained" ).intValue() >= 1 );
+        assertTrue( dataIntegrity.getNumber( "estimatedBytes" ).intValue() > 0 );
+    }
+
     @Test
     void testGetTaskSummaryExtendedJson()
     {
@@ -37,6 +37,8 @@ import java.util.stream.Stream;
 
 import lombok.AllArgsConstructor;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
 /**
  * Helper to stream write potentially deeply structured JSON directly to an
  * {@link PrintWriter} based on simple input data {@link Stream}s.
@@ -98,6 +100,31 @@ public final class JsonWriter implements AutoCloseable
         out.write( "]" );
     }
 
+    /**
+     * Writes a JSON object from a {@link Stream} of entries each having a
+     * unique key used as member name and a value that already is valid JSON.
+     *
+     * @param entries a stream of entries, each entry has a unique key and a
+     *        JSON value
+     */
+    public void writeObject( Stream<? extends Entry<String, String>> entries )
+    {
+        AtomicBoolean first = new AtomicBoolean( true );
+        out.write( "{" );
+        entries.forEachOrdered( entry -> {
+            if ( !first.compareAndSet( true, false ) )
+            {
+                out.write( "," );
+            }
+            out.write( '"' );
+            out.write( JsonStringEncoder.getInstance().quoteAsString( entry.getKey() ) );
+            out.write( "\":" );
+            String value = entry.getValue();
+            out.write( value == null ? "null" : value );
+        } );
+        out.write( "}" );
+    }
+
     private static List<String> memberOpening( List<String> members )
     {
         List<String> openings = new ArrayList<>();
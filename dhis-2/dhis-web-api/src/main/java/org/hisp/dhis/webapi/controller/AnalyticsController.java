@@ -28,6 +28,7 @@
 package org.hisp.dhis.webapi.controller;
 
 import static org.hisp.dhis.common.DimensionalObjectUtils.getItemsFromParam;
+import static org.hisp.dhis.webapi.service.AsyncRequestExecutor.Endpoint.ANALYTICS;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.TEXT_HTML_VALUE;
 import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
@@ -48,13 +49,16 @@ import org.hisp.dhis.common.DhisApiVersion;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.cache.CacheStrategy;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
+import org.hisp.dhis.dxf2.webmessage.WebMessageException;
 import org.hisp.dhis.system.grid.GridUtils;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.service.AsyncRequestExecutor;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 /**
  * @author Lars Helge Overland
@@ -81,6 +85,9 @@ public class AnalyticsController
     @NonNull
     private final ContextUtils contextUtils;
 
+    @NonNull
+    private final AsyncRequestExecutor asyncRequestExecutor;
+
     // -------------------------------------------------------------------------
     // Resources
     // -------------------------------------------------------------------------
@@ -96,88 +103,108 @@ public class AnalyticsController
     }
 
     @GetMapping( value = RESOURCE_PATH, produces = { APPLICATION_JSON_VALUE, "application/javascript" } )
-    public @ResponseBody Grid getJson( // JSON, JSONP
+    public @ResponseBody WebAsyncTask<Grid> getJson( // JSON, JSONP
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        return getGrid( criteria, apiVersion, ContextUtils.CONTENT_TYPE_JSON, response );
+        return asyncRequestExecutor.submit( ANALYTICS,
+            () -> getGrid( criteria, apiVersion, ContextUtils.CONTENT_TYPE_JSON, response ) );
     }
 
     @GetMapping( value = RESOURCE_PATH + ".xml" )
-    public void getXml(
+    public WebAsyncTask<Void> getXml(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toXml( getGrid( criteria, apiVersion, ContextUtils.CONTENT_TYPE_XML, response ),
-            response.getOutputStream() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toXml( getGrid( criteria, apiVersion, ContextUtils.CONTENT_TYPE_XML, response ),
+                response.getOutputStream() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + ".html" )
-    public void getHtml(
+    public WebAsyncTask<Void> getHtml(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toHtml( getGrid( criteria, apiVersion, ContextUtils.CONTENT_TYPE_HTML, response ),
-            response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toHtml( getGrid( criteria, apiVersion, ContextUtils.CONTENT_TYPE_HTML, response ),
+                response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + ".html+css" )
-    public void getHtmlCss(
+    public WebAsyncTask<Void> getHtmlCss(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toHtmlCss( getGrid( criteria, apiVersion, ContextUtils.CONTENT_TYPE_HTML, response ),
-            response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toHtmlCss( getGrid( criteria, apiVersion, ContextUtils.CONTENT_TYPE_HTML, response ),
+                response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + ".csv" )
-    public void getCsv(
+    public WebAsyncTask<Void> getCsv(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toCsv( getGridWithAttachment( criteria, apiVersion, ContextUtils.CONTENT_TYPE_CSV,
-            "data.csv", response ), response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toCsv( getGridWithAttachment( criteria, apiVersion, ContextUtils.CONTENT_TYPE_CSV,
+                "data.csv", response ), response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + ".xls" )
-    public void getXls(
+    public WebAsyncTask<Void> getXls(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toXls( getGridWithAttachment( criteria, apiVersion, ContextUtils.CONTENT_TYPE_EXCEL,
-            "data.xls", response ), response.getOutputStream() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toXls( getGridWithAttachment( criteria, apiVersion, ContextUtils.CONTENT_TYPE_EXCEL,
+                "data.xls", response ), response.getOutputStream() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + ".jrxml" )
-    public void getJrxml(
+    public WebAsyncTask<Void> getJrxml(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        final DataQueryRequest request = DataQueryRequest.newBuilder()
-            .fromCriteria( criteria )
-            .apiVersion( apiVersion )
-            .skipMeta( true ).build();
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            final DataQueryRequest request = DataQueryRequest.newBuilder()
+                .fromCriteria( criteria )
+                .apiVersion( apiVersion )
+                .skipMeta( true ).build();
 
-        DataQueryParams params = dataQueryService.getFromRequest( request );
+            DataQueryParams params = dataQueryService.getFromRequest( request );
 
-        contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_XML,
-            CacheStrategy.RESPECT_SYSTEM_SETTING, "data.jrxml", false, params.getLatestEndDate() );
-        Grid grid = analyticsService.getAggregatedDataValues( params );
+            contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_XML,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, "data.jrxml", false, params.getLatestEndDate() );
+            Grid grid = analyticsService.getAggregatedDataValues( params );
 
-        GridUtils.toJrxml( grid, null, response.getWriter() );
+            GridUtils.toJrxml( grid, null, response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/debug/sql", produces = { TEXT_HTML_VALUE, TEXT_PLAIN_VALUE } )
@@ -199,44 +226,50 @@ public class AnalyticsController
     // -------------------------------------------------------------------------
 
     @GetMapping( value = RESOURCE_PATH + RAW_DATA_PATH + ".json" )
-    public @ResponseBody Grid getRawDataJson(
+    public @ResponseBody WebAsyncTask<Grid> getRawDataJson(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        final DataQueryRequest request = DataQueryRequest.newBuilder()
-            .fromCriteria( criteria )
-            .apiVersion( apiVersion )
-            .allowAllPeriods( true ).build();
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            final DataQueryRequest request = DataQueryRequest.newBuilder()
+                .fromCriteria( criteria )
+                .apiVersion( apiVersion )
+                .allowAllPeriods( true ).build();
 
-        DataQueryParams params = dataQueryService.getFromRequest( request );
+            DataQueryParams params = dataQueryService.getFromRequest( request );
 
-        contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_JSON,
-            CacheStrategy.RESPECT_SYSTEM_SETTING, null, false, params.getLatestEndDate() );
+            contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_JSON,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, null, false, params.getLatestEndDate() );
 
-        return analyticsService.getRawDataValues( params );
+            return analyticsService.getRawDataValues( params );
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + RAW_DATA_PATH + ".csv" )
-    public void getRawDataCsv(
+    public WebAsyncTask<Void> getRawDataCsv(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        final DataQueryRequest request = DataQueryRequest.newBuilder()
-            .fromCriteria( criteria )
-            .apiVersion( apiVersion )
-            .allowAllPeriods( true ).build();
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            final DataQueryRequest request = DataQueryRequest.newBuilder()
+                .fromCriteria( criteria )
+                .apiVersion( apiVersion )
+                .allowAllPeriods( true ).build();
 
-        DataQueryParams params = dataQueryService.getFromRequest( request );
+            DataQueryParams params = dataQueryService.getFromRequest( request );
 
-        contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_CSV,
-            CacheStrategy.RESPECT_SYSTEM_SETTING, null, false, params.getLatestEndDate() );
+            contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_CSV,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, null, false, params.getLatestEndDate() );
 
-        Grid grid = analyticsService.getRawDataValues( params );
+            Grid grid = analyticsService.getRawDataValues( params );
 
-        GridUtils.toCsv( grid, response.getWriter() );
+            GridUtils.toCsv( grid, response.getWriter() );
+            return null;
+        } );
     }
 
     // -------------------------------------------------------------------------
@@ -244,31 +277,37 @@ public class AnalyticsController
     // -------------------------------------------------------------------------
 
     @GetMapping( value = RESOURCE_PATH + DATA_VALUE_SET_PATH + ".xml" )
-    public @ResponseBody DataValueSet getDataValueSetXml(
+    public @ResponseBody WebAsyncTask<DataValueSet> getDataValueSetXml(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        DataQueryParams params = dataQueryService.getFromRequest( mapFromCriteria( criteria, apiVersion ) );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            DataQueryParams params = dataQueryService.getFromRequest( mapFromCriteria( criteria, apiVersion ) );
 
-        contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_XML,
-            CacheStrategy.RESPECT_SYSTEM_SETTING, null, false, params.getLatestEndDate() );
+            contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_XML,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, null, false, params.getLatestEndDate() );
 
-        return analyticsService.getAggregatedDataValueSet( params );
+            return analyticsService.getAggregatedDataValueSet( params );
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + DATA_VALUE_SET_PATH + ".json" )
-    public @ResponseBody DataValueSet getDataValueSetJson(
+    public @ResponseBody WebAsyncTask<DataValueSet> getDataValueSetJson(
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        DataQueryParams params = dataQueryService.getFromRequest( mapFromCriteria( criteria, apiVersion ) );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            DataQueryParams params = dataQueryService.getFromRequest( mapFromCriteria( criteria, apiVersion ) );
 
-        contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_JSON,
-            CacheStrategy.RESPECT_SYSTEM_SETTING, null, false, params.getLatestEndDate() );
+            contextUtils.configureAnalyticsResponse( response, ContextUtils.CONTENT_TYPE_JSON,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, null, false, params.getLatestEndDate() );
 
-        return analyticsService.getAggregatedDataValueSet( params );
+            return analyticsService.getAggregatedDataValueSet( params );
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/tableTypes", produces = { APPLICATION_JSON_VALUE,
@@ -31,6 +31,7 @@ import static org.hisp.dhis.common.DhisApiVersion.V38;
 import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.importSummary;
 import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.jobConfigurationReport;
 import static org.hisp.dhis.scheduling.JobType.DATAVALUE_IMPORT;
+import static org.hisp.dhis.webapi.service.AsyncRequestExecutor.Endpoint.EXPORT;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_CSV;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_JSON;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_PDF;
@@ -74,9 +75,11 @@ import org.hisp.dhis.dxf2.datavalueset.DataValueSetService;
 import org.hisp.dhis.dxf2.datavalueset.tasks.ImportDataValueTask;
 import org.hisp.dhis.dxf2.importsummary.ImportSummary;
 import org.hisp.dhis.dxf2.webmessage.WebMessage;
+import org.hisp.dhis.dxf2.webmessage.WebMessageException;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.service.AsyncRequestExecutor;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.converter.HttpMessageNotWritableException;
@@ -87,6 +90,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 /**
  * @author Lars Helge Overland
@@ -112,51 +116,54 @@ public class DataValueSetController
     @Autowired
     private SessionFactory sessionFactory;
 
+    @Autowired
+    private AsyncRequestExecutor asyncRequestExecutor;
+
     // -------------------------------------------------------------------------
     // Get
     // -------------------------------------------------------------------------
 
     @GetMapping( params = { "format" } )
-    public void getDataValueSet(
+    public WebAsyncTask<Void> getDataValueSet(
         DataValueSetQueryParams params,
         @RequestParam( required = false ) String attachment,
         @RequestParam( required = false ) String compression,
         @RequestParam( required = false ) String format,
         HttpServletResponse response )
+        throws WebMessageException
     {
         switch ( format )
         {
         case "xml":
-            getDataValueSetXml( params, attachment, compression, response );
-            break;
+            return getDataValueSetXml( params, attachment, compression, response );
         case "adx+xml":
-            getDataValueSetXmlAdx( params, attachment, compression, response );
-            break;
+            return getDataValueSetXmlAdx( params, attachment, compression, response );
         case "csv":
-            getDataValueSetCsv( params, attachment, compression, response );
-            break;
+            return getDataValueSetCsv( params, attachment, compression, response );
         default:
-            getDataValueSetJson( params, attachment, compression, response );
+            return getDataValueSetJson( params, attachment, compression, response );
         }
     }
 
     @GetMapping( produces = CONTENT_TYPE_XML )
-    public void getDataValueSetXml( DataValueSetQueryParams params,
+    public WebAsyncTask<Void> getDataValueSetXml( DataValueSetQueryParams params,
         @RequestParam( required = false ) String attachment,
         @RequestParam( required = false ) String compression,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        getDataValueSet( attachment, compression, "xml", response, CONTENT_TYPE_XML,
+        return getDataValueSet( attachment, compression, "xml", response, CONTENT_TYPE_XML,
             out -> dataValueSetService.exportDataValueSetXml( dataValueSetService.getFromUrl( params ), out ) );
     }
 
     @GetMapping( produces = CONTENT_TYPE_XML_ADX )
-    public void getDataValueSetXmlAdx( DataValueSetQueryParams params,
+    public WebAsyncTask<Void> getDataValueSetXmlAdx( DataValueSetQueryParams params,
         @RequestParam( required = false ) String attachment,
         @RequestParam( required = false ) String compression,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        getDataValueSet( attachment, compression, "xml", response, CONTENT_TYPE_XML_ADX,
+        return getDataValueSet( attachment, compression, "xml", response, CONTENT_TYPE_XML_ADX,
             out -> {
                 try
                 {
@@ -171,42 +178,49 @@ public class DataValueSetController
     }
 
     @GetMapping( produces = CONTENT_TYPE_JSON )
-    public void getDataValueSetJson( DataValueSetQueryParams params,
+    public WebAsyncTask<Void> getDataValueSetJson( DataValueSetQueryParams params,
         @RequestParam( required = false ) String attachment,
         @RequestParam( required = false ) String compression,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        getDataValueSet( attachment, compression, "json", response, CONTENT_TYPE_JSON,
+        return getDataValueSet( attachment, compression, "json", response, CONTENT_TYPE_JSON,
             out -> dataValueSetService.exportDataValueSetJson( dataValueSetService.getFromUrl( params ), out ) );
     }
 
     @GetMapping( produces = CONTENT_TYPE_CSV )
-    public void getDataValueSetCsv( DataValueSetQueryParams params,
+    public WebAsyncTask<Void> getDataValueSetCsv( DataValueSetQueryParams params,
         @RequestParam( required = false ) String attachment,
         @RequestParam( required = false ) String compression,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        getDataValueSet( attachment, compression, "csv", response, CONTENT_TYPE_CSV,
+        return getDataValueSet( attachment, compression, "csv", response, CONTENT_TYPE_CSV,
             out -> dataValueSetService.exportDataValueSetCsv( dataValueSetService.getFromUrl( params ),
                 new PrintWriter( out ) ) );
     }
 
-    private void getDataValueSet( String attachment,
+    private WebAsyncTask<Void> getDataValueSet( String attachment,
         String compression, String format, HttpServletResponse response, String contentType,
         Consumer<OutputStream> writeOutput )
+        throws WebMessageException
     {
-        response.setContentType( contentType );
-        setNoStore( response );
+        return asyncRequestExecutor.submit( EXPORT, () -> {
+            response.setContentType( contentType );
+            setNoStore( response );
 
-        try (
-            OutputStream out = compress( response, attachment, Compression.fromValue( compression ), format ) )
-        {
-            writeOutput.accept( out );
-        }
-        catch ( IOException ex )
-        {
-            throw new UncheckedIOException( ex );
-        }
+            try (
+                OutputStream out = compress( response, attachment, Compression.fromValue( compression ), format ) )
+            {
+                writeOutput.accept( out );
+            }
+            catch ( IOException ex )
+            {
+                throw new UncheckedIOException( ex );
+            }
+
+            return null;
+        } );
     }
 
     // -------------------------------------------------------------------------
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.webapi.controller;
 
+import static org.hisp.dhis.webapi.service.AsyncRequestExecutor.Endpoint.ANALYTICS;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import java.util.List;
@@ -49,8 +50,10 @@ import org.hisp.dhis.common.EnrollmentAnalyticsQueryCriteria;
 import org.hisp.dhis.common.EventDataQueryRequest;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.cache.CacheStrategy;
+import org.hisp.dhis.dxf2.webmessage.WebMessageException;
 import org.hisp.dhis.system.grid.GridUtils;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.service.AsyncRequestExecutor;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
@@ -59,6 +62,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -89,6 +93,9 @@ public class EnrollmentAnalyticsController
     @NotNull
     private EnrollmentAnalyticsDimensionsService enrollmentAnalyticsDimensionsService;
 
+    @NotNull
+    private AsyncRequestExecutor asyncRequestExecutor;
+
     @PreAuthorize( "hasRole('F_PERFORM_MAINTENANCE')" )
     @GetMapping( value = "/query/{program}/analyze", produces = { APPLICATION_JSON_VALUE, "application/javascript" } )
     public @ResponseBody Grid getAnalyzeQueryJson( // JSON, JSONP
@@ -113,98 +120,116 @@ public class EnrollmentAnalyticsController
     }
 
     @GetMapping( value = "/query/{program}", produces = { APPLICATION_JSON_VALUE, "application/javascript" } )
-    public @ResponseBody Grid getQueryJson( // JSON, JSONP
+    public @ResponseBody WebAsyncTask<Grid> getQueryJson( // JSON, JSONP
         @PathVariable String program,
         EnrollmentAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
 
-        contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_JSON,
-            CacheStrategy.RESPECT_SYSTEM_SETTING );
+            contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_JSON,
+                CacheStrategy.RESPECT_SYSTEM_SETTING );
 
-        return analyticsService.getEnrollments( params );
+            return analyticsService.getEnrollments( params );
+        } );
     }
 
     @GetMapping( "/query/{program}.xml" )
-    public void getQueryXml(
+    public WebAsyncTask<Void> getQueryXml(
         @PathVariable String program,
         EnrollmentAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
-
-        contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_XML, CacheStrategy.RESPECT_SYSTEM_SETTING,
-            "enrollments.xml", false );
-        Grid grid = analyticsService.getEnrollments( params );
-        GridUtils.toXml( grid, response.getOutputStream() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+
+            contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_XML,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, "enrollments.xml", false );
+            Grid grid = analyticsService.getEnrollments( params );
+            GridUtils.toXml( grid, response.getOutputStream() );
+            return null;
+        } );
     }
 
     @GetMapping( "/query/{program}.xls" )
-    public void getQueryXls(
+    public WebAsyncTask<Void> getQueryXls(
         @PathVariable String program,
         EnrollmentAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
-
-        contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_EXCEL, CacheStrategy.RESPECT_SYSTEM_SETTING,
-            "enrollments.xls", true );
-        Grid grid = analyticsService.getEnrollments( params );
-        GridUtils.toXls( grid, response.getOutputStream() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+
+            contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_EXCEL,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, "enrollments.xls", true );
+            Grid grid = analyticsService.getEnrollments( params );
+            GridUtils.toXls( grid, response.getOutputStream() );
+            return null;
+        } );
     }
 
     @GetMapping( "/query/{program}.csv" )
-    public void getQueryCsv(
+    public WebAsyncTask<Void> getQueryCsv(
         @PathVariable String program,
         EnrollmentAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
-
-        contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_CSV, CacheStrategy.RESPECT_SYSTEM_SETTING,
-            "enrollments.csv", true );
-        Grid grid = analyticsService.getEnrollments( params );
-        GridUtils.toCsv( grid, response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+
+            contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_CSV,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, "enrollments.csv", true );
+            Grid grid = analyticsService.getEnrollments( params );
+            GridUtils.toCsv( grid, response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( "/query/{program}.html" )
-    public void getQueryHtml(
+    public WebAsyncTask<Void> getQueryHtml(
         @PathVariable String program,
         EnrollmentAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
-
-        contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_HTML, CacheStrategy.RESPECT_SYSTEM_SETTING,
-            "enrollments.html", false );
-        Grid grid = analyticsService.getEnrollments( params );
-        GridUtils.toHtml( grid, response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+
+            contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_HTML,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, "enrollments.html", false );
+            Grid grid = analyticsService.getEnrollments( params );
+            GridUtils.toHtml( grid, response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( "/query/{program}.html+css" )
-    public void getQueryHtmlCss(
+    public WebAsyncTask<Void> getQueryHtmlCss(
         @PathVariable String program,
         EnrollmentAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
-
-        contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_HTML, CacheStrategy.RESPECT_SYSTEM_SETTING,
-            "enrollments.html", false );
-        Grid grid = analyticsService.getEnrollments( params );
-        GridUtils.toHtmlCss( grid, response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+
+            contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_HTML,
+                CacheStrategy.RESPECT_SYSTEM_SETTING, "enrollments.html", false );
+            Grid grid = analyticsService.getEnrollments( params );
+            GridUtils.toHtmlCss( grid, response.getWriter() );
+            return null;
+        } );
     }
 
     @ResponseBody
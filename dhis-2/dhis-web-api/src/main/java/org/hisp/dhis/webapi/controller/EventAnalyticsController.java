@@ -28,6 +28,7 @@
 package org.hisp.dhis.webapi.controller;
 
 import static org.hisp.dhis.common.DimensionalObjectUtils.getItemsFromParam;
+import static org.hisp.dhis.webapi.service.AsyncRequestExecutor.Endpoint.ANALYTICS;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import java.util.List;
@@ -52,8 +53,10 @@ import org.hisp.dhis.common.EventDataQueryRequest;
 import org.hisp.dhis.common.EventsAnalyticsQueryCriteria;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.cache.CacheStrategy;
+import org.hisp.dhis.dxf2.webmessage.WebMessageException;
 import org.hisp.dhis.system.grid.GridUtils;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.service.AsyncRequestExecutor;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
@@ -61,6 +64,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
@@ -94,6 +98,9 @@ public class EventAnalyticsController
     @NotNull
     private final ExecutionPlanStore executionPlanStore;
 
+    @NonNull
+    private final AsyncRequestExecutor asyncRequestExecutor;
+
     // -------------------------------------------------------------------------
     // Aggregate
     // -------------------------------------------------------------------------
@@ -126,79 +133,96 @@ public class EventAnalyticsController
 
     @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}", produces = { APPLICATION_JSON_VALUE,
         "application/javascript" } )
-    public @ResponseBody Grid getAggregateJson( // JSON, JSONP
+    public @ResponseBody WebAsyncTask<Grid> getAggregateJson( // JSON, JSONP
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
 
-        configResponseForJson( response );
+            configResponseForJson( response );
 
-        return analyticsService.getAggregatedEventData( params, getItemsFromParam( criteria.getColumns() ),
-            getItemsFromParam( criteria.getRows() ) );
+            return analyticsService.getAggregatedEventData( params, getItemsFromParam( criteria.getColumns() ),
+                getItemsFromParam( criteria.getRows() ) );
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}.xml" )
-    public void getAggregateXml(
+    public WebAsyncTask<Void> getAggregateXml(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toXml( getAggregatedGridWithAttachment( criteria, program, apiVersion,
-            ContextUtils.CONTENT_TYPE_XML, "events.xml", response ), response.getOutputStream() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toXml( getAggregatedGridWithAttachment( criteria, program, apiVersion,
+                ContextUtils.CONTENT_TYPE_XML, "events.xml", response ), response.getOutputStream() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}.xls" )
-    public void getAggregateXls(
+    public WebAsyncTask<Void> getAggregateXls(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toXls( getAggregatedGridWithAttachment( criteria, program, apiVersion,
-            ContextUtils.CONTENT_TYPE_EXCEL, "events.xls", response ), response.getOutputStream() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toXls( getAggregatedGridWithAttachment( criteria, program, apiVersion,
+                ContextUtils.CONTENT_TYPE_EXCEL, "events.xls", response ), response.getOutputStream() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}.csv" )
-    public void getAggregateCsv(
+    public WebAsyncTask<Void> getAggregateCsv(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toCsv( getAggregatedGridWithAttachment( criteria, program, apiVersion,
-            ContextUtils.CONTENT_TYPE_CSV, "events.csv", response ), response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toCsv( getAggregatedGridWithAttachment( criteria, program, apiVersion,
+                ContextUtils.CONTENT_TYPE_CSV, "events.csv", response ), response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}.html" )
-    public void getAggregateHtml(
+    public WebAsyncTask<Void> getAggregateHtml(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toHtml( getAggregatedGridWithAttachment( criteria, program, apiVersion,
-            ContextUtils.CONTENT_TYPE_HTML, "events.html", response ), response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toHtml( getAggregatedGridWithAttachment( criteria, program, apiVersion,
+                ContextUtils.CONTENT_TYPE_HTML, "events.html", response ), response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}.html+css" )
-    public void getAggregateHtmlCss(
+    public WebAsyncTask<Void> getAggregateHtmlCss(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toHtmlCss( getAggregatedGridWithAttachment( criteria, program, apiVersion,
-            ContextUtils.CONTENT_TYPE_HTML, "events.html", response ), response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toHtmlCss( getAggregatedGridWithAttachment( criteria, program, apiVersion,
+                ContextUtils.CONTENT_TYPE_HTML, "events.html", response ), response.getWriter() );
+            return null;
+        } );
     }
 
     @ResponseBody
@@ -224,17 +248,20 @@ public class EventAnalyticsController
 
     @GetMapping( value = RESOURCE_PATH + "/count/{program}", produces = { APPLICATION_JSON_VALUE,
         "application/javascript" } )
-    public @ResponseBody Rectangle getCountJson( // JSON, JSONP
+    public @ResponseBody WebAsyncTask<Rectangle> getCountJson( // JSON, JSONP
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
 
-        configResponseForJson( response );
+            configResponseForJson( response );
 
-        return analyticsService.getRectangle( params );
+            return analyticsService.getRectangle( params );
+        } );
     }
 
     // -------------------------------------------------------------------------
@@ -243,7 +270,7 @@ public class EventAnalyticsController
 
     @GetMapping( value = RESOURCE_PATH + "/cluster/{program}", produces = { APPLICATION_JSON_VALUE,
         "application/javascript" } )
-    public @ResponseBody Grid getClusterJson( // JSON, JSONP
+    public @ResponseBody WebAsyncTask<Grid> getClusterJson( // JSON, JSONP
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         @RequestParam Long clusterSize,
@@ -251,18 +278,21 @@ public class EventAnalyticsController
         @RequestParam( required = false ) boolean includeClusterPoints,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
 
-        params = new EventQueryParams.Builder( params )
-            .withClusterSize( clusterSize )
-            .withBbox( bbox )
-            .withIncludeClusterPoints( includeClusterPoints )
-            .build();
+            params = new EventQueryParams.Builder( params )
+                .withClusterSize( clusterSize )
+                .withBbox( bbox )
+                .withIncludeClusterPoints( includeClusterPoints )
+                .build();
 
-        configResponseForJson( response );
+            configResponseForJson( response );
 
-        return analyticsService.getEventClusters( params );
+            return analyticsService.getEventClusters( params );
+        } );
     }
 
     // -------------------------------------------------------------------------
@@ -294,77 +324,95 @@ public class EventAnalyticsController
 
     @GetMapping( value = RESOURCE_PATH + "/query/{program}", produces = { APPLICATION_JSON_VALUE,
         "application/javascript" } )
-    public @ResponseBody Grid getQueryJson( // JSON, JSONP
+    public @ResponseBody WebAsyncTask<Grid> getQueryJson( // JSON, JSONP
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
+        throws WebMessageException
     {
-        EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
 
-        configResponseForJson( response );
+            configResponseForJson( response );
 
-        return analyticsService.getEvents( params );
+            return analyticsService.getEvents( params );
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/query/{program}.xml" )
-    public void getQueryXml(
+    public WebAsyncTask<Void> getQueryXml(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toXml( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_XML,
-            "events.xml", false, response ), response.getOutputStream() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toXml( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_XML,
+                "events.xml", false, response ), response.getOutputStream() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/query/{program}.xls" )
-    public void getQueryXls(
+    public WebAsyncTask<Void> getQueryXls(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toXls( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_EXCEL,
-            "events.xls", true, response ), response.getOutputStream() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toXls( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_EXCEL,
+                "events.xls", true, response ), response.getOutputStream() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/query/{program}.csv" )
-    public void getQueryCsv(
+    public WebAsyncTask<Void> getQueryCsv(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toCsv( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_CSV,
-            "events.csv", true, response ), response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toCsv( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_CSV,
+                "events.csv", true, response ), response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/query/{program}.html" )
-    public void getQueryHtml(
+    public WebAsyncTask<Void> getQueryHtml(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toHtml( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_HTML,
-            "events.html", false, response ), response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toHtml( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_HTML,
+                "events.html", false, response ), response.getWriter() );
+            return null;
+        } );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/query/{program}.html+css" )
-    public void getQueryHtmlCss(
+    public WebAsyncTask<Void> getQueryHtmlCss(
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
+        throws WebMessageException
     {
-        GridUtils.toHtmlCss( getListGridWithAttachment( criteria, program, apiVersion, ContextUtils.CONTENT_TYPE_HTML,
-            "events.html", false, response ), response.getWriter() );
+        return asyncRequestExecutor.submit( ANALYTICS, () -> {
+            GridUtils.toHtmlCss( getListGridWithAttachment( criteria, program, apiVersion,
+                ContextUtils.CONTENT_TYPE_HTML, "events.html", false, response ), response.getWriter() );
+            return null;
+        } );
     }
 
     @ResponseBody
@@ -31,11 +31,18 @@ import static java.util.stream.Collectors.toList;
 import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.created;
 import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.ok;
 import static org.hisp.dhis.keyjsonvalue.KeyJsonValueQuery.parseFields;
+import static org.hisp.dhis.webapi.utils.ContextUtils.isNotModified;
+import static org.hisp.dhis.webapi.utils.ContextUtils.setNoCache;
 import static org.hisp.dhis.webapi.utils.ContextUtils.setNoStore;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -47,10 +54,12 @@ import org.hisp.dhis.keyjsonvalue.KeyJsonValue;
 import org.hisp.dhis.keyjsonvalue.KeyJsonValueQuery;
 import org.hisp.dhis.keyjsonvalue.KeyJsonValueQuery.Field;
 import org.hisp.dhis.keyjsonvalue.KeyJsonValueService;
+import org.hisp.dhis.keyjsonvalue.VersionedKeyJsonValue;
 import org.hisp.dhis.webapi.JsonWriter;
 import org.hisp.dhis.webapi.controller.exception.NotFoundException;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -62,6 +71,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 /**
  * @author Stian Sandvold
  */
@@ -91,7 +104,7 @@ public class KeyJsonValueController
     @GetMapping( value = "/{namespace}", produces = APPLICATION_JSON_VALUE )
     public @ResponseBody List<String> getKeysInNamespace( @RequestParam( required = false ) Date lastUpdated,
         @PathVariable String namespace,
-        HttpServletResponse response )
+        HttpServletRequest request, HttpServletResponse response )
         throws Exception
     {
         setNoStore( response );
@@ -103,6 +116,21 @@ public class KeyJsonValueController
             throw new NotFoundException( String.format( "Namespace not found: '%s'", namespace ) );
         }
 
+        if ( lastUpdated == null )
+        {
+            setNoCache( response );
+
+            Hasher hasher = Hashing.sha256().newHasher();
+            keys.forEach( key -> hasher.putInt( key.length() ).putString( key, StandardCharsets.UTF_8 ) );
+
+            String version = hasher.hash().toString();
+
+            if ( isNotModified( request, response, version ) )
+            {
+                return null;
+            }
+        }
+
         return keys;
     }
 
@@ -131,6 +159,84 @@ public class KeyJsonValueController
         }
     }
 
+    /**
+     * Returns a JSON object with the values of the given keys in the given
+     * namespace. Keys without a value are not included.
+     */
+    @GetMapping( value = "/{namespace}", params = "keys", produces = APPLICATION_JSON_VALUE )
+    public void getKeyJsonValues( @PathVariable String namespace, @RequestParam Set<String> keys,
+        HttpServletResponse response )
+        throws Exception
+    {
+        response.setContentType( APPLICATION_JSON_VALUE );
+        setNoStore( response );
+
+        List<KeyJsonValue> entries = service.getKeyJsonValues( namespace, keys );
+
+        try ( JsonWriter out = new JsonWriter( response.getWriter() ) )
+        {
+            out.writeObject( entries.stream().map( entry -> new SimpleEntry<>( entry.getKey(), entry.getValue() ) ) );
+        }
+    }
+
+    /**
+     * Creates or updates the keys of the given JSON object in the given
+     * namespace in one batch, each member value becomes the value of the key
+     * with the member name.
+     */
+    @ResponseBody
+    @PutMapping( value = "/{namespace}", produces = APPLICATION_JSON_VALUE, consumes = APPLICATION_JSON_VALUE )
+    public WebMessage saveOrUpdateKeyJsonValues( @PathVariable String namespace,
+        @RequestBody Map<String, JsonNode> values )
+    {
+        List<KeyJsonValue> entries = new ArrayList<>( values.size() );
+        values.forEach( ( key, value ) -> entries.add( new KeyJsonValue( namespace, key, value.toString(), false ) ) );
+
+        service.saveOrUpdateKeyJsonValues( namespace, entries );
+
+        return ok( String.format( "Keys saved: %d", entries.size() ) );
+    }
+
+    /**
+     * Deletes the given keys from the given namespace in one batch.
+     */
+    @ResponseBody
+    @DeleteMapping( value = "/{namespace}", params = "keys" )
+    public WebMessage deleteKeyJsonValues( @PathVariable String namespace, @RequestParam Set<String> keys )
+    {
+        service.deleteKeyJsonValues( namespace, keys );
+
+        return ok( String.format( "Keys deleted from namespace '%s'", namespace ) );
+    }
+
+    /**
+     * Adds an index on the given JSON path for the values in the given
+     * namespace, used when the path is queried using the fields parameter.
+     */
+    @ResponseBody
+    @PreAuthorize( "hasRole('ALL')" )
+    @PostMapping( value = "/{namespace}", params = "index", produces = APPLICATION_JSON_VALUE )
+    public WebMessage addNamespaceIndex( @PathVariable String namespace, @RequestParam String index )
+    {
+        service.addNamespaceIndex( namespace, index );
+
+        return ok( String.format( "Index added on '%s' in namespace '%s'", index, namespace ) );
+    }
+
+    /**
+     * Removes an index on the given JSON path for the values in the given
+     * namespace.
+     */
+    @ResponseBody
+    @PreAuthorize( "hasRole('ALL')" )
+    @DeleteMapping( value = "/{namespace}", params = "index", produces = APPLICATION_JSON_VALUE )
+    public WebMessage removeNamespaceIndex( @PathVariable String namespace, @RequestParam String index )
+    {
+        service.removeNamespaceIndex( namespace, index );
+
+        return ok( String.format( "Index removed on '%s' in namespace '%s'", index, namespace ) );
+    }
+
     /**
      * Deletes all keys with the given namespace.
      */
@@ -151,13 +257,29 @@ public class KeyJsonValueController
 
     /**
      * Retrieves the value of the KeyJsonValue represented by the given key from
-     * the given namespace.
+     * the given namespace. Responds with 304 Not Modified if the request's
+     * If-None-Match header matches the version of the value.
      */
     @GetMapping( value = "/{namespace}/{key}", produces = APPLICATION_JSON_VALUE )
-    public @ResponseBody String getKeyJsonValue( @PathVariable String namespace, @PathVariable String key )
+    public @ResponseBody String getKeyJsonValue( @PathVariable String namespace, @PathVariable String key,
+        HttpServletRequest request, HttpServletResponse response )
         throws NotFoundException
     {
-        return getExistingEntry( namespace, key ).getValue();
+        VersionedKeyJsonValue entry = service.getVersionedKeyJsonValue( namespace, key );
+
+        if ( entry == null )
+        {
+            throw new NotFoundException( String.format( "Key '%s' not found in namespace '%s'", key, namespace ) );
+        }
+
+        setNoCache( response );
+
+        if ( isNotModified( request, response, entry.getVersion() ) )
+        {
+            return null;
+        }
+
+        return entry.getValue();
     }
 
     /**
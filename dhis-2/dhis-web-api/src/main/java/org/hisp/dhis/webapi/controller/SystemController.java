@@ -58,6 +58,8 @@ import org.hisp.dhis.statistics.StatisticsProvider;
 import org.hisp.dhis.system.SystemInfo;
 import org.hisp.dhis.system.SystemService;
 import org.hisp.dhis.system.notification.Notification;
+import org.hisp.dhis.system.notification.NotificationMemoryUsage;
+import org.hisp.dhis.system.notification.NotificationPage;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
@@ -91,6 +93,8 @@ public class SystemController
 {
     public static final String RESOURCE_PATH = "/system";
 
+    public static final String HEADER_NOTIFICATION_CURSOR = "X-Notification-Cursor";
+
     @Autowired
     private CurrentUserService currentUserService;
 
@@ -189,15 +193,34 @@ public class SystemController
         return ResponseEntity.ok().cacheControl( noStore() ).body( notifications );
     }
 
+    @GetMapping( value = "/tasks/memory", produces = { "*/*", APPLICATION_JSON_VALUE } )
+    public ResponseEntity<Map<JobType, NotificationMemoryUsage>> getTasksMemoryUsage()
+    {
+        return ResponseEntity.ok().cacheControl( noStore() ).body( notifier.getNotificationMemoryUsage() );
+    }
+
     @GetMapping( value = "/tasks/{jobType}/{jobId}", produces = { "*/*", APPLICATION_JSON_VALUE } )
     public ResponseEntity<Collection<Notification>> getTaskJsonByUid( @PathVariable( "jobType" ) String jobType,
-        @PathVariable( "jobId" ) String jobId )
+        @PathVariable( "jobId" ) String jobId, @RequestParam( required = false ) Long cursor )
     {
-        Collection<Notification> notifications = jobType == null
-            ? emptyList()
-            : notifier.getNotificationsByJobId( JobType.valueOf( jobType.toUpperCase() ), jobId );
+        if ( jobType == null )
+        {
+            return ResponseEntity.ok().cacheControl( noStore() ).body( emptyList() );
+        }
 
-        return ResponseEntity.ok().cacheControl( noStore() ).body( notifications );
+        JobType type = JobType.valueOf( jobType.toUpperCase() );
+
+        if ( cursor == null )
+        {
+            return ResponseEntity.ok().cacheControl( noStore() )
+                .body( notifier.getNotificationsByJobId( type, jobId ) );
+        }
+
+        NotificationPage page = notifier.getNotificationsByJobId( type, jobId, cursor );
+
+        return ResponseEntity.ok().cacheControl( noStore() )
+            .header( HEADER_NOTIFICATION_CURSOR, String.valueOf( page.getCursor() ) )
+            .body( page.getNotifications() );
     }
 
     // -------------------------------------------------------------------------
@@ -102,6 +102,7 @@ import org.hisp.dhis.importexport.ImportStrategy;
 import org.hisp.dhis.node.NodeUtils;
 import org.hisp.dhis.node.Preset;
 import org.hisp.dhis.node.types.RootNode;
+import org.hisp.dhis.node.types.SimpleNode;
 import org.hisp.dhis.program.Program;
 import org.hisp.dhis.program.ProgramStageInstanceService;
 import org.hisp.dhis.program.ProgramStatus;
@@ -151,6 +152,8 @@ public class EventController
 
     private static final String META_DATA_KEY_DE = "de";
 
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
     // --------------------------------------------------------------------------
     // Dependencies
     // --------------------------------------------------------------------------
@@ -548,6 +551,11 @@ public class EventController
             rootNode.addChild( NodeUtils.createPager( events.getPager() ) );
         }
 
+        if ( events.getNextCursor() != null )
+        {
+            rootNode.addChild( new SimpleNode( "nextCursor", events.getNextCursor() ) );
+        }
+
         if ( !StringUtils.isEmpty( eventCriteria.getAttachment() ) )
         {
             response.addHeader( ContextUtils.HEADER_CONTENT_DISPOSITION,
@@ -601,6 +609,11 @@ public class EventController
             rootNode.addChild( NodeUtils.createPager( events.getPager() ) );
         }
 
+        if ( events.getNextCursor() != null )
+        {
+            rootNode.addChild( new SimpleNode( "nextCursor", events.getNextCursor() ) );
+        }
+
         if ( !StringUtils.isEmpty( eventCriteria.getAttachment() ) )
         {
             response.addHeader( ContextUtils.HEADER_CONTENT_DISPOSITION,
@@ -625,8 +638,6 @@ public class EventController
     {
         EventSearchParams params = requestToSearchParamsMapper.map( eventCriteria );
 
-        Events events = eventService.getEvents( params );
-
         OutputStream outputStream = response.getOutputStream();
         response.setContentType( "application/csv" );
 
@@ -642,7 +653,22 @@ public class EventController
             response.addHeader( "Content-Disposition", "attachment; filename=" + eventCriteria.getAttachment() );
         }
 
-        csvEventService.writeEvents( outputStream, events.getEvents(), !skipHeader );
+        if ( params.isSkipPaging() )
+        {
+            csvEventService.streamEvents( outputStream,
+                consumer -> eventService.streamEvents( params, consumer ), !skipHeader );
+        }
+        else
+        {
+            Events events = eventService.getEvents( params );
+
+            if ( events.getNextCursor() != null )
+            {
+                response.setHeader( HEADER_NEXT_CURSOR, events.getNextCursor() );
+            }
+
+            csvEventService.writeEvents( outputStream, events.getEvents(), !skipHeader );
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -904,15 +930,16 @@ public class EventController
     {
         InputStream inputStream = StreamUtils.wrapAndCheckCompressionFormat( request.getInputStream() );
 
-        List<Event> events = csvEventService.readEvents( inputStream, skipFirst );
-
         if ( !importOptions.isAsync() )
         {
-            ImportSummaries importSummaries = eventService.addEvents( events, importOptions, null );
+            // Events are streamed from the payload while being imported
+
+            ImportSummaries importSummaries = eventService.addEvents(
+                csvEventService.iterateEvents( inputStream, skipFirst ), importOptions, null );
             importSummaries.setImportOptions( importOptions );
             return importSummaries( importSummaries );
         }
-        return startAsyncImport( importOptions, events );
+        return startAsyncImport( importOptions, csvEventService.readEvents( inputStream, skipFirst ) );
     }
 
     // -------------------------------------------------------------------------
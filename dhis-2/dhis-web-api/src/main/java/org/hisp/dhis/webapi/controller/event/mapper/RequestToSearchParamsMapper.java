@@ -57,6 +57,7 @@ import org.hisp.dhis.commons.collection.CollectionUtils;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementService;
 import org.hisp.dhis.dxf2.events.event.Event;
+import org.hisp.dhis.dxf2.events.event.EventCursor;
 import org.hisp.dhis.dxf2.events.event.EventSearchParams;
 import org.hisp.dhis.dxf2.util.InputUtils;
 import org.hisp.dhis.event.EventStatus;
@@ -319,7 +320,7 @@ public class RequestToSearchParamsMapper
         Set<String> assignedUserIds = eventCriteria.getAssignedUsers();
         Map<String, SortDirection> dataElementOrders = getDataElementsFromOrder( eventCriteria.getOrder() );
 
-        return map( eventCriteria.getProgram(),
+        EventSearchParams params = map( eventCriteria.getProgram(),
             eventCriteria.getProgramStage(),
             eventCriteria.getProgramStatus(),
             eventCriteria.getFollowUp(),
@@ -353,6 +354,14 @@ public class RequestToSearchParamsMapper
             dataElementOrders.keySet(),
             false,
             eventCriteria.isIncludeDeleted() );
+
+        if ( eventCriteria.getCursor() != null )
+        {
+            params.setKeysetPaging( true ).setCursor( eventCriteria.getCursor().isEmpty() ? null
+                : EventCursor.decode( eventCriteria.getCursor() ) );
+        }
+
+        return params;
     }
 
     private List<OrderParam> getOrderParams( List<OrderCriteria> order )
@@ -109,6 +109,12 @@ public class EventCriteria extends PagingAndSortingCriteriaAdapter
 
     private IdSchemes idSchemes = new IdSchemes();
 
+    /**
+     * Cursor for keyset paging. An empty cursor requests the first page, the
+     * next pages are requested with the cursor returned with each page.
+     */
+    private String cursor;
+
     public Set<String> getAssignedUsers()
     {
         Set<String> assignedUsers = new HashSet<>();
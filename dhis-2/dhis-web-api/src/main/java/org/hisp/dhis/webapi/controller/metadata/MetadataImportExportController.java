@@ -36,12 +36,15 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_XML_VALUE;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.common.AsyncTaskExecutor;
@@ -77,6 +80,7 @@ import org.hisp.dhis.user.UserSettingKey;
 import org.hisp.dhis.user.UserSettingService;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.service.ContextService;
+import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -88,6 +92,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -236,6 +241,48 @@ public class MetadataImportExportController
         return MetadataExportControllerUtils.createJsonNodeResponseEntity( rootNode, download );
     }
 
+    /**
+     * Streaming variant of the metadata export, the objects are written to the
+     * response while they are loaded. Requests to {@code metadata.json.gz} are
+     * gzip compressed.
+     */
+    @GetMapping( params = "stream=true" )
+    public void getMetadataStream(
+        @RequestParam( required = false, defaultValue = "false" ) boolean translate,
+        @RequestParam( required = false ) String locale,
+        @RequestParam( required = false, defaultValue = "false" ) boolean download,
+        HttpServletRequest request, HttpServletResponse response )
+        throws IOException
+    {
+        if ( translate )
+        {
+            TranslateParams translateParams = new TranslateParams( true, locale );
+            setUserContext( currentUserService.getCurrentUser(), translateParams );
+        }
+
+        MetadataExportParams params = metadataExportService.getParamsFromMap( contextService.getParameterValuesMap() );
+        metadataExportService.validate( params );
+
+        boolean gzip = request.getRequestURI().endsWith( ".gz" );
+        String fileName = gzip ? "metadata.json.gz" : "metadata.json";
+
+        response.setContentType( gzip ? ContextUtils.CONTENT_TYPE_GZIP : ContextUtils.CONTENT_TYPE_JSON );
+        ContextUtils.setNoStore( response );
+
+        if ( download || gzip )
+        {
+            response.addHeader( ContextUtils.HEADER_CONTENT_DISPOSITION, "attachment; filename=" + fileName );
+        }
+
+        OutputStream outputStream = gzip ? new GZIPOutputStream( response.getOutputStream() )
+            : response.getOutputStream();
+
+        try ( JsonGenerator generator = jsonMapper.getFactory().createGenerator( outputStream ) )
+        {
+            metadataExportService.writeMetadata( params, generator );
+        }
+    }
+
     @ResponseBody
     @PatchMapping( value = "sharing", consumes = "application/json-patch+json", produces = APPLICATION_JSON_VALUE )
     public WebMessage bulkSharing( @RequestParam( required = false, defaultValue = "false" ) boolean atomic,
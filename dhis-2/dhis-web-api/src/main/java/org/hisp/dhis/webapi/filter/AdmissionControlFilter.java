@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.filter;
+
+import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.serviceUnavailable;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Filter which limits the number of requests processed concurrently per
+ * {@link EndpointClass}, so that a spike of expensive requests of one class,
+ * like imports during month-end reporting, cannot occupy all server threads
+ * and cannot grow an unbounded backlog. Analytics requests are admitted by
+ * {@link org.hisp.dhis.webapi.service.AsyncRequestExecutor} instead.
+ * <p>
+ * A request which finds all permits of its class taken waits for at most the
+ * configured queue timeout, provided that the queue of the class is not full.
+ * Otherwise it is rejected immediately with 503 and a Retry-After header. As
+ * waiting holds on to the servlet thread, the queue timeout should be short.
+ * Requests which go asynchronous keep their permit until the asynchronous
+ * processing completes.
+ * <p>
+ * Limits, active and waiting requests and rejections are published as
+ * {@value #ACTIVE_METRIC}, {@value #WAITING_METRIC}, {@value #LIMIT_METRIC}
+ * and {@value #REJECTED_METRIC}, tagged by endpoint class.
+ */
+@Slf4j
+@Component
+public class AdmissionControlFilter
+    extends OncePerRequestFilter
+{
+    public static final String ACTIVE_METRIC = "webapi.admission.active";
+
+    public static final String WAITING_METRIC = "webapi.admission.waiting";
+
+    public static final String LIMIT_METRIC = "webapi.admission.limit";
+
+    public static final String REJECTED_METRIC = "webapi.admission.rejected";
+
+    private static final String API = "^/api/(\\d+/)?";
+
+    private static final String END = "(/.*|\\..*)?$";
+
+    @Getter
+    @AllArgsConstructor
+    public enum EndpointClass
+    {
+        IMPORT( "import", ConfigurationKey.SERVER_ADMISSION_IMPORT_CONCURRENCY,
+            ConfigurationKey.SERVER_ADMISSION_IMPORT_QUEUE ),
+        METADATA( "metadata", ConfigurationKey.SERVER_ADMISSION_METADATA_CONCURRENCY,
+            ConfigurationKey.SERVER_ADMISSION_METADATA_QUEUE ),
+        STATIC( "static", ConfigurationKey.SERVER_ADMISSION_STATIC_CONCURRENCY,
+            ConfigurationKey.SERVER_ADMISSION_STATIC_QUEUE );
+
+        private static final Pattern IMPORT_PATH = Pattern.compile( API + "(dataValueSets|dataValues|"
+            + "completeDataSetRegistrations|tracker|events|enrollments|trackedEntityInstances|relationships|"
+            + "metadata)" + END );
+
+        private static final Pattern METADATA_PATH = Pattern.compile( API + "metadata" + END );
+
+        private static final Pattern STATIC_PATH = Pattern.compile( "^/(?!(api|uaa)/).*\\.(js|mjs|css|map|html?|"
+            + "json|webapp|png|jpe?g|gif|svg|ico|webp|woff2?|ttf|otf|eot)$", Pattern.CASE_INSENSITIVE );
+
+        private final String name;
+
+        private final ConfigurationKey concurrencyKey;
+
+        private final ConfigurationKey queueKey;
+
+        /**
+         * Returns the endpoint class of the given request, or null if the
+         * request is not subject to admission control.
+         *
+         * @param method the HTTP method.
+         * @param path the request path without context path.
+         * @return an {@link EndpointClass} or null.
+         */
+        public static EndpointClass of( String method, String path )
+        {
+            boolean read = "GET".equals( method ) || "HEAD".equals( method ) || "OPTIONS".equals( method );
+
+            if ( !read && IMPORT_PATH.matcher( path ).matches() )
+            {
+                return IMPORT;
+            }
+
+            if ( read && METADATA_PATH.matcher( path ).matches() )
+            {
+                return METADATA;
+            }
+
+            if ( read && STATIC_PATH.matcher( path ).matches() )
+            {
+                return STATIC;
+            }
+
+            return null;
+        }
+    }
+
+    private final boolean enabled;
+
+    private final long queueTimeout;
+
+    private final String retryAfter;
+
+    private final Map<EndpointClass, Lane> lanes = new EnumMap<>( EndpointClass.class );
+
+    private Map<EndpointClass, Counter> rejectedCounters;
+
+    public AdmissionControlFilter( DhisConfigurationProvider config )
+    {
+        this.enabled = config.isEnabled( ConfigurationKey.SERVER_ADMISSION_ENABLED );
+        this.queueTimeout = TimeUnit.SECONDS.toMillis(
+            Long.parseLong( config.getProperty( ConfigurationKey.SERVER_ADMISSION_QUEUE_TIMEOUT ) ) );
+        this.retryAfter = config.getProperty( ConfigurationKey.SERVER_ADMISSION_RETRY_AFTER );
+
+        for ( EndpointClass endpoint : EndpointClass.values() )
+        {
+            int concurrency = Math.max( 1, Integer.parseInt( config.getProperty( endpoint.getConcurrencyKey() ) ) );
+            int queue = Math.max( 0, Integer.parseInt( config.getProperty( endpoint.getQueueKey() ) ) );
+
+            lanes.put( endpoint, new Lane( concurrency, queue ) );
+
+            log.info( "Admission of {} requests: concurrency {}, queue {}, enabled: {}", endpoint.getName(),
+                concurrency, queue, enabled );
+        }
+    }
+
+    @Autowired( required = false )
+    public void setMeterRegistry( MeterRegistry meterRegistry )
+    {
+        Map<EndpointClass, Counter> counters = new EnumMap<>( EndpointClass.class );
+
+        lanes.forEach( ( endpoint, lane ) -> {
+            String tag = endpoint.getName();
+
+            Gauge.builder( ACTIVE_METRIC, lane, Lane::getActive ).tag( "endpoint", tag )
+                .description( "Requests currently admitted" ).register( meterRegistry );
+            Gauge.builder( WAITING_METRIC, lane, Lane::getWaiting ).tag( "endpoint", tag )
+                .description( "Requests currently waiting for admission" ).register( meterRegistry );
+            Gauge.builder( LIMIT_METRIC, lane, Lane::getConcurrency ).tag( "endpoint", tag )
+                .tag( "limit", "concurrency" ).description( "Max requests admitted concurrently" )
+                .register( meterRegistry );
+            Gauge.builder( LIMIT_METRIC, lane, Lane::getQueue ).tag( "endpoint", tag )
+                .tag( "limit", "queue" ).description( "Max requests waiting for admission" ).register( meterRegistry );
+
+            counters.put( endpoint, Counter.builder( REJECTED_METRIC ).tag( "endpoint", tag )
+                .description( "Requests rejected with 503" ).register( meterRegistry ) );
+        } );
+
+        this.rejectedCounters = counters;
+    }
+
+    @Override
+    protected void doFilterInternal( HttpServletRequest request, HttpServletResponse response, FilterChain chain )
+        throws ServletException,
+        IOException
+    {
+        EndpointClass endpoint = enabled ? EndpointClass.of( request.getMethod(),
+            request.getRequestURI().substring( request.getContextPath().length() ) ) : null;
+
+        if ( endpoint == null )
+        {
+            chain.doFilter( request, response );
+            return;
+        }
+
+        Lane lane = lanes.get( endpoint );
+
+        if ( !lane.acquire( queueTimeout ) )
+        {
+            reject( endpoint, response );
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if ( released.compareAndSet( false, true ) )
+            {
+                lane.release();
+            }
+        };
+
+        try
+        {
+            chain.doFilter( request, response );
+        }
+        finally
+        {
+            if ( isAsyncStarted( request ) )
+            {
+                request.getAsyncContext().addListener( new ReleasingAsyncListener( release ) );
+            }
+            else
+            {
+                release.run();
+            }
+        }
+    }
+
+    private void reject( EndpointClass endpoint, HttpServletResponse response )
+        throws IOException
+    {
+        if ( rejectedCounters != null )
+        {
+            rejectedCounters.get( endpoint ).increment();
+        }
+
+        response.setStatus( HttpServletResponse.SC_SERVICE_UNAVAILABLE );
+        response.setHeader( HttpHeaders.RETRY_AFTER, retryAfter );
+        response.setContentType( MediaType.APPLICATION_JSON_VALUE );
+        JacksonObjectMapperConfig.staticJsonMapper().writeValue( response.getOutputStream(), serviceUnavailable(
+            "Too many concurrent " + endpoint.getName() + " requests, please try again later" ) );
+    }
+
+    /**
+     * Permits and queue of a single endpoint class.
+     */
+    private static final class Lane
+    {
+        @Getter
+        private final int concurrency;
+
+        @Getter
+        private final int queue;
+
+        private final Semaphore permits;
+
+        private final AtomicInteger waitingCount = new AtomicInteger();
+
+        Lane( int concurrency, int queue )
+        {
+            this.concurrency = concurrency;
+            this.queue = queue;
+            this.permits = new Semaphore( concurrency, true );
+        }
+
+        boolean acquire( long timeout )
+        {
+            if ( permits.tryAcquire() )
+            {
+                return true;
+            }
+
+            if ( waitingCount.incrementAndGet() > queue )
+            {
+                waitingCount.decrementAndGet();
+                return false;
+            }
+
+            try
+            {
+                return permits.tryAcquire( timeout, TimeUnit.MILLISECONDS );
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            finally
+            {
+                waitingCount.decrementAndGet();
+            }
+        }
+
+        void release()
+        {
+            permits.release();
+        }
+
+        int getActive()
+        {
+            return concurrency - permits.availablePermits();
+        }
+
+        int getWaiting()
+        {
+            return waitingCount.get();
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class ReleasingAsyncListener implements AsyncListener
+    {
+        private final Runnable release;
+
+        @Override
+        public void onComplete( AsyncEvent event )
+        {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout( AsyncEvent event )
+        {
+            release.run();
+        }
+
+        @Override
+        public void onError( AsyncEvent event )
+        {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync( AsyncEvent event )
+        {
+            event.getAsyncContext().addListener( this );
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.filter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import lombok.Getter;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Content codings which can be negotiated for request and response bodies.
+ * Zstandard is only available when the zstd-jni library is present on the
+ * class path, and is accessed reflectively to avoid a hard dependency.
+ */
+public enum ContentEncoding
+{
+    ZSTD( "zstd" ),
+    GZIP( "gzip" );
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final Constructor<?> ZSTD_OUTPUT = zstdConstructor( "com.github.luben.zstd.ZstdOutputStream",
+        OutputStream.class );
+
+    private static final Constructor<?> ZSTD_INPUT = zstdConstructor( "com.github.luben.zstd.ZstdInputStream",
+        InputStream.class );
+
+    @Getter
+    private final String token;
+
+    ContentEncoding( String token )
+    {
+        this.token = token;
+    }
+
+    public boolean isAvailable()
+    {
+        return this == GZIP || (ZSTD_OUTPUT != null && ZSTD_INPUT != null);
+    }
+
+    public OutputStream compress( OutputStream out )
+        throws IOException
+    {
+        return this == GZIP
+            ? new GZIPOutputStream( out, BUFFER_SIZE )
+            : (OutputStream) newInstance( ZSTD_OUTPUT, out );
+    }
+
+    public InputStream decompress( InputStream in )
+        throws IOException
+    {
+        return this == GZIP
+            ? new GZIPInputStream( in, BUFFER_SIZE )
+            : (InputStream) newInstance( ZSTD_INPUT, in );
+    }
+
+    /**
+     * Returns the content coding for the given Content-Encoding header value,
+     * or null if the value is empty, identity or not supported.
+     *
+     * @param contentEncoding the Content-Encoding header value.
+     * @return a {@link ContentEncoding} or null.
+     */
+    public static ContentEncoding of( String contentEncoding )
+    {
+        String token = StringUtils.trimToEmpty( contentEncoding ).toLowerCase();
+
+        for ( ContentEncoding encoding : values() )
+        {
+            if ( encoding.token.equals( token ) || ("x-" + encoding.token).equals( token ) )
+            {
+                return encoding.isAvailable() ? encoding : null;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Selects the preferred available content coding accepted by the client,
+     * honouring quality values. Ties are resolved in declaration order, which
+     * favours zstd over gzip.
+     *
+     * @param acceptEncoding the Accept-Encoding header value.
+     * @return a {@link ContentEncoding} or null if none is acceptable.
+     */
+    public static ContentEncoding negotiate( String acceptEncoding )
+    {
+        if ( StringUtils.isBlank( acceptEncoding ) )
+        {
+            return null;
+        }
+
+        ContentEncoding selected = null;
+        double selectedQuality = 0d;
+
+        for ( ContentEncoding encoding : values() )
+        {
+            double quality = quality( acceptEncoding, encoding.token );
+
+            if ( encoding.isAvailable() && quality > selectedQuality )
+            {
+                selected = encoding;
+                selectedQuality = quality;
+            }
+        }
+
+        return selected;
+    }
+
+    private static double quality( String acceptEncoding, String token )
+    {
+        double wildcard = 0d;
+
+        for ( String part : acceptEncoding.split( "," ) )
+        {
+            String[] params = part.trim().split( ";" );
+            String coding = params[0].trim().toLowerCase();
+            double quality = 1d;
+
+            for ( int i = 1; i < params.length; i++ )
+            {
+                String param = params[i].trim();
+
+                if ( param.startsWith( "q=" ) )
+                {
+                    try
+                    {
+                        quality = Double.parseDouble( param.substring( 2 ) );
+                    }
+                    catch ( NumberFormatException ex )
+                    {
+                        quality = 0d;
+                    }
+                }
+            }
+
+            if ( coding.equals( token ) || coding.equals( "x-" + token ) )
+            {
+                return quality;
+            }
+
+            if ( coding.equals( "*" ) )
+            {
+                wildcard = quality;
+            }
+        }
+
+        return wildcard;
+    }
+
+    private static Constructor<?> zstdConstructor( String className, Class<?> parameterType )
+    {
+        try
+        {
+            return Class.forName( className ).getConstructor( parameterType );
+        }
+        catch ( ReflectiveOperationException | LinkageError ex )
+        {
+            return null;
+        }
+    }
+
+    private static Object newInstance( Constructor<?> constructor, Object stream )
+        throws IOException
+    {
+        try
+        {
+            return constructor.newInstance( stream );
+        }
+        catch ( ReflectiveOperationException ex )
+        {
+            throw new IOException( "Failed to create zstd stream", ex.getCause() != null ? ex.getCause() : ex );
+        }
+    }
+}
@@ -0,0 +1,627 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.filter;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.SERVER_COMPRESSION_ENABLED;
+import static org.hisp.dhis.external.conf.ConfigurationKey.SERVER_COMPRESSION_THRESHOLD;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Filter which transparently handles the Content-Encoding of request and
+ * response bodies, independent of the message converter that reads or writes
+ * them.
+ * <p>
+ * Request bodies sent with a gzip or zstd Content-Encoding are decompressed
+ * while being read. Response bodies are compressed with the encoding
+ * negotiated through the Accept-Encoding header, provided that the content
+ * type is textual and the body is at least as large as the configured
+ * threshold. Bodies are buffered only up to the threshold, after which they
+ * are compressed while streaming.
+ */
+@Component
+public class ContentEncodingFilter
+    extends OncePerRequestFilter
+{
+    private static final List<String> COMPRESSIBLE_TYPES = List.of( "text/", "json", "xml", "javascript", "csv" );
+
+    private static final List<String> COMPRESSED_TYPES = List.of( "gzip", "zip", "zstd" );
+
+    private final boolean enabled;
+
+    private final int threshold;
+
+    public ContentEncodingFilter( DhisConfigurationProvider dhisConfig )
+    {
+        this.enabled = dhisConfig.isEnabled( SERVER_COMPRESSION_ENABLED );
+        this.threshold = Math.max( 0, Integer.parseInt( dhisConfig.getProperty( SERVER_COMPRESSION_THRESHOLD ) ) );
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch()
+    {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal( HttpServletRequest request, HttpServletResponse response, FilterChain chain )
+        throws ServletException,
+        IOException
+    {
+        if ( !enabled )
+        {
+            chain.doFilter( request, response );
+            return;
+        }
+
+        HttpServletRequest req = request;
+        HttpServletResponse res = response;
+
+        ContentEncoding requestEncoding = ContentEncoding.of( request.getHeader( HttpHeaders.CONTENT_ENCODING ) );
+
+        if ( requestEncoding != null && !isAsyncDispatch( request ) )
+        {
+            req = new DecompressingRequestWrapper( request, requestEncoding );
+        }
+
+        ContentEncoding responseEncoding = ContentEncoding
+            .negotiate( request.getHeader( HttpHeaders.ACCEPT_ENCODING ) );
+
+        if ( responseEncoding != null && !isAsyncDispatch( request )
+            && WebUtils.getNativeResponse( response, CompressingResponseWrapper.class ) == null )
+        {
+            res = new CompressingResponseWrapper( response, responseEncoding, threshold );
+        }
+
+        try
+        {
+            chain.doFilter( req, res );
+        }
+        finally
+        {
+            CompressingResponseWrapper wrapper = WebUtils.getNativeResponse( res, CompressingResponseWrapper.class );
+
+            if ( wrapper != null && !isAsyncStarted( req ) )
+            {
+                wrapper.finish();
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Request
+    // -------------------------------------------------------------------------
+
+    /**
+     * Request wrapper which decompresses the body and hides the
+     * Content-Encoding and Content-Length headers of the compressed body.
+     */
+    static final class DecompressingRequestWrapper
+        extends HttpServletRequestWrapper
+    {
+        private final ContentEncoding encoding;
+
+        private ServletInputStream inputStream;
+
+        private BufferedReader reader;
+
+        DecompressingRequestWrapper( HttpServletRequest request, ContentEncoding encoding )
+        {
+            super( request );
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletInputStream getInputStream()
+            throws IOException
+        {
+            if ( inputStream == null )
+            {
+                ServletInputStream source = super.getInputStream();
+                InputStream decompressed = encoding.decompress( source );
+
+                inputStream = new ServletInputStream()
+                {
+                    private boolean finished;
+
+                    @Override
+                    public int read()
+                        throws IOException
+                    {
+                        return track( decompressed.read() );
+                    }
+
+                    @Override
+                    public int read( byte[] b, int off, int len )
+                        throws IOException
+                    {
+                        return track( decompressed.read( b, off, len ) );
+                    }
+
+                    @Override
+                    public boolean isFinished()
+                    {
+                        return finished;
+                    }
+
+                    @Override
+                    public boolean isReady()
+                    {
+                        return source.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener( ReadListener readListener )
+                    {
+                        source.setReadListener( readListener );
+                    }
+
+                    @Override
+                    public void close()
+                        throws IOException
+                    {
+                        decompressed.close();
+                    }
+
+                    private int track( int read )
+                    {
+                        finished = read == -1;
+                        return read;
+                    }
+                };
+            }
+
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader()
+            throws IOException
+        {
+            if ( reader == null )
+            {
+                String charset = StringUtils.defaultIfEmpty( getCharacterEncoding(),
+                    WebUtils.DEFAULT_CHARACTER_ENCODING );
+                reader = new BufferedReader( new InputStreamReader( getInputStream(), charset ) );
+            }
+
+            return reader;
+        }
+
+        @Override
+        public int getContentLength()
+        {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong()
+        {
+            return -1L;
+        }
+
+        @Override
+        public String getHeader( String name )
+        {
+            return isHidden( name ) ? null : super.getHeader( name );
+        }
+
+        @Override
+        public Enumeration<String> getHeaders( String name )
+        {
+            return isHidden( name ) ? Collections.emptyEnumeration() : super.getHeaders( name );
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames()
+        {
+            return Collections.enumeration( Collections.list( super.getHeaderNames() ).stream()
+                .filter( name -> !isHidden( name ) )
+                .collect( Collectors.toList() ) );
+        }
+
+        @Override
+        public int getIntHeader( String name )
+        {
+            return isHidden( name ) ? -1 : super.getIntHeader( name );
+        }
+
+        private static boolean isHidden( String name )
+        {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase( name )
+                || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase( name );
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Response
+    // -------------------------------------------------------------------------
+
+    /**
+     * Response wrapper which buffers the body up to the threshold and then
+     * decides whether to compress it. The Content-Length set by the
+     * application is withheld until that decision is made, as it does not
+     * apply to a compressed body.
+     */
+    static final class CompressingResponseWrapper
+        extends HttpServletResponseWrapper
+    {
+        private final ContentEncoding encoding;
+
+        private final int threshold;
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private OutputStream target;
+
+        private boolean compressing;
+
+        private long contentLength = -1L;
+
+        private ServletOutputStream outputStream;
+
+        private PrintWriter writer;
+
+        private boolean finished;
+
+        CompressingResponseWrapper( HttpServletResponse response, ContentEncoding encoding, int threshold )
+        {
+            super( response );
+            this.encoding = encoding;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream()
+            throws IOException
+        {
+            if ( writer != null )
+            {
+                throw new IllegalStateException( "getWriter() has already been called on this response" );
+            }
+
+            if ( outputStream == null )
+            {
+                outputStream = new ServletOutputStream()
+                {
+                    @Override
+                    public void write( int b )
+                        throws IOException
+                    {
+                        if ( target == null )
+                        {
+                            buffer.write( b );
+                            decideIfFull();
+                        }
+                        else
+                        {
+                            target.write( b );
+                        }
+                    }
+
+                    @Override
+                    public void write( byte[] b, int off, int len )
+                        throws IOException
+                    {
+                        if ( target == null )
+                        {
+                            buffer.write( b, off, len );
+                            decideIfFull();
+                        }
+                        else
+                        {
+                            target.write( b, off, len );
+                        }
+                    }
+
+                    @Override
+                    public void flush()
+                        throws IOException
+                    {
+                        if ( target != null )
+                        {
+                            target.flush();
+                        }
+                    }
+
+                    @Override
+                    public boolean isReady()
+                    {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener( WriteListener writeListener )
+                    {
+                        try
+                        {
+                            getResponse().getOutputStream().setWriteListener( writeListener );
+                        }
+                        catch ( IOException ex )
+                        {
+                            throw new IllegalStateException( ex );
+                        }
+                    }
+                };
+            }
+
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter()
+            throws IOException
+        {
+            if ( writer == null )
+            {
+                if ( outputStream != null )
+                {
+                    throw new IllegalStateException( "getOutputStream() has already been called on this response" );
+                }
+
+                String charset = StringUtils.defaultIfEmpty( getCharacterEncoding(),
+                    WebUtils.DEFAULT_CHARACTER_ENCODING );
+                writer = new PrintWriter( new OutputStreamWriter( getOutputStream(), charset ) );
+            }
+
+            return writer;
+        }
+
+        @Override
+        public void setContentLength( int len )
+        {
+            setContentLengthLong( len );
+        }
+
+        @Override
+        public void setContentLengthLong( long len )
+        {
+            if ( target == null )
+            {
+                contentLength = len;
+            }
+            else if ( !compressing )
+            {
+                super.setContentLengthLong( len );
+            }
+        }
+
+        @Override
+        public void setHeader( String name, String value )
+        {
+            if ( HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase( name ) )
+            {
+                setContentLengthLong( Long.parseLong( value ) );
+            }
+            else
+            {
+                super.setHeader( name, value );
+            }
+        }
+
+        @Override
+        public void addHeader( String name, String value )
+        {
+            if ( HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase( name ) )
+            {
+                setContentLengthLong( Long.parseLong( value ) );
+            }
+            else
+            {
+                super.addHeader( name, value );
+            }
+        }
+
+        @Override
+        public void setIntHeader( String name, int value )
+        {
+            if ( HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase( name ) )
+            {
+                setContentLengthLong( value );
+            }
+            else
+            {
+                super.setIntHeader( name, value );
+            }
+        }
+
+        @Override
+        public void addIntHeader( String name, int value )
+        {
+            if ( HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase( name ) )
+            {
+                setContentLengthLong( value );
+            }
+            else
+            {
+                super.addIntHeader( name, value );
+            }
+        }
+
+        @Override
+        public void flushBuffer()
+            throws IOException
+        {
+            if ( writer != null )
+            {
+                writer.flush();
+            }
+
+            if ( target != null )
+            {
+                target.flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void reset()
+        {
+            super.reset();
+            resetBody();
+        }
+
+        @Override
+        public void resetBuffer()
+        {
+            super.resetBuffer();
+            resetBody();
+        }
+
+        /**
+         * Completes the response, writing any buffered body uncompressed if it
+         * did not reach the threshold, and finishing the compressed stream
+         * otherwise.
+         */
+        void finish()
+            throws IOException
+        {
+            if ( finished )
+            {
+                return;
+            }
+
+            finished = true;
+
+            if ( writer != null )
+            {
+                writer.flush();
+            }
+
+            if ( target == null )
+            {
+                decide( buffer.size() > 0 && buffer.size() >= threshold );
+
+                if ( !compressing && contentLength < 0 && buffer.size() > 0 )
+                {
+                    super.setContentLengthLong( buffer.size() );
+                }
+
+                writeBuffer();
+            }
+
+            if ( compressing )
+            {
+                target.close();
+            }
+            else
+            {
+                target.flush();
+            }
+        }
+
+        private void resetBody()
+        {
+            if ( target == null )
+            {
+                buffer.reset();
+                contentLength = -1L;
+            }
+        }
+
+        private void decideIfFull()
+            throws IOException
+        {
+            if ( buffer.size() > 0 && buffer.size() >= threshold )
+            {
+                decide( true );
+                writeBuffer();
+            }
+        }
+
+        private void decide( boolean large )
+            throws IOException
+        {
+            compressing = large && isCompressible();
+
+            if ( compressing )
+            {
+                super.setHeader( HttpHeaders.CONTENT_ENCODING, encoding.getToken() );
+                super.addHeader( HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING );
+                target = encoding.compress( super.getOutputStream() );
+            }
+            else
+            {
+                if ( contentLength >= 0 )
+                {
+                    super.setContentLengthLong( contentLength );
+                }
+
+                target = super.getOutputStream();
+            }
+        }
+
+        private void writeBuffer()
+            throws IOException
+        {
+            buffer.writeTo( target );
+            buffer.reset();
+        }
+
+        private boolean isCompressible()
+        {
+            String contentType = StringUtils.lowerCase( getContentType() );
+
+            return contentType != null && !isCommitted()
+                && getHeader( HttpHeaders.CONTENT_ENCODING ) == null
+                && getStatus() != HttpServletResponse.SC_NO_CONTENT
+                && getStatus() != HttpServletResponse.SC_NOT_MODIFIED
+                && COMPRESSIBLE_TYPES.stream().anyMatch( contentType::contains )
+                && COMPRESSED_TYPES.stream().noneMatch( contentType::contains );
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.service;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.serviceUnavailable;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.common.UserContext;
+import org.hisp.dhis.dxf2.webmessage.WebMessageException;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserSettingKey;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Executes long-running API requests, like analytics queries and bulk
+ * exports, asynchronously so that they do not hold on to a servlet request
+ * thread while they run.
+ * <p>
+ * Each {@link Endpoint} has its own bounded thread pool. A request is admitted
+ * only if there is a free thread or a free slot in the queue of the endpoint,
+ * otherwise it is rejected up front with a 503 response. The time admitted
+ * requests wait for a thread is recorded as {@value #QUEUE_METRIC}.
+ * <p>
+ * When {@link ConfigurationKey#WEB_ASYNC_ENABLED} is off the requests run on
+ * the request thread, still bound by the concurrency limits.
+ */
+@Slf4j
+@Component
+public class AsyncRequestExecutor implements DisposableBean
+{
+    public static final String QUEUE_METRIC = "webapi.async.queue";
+
+    public static final String REJECTED_METRIC = "webapi.async.rejected";
+
+    @Getter
+    @AllArgsConstructor
+    public enum Endpoint
+    {
+        ANALYTICS( "analytics", ConfigurationKey.WEB_ASYNC_ANALYTICS_CONCURRENCY,
+            ConfigurationKey.WEB_ASYNC_ANALYTICS_QUEUE ),
+        EXPORT( "export", ConfigurationKey.WEB_ASYNC_EXPORT_CONCURRENCY,
+            ConfigurationKey.WEB_ASYNC_EXPORT_QUEUE );
+
+        private final String name;
+
+        private final ConfigurationKey concurrencyKey;
+
+        private final ConfigurationKey queueKey;
+    }
+
+    private final Map<Endpoint, Lane> lanes = new EnumMap<>( Endpoint.class );
+
+    private final long timeout;
+
+    private MeterRegistry meterRegistry;
+
+    public AsyncRequestExecutor( DhisConfigurationProvider config )
+    {
+        boolean enabled = config.isEnabled( ConfigurationKey.WEB_ASYNC_ENABLED );
+
+        this.timeout = SECONDS.toMillis( Long.parseLong( config.getProperty( ConfigurationKey.WEB_ASYNC_TIMEOUT ) ) );
+
+        for ( Endpoint endpoint : Endpoint.values() )
+        {
+            int concurrency = Math.max( 1, Integer.parseInt( config.getProperty( endpoint.getConcurrencyKey() ) ) );
+            int queue = Math.max( 0, Integer.parseInt( config.getProperty( endpoint.getQueueKey() ) ) );
+
+            lanes.put( endpoint, new Lane( enabled ? newExecutor( endpoint, concurrency, queue )
+                : new TaskExecutorAdapter( new SyncTaskExecutor() ), new Semaphore( concurrency + queue ) ) );
+
+            log.info( "Async {} requests: concurrency {}, queue {}, enabled: {}", endpoint.getName(), concurrency,
+                queue, enabled );
+        }
+    }
+
+    @Autowired( required = false )
+    public void setMeterRegistry( MeterRegistry meterRegistry )
+    {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Creates an asynchronous task for the given request handling callable
+     * which runs on the executor of the given endpoint.
+     *
+     * @param endpoint the endpoint the request belongs to.
+     * @param callable the request handling.
+     * @return a {@link WebAsyncTask} to return from the controller method.
+     * @throws WebMessageException with status 503 if the endpoint has no free
+     *         thread or queue slot.
+     */
+    public <T> WebAsyncTask<T> submit( Endpoint endpoint, Callable<T> callable )
+        throws WebMessageException
+    {
+        Lane lane = lanes.get( endpoint );
+
+        if ( !lane.getPermits().tryAcquire() )
+        {
+            if ( meterRegistry != null )
+            {
+                Counter.builder( REJECTED_METRIC ).tag( "endpoint", endpoint.getName() )
+                    .register( meterRegistry ).increment();
+            }
+
+            throw new WebMessageException( serviceUnavailable(
+                "Too many concurrent " + endpoint.getName() + " requests, please try again later" ) );
+        }
+
+        // The permit is released exactly once, either by the task when it
+        // ran or by the completion callback when the task never started,
+        // e.g. because the request timed out while queued
+
+        AtomicBoolean claimed = new AtomicBoolean();
+        long submitted = System.nanoTime();
+
+        // The user context of the request thread is carried over so that
+        // translations and user specific properties are applied on the worker
+
+        Thread requestThread = Thread.currentThread();
+        User user = UserContext.getUser();
+        Locale dbLocale = UserContext.getUserSetting( UserSettingKey.DB_LOCALE );
+
+        Callable<T> task = () -> {
+            if ( !claimed.compareAndSet( false, true ) )
+            {
+                return null;
+            }
+
+            boolean worker = Thread.currentThread() != requestThread;
+
+            try
+            {
+                recordQueueTime( endpoint, submitted );
+
+                if ( worker )
+                {
+                    UserContext.setUser( user );
+                    UserContext.setUserSetting( UserSettingKey.DB_LOCALE, dbLocale );
+                }
+
+                return callable.call();
+            }
+            finally
+            {
+                if ( worker )
+                {
+                    UserContext.reset();
+                }
+
+                lane.getPermits().release();
+            }
+        };
+
+        WebAsyncTask<T> asyncTask = new WebAsyncTask<>( timeout, lane.getExecutor(), task );
+
+        asyncTask.onCompletion( () -> {
+            if ( claimed.compareAndSet( false, true ) )
+            {
+                lane.getPermits().release();
+            }
+        } );
+
+        return asyncTask;
+    }
+
+    @Override
+    public void destroy()
+    {
+        lanes.values().stream()
+            .filter( lane -> lane.getExecutor() instanceof ThreadPoolTaskExecutor )
+            .forEach( lane -> ((ThreadPoolTaskExecutor) lane.getExecutor()).shutdown() );
+    }
+
+    private void recordQueueTime( Endpoint endpoint, long submitted )
+    {
+        if ( meterRegistry != null )
+        {
+            Timer.builder( QUEUE_METRIC ).tag( "endpoint", endpoint.getName() )
+                .register( meterRegistry ).record( System.nanoTime() - submitted, NANOSECONDS );
+        }
+    }
+
+    private static ThreadPoolTaskExecutor newExecutor( Endpoint endpoint, int concurrency, int queue )
+    {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize( concurrency );
+        executor.setMaxPoolSize( concurrency );
+        executor.setQueueCapacity( queue );
+        executor.setThreadNamePrefix( "web-async-" + endpoint.getName() + "-" );
+        executor.setDaemon( true );
+        executor.initialize();
+        return executor;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Lane
+    {
+        private final AsyncTaskExecutor executor;
+
+        private final Semaphore permits;
+    }
+}
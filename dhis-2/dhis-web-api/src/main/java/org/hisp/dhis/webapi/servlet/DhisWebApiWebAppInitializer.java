@@ -29,6 +29,7 @@ package org.hisp.dhis.webapi.servlet;
 
 import java.util.EnumSet;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.FilterRegistration;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletRegistration;
@@ -88,6 +89,7 @@ public class DhisWebApiWebAppInitializer implements WebApplicationInitializer
         FilterRegistration.Dynamic openSessionInViewFilter = context.addFilter( "openSessionInViewFilter",
             OpenSessionInViewFilter.class );
         openSessionInViewFilter.setInitParameter( "sessionFactoryBeanName", "sessionFactory" );
+        openSessionInViewFilter.setAsyncSupported( true );
         openSessionInViewFilter.addMappingForUrlPatterns( null, false, "/*" );
         openSessionInViewFilter.addMappingForServletNames( null, false, "dispatcher" );
 
@@ -95,14 +97,35 @@ public class DhisWebApiWebAppInitializer implements WebApplicationInitializer
             CharacterEncodingFilter.class );
         characterEncodingFilter.setInitParameter( "encoding", "UTF-8" );
         characterEncodingFilter.setInitParameter( "forceEncoding", "true" );
+        characterEncodingFilter.setAsyncSupported( true );
         characterEncodingFilter.addMappingForUrlPatterns( null, false, "/*" );
         characterEncodingFilter.addMappingForServletNames( null, false, "dispatcher" );
 
-        context.addFilter( "RequestIdentifierFilter", new DelegatingFilterProxy( "requestIdentifierFilter" ) )
-            .addMappingForUrlPatterns( null, true, "/*" );
-
-        context.addFilter( "AppOverrideFilter", new DelegatingFilterProxy( "appOverrideFilter" ) )
-            .addMappingForUrlPatterns( null, true, "/*" );
+        FilterRegistration.Dynamic admissionControlFilter = context.addFilter( "AdmissionControlFilter",
+            new DelegatingFilterProxy( "admissionControlFilter" ) );
+        admissionControlFilter.setAsyncSupported( true );
+        admissionControlFilter.addMappingForUrlPatterns( null, true, "/*" );
+
+        FilterRegistration.Dynamic statementBudgetFilter = context.addFilter( "StatementBudgetFilter",
+            new DelegatingFilterProxy( "statementBudgetFilter" ) );
+        statementBudgetFilter.setAsyncSupported( true );
+        statementBudgetFilter.addMappingForUrlPatterns( null, true, "/*" );
+
+        FilterRegistration.Dynamic requestIdentifierFilter = context.addFilter( "RequestIdentifierFilter",
+            new DelegatingFilterProxy( "requestIdentifierFilter" ) );
+        requestIdentifierFilter.setAsyncSupported( true );
+        requestIdentifierFilter.addMappingForUrlPatterns( null, true, "/*" );
+
+        FilterRegistration.Dynamic contentEncodingFilter = context.addFilter( "ContentEncodingFilter",
+            new DelegatingFilterProxy( "contentEncodingFilter" ) );
+        contentEncodingFilter.setAsyncSupported( true );
+        contentEncodingFilter.addMappingForUrlPatterns( EnumSet.of( DispatcherType.REQUEST, DispatcherType.ASYNC ),
+            true, "/*" );
+
+        FilterRegistration.Dynamic appOverrideFilter = context.addFilter( "AppOverrideFilter",
+            new DelegatingFilterProxy( "appOverrideFilter" ) );
+        appOverrideFilter.setAsyncSupported( true );
+        appOverrideFilter.addMappingForUrlPatterns( null, true, "/*" );
 
         context.addListener( new StartupListener() );
     }
@@ -105,6 +105,8 @@ public class ContextUtils
 
     public static final String HEADER_VALUE_NO_STORE = "no-cache, no-store, max-age=0, must-revalidate";
 
+    public static final String HEADER_VALUE_NO_CACHE = "no-cache";
+
     public static final String QUERY_PARAM_SEP = ";";
 
     public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
@@ -193,6 +195,16 @@ public class ContextUtils
         return response;
     }
 
+    /**
+     * Allows clients to store the response but requires them to revalidate it
+     * with the server, for instance using the ETag, before each use.
+     */
+    public static HttpServletResponse setNoCache( HttpServletResponse response )
+    {
+        response.setHeader( HEADER_CACHE_CONTROL, HEADER_VALUE_NO_CACHE );
+        return response;
+    }
+
     public static HttpServletRequest getRequest()
     {
         return ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest();
@@ -32,7 +32,9 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -54,12 +56,15 @@ import org.hisp.dhis.common.GridHeader;
 import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.grid.ListGrid;
 import org.hisp.dhis.user.CurrentUserService;
+import org.hisp.dhis.webapi.service.AsyncRequestExecutor;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -70,6 +75,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
@@ -94,6 +101,9 @@ class AnalyticsControllerTest
     @Mock
     private DimensionService dimensionService;
 
+    @Mock
+    private DhisConfigurationProvider config;
+
     @BeforeEach
     public void setUp()
     {
@@ -104,9 +114,12 @@ class AnalyticsControllerTest
             mock( AclService.class ), mock( CurrentUserService.class ),
             mock( I18nManager.class ) );
 
+        when( config.getProperty( any() ) )
+            .thenAnswer( invocation -> ((ConfigurationKey) invocation.getArgument( 0 )).getDefaultValue() );
+
         // Controller under test
         final AnalyticsController controller = new AnalyticsController( dataQueryService, analyticsService,
-            contextUtils );
+            contextUtils, new AsyncRequestExecutor( config ) );
 
         mockMvc = MockMvcBuilders.standaloneSetup( controller ).build();
 
@@ -125,7 +138,7 @@ class AnalyticsControllerTest
         throws Exception
     {
         // Then
-        mockMvc.perform( get( ENDPOINT )
+        perform( get( ENDPOINT )
             .param( "dimension", "dx:fbfJHSPpUQD;cYeuwXTCPkU" )
             .param( "filter", "pe:2014Q1;2014Q2" ) )
             .andExpect( status().isOk() )
@@ -138,7 +151,7 @@ class AnalyticsControllerTest
         throws Exception
     {
         // Then
-        mockMvc.perform( get( ENDPOINT + ".xml" )
+        perform( get( ENDPOINT + ".xml" )
             .param( "dimension", "dx:fbfJHSPpUQD;cYeuwXTCPkU" )
             .param( "filter", "pe:2014Q1;2014Q2" ) )
             // .andExpect( content().contentType( "application/xml" ) ) // Note:
@@ -154,7 +167,7 @@ class AnalyticsControllerTest
         throws Exception
     {
         // Then
-        mockMvc.perform( get( ENDPOINT + ".html" )
+        perform( get( ENDPOINT + ".html" )
             .param( "dimension", "dx:fbfJHSPpUQD;cYeuwXTCPkU" )
             .param( "filter", "pe:2014Q1;2014Q2" ) )
             // .andExpect( content().contentType( "application/xml" ) ) // Note:
@@ -170,7 +183,7 @@ class AnalyticsControllerTest
         throws Exception
     {
         // Then
-        mockMvc.perform( get( ENDPOINT + ".html+css" )
+        perform( get( ENDPOINT + ".html+css" )
             .param( "dimension", "dx:fbfJHSPpUQD;cYeuwXTCPkU" )
             .param( "filter", "pe:2014Q1;2014Q2" ) )
             // .andExpect( content().contentType( "application/xml" ) ) // Note:
@@ -186,7 +199,7 @@ class AnalyticsControllerTest
         throws Exception
     {
         // Then
-        mockMvc.perform( get( ENDPOINT + ".csv" )
+        perform( get( ENDPOINT + ".csv" )
             .param( "dimension", "dx:fbfJHSPpUQD;cYeuwXTCPkU" )
             .param( "filter", "pe:2014Q1;2014Q2" ) )
             // .andExpect( content().contentType( "application/xml" ) ) // Note:
@@ -203,7 +216,7 @@ class AnalyticsControllerTest
         throws Exception
     {
         // Then
-        final ResultActions resultActions = mockMvc.perform( get( ENDPOINT + ".xls" )
+        final ResultActions resultActions = perform( get( ENDPOINT + ".xls" )
             .param( "dimension", "dx:fbfJHSPpUQD;cYeuwXTCPkU" )
             .param( "filter", "pe:2014Q1;2014Q2" ) )
             // .andExpect( content().contentType( "application/xml" ) ) // Note:
@@ -229,7 +242,7 @@ class AnalyticsControllerTest
             .thenReturn( buildMockGrid() );
 
         // Then
-        mockMvc.perform( get( ENDPOINT + ".jrxml" )
+        perform( get( ENDPOINT + ".jrxml" )
             .param( "dimension", "dx:fbfJHSPpUQD;cYeuwXTCPkU" )
             .param( "filter", "pe:2014Q1;2014Q2" ) )
             // .andExpect( content().contentType( "application/xml" ) ) // Note:
@@ -240,6 +253,14 @@ class AnalyticsControllerTest
             .andExpect( status().isOk() );
     }
 
+    private ResultActions perform( RequestBuilder request )
+        throws Exception
+    {
+        MvcResult result = mockMvc.perform( request ).andReturn();
+
+        return mockMvc.perform( asyncDispatch( result ) );
+    }
+
     private Grid buildMockGrid()
     {
         Grid grid = new ListGrid();
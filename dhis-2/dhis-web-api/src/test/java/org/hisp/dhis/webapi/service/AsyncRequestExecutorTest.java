@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.service;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hisp.dhis.webapi.service.AsyncRequestExecutor.Endpoint.ANALYTICS;
+import static org.hisp.dhis.webapi.service.AsyncRequestExecutor.Endpoint.EXPORT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.hisp.dhis.common.UserContext;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dxf2.webmessage.WebMessageException;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.translation.Translation;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserSettingKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith( MockitoExtension.class )
+class AsyncRequestExecutorTest
+{
+    @Mock
+    private DhisConfigurationProvider config;
+
+    private AsyncRequestExecutor executor;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp()
+    {
+        when( config.getProperty( any() ) ).thenAnswer( invocation -> {
+            ConfigurationKey key = invocation.getArgument( 0 );
+            return key == ConfigurationKey.WEB_ASYNC_ANALYTICS_CONCURRENCY ? "1"
+                : key == ConfigurationKey.WEB_ASYNC_ANALYTICS_QUEUE ? "1" : key.getDefaultValue();
+        } );
+
+        registry = new SimpleMeterRegistry();
+        executor = new AsyncRequestExecutor( config );
+        executor.setMeterRegistry( registry );
+    }
+
+    @Test
+    void testSubmitRejectsWhenSaturated()
+        throws Exception
+    {
+        executor.submit( ANALYTICS, () -> "a" );
+        executor.submit( ANALYTICS, () -> "b" );
+
+        WebMessageException ex = assertThrows( WebMessageException.class,
+            () -> executor.submit( ANALYTICS, () -> "c" ) );
+
+        assertEquals( 503, ex.getWebMessage().getHttpStatusCode() );
+        assertEquals( 1.0, registry.get( AsyncRequestExecutor.REJECTED_METRIC )
+            .tag( "endpoint", "analytics" ).counter().count() );
+
+        // other endpoints are not affected
+        assertNotNull( executor.submit( EXPORT, () -> "d" ) );
+    }
+
+    @Test
+    void testPermitReleasedWhenTaskCompletes()
+        throws Exception
+    {
+        for ( int i = 0; i < 5; i++ )
+        {
+            WebAsyncTask<String> task = executor.submit( ANALYTICS, () -> "a" );
+
+            assertEquals( "a", task.getCallable().call() );
+        }
+
+        Timer timer = registry.get( AsyncRequestExecutor.QUEUE_METRIC ).tag( "endpoint", "analytics" ).timer();
+        assertEquals( 5, timer.count() );
+    }
+
+    @Test
+    void testPermitReleasedWhenTaskFails()
+        throws Exception
+    {
+        for ( int i = 0; i < 5; i++ )
+        {
+            WebAsyncTask<String> task = executor.submit( ANALYTICS, () -> {
+                throw new IllegalStateException( "failed" );
+            } );
+
+            assertThrows( IllegalStateException.class, () -> task.getCallable().call() );
+        }
+    }
+
+    @Test
+    void testUserContextOnWorkerThread()
+        throws Exception
+    {
+        when( config.isEnabled( ConfigurationKey.WEB_ASYNC_ENABLED ) ).thenReturn( true );
+        AsyncRequestExecutor asyncExecutor = new AsyncRequestExecutor( config );
+
+        DataElement dataElement = new DataElement( "Weight" );
+        dataElement.setTranslations( Set.of( new Translation( "fr", "NAME", "Poids" ) ) );
+
+        setUserContext( "jean", Locale.FRENCH );
+
+        try
+        {
+            WebAsyncTask<String> task = asyncExecutor.submit( ANALYTICS,
+                () -> UserContext.getUser().getUid() + ":" + dataElement.getDisplayName() );
+
+            assertEquals( "jean:Poids", task.getExecutor().submit( task.getCallable() ).get( 10, SECONDS ) );
+
+            // the worker thread does not keep the context of the request
+            Callable<User> user = UserContext::getUser;
+            assertNull( task.getExecutor().submit( user ).get( 10, SECONDS ) );
+        }
+        finally
+        {
+            UserContext.reset();
+            asyncExecutor.destroy();
+        }
+    }
+
+    @Test
+    void testUserContextKeptOnRequestThread()
+        throws Exception
+    {
+        setUserContext( "jean", Locale.FRENCH );
+
+        try
+        {
+            WebAsyncTask<Locale> task = executor.submit( ANALYTICS,
+                () -> UserContext.getUserSetting( UserSettingKey.DB_LOCALE ) );
+
+            assertEquals( Locale.FRENCH, task.getCallable().call() );
+            assertEquals( "jean", UserContext.getUser().getUid() );
+        }
+        finally
+        {
+            UserContext.reset();
+        }
+    }
+
+    private static void setUserContext( String uid, Locale dbLocale )
+    {
+        User user = new User();
+        user.setUid( uid );
+        UserContext.setUser( user );
+        UserContext.setUserSetting( UserSettingKey.DB_LOCALE, dbLocale );
+    }
+}
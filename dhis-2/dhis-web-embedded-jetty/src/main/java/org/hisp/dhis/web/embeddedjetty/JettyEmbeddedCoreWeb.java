@@ -101,8 +101,10 @@ public class JettyEmbeddedCoreWeb extends EmbeddedJettyBase
         contextHandler.addEventListener( startupListener );
 
         // Spring Security Filter
+        FilterHolder springSecurityFilter = new FilterHolder( new DelegatingFilterProxy( DEFAULT_FILTER_NAME ) );
+        springSecurityFilter.setAsyncSupported( true );
         contextHandler.addFilter(
-            new FilterHolder( new DelegatingFilterProxy( DEFAULT_FILTER_NAME ) ),
+            springSecurityFilter,
             "/*",
             EnumSet.allOf( DispatcherType.class ) );
 
@@ -119,6 +121,7 @@ public class JettyEmbeddedCoreWeb extends EmbeddedJettyBase
         FilterRegistration.Dynamic openSessionInViewFilter = context.addFilter( "openSessionInViewFilter",
             OpenSessionInViewFilter.class );
         openSessionInViewFilter.setInitParameter( "sessionFactoryBeanName", "sessionFactory" );
+        openSessionInViewFilter.setAsyncSupported( true );
         openSessionInViewFilter.addMappingForUrlPatterns( null, false, "/*" );
         openSessionInViewFilter.addMappingForServletNames( null, false, "dispatcher" );
 
@@ -126,11 +129,30 @@ public class JettyEmbeddedCoreWeb extends EmbeddedJettyBase
             CharacterEncodingFilter.class );
         characterEncodingFilter.setInitParameter( "encoding", "UTF-8" );
         characterEncodingFilter.setInitParameter( "forceEncoding", "true" );
+        characterEncodingFilter.setAsyncSupported( true );
         characterEncodingFilter.addMappingForUrlPatterns( null, false, "/*" );
         characterEncodingFilter.addMappingForServletNames( null, false, "dispatcher" );
 
-        context.addFilter( "RequestIdentifierFilter", new DelegatingFilterProxy( "requestIdentifierFilter" ) )
-            .addMappingForUrlPatterns( null, true, "/*" );
+        FilterRegistration.Dynamic admissionControlFilter = context.addFilter( "AdmissionControlFilter",
+            new DelegatingFilterProxy( "admissionControlFilter" ) );
+        admissionControlFilter.setAsyncSupported( true );
+        admissionControlFilter.addMappingForUrlPatterns( null, true, "/*" );
+
+        FilterRegistration.Dynamic statementBudgetFilter = context.addFilter( "StatementBudgetFilter",
+            new DelegatingFilterProxy( "statementBudgetFilter" ) );
+        statementBudgetFilter.setAsyncSupported( true );
+        statementBudgetFilter.addMappingForUrlPatterns( null, true, "/*" );
+
+        FilterRegistration.Dynamic requestIdentifierFilter = context.addFilter( "RequestIdentifierFilter",
+            new DelegatingFilterProxy( "requestIdentifierFilter" ) );
+        requestIdentifierFilter.setAsyncSupported( true );
+        requestIdentifierFilter.addMappingForUrlPatterns( null, true, "/*" );
+
+        FilterRegistration.Dynamic contentEncodingFilter = context.addFilter( "ContentEncodingFilter",
+            new DelegatingFilterProxy( "contentEncodingFilter" ) );
+        contentEncodingFilter.setAsyncSupported( true );
+        contentEncodingFilter.addMappingForUrlPatterns( EnumSet.of( DispatcherType.REQUEST, DispatcherType.ASYNC ),
+            true, "/*" );
 
         return contextHandler;
     }